@@ -13,19 +13,29 @@ import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.CheckedFuture;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.dom.DOMResult;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
-import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorSeverity;
-import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorTag;
-import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorType;
 import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadTransaction;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.ops.Datastore;
+import org.opendaylight.netconf.util.messages.DeferredContentMessage;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -37,6 +47,8 @@ import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStre
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
 import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
+import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
@@ -73,13 +85,18 @@ public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
 
         final XMLStreamWriter xmlWriter = getXmlStreamWriter(result);
 
+        writeNormalizedNode(xmlWriter, schemaContext.getCurrentContext(), data, dataRoot);
+        return result.getNode();
+    }
+
+    private void writeNormalizedNode(final XMLStreamWriter xmlWriter, final SchemaContext context,
+                                     final NormalizedNode<?, ?> data, final YangInstanceIdentifier dataRoot) {
         final NormalizedNodeStreamWriter nnStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(xmlWriter,
-                schemaContext.getCurrentContext(), getSchemaPath(dataRoot));
+                context, getSchemaPath(dataRoot));
 
         final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter, true);
 
         writeRootElement(xmlWriter, nnWriter, (ContainerNode) data);
-        return result.getNode();
     }
 
 
@@ -130,33 +147,163 @@ public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
     /**
      *
      * @param operationElement operation element
-     * @return if Filter is present and not empty returns Optional of the InstanceIdentifier to the read location in datastore.
-     *          empty filter returns Optional.absent() which should equal an empty &lt;data/&gt; container in the response.
+     * @return if Filter is present and not empty returns InstanceIdentifiers of the read locations in datastore.
+     *          empty filter returns empty list which should equal an empty &lt;data/&gt; container in the response.
      *         if filter is not present we want to read the entire datastore - return ROOT.
      * @throws DocumentedException
      */
-    protected Optional<YangInstanceIdentifier> getDataRootFromFilter(final XmlElement operationElement) throws DocumentedException {
+    protected List<YangInstanceIdentifier> getDataRootsFromFilter(final XmlElement operationElement) throws DocumentedException {
         final Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER);
         if (filterElement.isPresent()) {
             if (filterElement.get().getChildElements().size() == 0) {
-                return Optional.absent();
+                return Collections.emptyList();
             }
-            return Optional.of(getInstanceIdentifierFromFilter(filterElement.get()));
+            return getInstanceIdentifiersFromFilter(filterElement.get());
         } else {
-            return Optional.of(ROOT);
+            return Collections.singletonList(ROOT);
         }
     }
 
+    /**
+     * @param filterElement filter element
+     * @return InstanceIdentifiers of nodes selected by filter roots, none of them is nested in another one
+     * @throws DocumentedException if filter content is not valid
+     */
     @VisibleForTesting
-    protected YangInstanceIdentifier getInstanceIdentifierFromFilter(final XmlElement filterElement) throws DocumentedException {
+    protected List<YangInstanceIdentifier> getInstanceIdentifiersFromFilter(final XmlElement filterElement) throws DocumentedException {
+        final Set<YangInstanceIdentifier> dataRoots = new LinkedHashSet<>();
+        for (final XmlElement element : filterElement.getChildElements()) {
+            dataRoots.addAll(validator.getDataRoots(element));
+        }
+
+        final List<YangInstanceIdentifier> result = new ArrayList<>(dataRoots.size());
+        for (final YangInstanceIdentifier dataRoot : dataRoots) {
+            if (!isNested(dataRoot, dataRoots)) {
+                result.add(dataRoot);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isNested(final YangInstanceIdentifier dataRoot, final Collection<YangInstanceIdentifier> dataRoots) {
+        for (final YangInstanceIdentifier other : dataRoots) {
+            if (!other.equals(dataRoot) && other.contains(dataRoot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads data roots from datastore and serializes them into single data element. All reads are submitted
+     * before waiting for any of them, so they are executed in parallel.
+     *
+     * <p>
+     * If the whole datastore is read and the reply is going to be streamed, the data are not serialized into the
+     * document, they are written straight into the output when the reply is sent.
+     *
+     * @param document document of the reply
+     * @param operationElement operation element of the request
+     * @param readTx transaction to read from
+     * @param datastoreType datastore to read from
+     * @param dataRoots InstanceIdentifiers of the read locations, none of them nested in another one
+     * @return data element with merged content of all data roots
+     * @throws ReadFailedException if any of the reads fails
+     */
+    protected Element readDataRoots(final Document document, final XmlElement operationElement,
+                                    final DOMDataReadTransaction readTx, final LogicalDatastoreType datastoreType,
+                                    final List<YangInstanceIdentifier> dataRoots) throws ReadFailedException {
+        if (dataRoots.size() == 1 && ROOT.equals(dataRoots.get(0))
+                && DeferredContentMessage.isDeferredContentAccepted(operationElement.getDomElement().getOwnerDocument())) {
+            return readDeferredDataRoot(document, readTx, datastoreType);
+        }
 
-        if (filterElement.getChildElements().size() != 1) {
-            throw new DocumentedException("Multiple filter roots not supported yet",
-                    ErrorType.APPLICATION, ErrorTag.OPERATION_NOT_SUPPORTED, ErrorSeverity.ERROR);
+        final List<CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException>> reads = new ArrayList<>(dataRoots.size());
+        for (final YangInstanceIdentifier dataRoot : dataRoots) {
+            reads.add(readTx.read(datastoreType, dataRoot));
         }
 
-        final XmlElement element = filterElement.getOnlyChildElement();
-        return validator.validate(element);
+        Element data = null;
+        for (int i = 0; i < dataRoots.size(); i++) {
+            final Optional<NormalizedNode<?, ?>> normalizedNodeOptional = reads.get(i).checkedGet();
+            if (!normalizedNodeOptional.isPresent()) {
+                continue;
+            }
+
+            final YangInstanceIdentifier dataRoot = dataRoots.get(i);
+            final Element rootData = serializeNodeWithParentStructure(document, dataRoot, normalizedNodeOptional.get());
+            if (data == null) {
+                data = rootData;
+            } else {
+                mergeElements(data, rootData, getParentElementCount(dataRoot));
+            }
+        }
+        return data != null ? data : XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.<String>absent());
+    }
+
+    private Element readDeferredDataRoot(final Document document, final DOMDataReadTransaction readTx,
+                                         final LogicalDatastoreType datastoreType) throws ReadFailedException {
+        final Optional<NormalizedNode<?, ?>> normalizedNodeOptional = readTx.read(datastoreType, ROOT).checkedGet();
+        final Element data = XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.<String>absent());
+        if (normalizedNodeOptional.isPresent()) {
+            // The read data are an immutable snapshot, they stay valid after the transaction is closed
+            final NormalizedNode<?, ?> node = normalizedNodeOptional.get();
+            final SchemaContext context = schemaContext.getCurrentContext();
+            DeferredContentMessage.setDeferredContent(data, xmlWriter -> {
+                try {
+                    writeNormalizedNode(xmlWriter, context, node, ROOT);
+                } catch (final RuntimeException e) {
+                    throw new XMLStreamException("Unable to serialize data", e);
+                }
+            });
+        }
+        return data;
+    }
+
+    /**
+     * Moves children of source to target. Elements of the parent structure of the data root, which are present in both,
+     * are merged recursively. Data roots themselves are never merged, since they are not nested and distinct list
+     * entries share the element name.
+     */
+    private static void mergeElements(final Element target, final Element source, final int parentDepth) {
+        Node child = source.getFirstChild();
+        while (child != null) {
+            final Node next = child.getNextSibling();
+            final Element existing = parentDepth > 0 && child instanceof Element ? findChildElement(target, (Element) child) : null;
+            if (existing != null) {
+                mergeElements(existing, (Element) child, parentDepth - 1);
+            } else {
+                target.appendChild(child);
+            }
+            child = next;
+        }
+    }
+
+    private static Element findChildElement(final Element parent, final Element element) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && Objects.equals(child.getNamespaceURI(), element.getNamespaceURI())
+                    && Objects.equals(child.getLocalName(), element.getLocalName())) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return number of xml elements enclosing the data root, choices, augmentations and lists are not represented by
+     *         elements
+     */
+    private int getParentElementCount(final YangInstanceIdentifier dataRoot) {
+        final List<PathArgument> pathArguments = dataRoot.getPathArguments();
+        DataSchemaContextNode<?> node = DataSchemaContextTree.from(schemaContext.getCurrentContext()).getRoot();
+        int count = 0;
+        for (int i = 0; i < pathArguments.size() - 1; i++) {
+            node = node != null ? node.getChild(pathArguments.get(i)) : null;
+            if (node == null || !node.isMixin()) {
+                count++;
+            }
+        }
+        return count;
     }
 
     protected static final class GetConfigExecution {
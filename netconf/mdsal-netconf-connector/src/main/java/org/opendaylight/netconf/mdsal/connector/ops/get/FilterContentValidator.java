@@ -22,12 +22,20 @@ import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
 
 /**
  * Class validates filter content against schema context.
@@ -52,21 +60,51 @@ public class FilterContentValidator {
      */
     public YangInstanceIdentifier validate(final XmlElement filterContent) throws DocumentedException {
         try {
-            final URI namespace = new URI(filterContent.getNamespace());
-            final Module module = schemaContext.getCurrentContext().findModuleByNamespaceAndRevision(namespace, null);
-            final DataSchemaNode schema = getRootDataSchemaNode(module, namespace, filterContent.getName());
+            final DataSchemaNode schema = getRootDataSchemaNode(filterContent);
             final FilterTree filterTree = validateNode(filterContent, schema, new FilterTree(schema.getQName(), Type.OTHER));
             return getFilterDataRoot(filterTree, YangInstanceIdentifier.builder());
         } catch (final DocumentedException e) {
             throw e;
         } catch (final Exception e) {
-            throw new DocumentedException("Validation failed. Cause: " + e.getMessage(),
-                    DocumentedException.ErrorType.APPLICATION,
-                    DocumentedException.ErrorTag.UNKNOWN_NAMESPACE,
-                    DocumentedException.ErrorSeverity.ERROR);
+            throw validationFailed(e);
         }
     }
 
+    /**
+     * Validates filter content against this validator schema context. If the filter is valid, method returns {@link YangInstanceIdentifier}s
+     * of nodes which have to be read from the datastore to select all data matching the filter. Filter is split into one identifier
+     * per selected subtree, list entries with all keys specified as content match nodes are identified by their keys.
+     * @param filterContent filter content
+     * @return YangInstanceIdentifiers of nodes to read, may contain nested identifiers
+     * @throws DocumentedException if filter content is not valid
+     */
+    public List<YangInstanceIdentifier> getDataRoots(final XmlElement filterContent) throws DocumentedException {
+        try {
+            final DataSchemaNode schema = getRootDataSchemaNode(filterContent);
+            validateNode(filterContent, schema, new FilterTree(schema.getQName(), Type.OTHER));
+            final List<YangInstanceIdentifier> dataRoots = new ArrayList<>();
+            addDataRoots(filterContent, schema, YangInstanceIdentifier.of(schema.getQName()), dataRoots);
+            return dataRoots;
+        } catch (final DocumentedException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw validationFailed(e);
+        }
+    }
+
+    private static DocumentedException validationFailed(final Exception cause) {
+        return new DocumentedException("Validation failed. Cause: " + cause.getMessage(),
+                DocumentedException.ErrorType.APPLICATION,
+                DocumentedException.ErrorTag.UNKNOWN_NAMESPACE,
+                DocumentedException.ErrorSeverity.ERROR);
+    }
+
+    private DataSchemaNode getRootDataSchemaNode(final XmlElement filterContent) throws DocumentedException, URISyntaxException {
+        final URI namespace = new URI(filterContent.getNamespace());
+        final Module module = schemaContext.getCurrentContext().findModuleByNamespaceAndRevision(namespace, null);
+        return getRootDataSchemaNode(module, namespace, filterContent.getName());
+    }
+
     /**
      * Returns module's child data node of given name space and name
      * @param module module
@@ -143,6 +181,103 @@ public class FilterContentValidator {
         return builder.build();
     }
 
+    /**
+     * Collects identifiers of nodes selected by already validated filter element. Children of containers are selected
+     * one by one, unless the element contains content match nodes, which restrict selection of the element itself.
+     * Lists are selected as a whole, unless all their keys are specified as content match nodes.
+     * @param element filter element
+     * @param schema schema of filter element
+     * @param path identifier of filter element
+     * @param dataRoots collected identifiers
+     */
+    private void addDataRoots(final XmlElement element, final DataSchemaNode schema, final YangInstanceIdentifier path,
+                              final List<YangInstanceIdentifier> dataRoots) throws DocumentedException, URISyntaxException {
+        final List<XmlElement> childElements = element.getChildElements();
+        if (childElements.isEmpty()) {
+            dataRoots.add(path);
+            return;
+        }
+        if (schema instanceof ListSchemaNode) {
+            final NodeIdentifierWithPredicates entryId = getEntryIdentifier((ListSchemaNode) schema, childElements);
+            dataRoots.add(entryId != null ? path.node(entryId) : path);
+            return;
+        }
+        for (final XmlElement childElement : childElements) {
+            if (isContentMatch(childElement)) {
+                dataRoots.add(path);
+                return;
+            }
+        }
+        for (final XmlElement childElement : childElements) {
+            final Deque<DataSchemaNode> schemaPath = findSchemaNodeByNameAndNamespace(schema, childElement.getName(),
+                    new URI(childElement.getNamespace()));
+            YangInstanceIdentifier childPath = path;
+            for (final DataSchemaNode dataSchemaNode : schemaPath) {
+                if (!(dataSchemaNode instanceof ChoiceCaseNode)) {
+                    childPath = childPath.node(dataSchemaNode.getQName());
+                }
+            }
+            addDataRoots(childElement, schemaPath.getLast(), childPath, dataRoots);
+        }
+    }
+
+    private static boolean isContentMatch(final XmlElement element) {
+        return element.getChildElements().isEmpty() && element.getOnlyTextContentOptionally().isPresent();
+    }
+
+    /**
+     * Returns identifier of list entry, if filter element contains content match nodes for all list keys.
+     * @param listSchema list schema
+     * @param childElements children of list filter element
+     * @return list entry identifier or null if the entry can't be identified
+     */
+    private static NodeIdentifierWithPredicates getEntryIdentifier(final ListSchemaNode listSchema,
+                                                                   final List<XmlElement> childElements) throws DocumentedException {
+        final List<QName> keyDefinition = listSchema.getKeyDefinition();
+        if (keyDefinition.isEmpty()) {
+            return null;
+        }
+        final Map<QName, Object> keyValues = new HashMap<>();
+        for (final XmlElement childElement : childElements) {
+            for (final QName key : keyDefinition) {
+                if (key.getLocalName().equals(childElement.getName())
+                        && key.getNamespace().toString().equals(childElement.getNamespace())
+                        && isContentMatch(childElement)) {
+                    final Object value = parseKeyValue(listSchema.getDataChildByName(key),
+                            childElement.getOnlyTextContentOptionally().get());
+                    if (value == null || keyValues.put(key, value) != null) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return keyValues.size() == keyDefinition.size()
+                ? new NodeIdentifierWithPredicates(listSchema.getQName(), keyValues) : null;
+    }
+
+    /**
+     * Parses key value, only types whose values don't depend on the context of the element are supported.
+     */
+    private static Object parseKeyValue(final DataSchemaNode keySchema, final String text) {
+        if (!(keySchema instanceof LeafSchemaNode)) {
+            return null;
+        }
+        final TypeDefinition<?> type = ((LeafSchemaNode) keySchema).getType();
+        if (type instanceof IdentityrefTypeDefinition || type instanceof InstanceIdentifierTypeDefinition
+                || type instanceof LeafrefTypeDefinition || type instanceof UnionTypeDefinition) {
+            return null;
+        }
+        final TypeDefinitionAwareCodec<?, ?> codec = TypeDefinitionAwareCodec.from(type);
+        if (codec == null) {
+            return null;
+        }
+        try {
+            return codec.deserialize(text);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     //FIXME this method will also be in yangtools ParserUtils, use that when https://git.opendaylight.org/gerrit/#/c/37031/ will be merged
     /**
      * Returns stack of schema nodes via which it was necessary to pass to get schema node with specified
@@ -26,6 +26,8 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -49,6 +51,7 @@ import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorType
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.store.impl.InMemoryDOMDataStoreFactory;
 import org.opendaylight.controller.sal.core.api.model.SchemaService;
 import org.opendaylight.controller.sal.core.spi.data.DOMStore;
@@ -58,12 +61,18 @@ import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.TransactionProvider;
 import org.opendaylight.netconf.mdsal.connector.ops.get.Get;
 import org.opendaylight.netconf.mdsal.connector.ops.get.GetConfig;
+import org.opendaylight.netconf.util.messages.DeferredContentMessage;
 import org.opendaylight.netconf.util.test.NetconfXmlUnitRecursiveQualifier;
 import org.opendaylight.netconf.util.test.XmlFileLoader;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.util.concurrent.SpecialExecutors;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaContextListener;
@@ -91,7 +100,9 @@ public class NetconfMDSalMappingTest {
     private static final QName TOP = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "top");
     private static final QName USERS = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "users");
     private static final QName USER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "user");
+    private static final QName USER_NAME = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "name");
     private static final QName MODULES = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "modules");
+    private static final QName MODULE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "module");
     private static final QName AUGMENTED_CONTAINER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "augmented-container");
     private static final QName AUGMENTED_STRING_IN_CONT = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "identifier");
     private static final QName CHOICE_NODE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "choice-node");
@@ -119,6 +130,7 @@ public class NetconfMDSalMappingTest {
     private final String sessionIdForReporting = "netconf-test-session1";
 
     private TransactionProvider transactionProvider = null;
+    private ConcurrentDOMDataBroker dataBroker = null;
 
     @Mock
     private SchemaSourceProvider<YangTextSchemaSource> sourceProvider;
@@ -145,6 +157,7 @@ public class NetconfMDSalMappingTest {
                 16, 16, "CommitFutures");
 
         final ConcurrentDOMDataBroker cdb = new ConcurrentDOMDataBroker(datastores, listenableFutureExecutor);
+        this.dataBroker = cdb;
         this.transactionProvider = new TransactionProvider(cdb, sessionIdForReporting);
 
         doAnswer(new Answer() {
@@ -193,6 +206,37 @@ public class NetconfMDSalMappingTest {
 
     }
 
+    @Test
+    public void testDeferredGet() throws Exception {
+        final MapEntryNode user = ImmutableNodes.mapEntryBuilder(USER, USER_NAME, "deferred")
+                .withChild(ImmutableNodes.leafNode(QName.create(USER, "type"), "streamed")).build();
+        final ContainerNode top = Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(USERS))
+                        .withChild(ImmutableNodes.mapNodeBuilder(USER).withChild(user).build()).build())
+                .build();
+        final DOMDataWriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.of(TOP), top);
+        writeTx.submit().checkedGet();
+
+        final Document request = XmlFileLoader.xmlFileToDocument("messages/mapping/get.xml");
+        DeferredContentMessage.acceptDeferredContent(request);
+        final Document response = new Get(sessionIdForReporting, currentSchemaContext, transactionProvider)
+                .handle(request, NetconfOperationChainedExecution.EXECUTION_TERMINATION_POINT);
+        assertTrue(DeferredContentMessage.hasDeferredContent(response));
+
+        // Data are serialized only when the reply is streamed, the result must match a reply built as a whole
+        final StringWriter output = new StringWriter();
+        final XMLStreamWriter xmlWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(output);
+        new DeferredContentMessage(response).writeTo(xmlWriter);
+        xmlWriter.close();
+        final Document streamed = XmlUtil.readXmlToDocument(output.toString());
+
+        final Document whole = get();
+        assertFalse(DeferredContentMessage.hasDeferredContent(whole));
+        assertEquals(1, whole.getElementsByTagNameNS(USER.getNamespace().toString(), "user").getLength());
+        verifyResponse(streamed, whole);
+    }
+
     @Test
     public void testEditRunning() throws Exception {
 
@@ -504,13 +548,14 @@ public class NetconfMDSalMappingTest {
         verifyFilterIdentifier("messages/mapping/filters/get-filter-alluser.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
         verifyFilterIdentifier("messages/mapping/filters/get-filter-company-info.xml",
-                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
+                userEntry("root"), userEntry("admin"), userEntry("regular"));
         verifyFilterIdentifier("messages/mapping/filters/get-filter-modules-and-admin.xml",
-                YangInstanceIdentifier.builder().node(TOP).build());
+                userEntry("admin"), YangInstanceIdentifier.builder().node(TOP).node(MODULES).build());
         verifyFilterIdentifier("messages/mapping/filters/get-filter-only-names-types.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
         verifyFilterIdentifier("messages/mapping/filters/get-filter-specific-module-type-and-user.xml",
-                YangInstanceIdentifier.builder().node(TOP).build());
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).node(MODULE).build());
         verifyFilterIdentifier("messages/mapping/filters/get-filter-superuser.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
         verifyFilterIdentifier("messages/mapping/filters/get-filter-users.xml",
@@ -527,6 +572,8 @@ public class NetconfMDSalMappingTest {
 
         verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-augmented-case.xml"),
                 XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-augmented-case.xml"));
+        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-modules-and-admin.xml"),
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-modules-and-admin.xml"));
 
         /*
          *  RFC6020 requires that at most once case inside a choice is present at any time.
@@ -559,11 +606,15 @@ public class NetconfMDSalMappingTest {
 
     }
 
-    private void verifyFilterIdentifier(final String resource, final YangInstanceIdentifier identifier) throws Exception {
+    private void verifyFilterIdentifier(final String resource, final YangInstanceIdentifier... identifiers) throws Exception {
         final TestingGetConfig getConfig = new TestingGetConfig(sessionIdForReporting, currentSchemaContext, transactionProvider);
         final Document request = XmlFileLoader.xmlFileToDocument(resource);
-        final YangInstanceIdentifier iid = getConfig.getInstanceIdentifierFromDocument(request);
-        assertEquals(identifier, iid);
+        final List<YangInstanceIdentifier> iids = getConfig.getInstanceIdentifiersFromDocument(request);
+        assertEquals(Arrays.asList(identifiers), iids);
+    }
+
+    private static YangInstanceIdentifier userEntry(final String name) {
+        return YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).nodeWithKey(USER, USER_NAME, name).build();
     }
 
     private class TestingGetConfig extends GetConfig{
@@ -571,9 +622,9 @@ public class NetconfMDSalMappingTest {
             super(sessionId, schemaContext, transactionProvider);
         }
 
-        public YangInstanceIdentifier getInstanceIdentifierFromDocument(final Document request) throws DocumentedException {
+        public List<YangInstanceIdentifier> getInstanceIdentifiersFromDocument(final Document request) throws DocumentedException {
             final XmlElement filterElement = XmlElement.fromDomDocument(request).getOnlyChildElement(GET_CONFIG).getOnlyChildElement(FILTER_NODE);
-            return getInstanceIdentifierFromFilter(filterElement);
+            return getInstanceIdentifiersFromFilter(filterElement);
         }
     }
 
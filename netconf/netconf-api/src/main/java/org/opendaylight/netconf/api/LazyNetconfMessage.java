@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.api;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * NetconfMessage which keeps the serialized form of the message and builds the DOM {@link Document}
+ * only when it is requested. The root element, its message-id attribute and the names of the
+ * top-level child elements are extracted by a pull parser once the message is complete, so that replies can be
+ * matched and checked for errors without materializing the DOM. Consumers which understand this class can
+ * parse the message directly with a pull parser via {@link #openStream()} or {@link #createXMLStreamReader()}.
+ *
+ * <p>
+ * Messages are assembled by a {@link Builder} from parts as they are received. The content is kept in blocks
+ * of limited size, so a large message is never copied into a single array.
+ */
+public final class LazyNetconfMessage extends NetconfMessage {
+    private static final XMLInputFactory XML_INPUT_FACTORY;
+
+    static {
+        final XMLInputFactory f = XMLInputFactory.newInstance();
+        f.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        XML_INPUT_FACTORY = f;
+    }
+
+    private static final String MESSAGE_ID_ATTR = "message-id";
+    private static final int MIN_BLOCK_SIZE = 1024;
+    private static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+    private final ByteSource content;
+    private final int contentLength;
+    private final String rootName;
+    private final String rootNamespace;
+    private final String messageId;
+    private final List<String> childNames;
+
+    private volatile Document document;
+
+    private LazyNetconfMessage(final ByteSource content, final int contentLength) throws XMLStreamException {
+        super(null);
+        this.content = content;
+        this.contentLength = contentLength;
+
+        // Walk the whole document, so that malformed messages are rejected by the same parser which reads them later
+        final ImmutableList.Builder<String> children = ImmutableList.builder();
+        final XMLStreamReader reader = createXMLStreamReader();
+        try {
+            while (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                checkNotDtd(reader.next());
+            }
+            this.rootName = reader.getLocalName();
+            this.rootNamespace = reader.getNamespaceURI();
+            final String id = reader.getAttributeValue(null, MESSAGE_ID_ATTR);
+            this.messageId = id == null ? "" : id;
+
+            int depth = 1;
+            while (reader.hasNext()) {
+                final int event = checkNotDtd(reader.next());
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (depth == 1) {
+                        children.add(reader.getLocalName());
+                    }
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        this.childNames = children.build();
+    }
+
+    private static int checkNotDtd(final int event) throws XMLStreamException {
+        if (event == XMLStreamConstants.DTD) {
+            throw new XMLStreamException("Document type declarations are not supported");
+        }
+        return event;
+    }
+
+    /**
+     * Create a message from its serialized form. The structure of the content is parsed once.
+     *
+     * @param content serialized XML message, the array is not copied
+     * @return lazily parsed message
+     * @throws XMLStreamException if the content is not a well-formed XML document
+     */
+    public static LazyNetconfMessage fromBytes(final byte[] content) throws XMLStreamException {
+        Preconditions.checkNotNull(content);
+        return new LazyNetconfMessage(ByteSource.wrap(content), content.length);
+    }
+
+    /**
+     * Create a builder of a message.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of a {@link LazyNetconfMessage}, which copies parts of the serialized message into blocks as they are
+     * appended. Blocks start small and grow up to a limit, so that neither short nor long messages waste memory.
+     */
+    public static final class Builder {
+        private final List<byte[]> blocks = new ArrayList<>();
+        private byte[] block;
+        private int blockLength;
+        private int contentLength;
+
+        private Builder() {
+        }
+
+        /**
+         * Append next part of the serialized message. Remaining bytes of the buffer are consumed.
+         *
+         * @param buffer part of the message
+         * @return this builder
+         */
+        public Builder append(final ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                if (block == null || blockLength == block.length) {
+                    nextBlock();
+                }
+                final int length = Math.min(buffer.remaining(), block.length - blockLength);
+                buffer.get(block, blockLength, length);
+                blockLength += length;
+                contentLength += length;
+            }
+            return this;
+        }
+
+        private void nextBlock() {
+            if (block != null) {
+                blocks.add(block);
+            }
+            block = new byte[block == null ? MIN_BLOCK_SIZE : Math.min(block.length * 2, MAX_BLOCK_SIZE)];
+            blockLength = 0;
+        }
+
+        /**
+         * @return number of bytes appended so far
+         */
+        public int getContentLength() {
+            return contentLength;
+        }
+
+        /**
+         * Build the message.
+         *
+         * @return lazily parsed message
+         * @throws XMLStreamException if the appended content is not a well-formed XML document
+         */
+        public LazyNetconfMessage build() throws XMLStreamException {
+            final List<ByteSource> sources = new ArrayList<>(blocks.size() + 1);
+            for (final byte[] b : blocks) {
+                sources.add(ByteSource.wrap(b));
+            }
+            if (block != null) {
+                sources.add(ByteSource.wrap(block).slice(0, blockLength));
+            }
+            return new LazyNetconfMessage(ByteSource.concat(Collections.unmodifiableList(sources)), contentLength);
+        }
+    }
+
+    @Override
+    public Document getDocument() {
+        Document ret = document;
+        if (ret == null) {
+            synchronized (this) {
+                ret = document;
+                if (ret == null) {
+                    try {
+                        ret = XmlUtil.readXmlToDocument(openStream());
+                    } catch (SAXException | IOException e) {
+                        // Only the structure of the content was checked when the message was created
+                        throw new IllegalStateException("Failed to parse message " + this, e);
+                    }
+                    document = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @return true if the DOM representation of this message has already been built
+     */
+    public boolean isDocumentMaterialized() {
+        return document != null;
+    }
+
+    public InputStream openStream() {
+        try {
+            return content.openStream();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open in-memory content", e);
+        }
+    }
+
+    /**
+     * Create a new namespace-aware pull parser over the content of this message. The caller is responsible
+     * for closing the reader.
+     *
+     * @return a new reader positioned at the start of the document
+     * @throws XMLStreamException if the reader cannot be created
+     */
+    public XMLStreamReader createXMLStreamReader() throws XMLStreamException {
+        return XML_INPUT_FACTORY.createXMLStreamReader(openStream());
+    }
+
+    public String getRootElementName() {
+        return rootName;
+    }
+
+    public String getRootElementNamespace() {
+        return rootNamespace;
+    }
+
+    /**
+     * @return value of the message-id attribute of the root element or an empty string if not present,
+     *         consistent with {@link org.w3c.dom.Element#getAttribute(String)}
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * @return local names of the child elements of the root element, in document order
+     */
+    public List<String> getChildElementNames() {
+        return childNames;
+    }
+
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return content.asCharSource(StandardCharsets.UTF_8).read();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read in-memory content", e);
+        }
+    }
+}
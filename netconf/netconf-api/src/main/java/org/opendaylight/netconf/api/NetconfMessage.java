@@ -52,7 +52,7 @@ public class NetconfMessage {
     @Override
     public String toString() {
         final StreamResult result = new StreamResult(new StringWriter());
-        final DOMSource source = new DOMSource(doc.getDocumentElement());
+        final DOMSource source = new DOMSource(getDocument().getDocumentElement());
 
         try {
             // Slight critical section is a tradeoff. This should be reasonably fast.
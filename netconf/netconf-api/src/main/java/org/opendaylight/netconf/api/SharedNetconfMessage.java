@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.api;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Message sent unchanged to many sessions, e.g. a notification. Encoders aware of this interface serialize the
+ * message once, when it is sent to the first session, and copy the stored encoding for all other sessions.
+ * Encoders access the encoding while synchronized on the message.
+ */
+public interface SharedNetconfMessage {
+
+    /**
+     * @return encoding of the message stored by an encoder, null if the message was not encoded yet
+     */
+    ByteBuf getSharedEncoding();
+
+    /**
+     * Store encoding of the message. The buffer must not be modified afterwards, encoders only read its readable
+     * bytes.
+     *
+     * @param encoding encoded message
+     */
+    void setSharedEncoding(ByteBuf encoding);
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.api;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.w3c.dom.Document;
+
+/**
+ * NetconfMessage whose content is produced by writing it into an {@link XMLStreamWriter}. Encoders aware of this
+ * class serialize the message straight into the output, without building a DOM {@link Document}. The document is
+ * built only if {@link #getDocument()} is invoked.
+ */
+public abstract class StreamingNetconfMessage extends NetconfMessage {
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
+
+    private final String messageId;
+
+    private volatile Document document;
+
+    protected StreamingNetconfMessage(final String messageId) {
+        super(null);
+        this.messageId = messageId;
+    }
+
+    /**
+     * Write the root element of this message, including all its content, into the supplied writer.
+     * The writer is neither flushed nor closed.
+     *
+     * @param writer non-repairing writer to write the message into
+     * @throws XMLStreamException if the content cannot be written
+     */
+    public abstract void writeTo(XMLStreamWriter writer) throws XMLStreamException;
+
+    /**
+     * @return value of the message-id attribute of the root element or an empty string if not present
+     */
+    public final String getMessageId() {
+        return messageId;
+    }
+
+    @Override
+    public Document getDocument() {
+        Document ret = document;
+        if (ret == null) {
+            synchronized (this) {
+                ret = document;
+                if (ret == null) {
+                    ret = XmlUtil.newDocument();
+                    try {
+                        final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(new DOMResult(ret));
+                        try {
+                            writeTo(writer);
+                            writer.flush();
+                        } finally {
+                            writer.close();
+                        }
+                    } catch (XMLStreamException e) {
+                        throw new IllegalStateException("Failed to build document for message " + messageId, e);
+                    }
+                    document = ret;
+                }
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.xml.stream.XMLStreamException;
+import org.junit.Test;
+
+public class LazyNetconfMessageTest {
+
+    private static final String REPLY = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<!-- reply -->\n"
+            + "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"m-1\" a='x>y'>"
+            + "<nc:data xmlns:nc=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><x><![CDATA[</data><y>]]></x></nc:data>"
+            + "<?pi </data>?><ok/>"
+            + "</rpc-reply>\n";
+
+    @Test
+    public void testFromBytes() throws Exception {
+        final LazyNetconfMessage message = LazyNetconfMessage.fromBytes(REPLY.getBytes(StandardCharsets.UTF_8));
+        assertReply(message);
+    }
+
+    @Test
+    public void testBuilderSingleBytes() throws Exception {
+        final byte[] bytes = REPLY.getBytes(StandardCharsets.UTF_8);
+        final LazyNetconfMessage.Builder builder = LazyNetconfMessage.builder();
+        for (int i = 0; i < bytes.length; i++) {
+            builder.append(ByteBuffer.wrap(bytes, i, 1));
+        }
+        assertReply(builder.build());
+    }
+
+    @Test
+    public void testBuilderLargeMessage() throws Exception {
+        final StringBuilder sb = new StringBuilder("<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">");
+        for (int i = 0; i < 20000; i++) {
+            sb.append("<data>").append(i).append("</data>");
+        }
+        final String content = sb.append("</rpc-reply>").toString();
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        final LazyNetconfMessage.Builder builder = LazyNetconfMessage.builder();
+        builder.append(ByteBuffer.wrap(bytes, 0, 1000));
+        builder.append(ByteBuffer.wrap(bytes, 1000, bytes.length - 1000));
+        final LazyNetconfMessage message = builder.build();
+
+        assertEquals(bytes.length, message.getContentLength());
+        assertEquals(20000, message.getChildElementNames().size());
+        assertEquals(content, message.toString());
+        assertEquals(20000, message.getDocument().getDocumentElement().getChildNodes().getLength());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testMismatchedEndTag() throws Exception {
+        LazyNetconfMessage.fromBytes("<rpc-reply><data></ok></rpc-reply>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testContentAfterRoot() throws Exception {
+        LazyNetconfMessage.fromBytes("<rpc-reply/><rpc-reply/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testDoctype() throws Exception {
+        LazyNetconfMessage.fromBytes("<!DOCTYPE rpc-reply><rpc-reply/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testIncompleteMessage() throws Exception {
+        LazyNetconfMessage.builder()
+                .append(ByteBuffer.wrap("<rpc-reply><data>".getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testMalformedCharacterReference() throws Exception {
+        LazyNetconfMessage.fromBytes("<rpc-reply><data>&#xZZ;</data></rpc-reply>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEmptyRoot() throws Exception {
+        final LazyNetconfMessage message = LazyNetconfMessage.fromBytes(
+                "<hello xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"/>".getBytes(StandardCharsets.UTF_8));
+        assertEquals("hello", message.getRootElementName());
+        assertEquals("", message.getMessageId());
+        assertEquals(Collections.emptyList(), message.getChildElementNames());
+    }
+
+    private static void assertReply(final LazyNetconfMessage message) {
+        assertEquals("rpc-reply", message.getRootElementName());
+        assertEquals("urn:ietf:params:xml:ns:netconf:base:1.0", message.getRootElementNamespace());
+        assertEquals("m-1", message.getMessageId());
+        assertEquals(Arrays.asList("data", "ok"), message.getChildElementNames());
+        assertEquals(REPLY, message.toString());
+
+        assertFalse(message.isDocumentMaterialized());
+        assertEquals("m-1", message.getDocument().getDocumentElement().getAttribute("message-id"));
+        assertTrue(message.isDocumentMaterialized());
+    }
+}
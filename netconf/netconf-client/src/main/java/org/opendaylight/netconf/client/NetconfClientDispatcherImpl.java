@@ -8,12 +8,17 @@
 
 package org.opendaylight.netconf.client;
 
+import com.google.common.base.Preconditions;
+import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.Future;
 import java.io.Closeable;
+import org.apache.sshd.SshClient;
 import org.opendaylight.netconf.client.conf.NetconfClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfiguration;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
+import org.opendaylight.netconf.util.NettyTransport;
 import org.opendaylight.protocol.framework.AbstractDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,17 +28,58 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfClientDispatcherImpl.class);
 
+    private final EventLoopGroup workerGroup;
     private final Timer timer;
+    private final SshClient sshClient;
+    private final NettyTransport transport;
 
     public NetconfClientDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup, final Timer timer) {
         super(bossGroup, workerGroup);
+        this.workerGroup = workerGroup;
         this.timer = timer;
+        this.sshClient = null;
+        this.transport = NettyTransport.DEFAULT;
+    }
+
+    /**
+     * @param sshClient started SSH client shared by all SSH sessions created by this dispatcher, it is not stopped
+     *                  when the dispatcher is closed
+     */
+    public NetconfClientDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup, final Timer timer,
+                                       final SshClient sshClient) {
+        this(bossGroup, workerGroup, timer, sshClient, NettyTransport.DEFAULT);
+    }
+
+    /**
+     * @param transport socket options of client channels, native transport is used if the worker group is an epoll
+     *                  group
+     */
+    public NetconfClientDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup, final Timer timer,
+                                       final SshClient sshClient, final NettyTransport transport) {
+        super(bossGroup, workerGroup);
+        this.workerGroup = workerGroup;
+        this.timer = timer;
+        this.sshClient = Preconditions.checkNotNull(sshClient);
+        this.transport = Preconditions.checkNotNull(transport);
+        LOG.debug("Client dispatcher uses {} with channel {}", transport,
+                NettyTransport.socketChannelClass(workerGroup).getSimpleName());
     }
 
     protected Timer getTimer() {
         return timer;
     }
 
+    private SshClient getSshClient() {
+        // Default client is created and started on first SSH connection of a dispatcher without own client
+        return sshClient != null ? sshClient : AsyncSshHandler.getDefaultClient();
+    }
+
+    @Override
+    protected void customizeBootstrap(final Bootstrap b) {
+        // Channel class has to match the group, default would always be NIO
+        b.group(workerGroup).channel(NettyTransport.socketChannelClass(workerGroup));
+    }
+
     @Override
     public Future<NetconfClientSession> createClient(final NetconfClientConfiguration clientConfiguration) {
         switch (clientConfiguration.getProtocol()) {
@@ -59,8 +105,11 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
     private Future<NetconfClientSession> createTcpClient(final NetconfClientConfiguration currentConfiguration) {
         LOG.debug("Creating TCP client with configuration: {}", currentConfiguration);
         return super.createClient(currentConfiguration.getAddress(), currentConfiguration.getReconnectStrategy(),
-                (ch, promise) -> new TcpClientChannelInitializer(getNegotiatorFactory(currentConfiguration), currentConfiguration
-                                .getSessionListener()).initialize(ch, promise));
+                (ch, promise) -> {
+                    transport.configure(ch);
+                    new TcpClientChannelInitializer(getNegotiatorFactory(currentConfiguration), currentConfiguration
+                            .getSessionListener()).initialize(ch, promise);
+                });
     }
 
     private Future<Void> createReconnectingTcpClient(final NetconfReconnectingClientConfiguration currentConfiguration) {
@@ -69,27 +118,36 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
                 currentConfiguration.getSessionListener());
 
         return super.createReconnectingClient(currentConfiguration.getAddress(), currentConfiguration.getConnectStrategyFactory(),
-                currentConfiguration.getReconnectStrategy(), init::initialize);
+                currentConfiguration.getReconnectStrategy(), (ch, promise) -> {
+                    transport.configure(ch);
+                    init.initialize(ch, promise);
+                });
     }
 
     private Future<NetconfClientSession> createSshClient(final NetconfClientConfiguration currentConfiguration) {
         LOG.debug("Creating SSH client with configuration: {}", currentConfiguration);
         return super.createClient(currentConfiguration.getAddress(), currentConfiguration.getReconnectStrategy(),
                 (ch, sessionPromise) -> new SshClientChannelInitializer(currentConfiguration.getAuthHandler(),
-                        getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener())
+                        getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener(), getSshClient())
                         .initialize(ch, sessionPromise));
     }
 
     private Future<Void> createReconnectingSshClient(final NetconfReconnectingClientConfiguration currentConfiguration) {
         LOG.debug("Creating reconnecting SSH client with configuration: {}", currentConfiguration);
         final SshClientChannelInitializer init = new SshClientChannelInitializer(currentConfiguration.getAuthHandler(),
-                getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener());
+                getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener(), getSshClient());
 
         return super.createReconnectingClient(currentConfiguration.getAddress(), currentConfiguration.getConnectStrategyFactory(), currentConfiguration.getReconnectStrategy(),
                 init::initialize);
     }
 
     protected NetconfClientSessionNegotiatorFactory getNegotiatorFactory(final NetconfClientConfiguration cfg) {
+        if (cfg.isLazyMessageDecoding()) {
+            // EXI decoder works with complete messages only, do not advertise exi capability
+            return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
+                    cfg.getConnectionTimeoutMillis(), NetconfClientSessionNegotiatorFactory.DEFAULT_OPTIONS,
+                    NetconfClientSessionNegotiatorFactory.DEFAULT_CLIENT_CAPABILITIES, true);
+        }
         return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
                 cfg.getConnectionTimeoutMillis());
     }
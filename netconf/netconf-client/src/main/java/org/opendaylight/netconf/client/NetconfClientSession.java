@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 public class NetconfClientSession extends AbstractNetconfSession<NetconfClientSession, NetconfClientSessionListener> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfClientSession.class);
+    private final NetconfClientSessionListener sessionListener;
     private final Collection<String> capabilities;
 
     /**
@@ -35,6 +36,7 @@ public class NetconfClientSession extends AbstractNetconfSession<NetconfClientSe
     public NetconfClientSession(final NetconfClientSessionListener sessionListener, final Channel channel, final long sessionId,
             final Collection<String> capabilities) {
         super(sessionListener, channel, sessionId);
+        this.sessionListener = sessionListener;
         this.capabilities = capabilities;
         LOG.debug("Client Session {} created", this);
     }
@@ -43,6 +45,11 @@ public class NetconfClientSession extends AbstractNetconfSession<NetconfClientSe
         return capabilities;
     }
 
+    @Override
+    protected void sessionWritabilityChanged(final boolean writable) {
+        sessionListener.onSessionWritabilityChanged(this, writable);
+    }
+
     @Override
     protected NetconfClientSession thisInstance() {
         return this;
@@ -11,4 +11,14 @@ import org.opendaylight.netconf.api.NetconfSessionListener;
 
 public interface NetconfClientSessionListener extends NetconfSessionListener<NetconfClientSession> {
 
+    /**
+     * Invoked when the session stops or resumes writing messages out without buffering them. Listeners sending lots
+     * of messages should hold them back while the session is not writable.
+     *
+     * @param session session whose writability changed
+     * @param writable current writability of the session
+     */
+    default void onSessionWritabilityChanged(final NetconfClientSession session, final boolean writable) {
+        // NOOP
+    }
 }
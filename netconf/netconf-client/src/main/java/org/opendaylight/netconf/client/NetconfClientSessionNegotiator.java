@@ -54,13 +54,31 @@ public class NetconfClientSessionNegotiator extends
 
     private static final Interner<Set<String>> INTERNER = Interners.newWeakInterner();
 
+    private final boolean lazyMessageDecoding;
+
     protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
                                              final Promise<NetconfClientSession> promise,
                                              final Channel channel,
                                              final Timer timer,
                                              final NetconfClientSessionListener sessionListener,
                                              final long connectionTimeoutMillis) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis, false);
+    }
+
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean lazyMessageDecoding) {
         super(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis);
+        this.lazyMessageDecoding = lazyMessageDecoding;
+    }
+
+    @Override
+    protected boolean isLazyMessageDecoding() {
+        return lazyMessageDecoding;
     }
 
     @Override
@@ -51,12 +51,13 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfClientSessionNegotiatorFactory.class);
     private static final String START_EXI_MESSAGE_ID = "default-start-exi";
-    private static final EXIOptions DEFAULT_OPTIONS;
+    static final EXIOptions DEFAULT_OPTIONS;
 
     private final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader;
     private final long connectionTimeoutMillis;
     private final Timer timer;
     private final EXIOptions options;
+    private final boolean lazyMessageDecoding;
 
     static {
         final EXIOptions opts = new EXIOptions();
@@ -96,11 +97,19 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final EXIOptions exiOptions, final Set<String> capabilities) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, false);
+    }
+
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIOptions exiOptions, final Set<String> capabilities,
+                                                 final boolean lazyMessageDecoding) {
         this.timer = Preconditions.checkNotNull(timer);
         this.additionalHeader = additionalHeader;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.options = exiOptions;
         this.clientCapabilities = capabilities;
+        this.lazyMessageDecoding = lazyMessageDecoding;
     }
 
     @Override
@@ -119,6 +128,6 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
 
         NetconfClientSessionPreferences proposal = new NetconfClientSessionPreferences(helloMessage, startExiMessage);
         return new NetconfClientSessionNegotiator(proposal, promise, channel, timer,
-                sessionListenerFactory.getSessionListener(),connectionTimeoutMillis);
+                sessionListenerFactory.getSessionListener(),connectionTimeoutMillis, lazyMessageDecoding);
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.client;
+
+import io.netty.channel.EventLoopGroup;
+import org.apache.sshd.SshClient;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the SSH client shared by all southbound SSH sessions of a {@link NetconfClientDispatcherImpl}.
+ */
+public final class NetconfSshClientFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfSshClientFactory.class);
+
+    private NetconfSshClientFactory() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param workerGroup netty worker group of the dispatcher
+     * @param useWorkerGroup run SSH I/O on the worker group instead of dedicated threads
+     * @param nioWorkers number of dedicated SSH I/O threads, non-positive value selects a default based on the number
+     *                   of processors
+     * @return started SshClient
+     */
+    public static SshClient createSshClient(final EventLoopGroup workerGroup, final boolean useWorkerGroup,
+                                            final int nioWorkers) {
+        if (useWorkerGroup) {
+            LOG.info("Starting SSH client with I/O on netty worker group");
+            return AsyncSshHandler.createSshClient(workerGroup);
+        }
+
+        final int workers = nioWorkers > 0 ? nioWorkers : AsyncSshHandler.SSH_DEFAULT_NIO_WORKERS;
+        LOG.info("Starting SSH client with {} I/O threads", workers);
+        return AsyncSshHandler.createSshClient(workers);
+    }
+}
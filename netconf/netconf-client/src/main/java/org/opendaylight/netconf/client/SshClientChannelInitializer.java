@@ -10,6 +10,7 @@ package org.opendaylight.netconf.client;
 import io.netty.channel.Channel;
 import io.netty.util.concurrent.Promise;
 import java.io.IOException;
+import org.apache.sshd.SshClient;
 import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
@@ -19,20 +20,23 @@ final class SshClientChannelInitializer extends AbstractChannelInitializer<Netco
     private final AuthenticationHandler authenticationHandler;
     private final NetconfClientSessionNegotiatorFactory negotiatorFactory;
     private final NetconfClientSessionListener sessionListener;
+    private final SshClient sshClient;
 
     public SshClientChannelInitializer(final AuthenticationHandler authHandler,
                                        final NetconfClientSessionNegotiatorFactory negotiatorFactory,
-                                       final NetconfClientSessionListener sessionListener) {
+                                       final NetconfClientSessionListener sessionListener,
+                                       final SshClient sshClient) {
         this.authenticationHandler = authHandler;
         this.negotiatorFactory = negotiatorFactory;
         this.sessionListener = sessionListener;
+        this.sshClient = sshClient;
     }
 
     @Override
     public void initialize(final Channel ch, final Promise<NetconfClientSession> promise) {
         try {
             // ssh handler has to be the first handler in pipeline
-            ch.pipeline().addFirst(AsyncSshHandler.createForNetconfSubsystem(authenticationHandler, promise));
+            ch.pipeline().addFirst(AsyncSshHandler.createForNetconfSubsystem(authenticationHandler, promise, sshClient));
             super.initialize(ch,promise);
         } catch (final IOException e) {
             throw new RuntimeException(e);
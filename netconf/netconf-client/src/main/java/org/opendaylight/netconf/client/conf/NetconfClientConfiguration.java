@@ -30,7 +30,13 @@ public class NetconfClientConfiguration {
 
     private final AuthenticationHandler authHandler;
 
+    private final boolean lazyMessageDecoding;
+
     NetconfClientConfiguration(final NetconfClientProtocol protocol, final InetSocketAddress address, final Long connectionTimeoutMillis, final NetconfHelloMessageAdditionalHeader additionalHeader, final NetconfClientSessionListener sessionListener, final ReconnectStrategy reconnectStrategy, final AuthenticationHandler authHandler) {
+        this(protocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy, authHandler, false);
+    }
+
+    NetconfClientConfiguration(final NetconfClientProtocol protocol, final InetSocketAddress address, final Long connectionTimeoutMillis, final NetconfHelloMessageAdditionalHeader additionalHeader, final NetconfClientSessionListener sessionListener, final ReconnectStrategy reconnectStrategy, final AuthenticationHandler authHandler, final boolean lazyMessageDecoding) {
         this.address = address;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.additionalHeader = additionalHeader;
@@ -38,6 +44,7 @@ public class NetconfClientConfiguration {
         this.clientProtocol = protocol;
         this.reconnectStrategy = reconnectStrategy;
         this.authHandler = authHandler;
+        this.lazyMessageDecoding = lazyMessageDecoding;
         validateConfiguration();
     }
 
@@ -65,6 +72,14 @@ public class NetconfClientConfiguration {
         return authHandler;
     }
 
+    /**
+     * @return true if incoming messages should be decoded into
+     *         {@link org.opendaylight.netconf.api.LazyNetconfMessage}s instead of DOM documents
+     */
+    public final boolean isLazyMessageDecoding() {
+        return lazyMessageDecoding;
+    }
+
     public NetconfClientProtocol getProtocol() {
         return clientProtocol;
     }
@@ -105,7 +120,8 @@ public class NetconfClientConfiguration {
                 .add("sessionListener", sessionListener)
                 .add("reconnectStrategy", reconnectStrategy)
                 .add("clientProtocol", clientProtocol)
-                .add("authHandler", authHandler);
+                .add("authHandler", authHandler)
+                .add("lazyMessageDecoding", lazyMessageDecoding);
     }
 
     public static enum NetconfClientProtocol {
@@ -25,6 +25,7 @@ public class NetconfClientConfigurationBuilder {
     private ReconnectStrategy reconnectStrategy;
     private AuthenticationHandler authHandler;
     private NetconfClientConfiguration.NetconfClientProtocol clientProtocol = DEFAULT_CLIENT_PROTOCOL;
+    private boolean lazyMessageDecoding;
 
     protected NetconfClientConfigurationBuilder() {
     }
@@ -68,6 +69,11 @@ public class NetconfClientConfigurationBuilder {
         return this;
     }
 
+    public NetconfClientConfigurationBuilder withLazyMessageDecoding(final boolean lazyMessageDecoding) {
+        this.lazyMessageDecoding = lazyMessageDecoding;
+        return this;
+    }
+
     final InetSocketAddress getAddress() {
         return address;
     }
@@ -96,7 +102,11 @@ public class NetconfClientConfigurationBuilder {
         return clientProtocol;
     }
 
+    final boolean isLazyMessageDecoding() {
+        return lazyMessageDecoding;
+    }
+
     public NetconfClientConfiguration build() {
-        return new NetconfClientConfiguration(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy, authHandler);
+        return new NetconfClientConfiguration(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy, authHandler, lazyMessageDecoding);
     }
 }
@@ -24,8 +24,17 @@ public final class NetconfReconnectingClientConfiguration extends NetconfClientC
             final Long connectionTimeoutMillis, final NetconfHelloMessageAdditionalHeader additionalHeader,
             final NetconfClientSessionListener sessionListener, final ReconnectStrategy reconnectStrategy,
             final ReconnectStrategyFactory connectStrategyFactory, final AuthenticationHandler authHandler) {
+        this(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy,
+                connectStrategyFactory, authHandler, false);
+    }
+
+    NetconfReconnectingClientConfiguration(final NetconfClientProtocol clientProtocol, final InetSocketAddress address,
+            final Long connectionTimeoutMillis, final NetconfHelloMessageAdditionalHeader additionalHeader,
+            final NetconfClientSessionListener sessionListener, final ReconnectStrategy reconnectStrategy,
+            final ReconnectStrategyFactory connectStrategyFactory, final AuthenticationHandler authHandler,
+            final boolean lazyMessageDecoding) {
         super(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy,
-                authHandler);
+                authHandler, lazyMessageDecoding);
         this.connectStrategyFactory = connectStrategyFactory;
         validateReconnectConfiguration();
     }
@@ -33,7 +33,7 @@ public class NetconfReconnectingClientConfigurationBuilder extends NetconfClient
 
     @Override
     public NetconfReconnectingClientConfiguration build() {
-        return new NetconfReconnectingClientConfiguration(getProtocol(), getAddress(), getConnectionTimeoutMillis(), getAdditionalHeader(), getSessionListener(), getReconnectStrategy(), connectStrategyFactory, getAuthHandler());
+        return new NetconfReconnectingClientConfiguration(getProtocol(), getAddress(), getConnectionTimeoutMillis(), getAdditionalHeader(), getSessionListener(), getReconnectStrategy(), connectStrategyFactory, getAuthHandler(), isLazyMessageDecoding());
     }
 
     // Override setter methods to return subtype
@@ -68,6 +68,11 @@ public class NetconfReconnectingClientConfigurationBuilder extends NetconfClient
         return (NetconfReconnectingClientConfigurationBuilder) super.withAuthHandler(authHandler);
     }
 
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withLazyMessageDecoding(final boolean lazyMessageDecoding) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withLazyMessageDecoding(lazyMessageDecoding);
+    }
+
     @Override
     public NetconfReconnectingClientConfigurationBuilder withProtocol(NetconfClientConfiguration.NetconfClientProtocol clientProtocol) {
         return (NetconfReconnectingClientConfigurationBuilder) super.withProtocol(clientProtocol);
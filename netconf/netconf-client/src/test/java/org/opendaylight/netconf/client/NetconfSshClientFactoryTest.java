@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.apache.sshd.SshClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.nettyutil.handler.ssh.NioServiceWithPoolFactory.NioServiceWithPoolFactoryFactory;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
+
+public class NetconfSshClientFactoryTest {
+
+    private EventLoopGroup workerGroup;
+    private SshClient sshClient;
+
+    @Before
+    public void setUp() throws Exception {
+        workerGroup = new NioEventLoopGroup(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (sshClient != null) {
+            sshClient.stop();
+        }
+        workerGroup.shutdownGracefully();
+    }
+
+    @Test
+    public void testDedicatedWorkers() throws Exception {
+        sshClient = NetconfSshClientFactory.createSshClient(workerGroup, false, 3);
+        assertEquals(3, sshClient.getNioWorkers());
+    }
+
+    @Test
+    public void testDefaultWorkers() throws Exception {
+        sshClient = NetconfSshClientFactory.createSshClient(workerGroup, false, 0);
+        assertEquals(AsyncSshHandler.SSH_DEFAULT_NIO_WORKERS, sshClient.getNioWorkers());
+    }
+
+    @Test
+    public void testWorkerGroup() throws Exception {
+        sshClient = NetconfSshClientFactory.createSshClient(workerGroup, true, 0);
+        assertTrue(sshClient.getIoServiceFactoryFactory() instanceof NioServiceWithPoolFactoryFactory);
+
+        sshClient.stop();
+        sshClient = null;
+        // Shared worker group keeps running
+        assertFalse(workerGroup.isShutdown());
+    }
+}
@@ -19,6 +19,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.util.concurrent.Promise;
+import org.apache.sshd.SshClient;
 import org.junit.Test;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.protocol.framework.SessionListenerFactory;
@@ -47,7 +48,7 @@ public class SshClientChannelInitializerTest {
         doReturn("").when(promise).toString();
 
         SshClientChannelInitializer initializer = new SshClientChannelInitializer(authenticationHandler, negotiatorFactory,
-                sessionListener);
+                sessionListener, mock(SshClient.class));
         initializer.initialize(channel, promise);
         verify(pipeline, times(1)).addFirst(any(ChannelHandler.class));
     }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.impl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes operations requested by server sessions on a bounded pool of worker threads, so that an operation blocking
+ * e.g. on datastore commit does not stall other sessions served by the same netty event loop.
+ *
+ * <p>
+ * Operations of a single session are executed one at a time in order of their arrival, so their replies are sent in
+ * the same order. If the pool is saturated, new operations of idle sessions are rejected, so that event loops keep
+ * serving other sessions. A session may have at most {@value #MAX_PENDING_SESSION_TASKS} operations waiting for
+ * execution, further ones are rejected, so that a single client cannot grow the queue without limit. With no worker
+ * threads, all operations are executed on event loops.
+ */
+public final class NetconfOperationExecutor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfOperationExecutor.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    // Number of operations of a session executed in a row before the worker moves to other sessions
+    private static final int MAX_BATCH_SIZE = 16;
+
+    // Number of operations of a session waiting for execution, not counting the one in progress
+    static final int MAX_PENDING_SESSION_TASKS = 64;
+
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * @param threads number of worker threads, 0 executes operations on netty event loops
+     * @param queueCapacity number of sessions with pending operations waiting for a worker thread
+     */
+    public NetconfOperationExecutor(final int threads, final int queueCapacity) {
+        Preconditions.checkArgument(threads >= 0, "Invalid number of threads %s", threads);
+        if (threads == 0) {
+            pool = null;
+            LOG.info("NETCONF operations are executed on netty event loops");
+        } else {
+            Preconditions.checkArgument(queueCapacity > 0, "Invalid queue capacity %s", queueCapacity);
+            pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new ThreadFactoryBuilder().setNameFormat("netconf-operation-%d").setDaemon(true).build());
+            LOG.info("NETCONF operations are executed on {} worker threads", threads);
+        }
+    }
+
+    /**
+     * @return executor which executes operations on netty event loops
+     */
+    public static NetconfOperationExecutor sameThread() {
+        return new NetconfOperationExecutor(0, 0);
+    }
+
+    /**
+     * @return new executor of operations for a single session, null if operations are executed on event loops
+     */
+    SessionExecutor newSessionExecutor() {
+        return pool == null ? null : new SessionExecutor(pool);
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Executes tasks of a single session in order, at most one at a time.
+     */
+    static final class SessionExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private final Executor pool;
+        private boolean scheduled;
+        private boolean closed;
+
+        SessionExecutor(final Executor pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Execute a task after previously submitted tasks of the session.
+         *
+         * @throws RejectedExecutionException if the session has no pending tasks and the pool cannot accept it, or if
+         *         the session has too many pending tasks
+         */
+        @Override
+        public void execute(final Runnable task) {
+            synchronized (this) {
+                if (closed) {
+                    LOG.debug("Session executor closed, ignoring task {}", task);
+                    return;
+                }
+                if (tasks.size() >= MAX_PENDING_SESSION_TASKS) {
+                    throw new RejectedExecutionException("Session has " + tasks.size() + " pending tasks");
+                }
+                tasks.add(task);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                pool.execute(this::runTasks);
+            } catch (final RejectedExecutionException e) {
+                // Nothing else of this session is pending, tasks are submitted and the executor is closed by the
+                // session's event loop
+                synchronized (this) {
+                    tasks.clear();
+                    scheduled = false;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Drop pending tasks and execute the final one after the task currently in progress, if any. Tasks submitted
+         * afterwards are ignored.
+         */
+        void close(final Runnable finalTask) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                tasks.clear();
+                tasks.add(finalTask);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                pool.execute(this::runTasks);
+            } catch (final RejectedExecutionException e) {
+                // Resources of the session have to be released even if the pool is saturated or shut down
+                LOG.debug("Operation pool saturated or shut down, closing session executor on calling thread", e);
+                runTasks();
+            }
+        }
+
+        private void runTasks() {
+            while (runBatch()) {
+                // Give other sessions a chance, remaining tasks are executed later
+                try {
+                    pool.execute(this::runTasks);
+                    return;
+                } catch (final RejectedExecutionException e) {
+                    // Admitted tasks are not dropped, keep executing them on this worker
+                    LOG.debug("Operation pool saturated or shut down, continuing on current thread", e);
+                }
+            }
+        }
+
+        /**
+         * @return true if there are more tasks to execute
+         */
+        private boolean runBatch() {
+            for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                final Runnable task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        scheduled = false;
+                        return false;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (final RuntimeException e) {
+                    LOG.warn("Session task {} failed", task, e);
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.impl;
 
+import com.google.common.base.Preconditions;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
@@ -20,23 +21,42 @@ import java.net.InetSocketAddress;
 import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 import org.opendaylight.netconf.api.NetconfServerDispatcher;
 import org.opendaylight.netconf.impl.util.DeserializerExceptionHandler;
+import org.opendaylight.netconf.util.LocalPeerWritability;
+import org.opendaylight.netconf.util.NettyTransport;
 import org.opendaylight.protocol.framework.AbstractDispatcher;
 
 public class NetconfServerDispatcherImpl extends AbstractDispatcher<NetconfServerSession, NetconfServerSessionListener> implements NetconfServerDispatcher {
 
     private final ServerChannelInitializer initializer;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final NettyTransport transport;
 
     public NetconfServerDispatcherImpl(ServerChannelInitializer serverChannelInitializer, EventLoopGroup bossGroup,
                                        EventLoopGroup workerGroup) {
+        this(serverChannelInitializer, bossGroup, workerGroup, NettyTransport.DEFAULT);
+    }
+
+    /**
+     * @param transport socket options of accepted TCP channels, native transport is used if both groups are epoll
+     *                  groups
+     */
+    public NetconfServerDispatcherImpl(ServerChannelInitializer serverChannelInitializer, EventLoopGroup bossGroup,
+                                       EventLoopGroup workerGroup, NettyTransport transport) {
         super(bossGroup, workerGroup);
         this.initializer = serverChannelInitializer;
+        this.bossGroup = bossGroup;
+        this.workerGroup = workerGroup;
+        this.transport = Preconditions.checkNotNull(transport);
     }
 
     @Override
     public ChannelFuture createServer(InetSocketAddress address) {
-        return super.createServer(address, new PipelineInitializer<NetconfServerSession>() {
+        return super.createServer(address, NettyTransport.serverSocketChannelClass(bossGroup, workerGroup),
+                new ChannelPipelineInitializer<SocketChannel, NetconfServerSession>() {
             @Override
             public void initializeChannel(final SocketChannel ch, final Promise<NetconfServerSession> promise) {
+                transport.configure(ch);
                 initializer.initialize(ch, promise);
             }
         });
@@ -47,6 +67,8 @@ public class NetconfServerDispatcherImpl extends AbstractDispatcher<NetconfServe
         return super.createServer(address, LocalServerChannel.class, new ChannelPipelineInitializer<LocalChannel, NetconfServerSession>() {
             @Override
             public void initializeChannel(final LocalChannel ch, final Promise<NetconfServerSession> promise) {
+                // Local channels are connected by SSH and TCP proxies, which report writability of their transport
+                LocalPeerWritability.register(ch);
                 initializer.initialize(ch, promise);
             }
         });
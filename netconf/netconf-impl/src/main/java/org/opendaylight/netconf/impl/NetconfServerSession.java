@@ -54,6 +54,7 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
 
     private final NetconfHelloMessageAdditionalHeader header;
     private final NetconfServerSessionListener sessionListener;
+    private final Channel channel;
 
     private ZonedDateTime loginTime;
     private long inRpcSuccess, inRpcFail, outRpcError, outNotification;
@@ -64,6 +65,7 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
         super(sessionListener, channel, sessionId);
         this.header = header;
         this.sessionListener = sessionListener;
+        this.channel = channel;
         LOG.debug("Session {} created", toString());
     }
 
@@ -101,6 +103,19 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
         return channelFuture;
     }
 
+    @Override
+    protected void sessionWritabilityChanged(final boolean writable) {
+        // Stop reading new requests while replies to previous ones cannot be written out
+        LOG.debug("Session {} {} reading requests", this, writable ? "resumed" : "suspended");
+        channel.config().setAutoRead(writable);
+    }
+
+    @Override
+    protected boolean isMessageStreamingSupported() {
+        // Replies with whole datastore are streamed from operation threads
+        return true;
+    }
+
     public void onIncommingRpcSuccess() {
         inRpcSuccess++;
     }
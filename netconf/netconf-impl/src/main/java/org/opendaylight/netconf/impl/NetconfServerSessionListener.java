@@ -11,8 +11,8 @@ package org.opendaylight.netconf.impl;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.RejectedExecutionException;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
-import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSessionListener;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
@@ -20,8 +20,11 @@ import org.opendaylight.netconf.api.monitoring.NetconfMonitoringService;
 import org.opendaylight.netconf.api.monitoring.SessionEvent;
 import org.opendaylight.netconf.api.monitoring.SessionListener;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.impl.NetconfOperationExecutor.SessionExecutor;
 import org.opendaylight.netconf.impl.osgi.NetconfOperationRouter;
 import org.opendaylight.netconf.notifications.NetconfNotification;
+import org.opendaylight.netconf.util.messages.AfterReplyActions;
+import org.opendaylight.netconf.util.messages.DeferredContentMessage;
 import org.opendaylight.netconf.util.messages.SendErrorExceptionUtil;
 import org.opendaylight.netconf.util.messages.SubtreeFilter;
 import org.slf4j.Logger;
@@ -36,12 +39,20 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
     private final SessionListener monitoringSessionListener;
     private final NetconfOperationRouter operationRouter;
     private final AutoCloseable onSessionDownCloseable;
+    // Executes operations off the event loop, null if they are executed on the event loop
+    private final SessionExecutor operationExecutor;
 
     public NetconfServerSessionListener(final NetconfOperationRouter operationRouter, final NetconfMonitoringService monitoringService,
                                         final AutoCloseable onSessionDownCloseable) {
+        this(operationRouter, monitoringService, onSessionDownCloseable, null);
+    }
+
+    NetconfServerSessionListener(final NetconfOperationRouter operationRouter, final NetconfMonitoringService monitoringService,
+                                 final AutoCloseable onSessionDownCloseable, final SessionExecutor operationExecutor) {
         this.operationRouter = operationRouter;
         this.monitoringSessionListener = monitoringService.getSessionListener();
         this.onSessionDownCloseable = onSessionDownCloseable;
+        this.operationExecutor = operationExecutor;
     }
 
     @Override
@@ -58,6 +69,15 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
     public void onDown(final NetconfServerSession netconfNetconfServerSession) {
         monitoringSessionListener.onSessionDown(netconfNetconfServerSession);
 
+        if (operationExecutor != null) {
+            // Pending operations are dropped, the one in progress has to finish before its router is closed
+            operationExecutor.close(this::closeOperations);
+        } else {
+            closeOperations();
+        }
+    }
+
+    private void closeOperations() {
         try {
             operationRouter.close();
         } catch (final Exception closingEx) {
@@ -80,14 +100,54 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
 
     @Override
     public void onMessage(final NetconfServerSession session, final NetconfMessage netconfMessage) {
+        if (operationExecutor == null) {
+            processMessage(session, netconfMessage);
+            return;
+        }
+
+        try {
+            operationExecutor.execute(() -> {
+                try {
+                    processMessage(session, netconfMessage);
+                } catch (final IllegalStateException e) {
+                    // Already logged and counted, the failure cannot be propagated to the pipeline from a worker
+                    sendRpcError(session, netconfMessage, new DocumentedException(
+                            "Unexpected error while processing the request", e,
+                            DocumentedException.ErrorType.APPLICATION, DocumentedException.ErrorTag.OPERATION_FAILED,
+                            DocumentedException.ErrorSeverity.ERROR));
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("Operation pool saturated or too many pending operations, rejecting message on session {}", session,
+                    e);
+            session.onIncommingRpcFail();
+            monitoringSessionListener.onSessionEvent(SessionEvent.inRpcFail(session));
+            sendRpcError(session, netconfMessage, new DocumentedException(
+                    "Server is too busy to process the request, try again later",
+                    DocumentedException.ErrorType.RPC, DocumentedException.ErrorTag.RESOURCE_DENIED,
+                    DocumentedException.ErrorSeverity.ERROR));
+        }
+    }
+
+    private void sendRpcError(final NetconfServerSession session, final NetconfMessage netconfMessage,
+                              final DocumentedException error) {
+        session.onOutgoingRpcError();
+        monitoringSessionListener.onSessionEvent(SessionEvent.outRpcError(session));
+        SendErrorExceptionUtil.sendErrorMessage(session, error, netconfMessage);
+    }
+
+    private void processMessage(final NetconfServerSession session, final NetconfMessage netconfMessage) {
         try {
 
             Preconditions.checkState(operationRouter != null, "Cannot handle message, session up was not yet received");
             // there is no validation since the document may contain yang schemas
-            final NetconfMessage message = processDocument(netconfMessage,
+            final Document rpcReply = processDocument(netconfMessage,
                     session);
+            final NetconfMessage message = DeferredContentMessage.hasDeferredContent(rpcReply)
+                    ? new DeferredContentMessage(rpcReply) : new NetconfMessage(rpcReply);
             LOG.debug("Responding with message {}", message);
             session.sendMessage(message);
+            AfterReplyActions.runActions(rpcReply);
             monitoringSessionListener.onSessionEvent(SessionEvent.inRpcSuccess(session));
         } catch (final RuntimeException e) {
             // TODO: should send generic error or close session?
@@ -109,24 +169,25 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
         monitoringSessionListener.onSessionEvent(SessionEvent.notification(session));
     }
 
-    private NetconfMessage processDocument(final NetconfMessage netconfMessage, final NetconfServerSession session)
+    private Document processDocument(final NetconfMessage netconfMessage, final NetconfServerSession session)
             throws DocumentedException {
 
         final Document incomingDocument = netconfMessage.getDocument();
         final Node rootNode = incomingDocument.getDocumentElement();
 
         if (rootNode.getLocalName().equals(XmlNetconfConstants.RPC_KEY)) {
-            final Document responseDocument = XmlUtil.newDocument();
             checkMessageId(rootNode);
+            // the reply is wrapped below, operations may leave content to be streamed when it is sent
+            DeferredContentMessage.acceptDeferredContent(incomingDocument);
 
             Document rpcReply = operationRouter.onNetconfMessage(incomingDocument, session);
 
+            // filters the reply in place, each operation builds a new reply document, so it is sent without copying
             rpcReply = SubtreeFilter.applyRpcSubtreeFilter(incomingDocument, rpcReply);
 
             session.onIncommingRpcSuccess();
 
-            responseDocument.appendChild(responseDocument.importNode(rpcReply.getDocumentElement(), true));
-            return new NetconfMessage(responseDocument);
+            return rpcReply;
         } else {
             // unknown command, send RFC 4741 p.70 unknown-element
             /*
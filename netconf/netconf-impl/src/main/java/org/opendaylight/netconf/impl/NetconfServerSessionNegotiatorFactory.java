@@ -51,10 +51,23 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
     private final NetconfMonitoringService monitoringService;
     private static final Logger LOG = LoggerFactory.getLogger(NetconfServerSessionNegotiatorFactory.class);
     private final Set<String> baseCapabilities;
+    private final NetconfOperationExecutor operationExecutor;
 
     public NetconfServerSessionNegotiatorFactory(final Timer timer, final NetconfOperationServiceFactory netconfOperationProvider,
                                                  final SessionIdProvider idProvider, final long connectionTimeoutMillis,
                                                  final NetconfMonitoringService monitoringService, final Set<String> baseCapabilities) {
+        this(timer, netconfOperationProvider, idProvider, connectionTimeoutMillis, monitoringService, baseCapabilities,
+                NetconfOperationExecutor.sameThread());
+    }
+
+    /**
+     * @param operationExecutor executes operations requested by sessions, it is not closed by this factory
+     */
+    public NetconfServerSessionNegotiatorFactory(final Timer timer, final NetconfOperationServiceFactory netconfOperationProvider,
+                                                 final SessionIdProvider idProvider, final long connectionTimeoutMillis,
+                                                 final NetconfMonitoringService monitoringService, final Set<String> baseCapabilities,
+                                                 final NetconfOperationExecutor operationExecutor) {
+        this.operationExecutor = Preconditions.checkNotNull(operationExecutor);
         this.timer = timer;
         this.aggregatedOpService = netconfOperationProvider;
         this.idProvider = idProvider;
@@ -107,7 +120,8 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
         final NetconfOperationService service = getOperationServiceForAddress(netconfSessionIdForReporting, socketAddress);
         final NetconfOperationRouter operationRouter =
                 new NetconfOperationRouterImpl(service, monitoringService, netconfSessionIdForReporting);
-        return new NetconfServerSessionListener(operationRouter, monitoringService, service);
+        return new NetconfServerSessionListener(operationRouter, monitoringService, service,
+                operationExecutor.newSessionExecutor());
 
     }
 
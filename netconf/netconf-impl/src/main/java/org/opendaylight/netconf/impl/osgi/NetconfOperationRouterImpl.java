@@ -8,14 +8,17 @@
 package org.opendaylight.netconf.impl.osgi;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.monitoring.NetconfMonitoringService;
@@ -29,15 +32,25 @@ import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
 import org.opendaylight.netconf.mapping.api.SessionAwareNetconfOperation;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation.OperationNameAndNamespace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 
+/**
+ * Routes messages to operations of a session. Operations deciding whether they can handle a message only by the name
+ * and namespace of the invoked operation are looked up in a dispatch table built lazily for each invoked operation,
+ * together with their execution chain. Only the remaining operations inspect every message.
+ */
 public class NetconfOperationRouterImpl implements NetconfOperationRouter {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfOperationRouterImpl.class);
     private final NetconfOperationService netconfOperationServiceSnapshot;
     private final Collection<NetconfOperation> allNetconfOperations;
+    private final Collection<AbstractNetconfOperation> nameBasedOperations;
+    private final Collection<NetconfOperation> contentBasedOperations;
+    private final ConcurrentMap<OperationKey, DispatchEntry> dispatchTable = new ConcurrentHashMap<>();
 
     public NetconfOperationRouterImpl(final NetconfOperationService netconfOperationServiceSnapshot,
                                       final NetconfMonitoringService netconfMonitoringService, final String sessionId) {
@@ -51,6 +64,18 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         ops.addAll(netconfOperationServiceSnapshot.getNetconfOperations());
 
         allNetconfOperations = ImmutableSet.copyOf(ops);
+
+        final ImmutableList.Builder<AbstractNetconfOperation> nameBased = ImmutableList.builder();
+        final ImmutableList.Builder<NetconfOperation> contentBased = ImmutableList.builder();
+        for (final NetconfOperation op : allNetconfOperations) {
+            if (op instanceof AbstractNetconfOperation && ((AbstractNetconfOperation) op).isHandlingDeterminedByName()) {
+                nameBased.add((AbstractNetconfOperation) op);
+            } else {
+                contentBased.add(op);
+            }
+        }
+        nameBasedOperations = nameBased.build();
+        contentBasedOperations = contentBased.build();
     }
 
     @Override
@@ -114,38 +139,104 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
     private NetconfOperationExecution getNetconfOperationWithHighestPriority(
             final Document message, final NetconfServerSession session) throws DocumentedException {
 
-        final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority = getSortedNetconfOperationsWithCanHandle(
-                message, session);
+        final OperationNameAndNamespace operation = new OperationNameAndNamespace(message);
+        final DispatchEntry entry = dispatchTable.computeIfAbsent(new OperationKey(operation),
+                key -> createDispatchEntry(operation));
+
+        NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority = entry.sortedByPriority;
+        boolean extended = false;
+        for (final NetconfOperation netconfOperation : contentBasedOperations) {
+            final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
+            if (!handlingPriority.isCannotHandle()) {
+                if (!extended) {
+                    sortedByPriority = new TreeMap<>(sortedByPriority);
+                    extended = true;
+                }
+                addOperation(sortedByPriority, handlingPriority, netconfOperation, message);
+            }
+        }
 
         if (sortedByPriority.isEmpty()) {
             throw new IllegalArgumentException(String.format("No %s available to handle message %s",
                 NetconfOperation.class.getName(), XmlUtil.toString(message)));
         }
 
-        return NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
+        for (final NetconfOperation netconfOperation : sortedByPriority.values()) {
+            setSession(netconfOperation, session);
+        }
+        return extended ? NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey())
+                : entry.execution;
     }
 
-    private TreeMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(final Document message,
-            final NetconfServerSession session) throws DocumentedException {
-        final TreeMap<HandlingPriority, NetconfOperation> sortedPriority = Maps.newTreeMap();
+    private DispatchEntry createDispatchEntry(final OperationNameAndNamespace operation) {
+        final TreeMap<HandlingPriority, NetconfOperation> sortedByPriority = new TreeMap<>();
+        for (final AbstractNetconfOperation netconfOperation : nameBasedOperations) {
+            final HandlingPriority handlingPriority = netconfOperation.canHandle(operation);
+            if (!handlingPriority.isCannotHandle()) {
+                addOperation(sortedByPriority, handlingPriority, netconfOperation, operation.getOperationElement());
+            }
+        }
+        LOG.trace("Operations handling {}:{} ordered by priority {}", operation.getNamespace(),
+                operation.getOperationName(), sortedByPriority);
+        return new DispatchEntry(sortedByPriority);
+    }
 
-        for (final NetconfOperation netconfOperation : allNetconfOperations) {
-            final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
-            if (netconfOperation instanceof DefaultNetconfOperation) {
-                ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
+    private static void addOperation(final NavigableMap<HandlingPriority, NetconfOperation> sortedPriority,
+            final HandlingPriority handlingPriority, final NetconfOperation netconfOperation, final Object message) {
+        Preconditions.checkState(!sortedPriority.containsKey(handlingPriority),
+                "Multiple %s available to handle message %s with priority %s, %s and %s",
+                NetconfOperation.class.getName(), message, handlingPriority, netconfOperation, sortedPriority.get(handlingPriority));
+        sortedPriority.put(handlingPriority, netconfOperation);
+    }
+
+    private static void setSession(final NetconfOperation netconfOperation, final NetconfServerSession session) {
+        if (netconfOperation instanceof DefaultNetconfOperation) {
+            ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
+        }
+        if(netconfOperation instanceof SessionAwareNetconfOperation) {
+            ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
+        }
+    }
+
+    /**
+     * Operations handling an invoked operation regardless of rest of the message, with their execution chain.
+     */
+    private static final class DispatchEntry {
+        private final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority;
+        private final NetconfOperationExecution execution;
+
+        DispatchEntry(final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority) {
+            this.sortedByPriority = Collections.unmodifiableNavigableMap(sortedByPriority);
+            this.execution = sortedByPriority.isEmpty() ? null
+                    : NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
+        }
+    }
+
+    private static final class OperationKey {
+        private final String namespace;
+        private final String name;
+
+        OperationKey(final OperationNameAndNamespace operation) {
+            this.namespace = operation.getNamespace();
+            this.name = operation.getOperationName();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
             }
-            if(netconfOperation instanceof SessionAwareNetconfOperation) {
-                ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
+            if (!(o instanceof OperationKey)) {
+                return false;
             }
-            if (!handlingPriority.equals(HandlingPriority.CANNOT_HANDLE)) {
+            final OperationKey that = (OperationKey) o;
+            return Objects.equals(namespace, that.namespace) && name.equals(that.name);
+        }
 
-                Preconditions.checkState(!sortedPriority.containsKey(handlingPriority),
-                        "Multiple %s available to handle message %s with priority %s, %s and %s",
-                        NetconfOperation.class.getName(), message, handlingPriority, netconfOperation, sortedPriority.get(handlingPriority));
-                sortedPriority.put(handlingPriority, netconfOperation);
-            }
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(namespace) + name.hashCode();
         }
-        return sortedPriority;
     }
 
     private static class NetconfOperationExecution implements NetconfOperationChainedExecution {
@@ -92,27 +92,35 @@ public class ConcurrentClientsTest {
     private int nettyThreads;
     private Class<? extends Runnable> clientRunnable;
     private Set<String> serverCaps;
+    private int operationThreads;
 
-    public ConcurrentClientsTest(int nettyThreads, Class<? extends Runnable> clientRunnable, Set<String> serverCaps) {
+    public ConcurrentClientsTest(int nettyThreads, Class<? extends Runnable> clientRunnable, Set<String> serverCaps,
+                                 int operationThreads) {
         this.nettyThreads = nettyThreads;
         this.clientRunnable = clientRunnable;
         this.serverCaps = serverCaps;
+        this.operationThreads = operationThreads;
     }
 
     @Parameterized.Parameters()
     public static Collection<Object[]> data() {
-        return Arrays.asList(new Object[][]{{4, TestingNetconfClientRunnable.class, NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES},
-                                            {1, TestingNetconfClientRunnable.class, NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES},
+        return Arrays.asList(new Object[][]{{4, TestingNetconfClientRunnable.class, NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES, 0},
+                                            {1, TestingNetconfClientRunnable.class, NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES, 0},
                                             // empty set of capabilities = only base 1.0 netconf capability
-                                            {4, TestingNetconfClientRunnable.class, Collections.emptySet()},
-                                            {4, TestingNetconfClientRunnable.class, getOnlyExiServerCaps()},
-                                            {4, TestingNetconfClientRunnable.class, getOnlyChunkServerCaps()},
-                                            {4, BlockingClientRunnable.class, getOnlyExiServerCaps()},
-                                            {1, BlockingClientRunnable.class, getOnlyExiServerCaps()},
+                                            {4, TestingNetconfClientRunnable.class, Collections.emptySet(), 0},
+                                            {4, TestingNetconfClientRunnable.class, getOnlyExiServerCaps(), 0},
+                                            {4, TestingNetconfClientRunnable.class, getOnlyChunkServerCaps(), 0},
+                                            {4, BlockingClientRunnable.class, getOnlyExiServerCaps(), 0},
+                                            {1, BlockingClientRunnable.class, getOnlyExiServerCaps(), 0},
+                                            // operations executed off the event loop
+                                            {1, TestingNetconfClientRunnable.class, NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES, 4},
+                                            {1, TestingNetconfClientRunnable.class, getOnlyExiServerCaps(), 4},
+                                            {1, BlockingClientRunnable.class, getOnlyExiServerCaps(), 4},
         });
     }
 
     private EventLoopGroup nettyGroup;
+    private NetconfOperationExecutor operationExecutor;
     private NetconfClientDispatcher netconfClientDispatcher;
 
     HashedWheelTimer hashedWheelTimer;
@@ -162,6 +170,8 @@ public class ConcurrentClientsTest {
         factoriesListener.onAddNetconfOperationServiceFactory(new TestingOperationServiceFactory(testingNetconfOperation));
 
         SessionIdProvider idProvider = new SessionIdProvider();
+        operationExecutor = new NetconfOperationExecutor(operationThreads,
+                NetconfOperationExecutor.DEFAULT_QUEUE_CAPACITY);
 
         NetconfServerSessionNegotiatorFactory serverNegotiatorFactory = new NetconfServerSessionNegotiatorFactoryBuilder()
                 .setTimer(hashedWheelTimer)
@@ -170,6 +180,7 @@ public class ConcurrentClientsTest {
                 .setConnectionTimeoutMillis(5000)
                 .setMonitoringService(createMockedMonitoringService())
                 .setBaseCapabilities(serverCaps)
+                .setOperationExecutor(operationExecutor)
                 .build();
 
         NetconfServerDispatcherImpl.ServerChannelInitializer serverChannelInitializer = new NetconfServerDispatcherImpl.ServerChannelInitializer(serverNegotiatorFactory);
@@ -182,6 +193,7 @@ public class ConcurrentClientsTest {
     @After
     public void tearDown(){
         hashedWheelTimer.stop();
+        operationExecutor.close();
         try {
             nettyGroup.shutdownGracefully().get();
         } catch (InterruptedException | ExecutionException e) {
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.impl;
+
+import com.google.common.collect.ImmutableSet;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.config.util.capability.Capability;
+import org.opendaylight.controller.config.util.xml.DocumentedException;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
+import org.opendaylight.netconf.api.monitoring.CapabilityListener;
+import org.opendaylight.netconf.client.NetconfClientDispatcherImpl;
+import org.opendaylight.netconf.client.SimpleNetconfClientSessionListener;
+import org.opendaylight.netconf.client.TestingNetconfClient;
+import org.opendaylight.netconf.client.conf.NetconfClientConfiguration;
+import org.opendaylight.netconf.client.conf.NetconfClientConfigurationBuilder;
+import org.opendaylight.netconf.impl.osgi.AggregatedNetconfOperationServiceFactory;
+import org.opendaylight.netconf.mapping.api.HandlingPriority;
+import org.opendaylight.netconf.mapping.api.NetconfOperation;
+import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
+import org.opendaylight.netconf.mapping.api.NetconfOperationService;
+import org.opendaylight.netconf.mapping.api.NetconfOperationServiceFactory;
+import org.opendaylight.netconf.util.test.XmlFileLoader;
+import org.opendaylight.protocol.framework.NeverReconnectStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+
+/**
+ * Measures latency of a fast operation while other sessions served by the same event loop keep executing slow
+ * operations, e.g. blocking datastore commits. Compares operations executed on the event loop with operations executed
+ * on worker threads. Not executed as part of the build, run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConcurrentOperationsBenchmark {
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 8304);
+
+    /**
+     * Number of worker threads, 0 executes operations on the event loop.
+     */
+    @Param({"0", "8"})
+    private int operationThreads;
+
+    @Param({"8"})
+    private int slowClients;
+
+    @Param({"20"})
+    private int slowMillis;
+
+    private HashedWheelTimer timer;
+    private EventLoopGroup serverGroup;
+    private EventLoopGroup clientGroup;
+    private NetconfOperationExecutor operationExecutor;
+    private ExecutorService slowClientExecutor;
+    private Channel server;
+    private final List<TestingNetconfClient> clients = new ArrayList<>();
+    private final List<Future<?>> slowClientFutures = new ArrayList<>();
+    private volatile boolean running;
+    private TestingNetconfClient fastClient;
+    private NetconfMessage fastRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        timer = new HashedWheelTimer();
+        serverGroup = new NioEventLoopGroup(1);
+        clientGroup = new NioEventLoopGroup();
+        operationExecutor = new NetconfOperationExecutor(operationThreads,
+                NetconfOperationExecutor.DEFAULT_QUEUE_CAPACITY);
+        slowClientExecutor = Executors.newFixedThreadPool(slowClients);
+
+        final AggregatedNetconfOperationServiceFactory operations = new AggregatedNetconfOperationServiceFactory();
+        operations.onAddNetconfOperationServiceFactory(new DelayingOperationServiceFactory(slowMillis));
+        final NetconfServerSessionNegotiatorFactory negotiatorFactory = new NetconfServerSessionNegotiatorFactoryBuilder()
+                .setTimer(timer)
+                .setAggregatedOpService(operations)
+                .setIdProvider(new SessionIdProvider())
+                .setConnectionTimeoutMillis(5000)
+                .setMonitoringService(ConcurrentClientsTest.createMockedMonitoringService())
+                .setBaseCapabilities(ImmutableSet.of())
+                .setOperationExecutor(operationExecutor)
+                .build();
+        server = new NetconfServerDispatcherImpl(
+                new NetconfServerDispatcherImpl.ServerChannelInitializer(negotiatorFactory), serverGroup, serverGroup)
+                .createServer(ADDRESS).sync().channel();
+        final NetconfClientDispatcherImpl clientDispatcher = new NetconfClientDispatcherImpl(clientGroup, clientGroup,
+                timer);
+
+        running = true;
+        final NetconfMessage slowRequest = XmlFileLoader.xmlFileToNetconfMessage("netconfMessages/editConfig.xml");
+        for (int i = 0; i < slowClients; i++) {
+            final TestingNetconfClient client = new TestingNetconfClient("slow-" + i, clientDispatcher,
+                    getClientConfig());
+            clients.add(client);
+            slowClientFutures.add(slowClientExecutor.submit(() -> {
+                while (running) {
+                    client.sendRequest(slowRequest).get();
+                }
+                return null;
+            }));
+        }
+
+        fastClient = new TestingNetconfClient("fast", clientDispatcher, getClientConfig());
+        clients.add(fastClient);
+        fastRequest = XmlFileLoader.xmlFileToNetconfMessage("netconfMessages/getConfig.xml");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        running = false;
+        try {
+            for (final Future<?> future : slowClientFutures) {
+                future.get();
+            }
+        } finally {
+            for (final TestingNetconfClient client : clients) {
+                client.close();
+            }
+            server.close().sync();
+            slowClientExecutor.shutdownNow();
+            operationExecutor.close();
+            clientGroup.shutdownGracefully();
+            serverGroup.shutdownGracefully();
+            timer.stop();
+        }
+    }
+
+    @Benchmark
+    public NetconfMessage fastOperation() throws Exception {
+        return fastClient.sendRequest(fastRequest).get();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(ConcurrentOperationsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static NetconfClientConfiguration getClientConfig() {
+        return NetconfClientConfigurationBuilder.create()
+                .withAddress(ADDRESS)
+                .withAdditionalHeader(new NetconfHelloMessageAdditionalHeader("uname", "10.10.10.1", "830", "tcp",
+                        "client"))
+                .withSessionListener(new SimpleNetconfClientSessionListener())
+                .withReconnectStrategy(new NeverReconnectStrategy(GlobalEventExecutor.INSTANCE,
+                        NetconfClientConfigurationBuilder.DEFAULT_CONNECTION_TIMEOUT_MILLIS))
+                .build();
+    }
+
+    /**
+     * Answers every request, edit-config after a delay simulating a blocking commit.
+     */
+    private static final class DelayingOperation implements NetconfOperation {
+        private final int slowMillis;
+
+        DelayingOperation(final int slowMillis) {
+            this.slowMillis = slowMillis;
+        }
+
+        @Override
+        public HandlingPriority canHandle(final Document message) {
+            return HandlingPriority.HANDLE_WITH_MAX_PRIORITY;
+        }
+
+        @Override
+        public Document handle(final Document requestMessage, final NetconfOperationChainedExecution subsequentOperation)
+                throws DocumentedException {
+            if (XmlUtil.toString(requestMessage).contains("edit-config")) {
+                try {
+                    Thread.sleep(slowMillis);
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            try {
+                return XmlUtil.readXmlToDocument("<ok/>");
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class DelayingOperationServiceFactory implements NetconfOperationServiceFactory {
+        private final NetconfOperation operation;
+
+        DelayingOperationServiceFactory(final int slowMillis) {
+            this.operation = new DelayingOperation(slowMillis);
+        }
+
+        @Override
+        public Set<Capability> getCapabilities() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public AutoCloseable registerCapabilityListener(final CapabilityListener listener) {
+            return () -> { };
+        }
+
+        @Override
+        public NetconfOperationService createService(final String netconfSessionIdForReporting) {
+            return new NetconfOperationService() {
+                @Override
+                public Set<NetconfOperation> getNetconfOperations() {
+                    return Collections.singleton(operation);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
@@ -13,6 +13,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import io.netty.buffer.ByteBuf;
@@ -23,6 +24,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Queue;
 import org.junit.Before;
 import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.nettyutil.handler.ChunkedFramingMechanismEncoder;
 import org.opendaylight.netconf.nettyutil.handler.FramingMechanismHandlerFactory;
@@ -30,6 +32,7 @@ import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEOMAggregator;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToMessageDecoder;
+import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.util.messages.FramingMechanism;
 import org.opendaylight.netconf.util.messages.NetconfMessageConstants;
 import org.opendaylight.netconf.util.test.XmlFileLoader;
@@ -109,6 +112,23 @@ public class MessageParserTest {
         assertXMLEqual(this.msg.getDocument(), receivedMessage.getDocument());
     }
 
+    @Test
+    public void testSharedNotificationEncodedOnce() throws Exception {
+        final NetconfNotification notification = new NetconfNotification(
+                XmlUtil.readXmlToDocument("<event xmlns=\"urn:test\"><name>value</name></event>"));
+
+        final ByteBuf first = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, notification, first);
+        final ByteBuf encoding = notification.getSharedEncoding();
+        assertNotNull(encoding);
+
+        final ByteBuf second = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, notification, second);
+        assertSame(encoding, notification.getSharedEncoding());
+        assertEquals(first, second);
+        assertEquals(encoding.readableBytes(), first.readableBytes());
+    }
+
     private static long getHeaderLength(byte[] bytes) {
         byte[] HEADER_START = new byte[] { (byte) 0x0a, (byte) 0x23 };
         return Long.parseLong(StandardCharsets.US_ASCII.decode(
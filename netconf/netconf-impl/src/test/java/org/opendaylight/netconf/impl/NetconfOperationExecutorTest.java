@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.opendaylight.netconf.impl.NetconfOperationExecutor.SessionExecutor;
+
+public class NetconfOperationExecutorTest {
+
+    @Test
+    public void testSameThread() throws Exception {
+        assertNull(NetconfOperationExecutor.sameThread().newSessionExecutor());
+    }
+
+    @Test(timeout = 10000)
+    public void testSessionTasksOrdered() throws Exception {
+        try (NetconfOperationExecutor executor = new NetconfOperationExecutor(4, 16)) {
+            final List<SessionExecutor> sessions = new ArrayList<>();
+            final List<List<Integer>> executed = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                sessions.add(executor.newSessionExecutor());
+                executed.add(Collections.synchronizedList(new ArrayList<>()));
+            }
+
+            final CountDownLatch done = new CountDownLatch(8 * 100);
+            for (int task = 0; task < 100; task++) {
+                for (int i = 0; i < 8; i++) {
+                    final int value = task;
+                    final List<Integer> sessionExecuted = executed.get(i);
+                    sessions.get(i).execute(() -> {
+                        sessionExecuted.add(value);
+                        done.countDown();
+                    });
+                }
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (final List<Integer> sessionExecuted : executed) {
+                assertEquals(100, sessionExecuted.size());
+                for (int task = 0; task < 100; task++) {
+                    assertEquals(task, sessionExecuted.get(task).intValue());
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSaturatedPoolRejects() throws Exception {
+        try (NetconfOperationExecutor executor = new NetconfOperationExecutor(1, 1)) {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final SessionExecutor busySession = executor.newSessionExecutor();
+            busySession.execute(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            blocked.await();
+            // Occupies the only queue slot
+            final CountDownLatch drained = new CountDownLatch(1);
+            executor.newSessionExecutor().execute(drained::countDown);
+
+            final SessionExecutor session = executor.newSessionExecutor();
+            final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+            try {
+                session.execute(() -> executed.add(1));
+                fail("Expected " + RejectedExecutionException.class);
+            } catch (final RejectedExecutionException e) {
+                // Expected
+            }
+
+            // Session with pending tasks keeps queueing them
+            final CountDownLatch done = new CountDownLatch(1);
+            busySession.execute(done::countDown);
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(drained.await(5, TimeUnit.SECONDS));
+
+            // Rejected session is usable once the pool has capacity
+            final CountDownLatch accepted = new CountDownLatch(1);
+            session.execute(() -> {
+                executed.add(2);
+                accepted.countDown();
+            });
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            assertEquals(Collections.singletonList(2), executed);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFloodedSessionRejects() throws Exception {
+        try (NetconfOperationExecutor executor = new NetconfOperationExecutor(2, 16)) {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final SessionExecutor floodedSession = executor.newSessionExecutor();
+            floodedSession.execute(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            blocked.await();
+
+            final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch admittedDone = new CountDownLatch(NetconfOperationExecutor.MAX_PENDING_SESSION_TASKS);
+            int rejected = 0;
+            for (int i = 0; i < NetconfOperationExecutor.MAX_PENDING_SESSION_TASKS * 2; i++) {
+                final int value = i;
+                try {
+                    floodedSession.execute(() -> {
+                        executed.add(value);
+                        admittedDone.countDown();
+                    });
+                } catch (final RejectedExecutionException e) {
+                    rejected++;
+                }
+            }
+            assertEquals(NetconfOperationExecutor.MAX_PENDING_SESSION_TASKS, rejected);
+
+            // Other sessions are not affected by the flooded one
+            final CountDownLatch otherDone = new CountDownLatch(1);
+            executor.newSessionExecutor().execute(otherDone::countDown);
+            assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+
+            // Admitted tasks are executed in order and the session accepts new tasks once they are drained
+            release.countDown();
+            assertTrue(admittedDone.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < NetconfOperationExecutor.MAX_PENDING_SESSION_TASKS; i++) {
+                assertEquals(i, executed.get(i).intValue());
+            }
+            final CountDownLatch accepted = new CountDownLatch(1);
+            floodedSession.execute(accepted::countDown);
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -13,9 +13,13 @@ import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
 import org.custommonkey.xmlunit.Diff;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.hamcrest.CustomMatcher;
@@ -147,12 +151,114 @@ public class NetconfServerSessionListenerTest {
         Assert.assertTrue(diff.toString(), diff.similar());
     }
 
+    @Test
+    public void testOnMessageOffEventLoop() throws Exception {
+        final Queue<Runnable> workerTasks = new ArrayDeque<>();
+        final NetconfServerSessionListener asyncListener = new NetconfServerSessionListener(router, monitoring,
+                closeable, new NetconfOperationExecutor.SessionExecutor(workerTasks::add));
+        final Document reply = XmlUtil.readXmlToDocument("<rpc-reply message-id=\"101\" " +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><example/></rpc-reply>");
+        doReturn(reply).when(router).onNetconfMessage(any(), any());
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc message-id=\"101\" " +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><example/></rpc>"));
+
+        asyncListener.onMessage(session, msg);
+        verify(router, never()).onNetconfMessage(any(), any());
+
+        workerTasks.poll().run();
+        verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.IN_RPC_SUCCESS)));
+        channel.runPendingTasks();
+        final NetconfMessage sentMsg = (NetconfMessage) channel.readOutbound();
+        final Diff diff = XMLUnit.compareXML(reply, sentMsg.getDocument());
+        Assert.assertTrue(diff.toString(), diff.similar());
+    }
+
+    @Test
+    public void testOnMessageOffEventLoopRuntimeFail() throws Exception {
+        final Queue<Runnable> workerTasks = new ArrayDeque<>();
+        final NetconfServerSessionListener asyncListener = new NetconfServerSessionListener(router, monitoring,
+                closeable, new NetconfOperationExecutor.SessionExecutor(workerTasks::add));
+        doThrow(new RuntimeException("runtime fail")).when(router).onNetconfMessage(any(), any());
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc message-id=\"101\" " +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><example/></rpc>"));
+
+        asyncListener.onMessage(session, msg);
+        workerTasks.poll().run();
+        verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.IN_RPC_FAIL)));
+        verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.OUT_RPC_ERROR)));
+        assertRpcError("operation-failed");
+    }
+
+    @Test
+    public void testOnMessageRejected() throws Exception {
+        final NetconfServerSessionListener asyncListener = new NetconfServerSessionListener(router, monitoring,
+                closeable, new NetconfOperationExecutor.SessionExecutor(task -> {
+                    throw new RejectedExecutionException("saturated");
+                }));
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc message-id=\"101\" " +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><example/></rpc>"));
+
+        asyncListener.onMessage(session, msg);
+        verify(router, never()).onNetconfMessage(any(), any());
+        verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.IN_RPC_FAIL)));
+        verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.OUT_RPC_ERROR)));
+        assertRpcError("resource-denied");
+    }
+
+    @Test
+    public void testFloodedSessionRejected() throws Exception {
+        final Queue<Runnable> workerTasks = new ArrayDeque<>();
+        final NetconfServerSessionListener asyncListener = new NetconfServerSessionListener(router, monitoring,
+                closeable, new NetconfOperationExecutor.SessionExecutor(workerTasks::add));
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc message-id=\"101\" " +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><example/></rpc>"));
+
+        // The worker never gets to the session, all messages stay pending
+        for (int i = 0; i < NetconfOperationExecutor.MAX_PENDING_SESSION_TASKS; i++) {
+            asyncListener.onMessage(session, msg);
+        }
+        verify(monitoringListener, never()).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.IN_RPC_FAIL)));
+
+        asyncListener.onMessage(session, msg);
+        verify(router, never()).onNetconfMessage(any(), any());
+        verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.IN_RPC_FAIL)));
+        assertRpcError("resource-denied");
+        Assert.assertEquals(1, workerTasks.size());
+    }
+
+    @Test
+    public void testOnSessionDownDropsPendingMessages() throws Exception {
+        final Queue<Runnable> workerTasks = new ArrayDeque<>();
+        final NetconfServerSessionListener asyncListener = new NetconfServerSessionListener(router, monitoring,
+                closeable, new NetconfOperationExecutor.SessionExecutor(workerTasks::add));
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc message-id=\"101\" " +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><example/></rpc>"));
+
+        asyncListener.onMessage(session, msg);
+        asyncListener.onSessionDown(session, new RuntimeException("cause"));
+        verify(monitoringListener).onSessionDown(session);
+        verify(router, never()).close();
+
+        workerTasks.poll().run();
+        verify(router, never()).onNetconfMessage(any(), any());
+        verify(router).close();
+        verify(closeable).close();
+    }
+
     @Test
     public void testOnNotification() throws Exception {
         listener.onNotification(session, new NetconfNotification(XmlUtil.readXmlToDocument("<notification/>")));
         verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.NOTIFICATION)));
     }
 
+    private void assertRpcError(final String errorTag) {
+        channel.runPendingTasks();
+        final Document sent = ((NetconfMessage) channel.readOutbound()).getDocument();
+        Assert.assertEquals("101", sent.getDocumentElement().getAttribute("message-id"));
+        Assert.assertEquals(errorTag, sent.getElementsByTagNameNS("urn:ietf:params:xml:ns:netconf:base:1.0",
+                "error-tag").item(0).getTextContent());
+    }
+
     private CustomMatcher<SessionEvent> sessionEventIs(final SessionEvent.Type type) {
         return new CustomMatcher<SessionEvent>(type.name()) {
             @Override
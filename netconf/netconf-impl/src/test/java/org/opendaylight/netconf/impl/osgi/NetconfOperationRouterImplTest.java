@@ -10,6 +10,8 @@ package org.opendaylight.netconf.impl.osgi;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
@@ -24,12 +26,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
+import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
+import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 public class NetconfOperationRouterImplTest {
@@ -117,4 +122,51 @@ public class NetconfOperationRouterImplTest {
         verify(operationService).close();
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testNameBasedOperationResolvedOnce() throws Exception {
+        final CountingOperation countingOperation = new CountingOperation();
+        final NetconfOperationService service = mock(NetconfOperationService.class);
+        doReturn(Collections.singleton(countingOperation)).when(service).getNetconfOperations();
+        final NetconfOperationRouterImpl router = new NetconfOperationRouterImpl(service, null, "session-1");
+
+        final Document reply = router.onNetconfMessage(TEST_RPC_DOC, null);
+        router.onNetconfMessage(TEST_RPC_DOC, null);
+        Assert.assertEquals(1, countingOperation.priorityLookups);
+        Assert.assertEquals(2, countingOperation.handled);
+        Assert.assertEquals("rpc-reply", reply.getDocumentElement().getLocalName());
+
+        // Content based operations are still consulted for every message
+        verify(maxPrioMock, times(0)).canHandle(any(Document.class));
+        operationRouter.onNetconfMessage(TEST_RPC_DOC, null);
+        operationRouter.onNetconfMessage(TEST_RPC_DOC, null);
+        verify(maxPrioMock, times(2)).canHandle(any(Document.class));
+    }
+
+    private static final class CountingOperation extends AbstractSingletonNetconfOperation {
+        private int priorityLookups;
+        private int handled;
+
+        CountingOperation() {
+            super("session-1");
+        }
+
+        @Override
+        protected String getOperationName() {
+            return "test";
+        }
+
+        @Override
+        protected HandlingPriority getHandlingPriority() {
+            priorityLookups++;
+            return super.getHandlingPriority();
+        }
+
+        @Override
+        protected Element handleWithNoSubsequentOperations(final Document document, final XmlElement operationElement)
+                throws DocumentedException {
+            handled++;
+            return document.createElement("ok");
+        }
+    }
+}
@@ -10,22 +10,30 @@ package org.opendaylight.netconf.nettyutil;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultChannelPromise;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import javax.xml.stream.XMLStreamException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.netconf.api.NetconfExiSession;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.NetconfSessionListener;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXICodec;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXIToMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToEXIEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
 import org.opendaylight.protocol.framework.AbstractProtocolSession;
 import org.openexi.proc.common.EXIOptionsException;
 import org.openexi.sax.TransmogrifierException;
@@ -40,6 +48,12 @@ public abstract class AbstractNetconfSession<S extends NetconfSession, L extends
 
     private ChannelHandler delayedEncoder;
 
+    private final Object streamLock = new Object();
+    // Messages sent while another message is being streamed, null if no message is being streamed
+    private List<Runnable> deferredMessages;
+    // Streamer of the message being streamed, notified about writability changes
+    private volatile NetconfMessageStreamer activeStreamer;
+
     private final Channel channel;
 
     protected AbstractNetconfSession(final L sessionListener, final Channel channel, final long sessionId) {
@@ -66,6 +80,100 @@ public abstract class AbstractNetconfSession<S extends NetconfSession, L extends
 
     @Override
     public ChannelFuture sendMessage(final NetconfMessage netconfMessage) {
+        final DefaultChannelPromise proxyFuture = new DefaultChannelPromise(channel);
+        final NetconfMessageStreamer streamer;
+        synchronized (streamLock) {
+            if (deferredMessages != null) {
+                // A message is being streamed, its chunks must not be interleaved with other messages
+                deferredMessages.add(() -> writeMessage(netconfMessage, proxyFuture));
+                return proxyFuture;
+            }
+            streamer = getStreamer(netconfMessage);
+            if (streamer == null) {
+                writeMessage(netconfMessage, proxyFuture);
+                return proxyFuture;
+            }
+            deferredMessages = new ArrayList<>();
+            activeStreamer = streamer;
+        }
+
+        final Runnable streamTask = () -> {
+            try {
+                streamMessage(streamer, (StreamingNetconfMessage) netconfMessage, proxyFuture);
+            } finally {
+                flushDeferredMessages();
+            }
+        };
+        if (!channel.eventLoop().inEventLoop()) {
+            streamTask.run();
+            return proxyFuture;
+        }
+
+        // The event loop must not wait for the channel to become writable, the message is streamed by another thread
+        try {
+            NetconfMessageStreamer.execute(streamTask);
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("No thread available to stream message {} on session {}, writing it as a whole",
+                    netconfMessage, this, e);
+            writeMessage(netconfMessage, proxyFuture);
+            flushDeferredMessages();
+        }
+        return proxyFuture;
+    }
+
+    private void flushDeferredMessages() {
+        synchronized (streamLock) {
+            activeStreamer = null;
+            // Only schedules the writes, so it does not block other senders
+            for (final Runnable deferred : deferredMessages) {
+                deferred.run();
+            }
+            deferredMessages = null;
+        }
+    }
+
+    /**
+     * Messages are streamed only by the sessions which support it and with the default XML encoder in the pipeline.
+     *
+     * @return streamer for the message or null if it is written as a whole
+     */
+    private NetconfMessageStreamer getStreamer(final NetconfMessage netconfMessage) {
+        if (!(netconfMessage instanceof StreamingNetconfMessage) || !isMessageStreamingSupported()
+                || delayedEncoder != null
+                || !(channel.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_ENCODER)
+                        instanceof NetconfMessageToXMLEncoder)) {
+            return null;
+        }
+        final ChannelHandlerContext frameEncoderCtx =
+                channel.pipeline().context(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER);
+        return frameEncoderCtx == null ? null : new NetconfMessageStreamer(frameEncoderCtx);
+    }
+
+    private void streamMessage(final NetconfMessageStreamer streamer, final StreamingNetconfMessage netconfMessage,
+                               final DefaultChannelPromise proxyFuture) {
+        final ChannelFuture future;
+        try {
+            future = streamer.stream(netconfMessage);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            // Part of the message may have been sent already, the session cannot continue
+            LOG.warn("Failed to stream message {} on session {}, closing the session", netconfMessage, this, e);
+            proxyFuture.setFailure(e);
+            channel.close();
+            return;
+        }
+        future.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (future.isSuccess()) {
+                    proxyFuture.setSuccess();
+                } else {
+                    proxyFuture.setFailure(future.cause());
+                }
+            }
+        });
+    }
+
+    private void writeMessage(final NetconfMessage netconfMessage, final DefaultChannelPromise proxyFuture) {
         // From: https://github.com/netty/netty/issues/3887
         // Netty can provide "ordering" in the following situations:
         // 1. You are doing all writes from the EventLoop thread; OR
@@ -74,7 +182,6 @@ public abstract class AbstractNetconfSession<S extends NetconfSession, L extends
         // Restconf writes to a netconf mountpoint execute multiple messages
         // and one of these was executed from a restconf thread thus breaking ordering so
         // we need to execute all messages from an EventLoop thread.
-        final DefaultChannelPromise proxyFuture = new DefaultChannelPromise(channel);
         channel.eventLoop().execute(new Runnable() {
             @Override
             public void run() {
@@ -95,8 +202,54 @@ public abstract class AbstractNetconfSession<S extends NetconfSession, L extends
                 }
             }
         });
+    }
 
-        return proxyFuture;
+    /**
+     * Large replies, represented as {@link StreamingNetconfMessage}, may be serialized and written in chunks by the
+     * sending thread, or by a thread of a shared pool if sent from the event loop, so that they are never held in memory
+     * as a whole. Disabled by default.
+     *
+     * @return true if messages sent on this session may be streamed
+     */
+    protected boolean isMessageStreamingSupported() {
+        return false;
+    }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        final boolean writable = ctx.channel().isWritable();
+        LOG.debug("Session {} writability changed to {}, pending write bytes: {}", this, writable, getPendingWriteBytes());
+        final NetconfMessageStreamer streamer = activeStreamer;
+        if (streamer != null) {
+            streamer.writabilityChanged();
+        }
+        sessionWritabilityChanged(writable);
+        super.channelWritabilityChanged(ctx);
+    }
+
+    /**
+     * Invoked from the channel event loop when the session stops or resumes accepting messages without buffering
+     * them, so that producers of messages can slow down. Does nothing by default.
+     *
+     * @param writable current writability of the session
+     */
+    protected void sessionWritabilityChanged(final boolean writable) {
+        // NOOP
+    }
+
+    /**
+     * @return true if messages sent on this session are written out without buffering
+     */
+    public boolean isWritable() {
+        return channel.isWritable();
+    }
+
+    /**
+     * @return number of bytes sent on this session and buffered by the SSH transport, 0 for other transports
+     */
+    public long getPendingWriteBytes() {
+        final AsyncSshHandler sshHandler = channel.pipeline().get(AsyncSshHandler.class);
+        return sshHandler == null ? 0 : sshHandler.getPendingWriteBytes();
     }
 
     @Override
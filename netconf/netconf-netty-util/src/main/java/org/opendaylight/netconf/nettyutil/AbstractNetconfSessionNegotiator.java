@@ -177,7 +177,18 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
                 FramingMechanismHandlerFactory.createHandler(FramingMechanism.CHUNK));
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR,
-                new NetconfChunkAggregator());
+                new NetconfChunkAggregator(NetconfChunkAggregator.DEFAULT_MAXIMUM_CHUNK_SIZE, isLazyMessageDecoding()));
+    }
+
+    /**
+     * Determines whether messages received on the negotiated session should be decoded into
+     * {@link org.opendaylight.netconf.api.LazyNetconfMessage}s. If chunk framing is used as well, chunks are
+     * streamed to the decoder as they arrive instead of being aggregated first.
+     *
+     * @return true if lazy message decoding should be used, false by default
+     */
+    protected boolean isLazyMessageDecoding() {
+        return false;
     }
 
     private boolean shouldUseChunkFraming(final Document doc) {
@@ -192,7 +203,11 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
      * It caches any non-hello messages while negotiation is still in progress
      */
     protected final void replaceHelloMessageInboundHandler(final S session) {
-        ChannelHandler helloMessageHandler = replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, new NetconfXMLToMessageDecoder());
+        final ChannelHandler aggregator = channel.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR);
+        final boolean streamingInput = aggregator instanceof NetconfChunkAggregator
+                && ((NetconfChunkAggregator) aggregator).isStreaming();
+        ChannelHandler helloMessageHandler = replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_DECODER,
+                new NetconfXMLToMessageDecoder(isLazyMessageDecoding(), streamingInput));
 
         Preconditions.checkState(helloMessageHandler instanceof NetconfXMLToHelloMessageDecoder,
                 "Pipeline handlers misplaced on session: %s, pipeline: %s", session, channel.pipeline());
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.BufferedWriter;
+import org.opendaylight.netconf.nettyutil.handler.ChunkedFramingMechanismEncoder;
+import org.opendaylight.netconf.util.messages.NetconfMessageConstants;
+
+/**
+ * Serializes a {@link StreamingNetconfMessage} in parts of the negotiated chunk size, each part is framed and written
+ * to the channel as soon as it is full. The message is never held in memory as a whole, the serializing thread waits
+ * for the channel to become writable before each part, so it holds back together with the transport, including
+ * proxies which apply their writability to the channel.
+ *
+ * <p>
+ * Parts are framed here and written past the frame encoder, so it must not be invoked from the channel event loop.
+ * Messages sent from an event loop are streamed by a thread of a shared pool, see {@link #execute(Runnable)}.
+ */
+final class NetconfMessageStreamer {
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
+
+    // Upper bound of a wait for writability, so that a closed channel is noticed even if no change is reported
+    private static final long WRITABILITY_WAIT_MILLIS = 1000;
+
+    // Threads streaming messages sent from event loops. No queue, streaming of a message starts at once or not at all.
+    private static final ThreadPoolExecutor STREAMING_EXECUTOR = new ThreadPoolExecutor(0,
+            Runtime.getRuntime().availableProcessors() * 2, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("netconf-message-streamer-%d").setDaemon(true).build());
+
+    private final ChannelHandlerContext frameEncoderCtx;
+    private final int partSize;
+    private final boolean chunked;
+    private final Object writabilityLock = new Object();
+
+    /**
+     * @param frameEncoderCtx context of the frame encoder in the pipeline
+     */
+    NetconfMessageStreamer(final ChannelHandlerContext frameEncoderCtx) {
+        this.frameEncoderCtx = frameEncoderCtx;
+        if (frameEncoderCtx.handler() instanceof ChunkedFramingMechanismEncoder) {
+            this.chunked = true;
+            this.partSize = ((ChunkedFramingMechanismEncoder) frameEncoderCtx.handler()).getChunkSize();
+        } else {
+            this.chunked = false;
+            this.partSize = ChunkedFramingMechanismEncoder.DEFAULT_CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * Run a streaming task on a thread of the shared streaming pool.
+     *
+     * @param task task streaming a message
+     * @throws RejectedExecutionException if all threads of the pool are busy
+     */
+    static void execute(final Runnable task) {
+        STREAMING_EXECUTOR.execute(task);
+    }
+
+    /**
+     * Wake up the streaming thread if it waits for the channel to become writable. Invoked from the event loop.
+     */
+    void writabilityChanged() {
+        synchronized (writabilityLock) {
+            writabilityLock.notifyAll();
+        }
+    }
+
+    /**
+     * Serialize message and write it to the channel.
+     *
+     * @param msg message to write
+     * @return future of the write of the last part of the message
+     * @throws IOException if a part could not be written
+     * @throws XMLStreamException if the message could not be serialized
+     */
+    ChannelFuture stream(final StreamingNetconfMessage msg) throws IOException, XMLStreamException {
+        final FramingOutputStream os = new FramingOutputStream();
+        // Using custom BufferedWriter that does not provide newLine method as performance improvement
+        final BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+        final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(bufferedWriter);
+        try {
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            msg.writeTo(writer);
+            writer.writeEndDocument();
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+        bufferedWriter.flush();
+        return os.finish();
+    }
+
+    /**
+     * Collects serialized bytes into parts and writes every full part as one chunk.
+     */
+    private final class FramingOutputStream extends OutputStream {
+        private final byte[] part = new byte[partSize];
+        private int length;
+        private ChannelFuture lastWrite;
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (length == part.length) {
+                writePart(false);
+            }
+            part[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (length == part.length) {
+                    writePart(false);
+                }
+                final int xfer = Math.min(remaining, part.length - length);
+                System.arraycopy(b, offset, part, length, xfer);
+                length += xfer;
+                offset += xfer;
+                remaining -= xfer;
+            }
+        }
+
+        ChannelFuture finish() throws IOException {
+            writePart(true);
+            return lastWrite;
+        }
+
+        private void writePart(final boolean last) throws IOException {
+            checkLastWrite();
+            final ByteBuf buf = Unpooled.buffer(length + NetconfMessageConstants.MAX_HEADER_LENGTH
+                    + NetconfMessageConstants.END_OF_MESSAGE.length);
+            if (chunked) {
+                if (length > 0) {
+                    buf.writeBytes(NetconfMessageConstants.START_OF_CHUNK);
+                    buf.writeBytes(String.valueOf(length).getBytes(StandardCharsets.US_ASCII));
+                    buf.writeByte('\n');
+                    buf.writeBytes(part, 0, length);
+                }
+                if (last) {
+                    buf.writeBytes(NetconfMessageConstants.END_OF_CHUNK);
+                }
+            } else {
+                buf.writeBytes(part, 0, length);
+                if (last) {
+                    buf.writeBytes(NetconfMessageConstants.END_OF_MESSAGE);
+                }
+            }
+            length = 0;
+
+            // Do not serialize more than the transport is able to take
+            try {
+                awaitWritable();
+            } catch (final IOException e) {
+                buf.release();
+                throw e;
+            }
+            lastWrite = frameEncoderCtx.writeAndFlush(buf);
+        }
+
+        private void awaitWritable() throws IOException {
+            final Channel channel = frameEncoderCtx.channel();
+            synchronized (writabilityLock) {
+                while (!channel.isWritable()) {
+                    if (!channel.isActive()) {
+                        throw new IOException("Channel " + channel + " was closed while streaming a message");
+                    }
+                    try {
+                        writabilityLock.wait(WRITABILITY_WAIT_MILLIS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for channel " + channel);
+                    }
+                    checkLastWrite();
+                }
+            }
+        }
+
+        private void checkLastWrite() throws IOException {
+            if (lastWrite != null && lastWrite.isDone() && !lastWrite.isSuccess()) {
+                throw new IOException("Failed to write message part", lastWrite.cause());
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.nettyutil.handler;
 
+import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
@@ -35,11 +36,48 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
         FOOTER_FOUR, // \n
     }
 
-    private final int maxChunkSize = DEFAULT_MAXIMUM_CHUNK_SIZE;
+    /**
+     * Marker emitted after the last chunk payload of a message when the aggregator
+     * runs in streaming mode. Downstream handlers use it to detect message boundaries.
+     */
+    public static final Object END_OF_MESSAGE = new Object() {
+        @Override
+        public String toString() {
+            return "END_OF_MESSAGE";
+        }
+    };
+
+    private final int maxChunkSize;
+    private final boolean streaming;
     private State state = State.HEADER_ONE;
     private long chunkSize;
     private CompositeByteBuf chunk;
 
+    /**
+     * Create an aggregator which emits each complete message as a single {@link ByteBuf}.
+     */
+    public NetconfChunkAggregator() {
+        this(DEFAULT_MAXIMUM_CHUNK_SIZE, false);
+    }
+
+    /**
+     * Create an aggregator.
+     *
+     * @param maxChunkSize maximum size of a single chunk accepted from the peer
+     * @param streaming if true, chunk payloads are passed downstream as soon as they are received,
+     *                  each message being terminated by {@link #END_OF_MESSAGE}. Otherwise all chunks
+     *                  of a message are aggregated into a single {@link ByteBuf}.
+     */
+    public NetconfChunkAggregator(final int maxChunkSize, final boolean streaming) {
+        Preconditions.checkArgument(maxChunkSize > 0, "Maximum chunk size has to be positive, was %s", maxChunkSize);
+        this.maxChunkSize = maxChunkSize;
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     private static void checkNewLine(final byte b,final String errorMessage) {
         if (b != '\n') {
             LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM, b, (byte)'\n');
@@ -72,7 +110,9 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
 
                 state = State.HEADER_TWO;
 
-                initChunk();
+                if (!streaming) {
+                    initChunk();
+                }
                 break;
             }
             case HEADER_TWO:
@@ -109,12 +149,18 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
                 break;
             }
             case DATA:
-                /*
-                 * FIXME: this gathers all data into one big chunk before passing
-                 *        it on. Make sure the pipeline can work with partial data
-                 *        and then change this piece to pass the data on as it
-                 *        comes through.
-                 */
+                if (streaming) {
+                    // Pass on whatever part of the chunk we have as a slice of the input buffer,
+                    // so that the payload is not copied and only the unconsumed bytes are kept
+                    final int available = (int) Math.min(in.readableBytes(), chunkSize);
+                    out.add(in.readSlice(available).retain());
+                    chunkSize -= available;
+                    if (chunkSize == 0) {
+                        state = State.FOOTER_ONE;
+                    }
+                    break;
+                }
+
                 if (in.readableBytes() < chunkSize) {
                     LOG.debug("Buffer has {} bytes, need {} to complete chunk", in.readableBytes(), chunkSize);
                     in.discardReadBytes();
@@ -154,14 +200,21 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
                 final byte b = in.readByte();
                 checkNewLine(b,"Malformed chunk footer encountered (byte 3)");
                 state = State.HEADER_ONE;
-                out.add(chunk);
-                chunk = null;
+                if (streaming) {
+                    out.add(END_OF_MESSAGE);
+                } else {
+                    out.add(chunk);
+                    chunk = null;
+                }
                 break;
             }
             }
         }
 
-        in.discardReadBytes();
+        if (!streaming) {
+            // Slices passed on in streaming mode share the input buffer, its content must not be moved
+            in.discardReadBytes();
+        }
     }
 
     private void extractNewChunkOrMessageEnd(final byte b) {
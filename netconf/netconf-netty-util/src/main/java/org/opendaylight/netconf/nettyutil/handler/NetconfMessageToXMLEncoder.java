@@ -11,22 +11,34 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.SharedNetconfMessage;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Comment;
 
 public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMessage> {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageToXMLEncoder.class);
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
 
     private final Optional<String> clientId;
 
@@ -40,14 +52,48 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
 
     @Override
     @VisibleForTesting
-    public void encode(final ChannelHandlerContext ctx, final NetconfMessage msg, final ByteBuf out) throws IOException, TransformerException {
+    public void encode(final ChannelHandlerContext ctx, final NetconfMessage msg, final ByteBuf out)
+            throws IOException, TransformerException, XMLStreamException {
         LOG.trace("Sent to encode : {}", msg);
 
+        if (msg instanceof StreamingNetconfMessage) {
+            encodeStreaming((StreamingNetconfMessage) msg, out);
+            return;
+        }
+
+        if (msg instanceof SharedNetconfMessage && !clientId.isPresent()) {
+            encodeShared(msg, out);
+            return;
+        }
+
         if (clientId.isPresent()) {
             Comment comment = msg.getDocument().createComment("clientId:" + clientId.get());
             msg.getDocument().appendChild(comment);
         }
 
+        encodeDocument(msg, out);
+    }
+
+    /**
+     * Encode message once and copy the stored encoding into the output of every session it is sent to.
+     */
+    private static void encodeShared(final NetconfMessage msg, final ByteBuf out)
+            throws IOException, TransformerException {
+        final SharedNetconfMessage shared = (SharedNetconfMessage) msg;
+        ByteBuf encoding;
+        synchronized (shared) {
+            encoding = shared.getSharedEncoding();
+            if (encoding == null) {
+                encoding = Unpooled.buffer();
+                encodeDocument(msg, encoding);
+                shared.setSharedEncoding(encoding);
+            }
+        }
+        out.writeBytes(encoding, encoding.readerIndex(), encoding.readableBytes());
+    }
+
+    private static void encodeDocument(final NetconfMessage msg, final ByteBuf out)
+            throws IOException, TransformerException {
         try (OutputStream os = new ByteBufOutputStream(out)) {
             // Wrap OutputStreamWriter with BufferedWriter as suggested in javadoc for OutputStreamWriter
 
@@ -58,4 +104,27 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
             ThreadLocalTransformers.getPrettyTransformer().transform(source, result);
         }
     }
+
+    /**
+     * Serialize message directly into the output buffer. No DOM is built and no indentation is added.
+     */
+    private void encodeStreaming(final StreamingNetconfMessage msg, final ByteBuf out)
+            throws IOException, XMLStreamException {
+        try (OutputStream os = new ByteBufOutputStream(out)) {
+            final BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(bufferedWriter);
+            try {
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                msg.writeTo(writer);
+                if (clientId.isPresent()) {
+                    writer.writeComment("clientId:" + clientId.get());
+                }
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+            bufferedWriter.flush();
+        }
+    }
 }
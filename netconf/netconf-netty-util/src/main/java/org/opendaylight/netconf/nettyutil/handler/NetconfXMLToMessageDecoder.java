@@ -10,22 +10,109 @@ package org.opendaylight.netconf.nettyutil.handler;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufUtil;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
+import javax.xml.stream.XMLStreamException;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
+/**
+ * Decodes XML messages into {@link NetconfMessage}s.
+ *
+ * <p>
+ * By default every incoming {@link ByteBuf} is expected to hold exactly one message, which is parsed into a DOM
+ * document. In lazy mode, messages are decoded into {@link LazyNetconfMessage}s, which keep the serialized form and
+ * build the DOM only on request. In streaming input mode, incoming buffers are partial messages as produced by
+ * a streaming {@link NetconfChunkAggregator}. Each of them is appended to a {@link LazyNetconfMessage.Builder} and
+ * released right away, the message is built once {@link NetconfChunkAggregator#END_OF_MESSAGE} is received.
+ */
 public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfXMLToMessageDecoder.class);
 
+    private final boolean lazy;
+    private final boolean streamingInput;
+
+    // Streaming input state
+    private LazyNetconfMessage.Builder builder;
+    private boolean discarding;
+
+    public NetconfXMLToMessageDecoder() {
+        this(false, false);
+    }
+
+    /**
+     * @param lazy if true, produce {@link LazyNetconfMessage}s instead of DOM backed messages
+     * @param streamingInput if true, input buffers are parts of a message ended by
+     *                       {@link NetconfChunkAggregator#END_OF_MESSAGE}
+     */
+    public NetconfXMLToMessageDecoder(final boolean lazy, final boolean streamingInput) {
+        this.lazy = lazy;
+        this.streamingInput = streamingInput;
+    }
+
     @Override
-    public void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) throws IOException, SAXException {
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        if (!streamingInput) {
+            super.channelRead(ctx, msg);
+            return;
+        }
+
+        if (msg == NetconfChunkAggregator.END_OF_MESSAGE) {
+            final LazyNetconfMessage.Builder completed = builder;
+            builder = null;
+            if (discarding) {
+                discarding = false;
+            } else if (completed != null) {
+                final LazyNetconfMessage message = completed.build();
+                ctx.fireChannelRead(lazy ? message : new NetconfMessage(message.getDocument()));
+            } else {
+                LOG.debug("No more content in incoming buffer.");
+            }
+            return;
+        }
+
+        final ByteBuf in = (ByteBuf) msg;
+        try {
+            if (!discarding) {
+                appendPart(in);
+            }
+        } catch (XMLStreamException e) {
+            // Drop the rest of the message, the next one starts after END_OF_MESSAGE
+            discarding = true;
+            builder = null;
+            throw e;
+        } finally {
+            in.release();
+        }
+    }
+
+    private void appendPart(final ByteBuf in) throws XMLStreamException {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Received part to decode: {}", ByteBufUtil.hexDump(in));
+        }
+        if (builder == null) {
+            skipLeadingWhitespace(in);
+            if (!in.isReadable()) {
+                return;
+            }
+            builder = LazyNetconfMessage.builder();
+        }
+        for (final ByteBuffer buffer : in.nioBuffers()) {
+            builder.append(buffer);
+        }
+        LOG.trace("Message not complete yet, {} bytes received", builder.getContentLength());
+    }
+
+    @Override
+    public void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out)
+            throws IOException, SAXException, XMLStreamException {
         if (in.isReadable()) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Received to decode: {}", ByteBufUtil.hexDump(in));
@@ -48,28 +135,41 @@ public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
              *
              * To do this, the following code strips the leading bytes before the start of the XML messages.
              */
-
-            // Skip all leading whitespaces by moving the reader index to the first non whitespace character
-            while (in.isReadable()) {
-                if (!isWhitespace(in.readByte())) {
-                    // return reader index to the first non whitespace character
-                    in.readerIndex(in.readerIndex() - 1);
-                    break;
+            skipLeadingWhitespace(in);
+        }
+        if (in.isReadable()) {
+            if (lazy) {
+                final LazyNetconfMessage.Builder messageBuilder = LazyNetconfMessage.builder();
+                for (final ByteBuffer buffer : in.nioBuffers()) {
+                    messageBuilder.append(buffer);
                 }
+                in.skipBytes(in.readableBytes());
+                out.add(messageBuilder.build());
+            } else {
+                out.add(new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in))));
             }
+        } else {
+            LOG.debug("No more content in incoming buffer.");
+        }
+    }
 
-            // Warn about leading whitespaces
-            if (in.readerIndex() != 0 && LOG.isWarnEnabled()) {
-                final byte[] strippedBytes = new byte[in.readerIndex()];
-                in.getBytes(0, strippedBytes, 0, in.readerIndex());
-                LOG.warn("XML message with unwanted leading bytes detected. Discarded the {} leading byte(s): '{}'",
-                        in.readerIndex(), ByteBufUtil.hexDump(Unpooled.wrappedBuffer(strippedBytes)));
+    /**
+     * Skip all leading whitespaces by moving the reader index to the first non whitespace character.
+     */
+    private static void skipLeadingWhitespace(final ByteBuf in) {
+        final int start = in.readerIndex();
+        while (in.isReadable()) {
+            if (!isWhitespace(in.readByte())) {
+                // return reader index to the first non whitespace character
+                in.readerIndex(in.readerIndex() - 1);
+                break;
             }
         }
-        if (in.isReadable()) {
-            out.add(new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in))));
-        } else {
-            LOG.debug("No more content in incoming buffer.");
+
+        // Warn about leading whitespaces
+        if (in.readerIndex() != start && LOG.isWarnEnabled()) {
+            LOG.warn("XML message with unwanted leading bytes detected. Discarded the {} leading byte(s): '{}'",
+                    in.readerIndex() - start, ByteBufUtil.hexDump(in, start, in.readerIndex() - start));
         }
     }
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil.handler.ssh;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.sshd.common.FactoryManager;
+import org.apache.sshd.common.RuntimeSshException;
+import org.apache.sshd.common.io.IoAcceptor;
+import org.apache.sshd.common.io.IoConnector;
+import org.apache.sshd.common.io.IoHandler;
+import org.apache.sshd.common.io.IoServiceFactory;
+import org.apache.sshd.common.io.nio2.Nio2Acceptor;
+import org.apache.sshd.common.io.nio2.Nio2Connector;
+import org.apache.sshd.common.io.nio2.Nio2ServiceFactoryFactory;
+import org.apache.sshd.common.util.CloseableUtils;
+
+/**
+ * Based on Nio2ServiceFactory with one addition: injectable executor. I/O completions of mina SSH are dispatched to
+ * the executor, which may be shared with other components, e.g. netty event loops.
+ */
+public final class NioServiceWithPoolFactory extends CloseableUtils.AbstractCloseable implements IoServiceFactory {
+
+    private final FactoryManager manager;
+    private final AsynchronousChannelGroup group;
+
+    public NioServiceWithPoolFactory(final FactoryManager manager, final ExecutorService executor) {
+        this.manager = manager;
+        try {
+            group = AsynchronousChannelGroup.withThreadPool(executor);
+        } catch (final IOException e) {
+            throw new RuntimeSshException(e);
+        }
+    }
+
+    @Override
+    public IoConnector createConnector(final IoHandler handler) {
+        return new Nio2Connector(manager, handler, group);
+    }
+
+    @Override
+    public IoAcceptor createAcceptor(final IoHandler handler) {
+        return new Nio2Acceptor(manager, handler, group);
+    }
+
+    @Override
+    protected void doCloseImmediately() {
+        try {
+            group.shutdownNow();
+            group.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (final Exception e) {
+            log.debug("Exception caught while closing channel group", e);
+        } finally {
+            super.doCloseImmediately();
+        }
+    }
+
+    public static final class NioServiceWithPoolFactoryFactory extends Nio2ServiceFactoryFactory {
+
+        private final ExecutorService nioExecutor;
+
+        public NioServiceWithPoolFactoryFactory(final ExecutorService nioExecutor) {
+            this.nioExecutor = nioExecutor;
+        }
+
+        @Override
+        public IoServiceFactory create(final FactoryManager manager) {
+            return new NioServiceWithPoolFactory(manager, nioExecutor);
+        }
+    }
+}
@@ -10,6 +10,7 @@ package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
@@ -17,8 +18,13 @@ import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import org.apache.sshd.ClientChannel;
 import org.apache.sshd.ClientSession;
 import org.apache.sshd.SshClient;
@@ -27,6 +33,7 @@ import org.apache.sshd.client.future.ConnectFuture;
 import org.apache.sshd.client.future.OpenFuture;
 import org.apache.sshd.common.future.CloseFuture;
 import org.apache.sshd.common.future.SshFutureListener;
+import org.opendaylight.netconf.nettyutil.handler.ssh.NioServiceWithPoolFactory.NioServiceWithPoolFactoryFactory;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,23 +46,64 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
 
     public static final String SUBSYSTEM = "netconf";
 
-    public static final int SSH_DEFAULT_NIO_WORKERS = 8;
+    // Same as the default size of netty event loop groups
+    public static final int SSH_DEFAULT_NIO_WORKERS = Runtime.getRuntime().availableProcessors() * 2;
     // Disable default timeouts from mina sshd
     private static final long DEFAULT_TIMEOUT = -1L;
 
-    public static final SshClient DEFAULT_CLIENT;
-    static {
+    /**
+     * Holder of the default client, which is created and started on first use, as it starts its own I/O threads.
+     */
+    private static final class DefaultClientHolder {
+        static final SshClient CLIENT = createSshClient(SSH_DEFAULT_NIO_WORKERS);
+    }
+
+    /**
+     * Get the default SSH client shared by handlers created without a client. The client is started on first
+     * invocation.
+     *
+     * @return started SshClient
+     */
+    public static SshClient getDefaultClient() {
+        return DefaultClientHolder.CLIENT;
+    }
+
+    /**
+     * Create and start SSH client with its own pool of I/O threads.
+     *
+     * @param nioWorkers number of I/O threads
+     * @return started SshClient
+     */
+    public static SshClient createSshClient(final int nioWorkers) {
+        Preconditions.checkArgument(nioWorkers > 0, "Number of nio workers has to be positive, was %s", nioWorkers);
+        final SshClient c = setUpClient();
+        c.setNioWorkers(nioWorkers);
+        c.start();
+        return c;
+    }
+
+    /**
+     * Create and start SSH client, which dispatches its I/O to provided executor, e.g. netty worker group.
+     * The executor is not shut down when the client stops.
+     *
+     * @param ioExecutor executor running I/O completions
+     * @return started SshClient
+     */
+    public static SshClient createSshClient(final Executor ioExecutor) {
+        final SshClient c = setUpClient();
+        c.setIoServiceFactoryFactory(new NioServiceWithPoolFactoryFactory(new SharedExecutor(ioExecutor)));
+        c.start();
+        return c;
+    }
+
+    private static SshClient setUpClient() {
         final Map<String, String> props = new HashMap<>();
         props.put(SshClient.AUTH_TIMEOUT, Long.toString(DEFAULT_TIMEOUT));
         props.put(SshClient.IDLE_TIMEOUT, Long.toString(DEFAULT_TIMEOUT));
 
         final SshClient c = SshClient.setUpDefaultClient();
-
         c.setProperties(props);
-        // TODO make configurable, or somehow reuse netty threadpool
-        c.setNioWorkers(SSH_DEFAULT_NIO_WORKERS);
-        c.start();
-        DEFAULT_CLIENT = c;
+        return c;
     }
 
     private final AuthenticationHandler authenticationHandler;
@@ -88,7 +136,7 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
     }
 
     public static AsyncSshHandler createForNetconfSubsystem(final AuthenticationHandler authenticationHandler) throws IOException {
-        return new AsyncSshHandler(authenticationHandler, DEFAULT_CLIENT);
+        return new AsyncSshHandler(authenticationHandler, getDefaultClient());
     }
 
     /**
@@ -103,7 +151,22 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
      */
     public static AsyncSshHandler createForNetconfSubsystem(final AuthenticationHandler authenticationHandler,
             final Future<?> negotiationFuture) throws IOException {
-        return new AsyncSshHandler(authenticationHandler, DEFAULT_CLIENT, negotiationFuture);
+        return createForNetconfSubsystem(authenticationHandler, negotiationFuture, getDefaultClient());
+    }
+
+    /**
+     * Create AsyncSshHandler for netconf subsystem using provided SSH client. Negotiation future has to be set to
+     * success after successful netconf negotiation.
+     *
+     * @param authenticationHandler
+     * @param negotiationFuture
+     * @param sshClient started SshClient
+     * @return
+     * @throws IOException
+     */
+    public static AsyncSshHandler createForNetconfSubsystem(final AuthenticationHandler authenticationHandler,
+            final Future<?> negotiationFuture, final SshClient sshClient) throws IOException {
+        return new AsyncSshHandler(authenticationHandler, sshClient, negotiationFuture);
     }
 
     private void startSsh(final ChannelHandlerContext ctx, final SocketAddress address) {
@@ -193,7 +256,10 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
 
         // if readAsyncListener receives immediate close, it will close this handler and closing this handler sets channel variable to null
         if(channel != null) {
-            sshWriteAsyncHandler = new AsyncSshHandlerWriter(channel.getAsyncIn());
+            // Writes pending on the SSH channel toggle writability of the netty channel as its own buffer would
+            final ChannelConfig config = ctx.channel().config();
+            sshWriteAsyncHandler = new AsyncSshHandlerWriter(channel.getAsyncIn(), config.getWriteBufferLowWaterMark(),
+                    config.getWriteBufferHighWaterMark(), AsyncSshHandlerWriter.DEFAULT_MAX_PENDING_BYTES);
             ctx.fireChannelActive();
         }
     }
@@ -209,6 +275,13 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         disconnect(ctx, ctx.newPromise());
     }
 
+    /**
+     * @return number of bytes written to this handler, which were not written to the SSH channel yet
+     */
+    public synchronized long getPendingWriteBytes() {
+        return sshWriteAsyncHandler == null ? 0 : sshWriteAsyncHandler.getPendingBytes();
+    }
+
     @Override
     public synchronized void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
         sshWriteAsyncHandler.write(ctx, msg, promise);
@@ -296,4 +369,47 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         LOG.debug("SSH session closed on channel: {}", ctx.channel());
     }
 
+    /**
+     * Executor delegating to a shared executor. Channel group shuts its executor down on close, this keeps the shared
+     * executor running.
+     */
+    private static final class SharedExecutor extends AbstractExecutorService {
+        private final Executor delegate;
+        private volatile boolean shutdown;
+
+        SharedExecutor(final Executor delegate) {
+            this.delegate = Preconditions.checkNotNull(delegate);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            delegate.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return shutdown;
+        }
+    }
 }
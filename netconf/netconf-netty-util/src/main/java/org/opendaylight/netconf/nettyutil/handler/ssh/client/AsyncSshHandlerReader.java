@@ -8,8 +8,11 @@
 
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.sshd.common.future.SshFutureListener;
 import org.apache.sshd.common.io.IoInputStream;
 import org.apache.sshd.common.io.IoReadFuture;
@@ -20,12 +23,23 @@ import org.slf4j.LoggerFactory;
 /**
  * Listener on async input stream from SSH session.
  * This listeners schedules reads in a loop until the session is closed or read fails.
+ * Data is read into a reused buffer and copied into pooled byte buffers. Size of the read buffer adapts to the amount
+ * of data available, so that large replies are passed on in few large chunks.
  */
 public final class AsyncSshHandlerReader implements SshFutureListener<IoReadFuture>, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(AsyncSshHandlerReader.class);
 
-    private static final int BUFFER_SIZE = 2048;
+    public static final int DEFAULT_MIN_READ_SIZE = 2048;
+    public static final int DEFAULT_MAX_READ_SIZE = 65536;
+    // Number of consecutive small reads after which the read buffer shrinks
+    private static final int SHRINK_THRESHOLD = 8;
+
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+    private final int minReadSize;
+    private final int maxReadSize;
+    private int readSize;
+    private int smallReads;
 
     private final AutoCloseable connectionClosedCallback;
     private final ReadMsgHandler readHandler;
@@ -34,13 +48,30 @@ public final class AsyncSshHandlerReader implements SshFutureListener<IoReadFutu
     private IoInputStream asyncOut;
     private Buffer buf;
     private IoReadFuture currentReadFuture;
+    private boolean suspended;
+    private boolean readDeferred;
 
     public AsyncSshHandlerReader(final AutoCloseable connectionClosedCallback, final ReadMsgHandler readHandler, final String channelId, final IoInputStream asyncOut) {
+        this(connectionClosedCallback, readHandler, channelId, asyncOut, DEFAULT_MIN_READ_SIZE, DEFAULT_MAX_READ_SIZE);
+    }
+
+    /**
+     * @param minReadSize initial and minimal size of read buffer
+     * @param maxReadSize size up to which the read buffer grows while reads fill it up
+     */
+    public AsyncSshHandlerReader(final AutoCloseable connectionClosedCallback, final ReadMsgHandler readHandler,
+                                 final String channelId, final IoInputStream asyncOut,
+                                 final int minReadSize, final int maxReadSize) {
+        Preconditions.checkArgument(minReadSize > 0 && minReadSize <= maxReadSize,
+                "Invalid read size bounds %s, %s", minReadSize, maxReadSize);
         this.connectionClosedCallback = connectionClosedCallback;
         this.readHandler = readHandler;
         this.channelId = channelId;
         this.asyncOut = asyncOut;
-        buf = new Buffer(BUFFER_SIZE);
+        this.minReadSize = minReadSize;
+        this.maxReadSize = maxReadSize;
+        this.readSize = minReadSize;
+        buf = new Buffer(readSize);
         asyncOut.read(buf).addListener(this);
     }
 
@@ -63,20 +94,81 @@ public final class AsyncSshHandlerReader implements SshFutureListener<IoReadFutu
             return;
         }
 
-        if (future.getRead() > 0) {
-            final ByteBuf msg = Unpooled.wrappedBuffer(buf.array(), 0, future.getRead());
+        final int read = future.getRead();
+        if (read > 0) {
+            final ByteBuf msg = allocator.buffer(read);
+            msg.writeBytes(buf.array(), 0, read);
             if(LOG.isTraceEnabled()) {
                 LOG.trace("Reading message on channel: {}, message: {}", channelId, AsyncSshHandlerWriter.byteBufToString(msg));
             }
             readHandler.onMessageRead(msg);
 
-            // Schedule next read
-            buf = new Buffer(BUFFER_SIZE);
-            currentReadFuture = asyncOut.read(buf);
-            currentReadFuture.addListener(this);
+            // Schedule next read, data were copied so the buffer can be reused
+            adjustReadSize(read);
+            if (asyncOut == null) {
+                // Closed by the read handler
+                return;
+            }
+            if (suspended) {
+                readDeferred = true;
+                return;
+            }
+            scheduleRead();
+        }
+    }
+
+    private void scheduleRead() {
+        currentReadFuture = asyncOut.read(buf);
+        currentReadFuture.addListener(this);
+    }
+
+    /**
+     * Stop reading after the read in progress completes, e.g. while the consumer of read data cannot keep up.
+     */
+    public synchronized void suspend() {
+        suspended = true;
+    }
+
+    /**
+     * Resume reading stopped by {@link #suspend()}.
+     */
+    public synchronized void resume() {
+        suspended = false;
+        if (readDeferred) {
+            readDeferred = false;
+            if (asyncOut != null) {
+                scheduleRead();
+            }
         }
     }
 
+    private void adjustReadSize(final int read) {
+        if (read >= buf.array().length && readSize < maxReadSize) {
+            // Buffer filled up, more data is probably waiting
+            readSize = Math.min(readSize << 1, maxReadSize);
+            smallReads = 0;
+            buf = new Buffer(readSize);
+            LOG.trace("Read buffer on channel {} increased to {}", channelId, readSize);
+        } else if (read <= readSize >> 2 && readSize > minReadSize) {
+            if (++smallReads >= SHRINK_THRESHOLD) {
+                readSize = Math.max(readSize >> 1, minReadSize);
+                smallReads = 0;
+                buf = new Buffer(readSize);
+                LOG.trace("Read buffer on channel {} decreased to {}", channelId, readSize);
+            } else {
+                buf.clear();
+            }
+        } else {
+            smallReads = 0;
+            buf.clear();
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int getReadSize() {
+        return readSize;
+    }
+
     private void invokeDisconnect() {
         try {
             connectionClosedCallback.close();
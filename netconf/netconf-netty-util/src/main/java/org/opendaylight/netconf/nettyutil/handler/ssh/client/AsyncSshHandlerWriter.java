@@ -11,6 +11,7 @@ package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
@@ -27,26 +28,60 @@ import org.slf4j.LoggerFactory;
 /**
  * Async Ssh writer. Takes messages(byte arrays) and sends them encrypted to remote server.
  * Also handles pending writes by caching requests until pending state is over.
+ *
+ * <p>
+ * Bytes of messages not yet written to the SSH channel are accounted. Once they exceed the high water mark, the netty
+ * channel is marked as not writable, so that producers checking {@link io.netty.channel.Channel#isWritable()} can
+ * hold back, and it becomes writable again after they drop below the low water mark. Writability is always changed
+ * on the event loop of the channel, so writability listeners run there even when the write completes on an SSH
+ * thread. Messages exceeding the hard limit of pending bytes fail immediately, unless nothing is pending, so that
+ * a single message larger than the limit can still be written.
  */
 public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(AsyncSshHandlerWriter.class);
 
-    // public static final int MAX_PENDING_WRITES = 1000;
-    // TODO implement Limiting mechanism for pending writes
-    // But there is a possible issue with limiting:
-    // 1. What to do when queue is full ? Immediate Fail for every request ?
-    // 2. At this level we might be dealing with Chunks of messages(not whole messages) and unexpected behavior might occur
-    // when we send/queue 1 chunk and fail the other chunks
+    public static final int DEFAULT_LOW_WATER_MARK = 32 * 1024;
+    public static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+    // Encoders write whole framed messages, so this fails whole messages rather than chunks of them
+    public static final long DEFAULT_MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
+    // Index of the user defined writability flag of the channel, toggled by this writer
+    private static final int WRITABILITY_INDEX = 1;
 
     private volatile IoOutputStream asyncIn;
 
     // Order has to be preserved for queued writes
     private final Deque<PendingWriteRequest> pending = new LinkedList<>();
 
+    private final long lowWaterMark;
+    private final long highWaterMark;
+    private final long maxPendingBytes;
+    // Bytes of messages handed to this writer and not yet written, guarded by asyncIn
+    private volatile long pendingBytes;
+    // Written under asyncIn lock, applied to the channel on its event loop
+    private volatile boolean unwritable;
+
     public AsyncSshHandlerWriter(final IoOutputStream asyncIn) {
+        this(asyncIn, DEFAULT_LOW_WATER_MARK, DEFAULT_HIGH_WATER_MARK, DEFAULT_MAX_PENDING_BYTES);
+    }
+
+    /**
+     * @param lowWaterMark pending bytes below which the channel becomes writable again
+     * @param highWaterMark pending bytes above which the channel is marked as not writable
+     * @param maxPendingBytes pending bytes above which further writes fail
+     */
+    public AsyncSshHandlerWriter(final IoOutputStream asyncIn, final long lowWaterMark, final long highWaterMark,
+                                 final long maxPendingBytes) {
+        Preconditions.checkArgument(lowWaterMark >= 0 && lowWaterMark <= highWaterMark,
+                "Invalid water marks %s, %s", lowWaterMark, highWaterMark);
+        Preconditions.checkArgument(highWaterMark <= maxPendingBytes,
+                "High water mark %s exceeds maximum pending bytes %s", highWaterMark, maxPendingBytes);
         this.asyncIn = asyncIn;
+        this.lowWaterMark = lowWaterMark;
+        this.highWaterMark = highWaterMark;
+        this.maxPendingBytes = maxPendingBytes;
     }
 
     public void write(final ChannelHandlerContext ctx,
@@ -66,19 +101,31 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                 promise.setFailure(new IllegalStateException("Channel closed"));
             } else {
                 final ByteBuf byteBufMsg = (ByteBuf) msg;
+                final int size = byteBufMsg.readableBytes();
+                if (pendingBytes != 0 && pendingBytes + size > maxPendingBytes) {
+                    LOG.warn("Too many bytes ({}) pending on channel: {}, remote window is not getting read or is too small",
+                            pendingBytes, ctx.channel());
+                    byteBufMsg.release();
+                    promise.setFailure(new IllegalStateException(String.format(
+                            "Too many bytes (%s) pending on channel: %s", pendingBytes, ctx.channel())));
+                    return;
+                }
+                addPendingBytes(ctx, size);
+
                 if (pending.isEmpty() == false) {
-                    queueRequest(ctx, byteBufMsg, promise);
+                    queueRequest(ctx, byteBufMsg, size, promise);
                     return;
                 }
 
-                writeWithPendingDetection(ctx, promise, byteBufMsg, false);
+                writeWithPendingDetection(ctx, promise, byteBufMsg, size, false);
             }
         }
     }
 
     //sending message with pending
     //if resending message not succesfull, then attribute wasPending is true
-    private void writeWithPendingDetection(final ChannelHandlerContext ctx, final ChannelPromise promise, final ByteBuf byteBufMsg, final boolean wasPending) {
+    private void writeWithPendingDetection(final ChannelHandlerContext ctx, final ChannelPromise promise, final ByteBuf byteBufMsg,
+                                           final int size, final boolean wasPending) {
         try {
 
             if (LOG.isTraceEnabled()) {
@@ -108,6 +155,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
 
                         // Not needed anymore, release
                         byteBufMsg.release();
+                        removePendingBytes(ctx, size);
 
                         //rescheduling message from queue after successfully sent
                         if (wasPending) {
@@ -125,7 +173,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         } catch (final WritePendingException e) {
 
             if(wasPending == false){
-                queueRequest(ctx, byteBufMsg, promise);
+                queueRequest(ctx, byteBufMsg, size, promise);
             }
         }
     }
@@ -142,28 +190,71 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                 LOG.trace("Writing pending request on channel: {}, message: {}", pendingWrite.ctx.channel(), byteBufToString(msg));
             }
 
-            writeWithPendingDetection(pendingWrite.ctx, pendingWrite.promise, msg, true);
+            writeWithPendingDetection(pendingWrite.ctx, pendingWrite.promise, msg, pendingWrite.size, true);
+        }
+    }
+
+    private void addPendingBytes(final ChannelHandlerContext ctx, final int size) {
+        pendingBytes += size;
+        if (!unwritable && pendingBytes > highWaterMark) {
+            LOG.debug("Pending bytes ({}) on channel: {} exceeded high water mark, channel not writable",
+                    pendingBytes, ctx.channel());
+            unwritable = true;
+            updateWritability(ctx);
         }
     }
 
+    private void removePendingBytes(final ChannelHandlerContext ctx, final int size) {
+        pendingBytes -= size;
+        if (unwritable && pendingBytes < lowWaterMark) {
+            LOG.debug("Pending bytes ({}) on channel: {} dropped below low water mark, channel writable",
+                    pendingBytes, ctx.channel());
+            unwritable = false;
+            updateWritability(ctx);
+        }
+    }
+
+    /**
+     * Apply current writability to the channel. Changes made off the event loop, e.g. from a completed SSH write,
+     * are applied by a task on the event loop. Each task applies the latest state, so tasks running out of order
+     * with a direct update cannot leave a stale one in place.
+     */
+    private void updateWritability(final ChannelHandlerContext ctx) {
+        if (ctx.executor().inEventLoop()) {
+            applyWritability(ctx);
+        } else {
+            ctx.executor().execute(() -> applyWritability(ctx));
+        }
+    }
+
+    private void applyWritability(final ChannelHandlerContext ctx) {
+        // Outbound buffer is gone once the channel is closed
+        final ChannelOutboundBuffer outboundBuffer = ctx.channel().unsafe().outboundBuffer();
+        if (outboundBuffer != null) {
+            outboundBuffer.setUserDefinedWritability(WRITABILITY_INDEX, !unwritable);
+        }
+    }
+
+    /**
+     * @return number of bytes handed to this writer, which were not written to the SSH channel yet
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
     public static String byteBufToString(final ByteBuf msg) {
         final String s = msg.toString(StandardCharsets.UTF_8);
         msg.resetReaderIndex();
         return s;
     }
 
-    private void queueRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
-//        try {
-        LOG.debug("Write pending on channel: {}, queueing, current queue size: {}", ctx.channel(), pending.size());
+    private void queueRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final int size, final ChannelPromise promise) {
+        LOG.debug("Write pending on channel: {}, queueing, current queue size: {}, pending bytes: {}", ctx.channel(),
+                pending.size(), pendingBytes);
         if (LOG.isTraceEnabled()) {
             LOG.trace("Queueing request due to pending: {}", byteBufToString(msg));
         }
-        new PendingWriteRequest(ctx, msg, promise).pend(pending);
-//        } catch (final Exception ex) {
-//            LOG.warn("Unable to queue write request on channel: {}. Setting fail for the request: {}", ctx.channel(), ex, byteBufToString(msg));
-//            msg.release();
-//            promise.setFailure(ex);
-//        }
+        new PendingWriteRequest(ctx, msg, size, promise).pend(pending);
     }
 
     @Override
@@ -182,20 +273,20 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
     private static final class PendingWriteRequest {
         private final ChannelHandlerContext ctx;
         private final ByteBuf msg;
+        private final int size;
         private final ChannelPromise promise;
 
-        public PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
+        public PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final int size,
+                                   final ChannelPromise promise) {
             this.ctx = ctx;
             // Reset reader index, last write (failed) attempt moved index to the end
             msg.resetReaderIndex();
             this.msg = msg;
+            this.size = size;
             this.promise = promise;
         }
 
         public void pend(final Queue<PendingWriteRequest> pending) {
-            // Preconditions.checkState(pending.size() < MAX_PENDING_WRITES,
-            // "Too much pending writes(%s) on channel: %s, remote window is not getting read or is too small",
-            // pending.size(), ctx.channel());
             Preconditions.checkState(pending.offer(this), "Cannot pend another request write (pending count: %s) on channel: %s",
                     pending.size(), ctx.channel());
         }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.ChunkedFramingMechanismEncoder;
+import org.opendaylight.netconf.nettyutil.handler.EOMFramingMechanismEncoder;
+
+public class NetconfMessageStreamerTest {
+
+    private static final int CHUNK_SIZE = ChunkedFramingMechanismEncoder.MIN_CHUNK_SIZE;
+    private static final int ENTRIES = 100;
+    private static final Pattern CHUNK_HEADER = Pattern.compile("\n#(\\d+)\n");
+
+    @Before
+    public void setUp() throws Exception {
+        XMLUnit.setIgnoreWhitespace(true);
+    }
+
+    @Test
+    public void testStreamChunked() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
+                new ChunkedFramingMechanismEncoder(CHUNK_SIZE));
+
+        final ChannelFuture future = new NetconfMessageStreamer(
+                channel.pipeline().context(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER))
+                .stream(new TestingStreamingMessage());
+        assertTrue(future.isSuccess());
+
+        final String output = readOutbound(channel);
+        assertTrue(output.endsWith("\n##\n"));
+
+        final StringBuilder message = new StringBuilder();
+        final Matcher matcher = CHUNK_HEADER.matcher(output);
+        int end = 0;
+        int chunks = 0;
+        while (matcher.find(end) && matcher.start() == end) {
+            final int length = Integer.parseInt(matcher.group(1));
+            assertTrue(length <= CHUNK_SIZE);
+            message.append(output, matcher.end(), matcher.end() + length);
+            end = matcher.end() + length;
+            chunks++;
+        }
+        assertEquals(output.length() - "\n##\n".length(), end);
+        assertTrue(chunks > 1);
+        assertSimilar(message.toString());
+    }
+
+    @Test
+    public void testStreamEom() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
+                new EOMFramingMechanismEncoder());
+
+        new NetconfMessageStreamer(channel.pipeline().context(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER))
+                .stream(new TestingStreamingMessage());
+
+        final String output = readOutbound(channel);
+        assertTrue(output.endsWith("]]>]]>"));
+        assertEquals(output.indexOf("]]>]]>"), output.length() - "]]>]]>".length());
+        assertSimilar(output.substring(0, output.length() - "]]>]]>".length()));
+    }
+
+    @Test
+    public void testStreamWaitsForWritability() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
+                new EOMFramingMechanismEncoder());
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+
+        final NetconfMessageStreamer streamer = new NetconfMessageStreamer(
+                channel.pipeline().context(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<ChannelFuture> result = executor.submit(() -> streamer.stream(new TestingStreamingMessage()));
+            try {
+                result.get(200, TimeUnit.MILLISECONDS);
+                fail("Message streamed to unwritable channel");
+            } catch (final TimeoutException e) {
+                // Expected, streaming thread waits for the channel
+            }
+            assertNull(channel.readOutbound());
+
+            channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+            streamer.writabilityChanged();
+            assertTrue(result.get(5, TimeUnit.SECONDS).isSuccess());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final String output = readOutbound(channel);
+        assertSimilar(output.substring(0, output.length() - "]]>]]>".length()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testStreamToClosedChannel() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
+                new EOMFramingMechanismEncoder());
+        final NetconfMessageStreamer streamer = new NetconfMessageStreamer(
+                channel.pipeline().context(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER));
+        channel.close();
+
+        streamer.stream(new TestingStreamingMessage());
+    }
+
+    private static String readOutbound(final EmbeddedChannel channel) {
+        final StringBuilder output = new StringBuilder();
+        for (ByteBuf buf = (ByteBuf) channel.readOutbound(); buf != null; buf = (ByteBuf) channel.readOutbound()) {
+            output.append(buf.toString(StandardCharsets.UTF_8));
+            buf.release();
+        }
+        assertNull(channel.readOutbound());
+        return output.toString();
+    }
+
+    private static void assertSimilar(final String actual) throws Exception {
+        final Diff diff = XMLUnit.compareXML(new TestingStreamingMessage().getDocument(),
+                XMLUnit.buildTestDocument(actual));
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    private static final class TestingStreamingMessage extends StreamingNetconfMessage {
+        private static final String NAMESPACE = "urn:ietf:params:xml:ns:netconf:base:1.0";
+
+        TestingStreamingMessage() {
+            super("101");
+        }
+
+        @Override
+        public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+            writer.writeStartElement("", "rpc-reply", NAMESPACE);
+            writer.writeDefaultNamespace(NAMESPACE);
+            writer.writeAttribute("message-id", getMessageId());
+            writer.writeStartElement("", "data", NAMESPACE);
+            for (int i = 0; i < ENTRIES; i++) {
+                writer.writeStartElement("", "entry", NAMESPACE);
+                writer.writeCharacters("value-" + i);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    }
+}
@@ -67,5 +67,49 @@ public class NetconfChunkAggregatorTest {
         assertEquals(EXPECTED_MESSAGE, chunk.toString(StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void testStreamingMultipleChunks() throws Exception {
+        final NetconfChunkAggregator streamingAgr =
+                new NetconfChunkAggregator(NetconfChunkAggregator.DEFAULT_MAXIMUM_CHUNK_SIZE, true);
+        final List<Object> output = Lists.newArrayList();
+        final ByteBuf input = Unpooled.copiedBuffer(CHUNKED_MESSAGE.getBytes(StandardCharsets.UTF_8));
+        streamingAgr.decode(null, input, output);
+
+        assertEquals(4, output.size());
+        assertEquals(NetconfChunkAggregator.END_OF_MESSAGE, output.get(3));
+        assertEquals(EXPECTED_MESSAGE, concat(output.subList(0, 3)));
+    }
+
+    @Test
+    public void testStreamingPartialChunk() throws Exception {
+        final NetconfChunkAggregator streamingAgr =
+                new NetconfChunkAggregator(NetconfChunkAggregator.DEFAULT_MAXIMUM_CHUNK_SIZE, true);
+        final List<Object> output = Lists.newArrayList();
+        final byte[] bytes = CHUNKED_MESSAGE_ONE.getBytes(StandardCharsets.UTF_8);
 
+        // Header and the first 10 bytes of the payload
+        streamingAgr.decode(null, Unpooled.copiedBuffer(bytes, 0, 16), output);
+        assertEquals(1, output.size());
+        assertEquals(10, ((ByteBuf) output.get(0)).readableBytes());
+
+        streamingAgr.decode(null, Unpooled.copiedBuffer(bytes, 16, bytes.length - 16), output);
+        assertEquals(3, output.size());
+        assertEquals(NetconfChunkAggregator.END_OF_MESSAGE, output.get(2));
+        assertEquals(EXPECTED_MESSAGE, concat(output.subList(0, 2)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMaximumChunkSize() throws Exception {
+        final NetconfChunkAggregator smallAgr = new NetconfChunkAggregator(100, true);
+        smallAgr.decode(null, Unpooled.copiedBuffer(CHUNKED_MESSAGE_ONE.getBytes(StandardCharsets.UTF_8)),
+                Lists.newArrayList());
+    }
+
+    private static String concat(final List<Object> chunks) {
+        final StringBuilder sb = new StringBuilder();
+        for (final Object chunk : chunks) {
+            sb.append(((ByteBuf) chunk).toString(StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
 }
@@ -9,11 +9,18 @@
 package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import org.junit.Test;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.xml.sax.SAXParseException;
 
 public class NetconfXMLToMessageDecoderTest {
@@ -87,5 +94,37 @@ public class NetconfXMLToMessageDecoderTest {
                 out);
         assertEquals(1, out.size());
     }
-}
 
+    @Test
+    public void testDecodeLazy() throws Exception {
+        final ArrayList<Object> out = Lists.newArrayList();
+        new NetconfXMLToMessageDecoder(true, false).decode(null, Unpooled.wrappedBuffer(
+                "\n<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>"
+                        .getBytes()), out);
+        assertEquals(1, out.size());
+
+        final LazyNetconfMessage message = (LazyNetconfMessage) out.get(0);
+        assertEquals("rpc-reply", message.getRootElementName());
+        assertEquals("101", message.getMessageId());
+        assertEquals(Collections.singletonList("ok"), message.getChildElementNames());
+        assertFalse(message.isDocumentMaterialized());
+        assertEquals("rpc-reply", message.getDocument().getDocumentElement().getLocalName());
+        assertTrue(message.isDocumentMaterialized());
+    }
+
+    @Test
+    public void testDecodeStreamingInput() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(
+                new NetconfChunkAggregator(NetconfChunkAggregator.DEFAULT_MAXIMUM_CHUNK_SIZE, true),
+                new NetconfXMLToMessageDecoder(true, true));
+
+        channel.writeInbound(Unpooled.copiedBuffer("\n#5\n<msg>\n#4\n<a/", StandardCharsets.UTF_8));
+        assertNull(channel.readInbound());
+        channel.writeInbound(Unpooled.copiedBuffer(">\n#6\n</msg>\n##\n", StandardCharsets.UTF_8));
+
+        final LazyNetconfMessage message = (LazyNetconfMessage) channel.readInbound();
+        assertEquals("msg", message.getRootElementName());
+        assertEquals(Collections.singletonList("a"), message.getChildElementNames());
+        assertNull(channel.readInbound());
+    }
+}
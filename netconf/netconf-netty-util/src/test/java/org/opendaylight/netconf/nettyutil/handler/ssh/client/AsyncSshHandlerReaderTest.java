@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil.handler.ssh.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.sshd.common.io.IoInputStream;
+import org.apache.sshd.common.io.IoReadFuture;
+import org.apache.sshd.common.util.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSshHandlerReaderTest {
+
+    private IoInputStream asyncOut;
+    private IoReadFuture readFuture;
+    private Buffer readBuffer;
+    private List<ByteBuf> messages;
+    private AsyncSshHandlerReader reader;
+
+    @Before
+    public void setUp() throws Exception {
+        asyncOut = mock(IoInputStream.class);
+        readFuture = mock(IoReadFuture.class);
+        doReturn(readFuture).when(readFuture).addListener(any());
+        doAnswer(invocation -> {
+            readBuffer = (Buffer) invocation.getArguments()[0];
+            return readFuture;
+        }).when(asyncOut).read(any(Buffer.class));
+        messages = new ArrayList<>();
+        reader = new AsyncSshHandlerReader(() -> { }, messages::add, "test", asyncOut, 1024, 4096);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        messages.forEach(ByteBuf::release);
+    }
+
+    @Test
+    public void testReadCopied() throws Exception {
+        final byte[] data = {1, 2, 3};
+        completeRead(data);
+
+        assertEquals(1, messages.size());
+        final byte[] read = new byte[3];
+        messages.get(0).readBytes(read);
+        assertArrayEquals(data, read);
+
+        // Read buffer is reused, overwriting it must not change delivered message
+        completeRead(new byte[]{4, 5, 6});
+        assertEquals(1, messages.get(0).getByte(0));
+        assertEquals(4, messages.get(1).getByte(0));
+    }
+
+    @Test
+    public void testReadSizeAdapts() throws Exception {
+        assertEquals(1024, reader.getReadSize());
+        completeRead(new byte[1024]);
+        assertEquals(2048, reader.getReadSize());
+        completeRead(new byte[2048]);
+        completeRead(new byte[4096]);
+        // Bounded by max read size
+        assertEquals(4096, reader.getReadSize());
+
+        for (int i = 0; i < 8; i++) {
+            completeRead(new byte[10]);
+        }
+        assertEquals(2048, reader.getReadSize());
+    }
+
+    @Test
+    public void testSuspendDefersRead() throws Exception {
+        verify(asyncOut, times(1)).read(any(Buffer.class));
+        reader.suspend();
+        completeRead(new byte[]{1});
+        assertEquals(1, messages.size());
+        verify(asyncOut, times(1)).read(any(Buffer.class));
+
+        reader.resume();
+        verify(asyncOut, times(2)).read(any(Buffer.class));
+    }
+
+    private void completeRead(final byte[] data) {
+        readBuffer.putRawBytes(data);
+        doReturn(data.length).when(readFuture).getRead();
+        reader.operationComplete(readFuture);
+    }
+}
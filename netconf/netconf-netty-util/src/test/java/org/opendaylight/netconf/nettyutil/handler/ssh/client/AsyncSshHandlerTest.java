@@ -29,6 +29,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
@@ -150,6 +151,10 @@ public class AsyncSshHandlerTest {
 
     private void stubChannel() {
         doReturn("channel").when(channel).toString();
+        final ChannelConfig config = mock(ChannelConfig.class);
+        doReturn(AsyncSshHandlerWriter.DEFAULT_LOW_WATER_MARK).when(config).getWriteBufferLowWaterMark();
+        doReturn(AsyncSshHandlerWriter.DEFAULT_HIGH_WATER_MARK).when(config).getWriteBufferHighWaterMark();
+        doReturn(config).when(channel).config();
     }
 
     private void stubSshClient() {
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil.handler.ssh.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.sshd.common.future.SshFutureListener;
+import org.apache.sshd.common.io.IoOutputStream;
+import org.apache.sshd.common.io.IoWriteFuture;
+import org.apache.sshd.common.util.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSshHandlerWriterTest {
+
+    private EmbeddedChannel channel;
+    private ChannelHandlerContext ctx;
+    private IoWriteFuture writeFuture;
+    private List<SshFutureListener<IoWriteFuture>> writeListeners;
+    private AsyncSshHandlerWriter writer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        channel = new EmbeddedChannel();
+        ctx = mock(ChannelHandlerContext.class);
+        doReturn(channel).when(ctx).channel();
+        doReturn(channel.eventLoop()).when(ctx).executor();
+
+        writeListeners = new ArrayList<>();
+        writeFuture = mock(IoWriteFuture.class);
+        doReturn(true).when(writeFuture).isWritten();
+        doAnswer(invocation -> {
+            writeListeners.add((SshFutureListener<IoWriteFuture>) invocation.getArguments()[0]);
+            return writeFuture;
+        }).when(writeFuture).addListener(any(SshFutureListener.class));
+
+        final IoOutputStream asyncIn = mock(IoOutputStream.class);
+        doReturn(writeFuture).when(asyncIn).write(any(Buffer.class));
+        writer = new AsyncSshHandlerWriter(asyncIn, 8, 16, 32);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        channel.finish();
+    }
+
+    @Test
+    public void testWritabilityFollowsPendingBytes() throws Exception {
+        final ChannelPromise first = write(10);
+        assertTrue(channel.isWritable());
+        final ChannelPromise second = write(10);
+        assertEquals(20, writer.getPendingBytes());
+        assertFalse(channel.isWritable());
+
+        writeListeners.get(0).operationComplete(writeFuture);
+        assertTrue(first.isSuccess());
+        assertEquals(10, writer.getPendingBytes());
+        // Still above low water mark
+        assertFalse(channel.isWritable());
+
+        writeListeners.get(1).operationComplete(writeFuture);
+        assertTrue(second.isSuccess());
+        assertEquals(0, writer.getPendingBytes());
+        assertTrue(channel.isWritable());
+    }
+
+    @Test
+    public void testWriteFailsAboveMaxPendingBytes() throws Exception {
+        write(20);
+        final ChannelPromise rejected = write(20);
+        assertFalse(rejected.isSuccess());
+        assertTrue(rejected.cause() instanceof IllegalStateException);
+        assertEquals(20, writer.getPendingBytes());
+        assertEquals(1, writeListeners.size());
+    }
+
+    @Test
+    public void testLargeMessageWrittenWhenNothingPending() throws Exception {
+        final ChannelPromise large = write(40);
+        assertEquals(40, writer.getPendingBytes());
+        assertEquals(1, writeListeners.size());
+
+        writeListeners.get(0).operationComplete(writeFuture);
+        assertTrue(large.isSuccess());
+    }
+
+    @Test
+    public void testWritabilityChangedOnEventLoop() throws Exception {
+        write(20);
+        assertFalse(channel.isWritable());
+
+        // Write completes on an SSH thread, writability is restored only by a task on the event loop
+        final List<Runnable> tasks = new ArrayList<>();
+        final EventExecutor executor = mock(EventExecutor.class);
+        doReturn(false).when(executor).inEventLoop();
+        doAnswer(invocation -> tasks.add((Runnable) invocation.getArguments()[0]))
+                .when(executor).execute(any(Runnable.class));
+        doReturn(executor).when(ctx).executor();
+
+        writeListeners.get(0).operationComplete(writeFuture);
+        assertEquals(0, writer.getPendingBytes());
+        assertFalse(channel.isWritable());
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        assertTrue(channel.isWritable());
+    }
+
+    private ChannelPromise write(final int size) {
+        final ChannelPromise promise = channel.newPromise();
+        writer.write(ctx, Unpooled.wrappedBuffer(new byte[size]), promise);
+        return promise;
+    }
+}
@@ -9,16 +9,19 @@
 package org.opendaylight.netconf.notifications;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.SharedNetconfMessage;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 /**
- * Special kind of netconf message that contains a timestamp.
+ * Special kind of netconf message that contains a timestamp. The same notification is usually sent to many
+ * sessions, so it is encoded only once.
  */
-public final class NetconfNotification extends NetconfMessage {
+public final class NetconfNotification extends NetconfMessage implements SharedNetconfMessage {
 
     public static final String NOTIFICATION = "notification";
     public static final String NOTIFICATION_NAMESPACE = "urn:ietf:params:netconf:capability:notification:1.0";
@@ -36,6 +39,8 @@ public final class NetconfNotification extends NetconfMessage {
 
     private final Date eventTime;
 
+    private volatile ByteBuf sharedEncoding;
+
     /**
      * Create new notification and capture the timestamp in the constructor
      */
@@ -58,6 +63,16 @@ public final class NetconfNotification extends NetconfMessage {
         return eventTime;
     }
 
+    @Override
+    public ByteBuf getSharedEncoding() {
+        return sharedEncoding;
+    }
+
+    @Override
+    public void setSharedEncoding(final ByteBuf encoding) {
+        this.sharedEncoding = encoding;
+    }
+
     private static Document wrapNotification(final Document notificationContent, final Date eventTime) {
         Preconditions.checkNotNull(notificationContent);
         Preconditions.checkNotNull(eventTime);
@@ -8,6 +8,8 @@
 
 package org.opendaylight.netconf.notifications;
 
+import com.google.common.base.Optional;
+import java.util.Date;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.Streams;
 
@@ -21,6 +23,18 @@ public interface NetconfNotificationRegistry {
      */
     NotificationListenerRegistration registerNotificationListener(StreamNameType stream, NetconfNotificationListener listener);
 
+    /**
+     * Add listener for a certain notification type and prepare replay of notifications logged since start time.
+     * Logged notifications are delivered by
+     * {@link NotificationReplayRegistration#replay(NetconfNotificationListener, java.util.function.BooleanSupplier)},
+     * the listener receives live notifications once the replay is complete.
+     *
+     * @return registration or absent if the stream does not support replay
+     */
+    Optional<NotificationReplayRegistration> registerNotificationListener(StreamNameType stream,
+                                                                          NetconfNotificationListener listener,
+                                                                          Date startTime);
+
     /**
      * Check stream availability
      */
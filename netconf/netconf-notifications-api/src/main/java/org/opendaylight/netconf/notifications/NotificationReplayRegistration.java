@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Manages the registration of a single listener, which also receives notifications logged before it was registered
+ */
+public interface NotificationReplayRegistration extends NotificationListenerRegistration {
+
+    /**
+     * Deliver logged notifications, whose event time is not earlier than the requested start time, in the order they
+     * were published, until all of them are delivered or the replay is suspended. Notifications published while the
+     * replay runs are logged and delivered by it as well. Once the replay catches up with the log, the registered
+     * listener starts receiving live notifications, so that none of them is missed or delivered twice.
+     *
+     * <p>
+     * A suspended replay is resumed by invoking this method again, at most one thread may invoke it at a time.
+     *
+     * @param listener listener to deliver the logged notifications to
+     * @param suspend checked before each notification, the replay is suspended once it returns true
+     * @return true if all logged notifications were delivered and the registered listener receives live ones, false
+     *         if the replay was suspended or the registration is closed
+     * @throws IOException if the log cannot be read
+     */
+    boolean replay(NetconfNotificationListener listener, BooleanSupplier suspend) throws IOException;
+}
@@ -8,16 +8,23 @@
 
 package org.opendaylight.netconf.notifications.impl;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import org.opendaylight.netconf.notifications.BaseNotificationPublisherRegistration;
@@ -28,7 +35,10 @@ import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
 import org.opendaylight.netconf.notifications.NotificationPublisherRegistration;
 import org.opendaylight.netconf.notifications.NotificationRegistration;
+import org.opendaylight.netconf.notifications.NotificationReplayRegistration;
 import org.opendaylight.netconf.notifications.impl.ops.NotificationsTransformUtil;
+import org.opendaylight.netconf.notifications.impl.replay.NotificationLog;
+import org.opendaylight.netconf.notifications.impl.replay.NotificationLogSettings;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.Streams;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.StreamsBuilder;
@@ -38,6 +48,7 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.r
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfSessionEnd;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfSessionStart;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.DateAndTime;
 import org.opendaylight.yangtools.yang.binding.Notification;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
@@ -63,8 +74,9 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     // TODO excessive synchronization provides thread safety but is most likely not optimal (combination of concurrent collections might improve performance)
     // And also calling callbacks from a synchronized block is dangerous since the listeners/publishers can block the whole notification processing
 
-    @GuardedBy("this")
-    private final Multimap<StreamNameType, GenericNotificationListenerReg> notificationListeners = HashMultimap.create();
+    // Read without locking for every notification, so that publishers are never blocked by registrations or
+    // by each other. Listeners are registered per session, so copying on registration is cheap.
+    private final List<GenericNotificationListenerReg> notificationListeners = new CopyOnWriteArrayList<>();
 
     @GuardedBy("this")
     private final Set<NetconfNotificationStreamListener> streamListeners = Sets.newHashSet();
@@ -78,20 +90,61 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @GuardedBy("this")
     private final Set<GenericNotificationPublisherReg> notificationPublishers = Sets.newHashSet();
 
+    private final Optional<NotificationLogSettings> logSettings;
+
+    // Logs of streams, which support replay. Notifications are appended to a log and listeners registered for its
+    // replay while synchronized on the log, so that every notification is either replayed or delivered
+    private final Map<StreamNameType, NotificationLog> notificationLogs = new ConcurrentHashMap<>();
+
+    public NetconfNotificationManager() {
+        this(Optional.<NotificationLogSettings>absent());
+    }
+
+    /**
+     * @param logSettings settings of logs of published notifications, absent if replay is not supported
+     */
+    public NetconfNotificationManager(final Optional<NotificationLogSettings> logSettings) {
+        this.logSettings = logSettings;
+    }
+
     @Override
-    public synchronized void onNotification(final StreamNameType stream, final NetconfNotification notification) {
+    public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
         LOG.debug("Notification of type {} detected", stream);
         if (LOG.isTraceEnabled()) {
             LOG.debug("Notification of type {} detected: {}", stream, notification);
         }
 
-        for (final GenericNotificationListenerReg listenerReg : notificationListeners.get(BASE_STREAM_NAME)) {
-            listenerReg.getListener().onNotification(BASE_STREAM_NAME, notification);
+        final Iterator<GenericNotificationListenerReg> listenerRegs;
+        final NotificationLog log = notificationLogs.get(stream);
+        if (log == null) {
+            listenerRegs = notificationListeners.iterator();
+        } else {
+            synchronized (log) {
+                try {
+                    log.append(notification);
+                } catch (final IOException e) {
+                    LOG.warn("Failed to log notification {} of stream {}, it will not be replayed", notification,
+                            stream, e);
+                }
+                // Listeners registered after this point replay the notification from the log
+                listenerRegs = notificationListeners.iterator();
+            }
+        }
+
+        // The same notification instance is passed to all listeners, so that it is encoded only once
+        while (listenerRegs.hasNext()) {
+            final NetconfNotificationListener listener = listenerRegs.next().getListener();
+            try {
+                listener.onNotification(BASE_STREAM_NAME, notification);
+            } catch (final RuntimeException e) {
+                // Failure of a single listener must not prevent delivery to the others
+                LOG.warn("Listener {} failed to process notification {}", listener, notification, e);
+            }
         }
     }
 
     @Override
-    public synchronized NotificationListenerRegistration registerNotificationListener(final StreamNameType stream, final NetconfNotificationListener listener) {
+    public NotificationListenerRegistration registerNotificationListener(final StreamNameType stream, final NetconfNotificationListener listener) {
         Preconditions.checkNotNull(stream);
         Preconditions.checkNotNull(listener);
 
@@ -107,10 +160,25 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
             }
         };
 
-        notificationListeners.put(BASE_STREAM_NAME, genericNotificationListenerReg);
+        notificationListeners.add(genericNotificationListenerReg);
         return genericNotificationListenerReg;
     }
 
+    @Override
+    public Optional<NotificationReplayRegistration> registerNotificationListener(final StreamNameType stream,
+                                                                                 final NetconfNotificationListener listener,
+                                                                                 final Date startTime) {
+        Preconditions.checkNotNull(startTime);
+        final NotificationLog log = notificationLogs.get(Preconditions.checkNotNull(stream));
+        if (log == null) {
+            return Optional.absent();
+        }
+
+        LOG.trace("Notification listener registered for stream: {} with replay since {}", stream, startTime);
+        return Optional.<NotificationReplayRegistration>of(new NotificationReplayReg(stream, listener, log,
+                startTime));
+    }
+
     @Override
     public synchronized Streams getNotificationPublishers() {
         return new StreamsBuilder().setStream(Lists.newArrayList(streamMetadata.values())).build();
@@ -143,7 +211,7 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @Override
     public synchronized void close() {
         // Unregister all listeners
-        for (final GenericNotificationListenerReg genericNotificationListenerReg : notificationListeners.values()) {
+        for (final GenericNotificationListenerReg genericNotificationListenerReg : notificationListeners) {
             genericNotificationListenerReg.close();
         }
         notificationListeners.clear();
@@ -156,6 +224,11 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
         // Clear stream Listeners
         streamListeners.clear();
+
+        for (final NotificationLog log : notificationLogs.values()) {
+            log.close();
+        }
+        notificationLogs.clear();
     }
 
     @Override
@@ -171,7 +244,7 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
         if (streamMetadata.containsKey(streamName)) {
             LOG.warn("Notification stream {} already registered as: {}. Will be reused", streamName, streamMetadata.get(streamName));
         } else {
-            streamMetadata.put(streamName, stream);
+            streamMetadata.put(streamName, withReplaySupport(stream));
         }
 
         availableStreams.add(streamName);
@@ -191,6 +264,35 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
         return genericNotificationPublisherReg;
     }
 
+    /**
+     * Open log of the stream if replay is supported, the log is kept open even if all publishers of the stream go
+     * away, so that notifications are replayed across publisher restarts.
+     */
+    @GuardedBy("this")
+    private Stream withReplaySupport(final Stream stream) {
+        if (!logSettings.isPresent()) {
+            return stream;
+        }
+
+        NotificationLog log = notificationLogs.get(stream.getName());
+        if (log == null) {
+            try {
+                log = logSettings.get().open(stream.getName());
+            } catch (final IOException e) {
+                LOG.warn("Failed to open log of notification stream {}, replay will not be supported", stream.getName(), e);
+                return stream;
+            }
+            notificationLogs.put(stream.getName(), log);
+        }
+
+        final String creationTime = new SimpleDateFormat(NetconfNotification.RFC3339_DATE_FORMAT_BLUEPRINT)
+                .format(log.getCreationTime());
+        return new StreamBuilder(stream)
+                .setReplaySupport(true)
+                .setReplayLogCreationTime(new DateAndTime(creationTime))
+                .build();
+    }
+
     private void unregisterNotificationPublisher(final StreamNameType streamName, final GenericNotificationPublisherReg genericNotificationPublisherReg) {
         availableStreams.remove(streamName);
         notificationPublishers.remove(genericNotificationPublisherReg);
@@ -283,6 +385,71 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
         }
     }
 
+    /**
+     * Replays notifications from the log until it catches up with it, then registers the listener for live
+     * notifications. Both happen under the lock of the log, which is also held while notifications are appended, so
+     * every notification is delivered exactly once, either replayed or live.
+     */
+    private final class NotificationReplayReg implements NotificationReplayRegistration {
+        private final StreamNameType stream;
+        private final NetconfNotificationListener listener;
+        private final NotificationLog.Cursor cursor;
+        private final Date startTime;
+
+        @GuardedBy("this")
+        private NotificationListenerRegistration registration;
+        @GuardedBy("this")
+        private boolean closed;
+
+        NotificationReplayReg(final StreamNameType stream, final NetconfNotificationListener listener,
+                              final NotificationLog log, final Date startTime) {
+            this.stream = stream;
+            this.listener = listener;
+            this.cursor = log.cursor(startTime);
+            this.startTime = startTime;
+        }
+
+        @Override
+        public boolean replay(final NetconfNotificationListener replayListener, final BooleanSupplier suspend)
+                throws IOException {
+            while (!isClosed() && !suspend.getAsBoolean()) {
+                final NetconfNotification notification = cursor.next();
+                if (notification != null) {
+                    replayListener.onNotification(stream, notification);
+                } else if (cursor.ifCaughtUp(this::registerLive)) {
+                    LOG.trace("Replay of stream {} since {} caught up with the log", stream, startTime);
+                    return !isClosed();
+                }
+            }
+            return false;
+        }
+
+        // Invoked under the lock of the log, it must not lock the manager, which locks logs while publishers are
+        // registered
+        private synchronized void registerLive() {
+            if (!closed) {
+                registration = registerNotificationListener(stream, listener);
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            final NotificationListenerRegistration live;
+            synchronized (this) {
+                closed = true;
+                live = registration;
+            }
+            // Not closed under the lock, closing locks the manager
+            if (live != null) {
+                live.close();
+            }
+        }
+    }
+
     private class GenericNotificationListenerReg implements NotificationListenerRegistration {
         private final NetconfNotificationListener listener;
 
@@ -296,7 +463,7 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
         @Override
         public void close() {
-            notificationListeners.remove(BASE_STREAM_NAME, this);
+            notificationListeners.remove(this);
         }
     }
 }
@@ -10,9 +10,26 @@ package org.opendaylight.netconf.notifications.impl.ops;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import javax.xml.bind.DatatypeConverter;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
@@ -23,11 +40,16 @@ import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.notifications.NetconfNotificationListener;
 import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
+import org.opendaylight.netconf.notifications.NotificationReplayRegistration;
 import org.opendaylight.netconf.notifications.impl.NetconfNotificationManager;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
+import org.opendaylight.netconf.util.messages.AfterReplyActions;
 import org.opendaylight.netconf.util.messages.SubtreeFilter;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.CreateSubscriptionInput;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.NotificationComplete;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.ReplayComplete;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -35,16 +57,35 @@ import org.w3c.dom.Element;
 
 /**
  * Create subscription listens for create subscription requests and registers notification listeners into notification registry.
- * Received notifications are sent to the client right away
+ * Received notifications are sent to the client right away, unless logged notifications are replayed first
  */
 public class CreateSubscription extends AbstractSingletonNetconfOperation implements SessionAwareNetconfOperation, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(CreateSubscription.class);
 
     static final String CREATE_SUBSCRIPTION = "create-subscription";
+    private static final String START_TIME = "startTime";
+    private static final String STOP_TIME = "stopTime";
+
+    // Replays read logs from disk, so they are executed neither on the event loop nor on the threads executing
+    // operations. A replay runs in batches and does not occupy a thread while its session is not writable.
+    private static final int REPLAY_THREADS = 4;
+    private static final int REPLAY_BATCH_SIZE = 256;
+    private static final ExecutorService REPLAY_EXECUTOR = Executors.newFixedThreadPool(REPLAY_THREADS,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("netconf-notification-replay-%d").build());
+
+    // Completes subscriptions at their stop time, even if no notification arrives after it
+    private static final ScheduledThreadPoolExecutor STOP_TIME_EXECUTOR = new ScheduledThreadPoolExecutor(1,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("netconf-notification-stop-time-%d").build());
+
+    static {
+        // Stop time may be far ahead, timers of closed subscriptions must not be kept until then
+        STOP_TIME_EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
 
     private final NetconfNotificationRegistry notifications;
     private final List<NotificationListenerRegistration> subscriptions = Lists.newArrayList();
+    private final List<NotificationSubscription> replaySubscriptions = Lists.newArrayList();
     private NetconfSession netconfSession;
 
     public CreateSubscription(final String netconfSessionIdForReporting, final NetconfNotificationRegistry notifications) {
@@ -62,13 +103,9 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
 
         final Optional<XmlElement> filter = operationElement.getOnlyChildElementWithSameNamespaceOptionally("filter");
 
-        // Replay not supported
-        final Optional<XmlElement> startTime = operationElement.getOnlyChildElementWithSameNamespaceOptionally("startTime");
-        Preconditions.checkArgument(startTime.isPresent() == false, "StartTime element not yet supported");
-
-        // Stop time not supported
-        final Optional<XmlElement> stopTime = operationElement.getOnlyChildElementWithSameNamespaceOptionally("stopTime");
-        Preconditions.checkArgument(stopTime.isPresent() == false, "StopTime element not yet supported");
+        final Optional<Date> startTime = parseTimeIfPresent(operationElement, START_TIME);
+        final Optional<Date> stopTime = parseTimeIfPresent(operationElement, STOP_TIME);
+        checkReplayInterval(startTime, stopTime);
 
         final StreamNameType streamNameType = parseStreamIfPresent(operationElement);
 
@@ -78,13 +115,59 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
             LOG.warn("Registering premature stream {}. No publisher available yet for session {}", streamNameType, getNetconfSessionIdForReporting());
         }
 
-        final NotificationListenerRegistration notificationListenerRegistration =
-                notifications.registerNotificationListener(streamNameType, new NotificationSubscription(netconfSession, filter));
-        subscriptions.add(notificationListenerRegistration);
+        final NotificationSubscription subscription = new NotificationSubscription(netconfSession, filter, startTime.isPresent(), stopTime);
+        if (!startTime.isPresent()) {
+            subscriptions.add(notifications.registerNotificationListener(streamNameType, subscription));
+            return XmlUtil.createElement(document, XmlNetconfConstants.OK, Optional.<String>absent());
+        }
+
+        final Optional<NotificationReplayRegistration> replayRegistration =
+                notifications.registerNotificationListener(streamNameType, subscription, startTime.get());
+        if (!replayRegistration.isPresent()) {
+            throw new DocumentedException("Stream " + streamNameType.getValue() + " does not support replay",
+                    DocumentedException.ErrorType.APPLICATION, DocumentedException.ErrorTag.OPERATION_NOT_SUPPORTED,
+                    DocumentedException.ErrorSeverity.ERROR);
+        }
+        subscription.setRegistration(replayRegistration.get());
+        subscriptions.add(replayRegistration.get());
+        replaySubscriptions.add(subscription);
+        subscription.scheduleStopTime();
 
+        // Logged notifications must follow the reply, they are replayed once it is sent
+        AfterReplyActions.addAction(document, () -> REPLAY_EXECUTOR.execute(subscription::replayBatch));
         return XmlUtil.createElement(document, XmlNetconfConstants.OK, Optional.<String>absent());
     }
 
+    private static Optional<Date> parseTimeIfPresent(final XmlElement operationElement, final String name) throws DocumentedException {
+        final Optional<XmlElement> time = operationElement.getOnlyChildElementWithSameNamespaceOptionally(name);
+        if (!time.isPresent()) {
+            return Optional.absent();
+        }
+        try {
+            return Optional.of(DatatypeConverter.parseDateTime(time.get().getTextContent().trim()).getTime());
+        } catch (final IllegalArgumentException e) {
+            throw new DocumentedException("Invalid " + name + " " + time.get().getTextContent(), e,
+                    DocumentedException.ErrorType.PROTOCOL, DocumentedException.ErrorTag.BAD_ELEMENT,
+                    DocumentedException.ErrorSeverity.ERROR, ImmutableMap.of("bad-element", name));
+        }
+    }
+
+    /**
+     * Start time must not be in the future, stop time is allowed only with start time and must be later than it.
+     */
+    private static void checkReplayInterval(final Optional<Date> startTime, final Optional<Date> stopTime) throws DocumentedException {
+        if (startTime.isPresent() && startTime.get().after(new Date())) {
+            throw new DocumentedException(START_TIME + " is later than current time",
+                    DocumentedException.ErrorType.PROTOCOL, DocumentedException.ErrorTag.BAD_ELEMENT,
+                    DocumentedException.ErrorSeverity.ERROR, ImmutableMap.of("bad-element", START_TIME));
+        }
+        if (stopTime.isPresent() && (!startTime.isPresent() || stopTime.get().before(startTime.get()))) {
+            throw new DocumentedException(STOP_TIME + " is allowed only after " + START_TIME,
+                    DocumentedException.ErrorType.PROTOCOL, DocumentedException.ErrorTag.BAD_ELEMENT,
+                    DocumentedException.ErrorSeverity.ERROR, ImmutableMap.of("bad-element", STOP_TIME));
+        }
+    }
+
     private static StreamNameType parseStreamIfPresent(final XmlElement operationElement) throws DocumentedException {
         final Optional<XmlElement> stream = operationElement.getOnlyChildElementWithSameNamespaceOptionally("stream");
         return stream.isPresent() ? new StreamNameType(stream.get().getTextContent()) : NetconfNotificationManager.BASE_STREAM_NAME;
@@ -108,37 +191,290 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
     @Override
     public void close() {
         netconfSession = null;
-        // Unregister from notification streams
+        // Stop running replays and pending stop time timers
+        for (final NotificationSubscription subscription : replaySubscriptions) {
+            subscription.cancel();
+        }
+        // Unregister from notification streams, which also stops reading of logs by replays
         for (final NotificationListenerRegistration subscription : subscriptions) {
             subscription.close();
         }
     }
 
+    /**
+     * Sends notifications to the session. If it replays logged notifications, it reads the log until it catches up,
+     * live notifications are delivered only afterwards, following replayComplete. Replay runs in batches and is
+     * suspended while the session is not writable, it is resumed by the event loop of the session once the session
+     * becomes writable again. The subscription is complete once a notification later than stop time is received or
+     * the stop time passes, whichever comes first.
+     */
     private static class NotificationSubscription implements NetconfNotificationListener {
         private final NetconfSession currentSession;
-        private final Optional<XmlElement> filter;
+        private final Optional<SharedFilter> filter;
+        private final Optional<Date> stopTime;
+
+        // True until replayComplete is sent, false if replay was not requested
+        @GuardedBy("this")
+        private boolean replaying;
+        @GuardedBy("this")
+        private boolean complete;
+        private volatile NotificationReplayRegistration registration;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> stopTimer;
+        // State of the replay, accessed only by the batch being executed
+        private ChannelFuture lastReplayWrite;
+        private int batchSent;
+        private boolean stopTimeReplayed;
 
-        public NotificationSubscription(final NetconfSession currentSession, final Optional<XmlElement> filter) {
+        public NotificationSubscription(final NetconfSession currentSession, final Optional<XmlElement> filter,
+                                        final boolean replay, final Optional<Date> stopTime) {
             this.currentSession = currentSession;
-            this.filter = filter;
+            this.filter = filter.isPresent() ? Optional.of(SharedFilter.create(filter.get())) : Optional.<SharedFilter>absent();
+            this.stopTime = stopTime;
+            this.replaying = replay;
+        }
+
+        void setRegistration(final NotificationReplayRegistration registration) {
+            this.registration = registration;
         }
 
         @Override
-        public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
-            if (filter.isPresent()) {
+        public synchronized void onNotification(final StreamNameType stream, final NetconfNotification notification) {
+            // Live notifications of a replaying subscription are delivered once the replay caught up with the log,
+            // while the replay holds the lock until replayComplete is sent
+            sendLive(notification);
+        }
+
+        void scheduleStopTime() {
+            if (stopTime.isPresent()) {
+                final long delay = stopTime.get().getTime() - System.currentTimeMillis();
+                if (delay > 0) {
+                    stopTimer = STOP_TIME_EXECUTOR.schedule(this::stopTimeReached, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        private void stopTimeReached() {
+            synchronized (this) {
+                if (replaying) {
+                    // Completed by the replay once it is done, notificationComplete must follow replayComplete
+                    return;
+                }
+            }
+            complete();
+        }
+
+        void cancel() {
+            cancelled = true;
+            final ScheduledFuture<?> timer = stopTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+
+        /**
+         * Replay a batch of logged notifications and schedule the next one. Batches of a subscription are executed one
+         * at a time.
+         */
+        void replayBatch() {
+            synchronized (this) {
+                final boolean caughtUp;
+                batchSent = 0;
                 try {
-                    final Optional<Document> filtered = SubtreeFilter.applySubtreeNotificationFilter(this.filter.get(), notification.getDocument());
-                    if (filtered.isPresent()) {
-                        final Date eventTime = notification.getEventTime();
-                        currentSession.sendMessage(new NetconfNotification(filtered.get(), eventTime));
+                    caughtUp = registration.replay((stream, notification) -> {
+                        if (isAfterStopTime(notification)) {
+                            stopTimeReplayed = true;
+                        } else {
+                            trackWrite(send(notification));
+                            batchSent++;
+                        }
+                    }, () -> cancelled || stopTimeReplayed || batchSent >= REPLAY_BATCH_SIZE || !isReplayWritable());
+                } catch (final IOException | RuntimeException e) {
+                    // Client is notified by notificationComplete, that it will not receive any more notifications
+                    LOG.warn("Failed to replay notifications to session {}, ending the subscription", currentSession, e);
+                    replaying = false;
+                    complete();
+                    return;
+                }
+
+                if (cancelled) {
+                    LOG.debug("Replay to session {} was cancelled", currentSession);
+                    return;
+                }
+                if (caughtUp || stopTimeReplayed) {
+                    currentSession.sendMessage(createNotification(ReplayComplete.QNAME));
+                    replaying = false;
+                    if (stopTimeReplayed || stopTime.isPresent() && stopTime.get().before(new Date())) {
+                        complete();
                     }
+                    return;
+                }
+            }
+            resumeReplay();
+        }
+
+        private void trackWrite(final ChannelFuture write) {
+            if (write != null) {
+                lastReplayWrite = write;
+            }
+        }
+
+        private boolean isReplayWritable() {
+            final ChannelFuture lastWrite = lastReplayWrite;
+            return lastWrite == null || lastWrite.channel().isWritable();
+        }
+
+        /**
+         * Schedule the next batch right away if the session is writable, otherwise once it becomes writable. Session
+         * writability reflects also writability of the transport, if the session is proxied.
+         */
+        private void resumeReplay() {
+            if (isReplayWritable()) {
+                REPLAY_EXECUTOR.execute(this::replayBatch);
+                return;
+            }
+
+            final Channel channel = lastReplayWrite.channel();
+            try {
+                // Writability changes are fired on the event loop, checking it there does not miss any
+                channel.eventLoop().execute(() -> {
+                    if (cancelled || !channel.isActive()) {
+                        LOG.debug("Session {} closed, replay is not resumed", currentSession);
+                    } else if (channel.isWritable()) {
+                        REPLAY_EXECUTOR.execute(this::replayBatch);
+                    } else {
+                        channel.pipeline().addLast(new ReplayResumer());
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                LOG.debug("Event loop of session {} is shut down, replay is not resumed", currentSession, e);
+            }
+        }
+
+        /**
+         * Resumes the replay once the session becomes writable and removes itself.
+         */
+        private final class ReplayResumer extends ChannelInboundHandlerAdapter {
+            @Override
+            public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+                super.channelWritabilityChanged(ctx);
+                if (ctx.channel().isWritable()) {
+                    ctx.pipeline().remove(this);
+                    if (!cancelled) {
+                        REPLAY_EXECUTOR.execute(NotificationSubscription.this::replayBatch);
+                    }
+                }
+            }
+
+            @Override
+            public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+                ctx.pipeline().remove(this);
+                super.channelInactive(ctx);
+            }
+        }
+
+        /**
+         * @return future of the write or null if the notification was not sent
+         */
+        private ChannelFuture sendLive(final NetconfNotification notification) {
+            if (isAfterStopTime(notification)) {
+                complete();
+                return null;
+            }
+            synchronized (this) {
+                if (complete) {
+                    return null;
+                }
+            }
+            return send(notification);
+        }
+
+        private boolean isAfterStopTime(final NetconfNotification notification) {
+            return stopTime.isPresent() && notification.getEventTime().after(stopTime.get());
+        }
+
+        private void complete() {
+            synchronized (this) {
+                if (complete || cancelled) {
+                    return;
+                }
+                complete = true;
+            }
+            final ScheduledFuture<?> timer = stopTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            currentSession.sendMessage(createNotification(NotificationComplete.QNAME));
+            registration.close();
+        }
+
+        private static NetconfNotification createNotification(final QName qname) {
+            final Document document = XmlUtil.newDocument();
+            document.appendChild(document.createElementNS(qname.getNamespace().toString(), qname.getLocalName()));
+            return new NetconfNotification(document);
+        }
+
+        private ChannelFuture send(final NetconfNotification notification) {
+            if (filter.isPresent()) {
+                try {
+                    final Optional<NetconfNotification> filtered = filter.get().apply(notification);
+                    return filtered.isPresent() ? currentSession.sendMessage(filtered.get()) : null;
                 } catch (DocumentedException e) {
                     LOG.warn(e.toString());
-                    currentSession.sendMessage(notification);
+                    return currentSession.sendMessage(notification);
                 }
-            } else {
-                currentSession.sendMessage(notification);
             }
+            return currentSession.sendMessage(notification);
+        }
+    }
+
+    /**
+     * Subtree filter shared by all subscriptions with equal filters. Notification is filtered only by the first
+     * subscription it is delivered to, the others send the same filtered notification, so that it is also encoded
+     * only once.
+     */
+    private static final class SharedFilter {
+        private static final Interner<SharedFilter> FILTERS = Interners.newWeakInterner();
+
+        private final String key;
+        private final XmlElement filter;
+
+        @GuardedBy("this")
+        private NetconfNotification lastNotification;
+        @GuardedBy("this")
+        private Optional<NetconfNotification> lastFiltered;
+
+        private SharedFilter(final String key, final XmlElement filter) {
+            this.key = key;
+            this.filter = filter;
+        }
+
+        static SharedFilter create(final XmlElement filter) {
+            return FILTERS.intern(new SharedFilter(XmlUtil.toString(filter.getDomElement()), filter));
+        }
+
+        synchronized Optional<NetconfNotification> apply(final NetconfNotification notification) throws DocumentedException {
+            if (notification != lastNotification) {
+                final Optional<Document> filtered = SubtreeFilter.applySubtreeNotificationFilter(filter, notification.getDocument());
+                if (filtered.isPresent()) {
+                    final Date eventTime = notification.getEventTime();
+                    lastFiltered = Optional.of(new NetconfNotification(filtered.get(), eventTime));
+                } else {
+                    lastFiltered = Optional.absent();
+                }
+                lastNotification = notification;
+            }
+            return lastFiltered;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj || obj instanceof SharedFilter && key.equals(((SharedFilter) obj).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
         }
     }
 }
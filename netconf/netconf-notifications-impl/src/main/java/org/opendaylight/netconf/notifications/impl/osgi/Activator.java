@@ -26,6 +26,7 @@ import org.opendaylight.netconf.notifications.NetconfNotificationCollector;
 import org.opendaylight.netconf.notifications.impl.NetconfNotificationManager;
 import org.opendaylight.netconf.notifications.impl.ops.CreateSubscription;
 import org.opendaylight.netconf.notifications.impl.ops.Get;
+import org.opendaylight.netconf.notifications.impl.replay.NotificationLogSettings;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
@@ -42,7 +43,7 @@ public class Activator implements BundleActivator {
 
     @Override
     public void start(final BundleContext context) throws Exception {
-        netconfNotificationManager = new NetconfNotificationManager();
+        netconfNotificationManager = new NetconfNotificationManager(NotificationLogSettings.fromSystemProperties());
         // Add properties to autowire with netconf-impl instance for cfg subsystem
         final Dictionary<String, String> props = new Hashtable<>();
         props.put(NetconfConstants.SERVICE_NAME, NetconfConstants.NETCONF_NOTIFICATION);
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl.replay;
+
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.notifications.NetconfNotification;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Append-only log of notifications published by a single stream. The log is split into segments of fixed size,
+ * memory-mapped files in the log directory. A segment is appended to until it is full, then a new one is started
+ * and the oldest segments are deleted once the log exceeds its maximal size or they only contain notifications older
+ * than the maximal age.
+ *
+ * <p>
+ * Every segment is indexed by the event time of its newest notification, so that a replay skips the segments which
+ * only contain notifications older than the requested time. A replay reads the log through a {@link Cursor}, which
+ * also reads notifications appended after the replay started, until it catches up with the log.
+ *
+ * <p>
+ * Segment starts with a header: int magic and long creation time in milliseconds. Every record consists of an int
+ * length of the payload, long event time in milliseconds and the payload, content of the notification serialized to
+ * UTF-8 XML. The length is written last, zero length marks the end of the segment.
+ */
+@ThreadSafe
+public final class NotificationLog implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationLog.class);
+
+    private static final int SEGMENT_MAGIC = 0x4e434c31;
+    private static final int SEGMENT_HEADER_SIZE = 12;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SEGMENT_NAME_FORMAT = "%020d" + SEGMENT_SUFFIX;
+
+    private final StreamNameType stream;
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final long maxAgeMillis;
+
+    @GuardedBy("this")
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    @GuardedBy("this")
+    private MappedByteBuffer activeBuffer;
+    @GuardedBy("this")
+    private long nextSegmentId;
+
+    private NotificationLog(final StreamNameType stream, final Path directory, final int segmentSize,
+                            final long maxSize, final long maxAgeMillis) {
+        this.stream = stream;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Open log in a directory, segments already present in the directory are kept.
+     *
+     * @param stream stream, whose notifications are logged
+     * @param directory directory of the log, created if it does not exist
+     * @param segmentSize size of a single segment in bytes
+     * @param maxSize maximal size of all segments in bytes
+     * @param maxAgeMillis maximal age of logged notifications
+     * @return opened log
+     * @throws IOException if the segments cannot be read
+     */
+    public static NotificationLog open(final StreamNameType stream, final Path directory, final int segmentSize,
+                                       final long maxSize, final long maxAgeMillis) throws IOException {
+        Preconditions.checkArgument(segmentSize > SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE,
+                "Segment size %s is too small", segmentSize);
+        Preconditions.checkArgument(maxSize >= segmentSize, "Maximal size %s is smaller than segment size %s",
+                maxSize, segmentSize);
+        Files.createDirectories(directory);
+
+        final NotificationLog log = new NotificationLog(stream, directory, segmentSize, maxSize, maxAgeMillis);
+        log.openSegments();
+        return log;
+    }
+
+    private synchronized void openSegments() throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (final Path path : files) {
+                paths.add(path);
+            }
+        }
+        // Names are zero padded ids, so they are sorted by id
+        Collections.sort(paths);
+
+        for (final Path path : paths) {
+            final String name = path.getFileName().toString();
+            final long id;
+            try {
+                id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            } catch (final NumberFormatException e) {
+                LOG.warn("Ignoring unexpected file {} in notification log {}", path, directory);
+                continue;
+            }
+
+            final Segment segment = readSegment(id, path);
+            if (segment != null) {
+                segments.addLast(segment);
+            }
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+        }
+
+        final Segment last = segments.peekLast();
+        if (last != null && last.size < segmentSize) {
+            try (FileChannel channel = FileChannel.open(last.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                activeBuffer = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+            }
+        }
+        LOG.debug("Notification log {} opened with {} segments", directory, segments.size());
+    }
+
+    private Segment readSegment(final long id, final Path path) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != segmentSize) {
+                LOG.warn("Deleting segment {} of unexpected size {}", path, channel.size());
+                Files.delete(path);
+                return null;
+            }
+            buffer = channel.map(MapMode.READ_ONLY, 0, segmentSize);
+        }
+        if (buffer.getInt(0) != SEGMENT_MAGIC) {
+            LOG.warn("Deleting segment {} with unexpected header", path);
+            Files.delete(path);
+            return null;
+        }
+
+        final Segment segment = new Segment(id, path, buffer.getLong(4));
+        int position = SEGMENT_HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= segmentSize) {
+            final int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            segment.onRecord(position + RECORD_HEADER_SIZE + length, buffer.getLong(position + 4));
+            position = segment.size;
+        }
+        return segment;
+    }
+
+    /**
+     * @return creation time of the oldest segment, time of the first append if the log is empty
+     */
+    public synchronized Date getCreationTime() {
+        final Segment first = segments.peekFirst();
+        return new Date(first == null ? System.currentTimeMillis() : first.createdMillis);
+    }
+
+    /**
+     * Append notification to the log.
+     *
+     * @param notification notification to append
+     * @throws IOException if a new segment cannot be created
+     */
+    public synchronized void append(final NetconfNotification notification) throws IOException {
+        final byte[] payload = serializeContent(notification.getDocument());
+        final int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (SEGMENT_HEADER_SIZE + recordSize > segmentSize) {
+            LOG.warn("Notification of size {} does not fit into segment of log {}, it will not be replayed",
+                    payload.length, directory);
+            return;
+        }
+
+        Segment active = segments.peekLast();
+        if (activeBuffer == null || active.size + recordSize > segmentSize) {
+            active = startSegment();
+        }
+
+        final long eventTime = notification.getEventTime().getTime();
+        activeBuffer.putLong(active.size + 4, eventTime);
+        activeBuffer.position(active.size + RECORD_HEADER_SIZE);
+        activeBuffer.put(payload);
+        activeBuffer.putInt(active.size, payload.length);
+        active.onRecord(active.size + recordSize, eventTime);
+    }
+
+    @GuardedBy("this")
+    private Segment startSegment() throws IOException {
+        if (activeBuffer != null) {
+            activeBuffer.force();
+        }
+
+        final long id = nextSegmentId++;
+        final Path path = directory.resolve(String.format(SEGMENT_NAME_FORMAT, id));
+        final Segment segment = new Segment(id, path, System.currentTimeMillis());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            activeBuffer = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+        }
+        activeBuffer.putInt(0, SEGMENT_MAGIC);
+        activeBuffer.putLong(4, segment.createdMillis);
+        segments.addLast(segment);
+        LOG.debug("Notification log {} started segment {}", directory, path);
+
+        applyRetention();
+        return segment;
+    }
+
+    @GuardedBy("this")
+    private void applyRetention() {
+        final long oldestEventTime = System.currentTimeMillis() - maxAgeMillis;
+        while (segments.size() > 1) {
+            final Segment oldest = segments.peekFirst();
+            if ((long) segments.size() * segmentSize <= maxSize && oldest.maxEventTime >= oldestEventTime) {
+                break;
+            }
+            segments.removeFirst();
+            try {
+                // Replays reading the segment keep their mapping
+                Files.deleteIfExists(oldest.path);
+                LOG.debug("Notification log {} deleted segment {}", directory, oldest.path);
+            } catch (final IOException e) {
+                LOG.warn("Failed to delete segment {} of notification log {}", oldest.path, directory, e);
+            }
+        }
+    }
+
+    /**
+     * Create cursor reading notifications of this log, whose event time is not earlier than start time, starting with
+     * the oldest one.
+     *
+     * @param startTime earliest event time of notifications to read
+     * @return new cursor
+     */
+    public Cursor cursor(final Date startTime) {
+        return new Cursor(startTime.getTime());
+    }
+
+    private static byte[] serializeContent(final Document notification) {
+        // Only the notification content is logged, the notification element and event time are created on replay
+        for (Node child = notification.getDocumentElement().getFirstChild(); child != null;
+             child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return XmlUtil.toString((Element) child).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        throw new IllegalArgumentException("Notification without content " + XmlUtil.toString(notification));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (activeBuffer != null) {
+            activeBuffer.force();
+            activeBuffer = null;
+        }
+        segments.clear();
+    }
+
+    /**
+     * Reads notifications in the order they were appended, including those appended after the cursor was created.
+     * Segments are read sequentially and those containing only notifications older than start time are skipped.
+     * Segments deleted by retention before the cursor reaches them are skipped as well.
+     */
+    @NotThreadSafe
+    public final class Cursor {
+        private final long startMillis;
+        // Segment being read, null before the first one
+        private Segment segment;
+        private ByteBuffer buffer;
+        private int position;
+
+        private Cursor(final long startMillis) {
+            this.startMillis = startMillis;
+        }
+
+        /**
+         * Read the next notification. Reading does not block appending to the log, except for opening segments.
+         *
+         * @return next notification or null if all notifications appended so far were read
+         * @throws IOException if a segment cannot be read
+         */
+        public NetconfNotification next() throws IOException {
+            while (true) {
+                final int end;
+                synchronized (NotificationLog.this) {
+                    if ((segment == null || position >= segment.size) && !nextSegment()) {
+                        return null;
+                    }
+                    // Records up to the size are complete, the size is updated only after a record is written
+                    end = segment.size;
+                }
+
+                while (position < end) {
+                    final int length = buffer.getInt(position);
+                    final long eventTime = buffer.getLong(position + 4);
+                    final int recordStart = position;
+                    position += RECORD_HEADER_SIZE + length;
+                    if (eventTime < startMillis) {
+                        continue;
+                    }
+
+                    final byte[] payload = new byte[length];
+                    buffer.position(recordStart + RECORD_HEADER_SIZE);
+                    buffer.get(payload);
+                    try {
+                        return new NetconfNotification(XmlUtil.readXmlToDocument(new ByteArrayInputStream(payload)),
+                                new Date(eventTime));
+                    } catch (final SAXException e) {
+                        LOG.warn("Skipping unreadable notification in segment {} of log {}", segment.path,
+                                directory, e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Run the action if all notifications appended so far were read. The action runs while the log is locked, so
+         * that no notification is appended between the check and the action.
+         *
+         * @param action action to run
+         * @return true if the action was run
+         */
+        public boolean ifCaughtUp(final Runnable action) {
+            synchronized (NotificationLog.this) {
+                if (segment != null && position < segment.size || findNextSegment() != null) {
+                    return false;
+                }
+                action.run();
+                return true;
+            }
+        }
+
+        @GuardedBy("NotificationLog.this")
+        private Segment findNextSegment() {
+            for (final Segment candidate : segments) {
+                if ((segment == null || candidate.id > segment.id) && candidate.size > SEGMENT_HEADER_SIZE) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        @GuardedBy("NotificationLog.this")
+        private boolean nextSegment() throws IOException {
+            Segment next;
+            while ((next = findNextSegment()) != null) {
+                segment = next;
+                // Only the last segment is appended to, the others are skipped if they contain only older notifications
+                if (next.maxEventTime >= startMillis || next == segments.peekLast()) {
+                    try (FileChannel channel = FileChannel.open(next.path, StandardOpenOption.READ)) {
+                        // Segment keeps its mapping even if it is deleted by retention while being read
+                        buffer = channel.map(MapMode.READ_ONLY, 0, segmentSize);
+                    }
+                    position = SEGMENT_HEADER_SIZE;
+                    return true;
+                }
+                buffer = null;
+                position = next.size;
+            }
+            return false;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final long createdMillis;
+        private int size = SEGMENT_HEADER_SIZE;
+        private long maxEventTime = Long.MIN_VALUE;
+
+        Segment(final long id, final Path path, final long createdMillis) {
+            this.id = id;
+            this.path = path;
+            this.createdMillis = createdMillis;
+        }
+
+        void onRecord(final int end, final long eventTime) {
+            size = end;
+            maxEventTime = Math.max(maxEventTime, eventTime);
+        }
+    }
+}
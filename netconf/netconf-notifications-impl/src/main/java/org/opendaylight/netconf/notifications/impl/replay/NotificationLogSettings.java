@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl.replay;
+
+import com.google.common.base.Optional;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
+
+/**
+ * Settings of notification logs, every stream is logged in its own subdirectory of the log directory.
+ */
+public final class NotificationLogSettings {
+
+    public static final String DIRECTORY_PROPERTY = "netconf.notifications.replay.directory";
+    public static final String SEGMENT_SIZE_PROPERTY = "netconf.notifications.replay.segmentSize";
+    public static final String MAX_SIZE_PROPERTY = "netconf.notifications.replay.maxSize";
+    public static final String MAX_AGE_HOURS_PROPERTY = "netconf.notifications.replay.maxAgeHours";
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+    public static final long DEFAULT_MAX_AGE_HOURS = 24 * 7;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final long maxAgeMillis;
+
+    public NotificationLogSettings(final Path directory, final int segmentSize, final long maxSize,
+                                   final long maxAgeMillis) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @return settings from system properties or absent if the log directory is not set, i.e. replay is disabled
+     */
+    public static Optional<NotificationLogSettings> fromSystemProperties() {
+        final String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(new NotificationLogSettings(Paths.get(directory),
+                Integer.getInteger(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE),
+                Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE),
+                TimeUnit.HOURS.toMillis(Long.getLong(MAX_AGE_HOURS_PROPERTY, DEFAULT_MAX_AGE_HOURS))));
+    }
+
+    /**
+     * Open log of a stream.
+     *
+     * @param stream logged stream
+     * @return opened log
+     * @throws IOException if the log cannot be opened
+     */
+    public NotificationLog open(final StreamNameType stream) throws IOException {
+        // Stream names are arbitrary strings, use them only as far as they are safe file names
+        final String name = stream.getValue().replaceAll("[^A-Za-z0-9._-]", "_");
+        return NotificationLog.open(stream, directory.resolve(name), segmentSize, maxSize, maxAgeMillis);
+    }
+}
@@ -8,16 +8,31 @@
 
 package org.opendaylight.netconf.notifications.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -28,6 +43,8 @@ import org.opendaylight.netconf.notifications.NetconfNotificationCollector;
 import org.opendaylight.netconf.notifications.NetconfNotificationListener;
 import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
+import org.opendaylight.netconf.notifications.NotificationReplayRegistration;
+import org.opendaylight.netconf.notifications.impl.replay.NotificationLogSettings;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.streams.Stream;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
@@ -143,4 +160,81 @@ public class NetconfNotificationManagerTest {
 
         verify(streamListener).onStreamUnregistered(NetconfNotificationManager.BASE_STREAM_NAME);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReplay() throws Exception {
+        final Path directory = Files.createTempDirectory("notification-log");
+        try {
+            final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(
+                    Optional.of(new NotificationLogSettings(directory, 64 * 1024, 1024 * 1024,
+                            TimeUnit.HOURS.toMillis(1))));
+            final BaseNotificationPublisherRegistration baseNotificationPublisherRegistration =
+                    netconfNotificationManager.registerBaseNotificationPublisher();
+
+            final Stream stream = netconfNotificationManager.getNotificationPublishers().getStream().get(0);
+            assertTrue(stream.isReplaySupport());
+
+            final NetconfCapabilityChange notification = new NetconfCapabilityChangeBuilder().build();
+            baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+            baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+
+            final NetconfNotificationListener listener = mock(NetconfNotificationListener.class);
+            final Optional<NotificationReplayRegistration> registration = netconfNotificationManager
+                    .registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME, listener, new Date(0));
+            assertTrue(registration.isPresent());
+
+            // Published after registration, replayed as well, since the replay has not caught up with the log yet
+            baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+            verify(listener, times(0)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+
+            // Suspended replay is resumed by the next call
+            final NetconfNotificationListener replayListener = mock(NetconfNotificationListener.class);
+            final AtomicInteger replayed = new AtomicInteger();
+            doAnswer(invocation -> {
+                replayed.incrementAndGet();
+                return null;
+            }).when(replayListener).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+            assertFalse(registration.get().replay(replayListener, () -> replayed.get() == 2));
+            assertTrue(registration.get().replay(replayListener, () -> false));
+            verify(replayListener, times(3)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+
+            // Delivered live once the replay caught up
+            baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+            verify(listener).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+            verify(replayListener, times(3)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+
+            registration.get().close();
+            netconfNotificationManager.close();
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testReplayNotSupported() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager();
+        netconfNotificationManager.registerBaseNotificationPublisher();
+
+        final Stream stream = netconfNotificationManager.getNotificationPublishers().getStream().get(0);
+        assertEquals(NetconfNotificationManager.BASE_STREAM_NAME, stream.getName());
+        assertFalse(stream.isReplaySupport());
+        assertFalse(netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+                mock(NetconfNotificationListener.class), new Date(0)).isPresent());
+    }
+
+    private static void deleteRecursively(final Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -9,22 +9,49 @@
 package org.opendaylight.netconf.notifications.impl.ops;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import com.google.common.base.Optional;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import javax.xml.bind.DatatypeConverter;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSession;
+import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.notifications.NetconfNotificationListener;
 import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
+import org.opendaylight.netconf.notifications.NotificationReplayRegistration;
+import org.opendaylight.netconf.notifications.impl.NetconfNotificationManager;
+import org.opendaylight.netconf.util.messages.AfterReplyActions;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 public class CreateSubscriptionTest {
@@ -34,6 +61,37 @@ public class CreateSubscriptionTest {
             "<stream>TESTSTREAM</stream>" +
             "</create-subscription>";
 
+    private static final String CREATE_FILTERED_SUBSCRIPTION_XML = "<create-subscription\n" +
+            "xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">\n" +
+            "<filter type=\"subtree\">" +
+            "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">" +
+            "<username/><session-id/></netconf-session-end>" +
+            "</filter>" +
+            "</create-subscription>";
+
+    private static final String CREATE_SOURCE_HOST_SUBSCRIPTION_XML = "<create-subscription\n" +
+            "xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">\n" +
+            "<filter type=\"subtree\">" +
+            "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">" +
+            "<source-host/></netconf-session-end>" +
+            "</filter>" +
+            "</create-subscription>";
+
+    private static final String SESSION_END_XML =
+            "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">" +
+            "<username>admin</username><session-id>2</session-id><source-host>127.0.0.1</source-host>" +
+            "</netconf-session-end>";
+
+    private static final String CREATE_REPLAY_SUBSCRIPTION_XML = "<create-subscription\n" +
+            "xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">\n" +
+            "<startTime>2016-01-01T00:00:00Z</startTime>" +
+            "</create-subscription>";
+
+    private static final String CREATE_STOP_TIME_SUBSCRIPTION_XML = "<create-subscription\n" +
+            "xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">\n" +
+            "<stopTime>2016-01-01T00:00:00Z</stopTime>" +
+            "</create-subscription>";
+
     @Mock
     private NetconfNotificationRegistry notificationRegistry;
 
@@ -56,4 +114,289 @@ public class CreateSubscriptionTest {
 
         Assert.assertThat(XmlUtil.toString(element), CoreMatchers.containsString("ok"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEqualFiltersShareFilteredNotification() throws Exception {
+        final ArgumentCaptor<NetconfNotificationListener> listeners =
+                ArgumentCaptor.forClass(NetconfNotificationListener.class);
+        final NetconfSession firstSession = mock(NetconfSession.class);
+        final NetconfSession secondSession = mock(NetconfSession.class);
+        subscribe(firstSession, CREATE_FILTERED_SUBSCRIPTION_XML);
+        subscribe(secondSession, CREATE_FILTERED_SUBSCRIPTION_XML);
+        verify(notificationRegistry, times(2)).registerNotificationListener(any(StreamNameType.class), listeners.capture());
+
+        final NetconfNotification notification = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        for (final NetconfNotificationListener listener : listeners.getAllValues()) {
+            listener.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, notification);
+        }
+
+        final ArgumentCaptor<NetconfMessage> firstSent = ArgumentCaptor.forClass(NetconfMessage.class);
+        final ArgumentCaptor<NetconfMessage> secondSent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(firstSession).sendMessage(firstSent.capture());
+        verify(secondSession).sendMessage(secondSent.capture());
+        Assert.assertNotSame(notification, firstSent.getValue());
+        Assert.assertSame(firstSent.getValue(), secondSent.getValue());
+        Assert.assertThat(XmlUtil.toString(firstSent.getValue().getDocument()),
+                CoreMatchers.not(CoreMatchers.containsString("source-host")));
+    }
+
+    @Test
+    public void testFilterDoesNotModifyNotification() throws Exception {
+        final ArgumentCaptor<NetconfNotificationListener> listeners =
+                ArgumentCaptor.forClass(NetconfNotificationListener.class);
+        final NetconfSession filteredSession = mock(NetconfSession.class);
+        final NetconfSession unfilteredSession = mock(NetconfSession.class);
+        subscribe(filteredSession, CREATE_FILTERED_SUBSCRIPTION_XML);
+        subscribe(unfilteredSession, CREATE_SUBSCRIPTION_XML);
+        verify(notificationRegistry, times(2)).registerNotificationListener(any(StreamNameType.class), listeners.capture());
+
+        final NetconfNotification notification = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        for (final NetconfNotificationListener listener : listeners.getAllValues()) {
+            listener.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, notification);
+        }
+
+        final ArgumentCaptor<NetconfMessage> filteredSent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(filteredSession).sendMessage(filteredSent.capture());
+        Assert.assertThat(XmlUtil.toString(filteredSent.getValue().getDocument()),
+                CoreMatchers.not(CoreMatchers.containsString("source-host")));
+        // Unfiltered subscriber gets the notification as it was published
+        verify(unfilteredSession).sendMessage(notification);
+        final String sent = XmlUtil.toString(notification.getDocument());
+        Assert.assertThat(sent, CoreMatchers.containsString("eventTime"));
+        Assert.assertThat(sent, CoreMatchers.containsString("source-host"));
+    }
+
+    @Test
+    public void testDifferentFilters() throws Exception {
+        final ArgumentCaptor<NetconfNotificationListener> listeners =
+                ArgumentCaptor.forClass(NetconfNotificationListener.class);
+        final NetconfSession userSession = mock(NetconfSession.class);
+        final NetconfSession hostSession = mock(NetconfSession.class);
+        subscribe(userSession, CREATE_FILTERED_SUBSCRIPTION_XML);
+        subscribe(hostSession, CREATE_SOURCE_HOST_SUBSCRIPTION_XML);
+        verify(notificationRegistry, times(2)).registerNotificationListener(any(StreamNameType.class), listeners.capture());
+
+        final NetconfNotification notification = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        for (final NetconfNotificationListener listener : listeners.getAllValues()) {
+            listener.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, notification);
+        }
+
+        final ArgumentCaptor<NetconfMessage> userSent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(userSession).sendMessage(userSent.capture());
+        final String user = XmlUtil.toString(userSent.getValue().getDocument());
+        Assert.assertThat(user, CoreMatchers.containsString("admin"));
+        Assert.assertThat(user, CoreMatchers.not(CoreMatchers.containsString("source-host")));
+
+        final ArgumentCaptor<NetconfMessage> hostSent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(hostSession).sendMessage(hostSent.capture());
+        final String host = XmlUtil.toString(hostSent.getValue().getDocument());
+        Assert.assertThat(host, CoreMatchers.containsString("127.0.0.1"));
+        Assert.assertThat(host, CoreMatchers.not(CoreMatchers.containsString("admin")));
+    }
+
+    private void subscribe(final NetconfSession session, final String request) throws Exception {
+        final CreateSubscription createSubscription = new CreateSubscription("id", notificationRegistry);
+        createSubscription.setSession(session);
+        createSubscription.handleWithNoSubsequentOperations(XmlUtil.newDocument(),
+                XmlElement.fromDomElement(XmlUtil.readXmlToElement(request)));
+    }
+
+    @Test(expected = DocumentedException.class)
+    public void testReplayNotSupported() throws Exception {
+        doReturn(Optional.absent()).when(notificationRegistry).registerNotificationListener(any(StreamNameType.class),
+                any(NetconfNotificationListener.class), any(Date.class));
+        handle(mock(NetconfSession.class), XmlUtil.newDocument(), CREATE_REPLAY_SUBSCRIPTION_XML);
+    }
+
+    @Test(expected = DocumentedException.class)
+    public void testStopTimeWithoutStartTime() throws Exception {
+        handle(mock(NetconfSession.class), XmlUtil.newDocument(), CREATE_STOP_TIME_SUBSCRIPTION_XML);
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        final NetconfNotification replayed = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        final NotificationReplayRegistration registration = replayRegistration(replayed);
+
+        final NetconfSession session = mock(NetconfSession.class);
+        final Document document = XmlUtil.newDocument();
+        handle(session, document, CREATE_REPLAY_SUBSCRIPTION_XML);
+
+        // Nothing is replayed before the reply is sent
+        verify(session, times(0)).sendMessage(any(NetconfMessage.class));
+        AfterReplyActions.runActions(document);
+
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(session, timeout(5000).times(2)).sendMessage(sent.capture());
+        final List<NetconfMessage> messages = sent.getAllValues();
+        Assert.assertSame(replayed, messages.get(0));
+        Assert.assertThat(XmlUtil.toString(messages.get(1).getDocument()),
+                CoreMatchers.containsString("replayComplete"));
+        verify(registration, times(0)).close();
+    }
+
+    @Test
+    public void testStopTimeCompletesSubscription() throws Exception {
+        final NotificationReplayRegistration registration = replayRegistration();
+        final NetconfSession session = mock(NetconfSession.class);
+        final Document document = XmlUtil.newDocument();
+        final Calendar stopTime = Calendar.getInstance();
+        stopTime.add(Calendar.MILLISECOND, 200);
+        handle(session, document, "<create-subscription xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">"
+                + "<startTime>2016-01-01T00:00:00Z</startTime>"
+                + "<stopTime>" + DatatypeConverter.printDateTime(stopTime) + "</stopTime>"
+                + "</create-subscription>");
+        AfterReplyActions.runActions(document);
+
+        // No notification arrives after stop time, the subscription is completed by a timer
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(session, timeout(5000).times(2)).sendMessage(sent.capture());
+        Assert.assertThat(XmlUtil.toString(sent.getAllValues().get(0).getDocument()),
+                CoreMatchers.containsString("replayComplete"));
+        Assert.assertThat(XmlUtil.toString(sent.getAllValues().get(1).getDocument()),
+                CoreMatchers.containsString("notificationComplete"));
+        verify(registration, timeout(5000)).close();
+    }
+
+    @Test
+    public void testReplayWaitsForWritableSession() throws Exception {
+        final NetconfNotification replayed = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        replayRegistration(replayed, replayed);
+
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        final NetconfSession session = mock(NetconfSession.class);
+        doReturn(channel.newSucceededFuture()).when(session).sendMessage(any(NetconfMessage.class));
+        final Document document = XmlUtil.newDocument();
+        handle(session, document, CREATE_REPLAY_SUBSCRIPTION_XML);
+        AfterReplyActions.runActions(document);
+
+        // Replay is suspended after the first notification and waits for the event loop
+        verify(session, timeout(5000)).sendMessage(any(NetconfMessage.class));
+        verify(session, after(300).times(1)).sendMessage(any(NetconfMessage.class));
+        channel.runPendingTasks();
+        verify(session, after(100).times(1)).sendMessage(any(NetconfMessage.class));
+
+        // Writability change is fired on the event loop and resumes the replay
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        channel.runPendingTasks();
+        // Second notification and replayComplete
+        verify(session, timeout(5000).times(3)).sendMessage(any(NetconfMessage.class));
+        channel.finish();
+    }
+
+    @Test
+    public void testCloseCancelsReplay() throws Exception {
+        final NetconfNotification replayed = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        final NotificationReplayRegistration registration = replayRegistration();
+        final CountDownLatch closed = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            final NetconfNotificationListener listener = (NetconfNotificationListener) invocation.getArguments()[0];
+            final BooleanSupplier suspend = (BooleanSupplier) invocation.getArguments()[1];
+            listener.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, replayed);
+            closed.await();
+            Assert.assertTrue(suspend.getAsBoolean());
+            finished.countDown();
+            return false;
+        }).when(registration).replay(any(NetconfNotificationListener.class), any(BooleanSupplier.class));
+
+        final NetconfSession session = mock(NetconfSession.class);
+        final Document document = XmlUtil.newDocument();
+        final CreateSubscription createSubscription = handle(session, document, CREATE_REPLAY_SUBSCRIPTION_XML);
+        AfterReplyActions.runActions(document);
+        verify(session, timeout(5000)).sendMessage(any(NetconfMessage.class));
+
+        createSubscription.close();
+        verify(registration).close();
+        closed.countDown();
+
+        // Nothing is sent once the subscription is closed, not even replayComplete
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        verify(session, after(100).times(1)).sendMessage(any(NetconfMessage.class));
+        verify(registration, times(1)).replay(any(NetconfNotificationListener.class), any(BooleanSupplier.class));
+    }
+
+    @Test
+    public void testLiveNotificationFollowsReplayComplete() throws Exception {
+        final NetconfNotification live = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END_XML));
+        final NotificationReplayRegistration registration = replayRegistration();
+        final ArgumentCaptor<NetconfNotificationListener> listener =
+                ArgumentCaptor.forClass(NetconfNotificationListener.class);
+        doAnswer(invocation -> {
+            // Live notification published right after the replay caught up with the log
+            final Thread publisher = new Thread(() ->
+                    listener.getValue().onNotification(NetconfNotificationManager.BASE_STREAM_NAME, live));
+            publisher.start();
+            while (publisher.getState() != Thread.State.BLOCKED && publisher.isAlive()) {
+                Thread.yield();
+            }
+            return true;
+        }).when(registration).replay(any(NetconfNotificationListener.class), any(BooleanSupplier.class));
+
+        final NetconfSession session = mock(NetconfSession.class);
+        final Document document = XmlUtil.newDocument();
+        handle(session, document, CREATE_REPLAY_SUBSCRIPTION_XML);
+        verify(notificationRegistry).registerNotificationListener(any(StreamNameType.class), listener.capture(),
+                any(Date.class));
+        AfterReplyActions.runActions(document);
+
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(session, timeout(5000).times(2)).sendMessage(sent.capture());
+        Assert.assertThat(XmlUtil.toString(sent.getAllValues().get(0).getDocument()),
+                CoreMatchers.containsString("replayComplete"));
+        Assert.assertSame(live, sent.getAllValues().get(1));
+    }
+
+    @Test
+    public void testReplayFailureCompletesSubscription() throws Exception {
+        final NotificationReplayRegistration registration = replayRegistration();
+        doThrow(new IOException("Log is corrupted")).when(registration).replay(any(NetconfNotificationListener.class),
+                any(BooleanSupplier.class));
+
+        final NetconfSession session = mock(NetconfSession.class);
+        final Document document = XmlUtil.newDocument();
+        handle(session, document, CREATE_REPLAY_SUBSCRIPTION_XML);
+        AfterReplyActions.runActions(document);
+
+        // Client learns that it will not receive any more notifications
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(session, timeout(5000)).sendMessage(sent.capture());
+        Assert.assertThat(XmlUtil.toString(sent.getValue().getDocument()),
+                CoreMatchers.containsString("notificationComplete"));
+        verify(registration, timeout(5000)).close();
+        verify(session, after(100).times(1)).sendMessage(any(NetconfMessage.class));
+    }
+
+    /**
+     * Registration replaying the notifications, until suspended, and catching up with the log afterwards.
+     */
+    private NotificationReplayRegistration replayRegistration(final NetconfNotification... logged) throws Exception {
+        final NotificationReplayRegistration registration = mock(NotificationReplayRegistration.class);
+        final Queue<NetconfNotification> log = new ArrayDeque<>(Arrays.asList(logged));
+        doAnswer(invocation -> {
+            final NetconfNotificationListener listener = (NetconfNotificationListener) invocation.getArguments()[0];
+            final BooleanSupplier suspend = (BooleanSupplier) invocation.getArguments()[1];
+            while (!suspend.getAsBoolean()) {
+                final NetconfNotification notification = log.poll();
+                if (notification == null) {
+                    return true;
+                }
+                listener.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, notification);
+            }
+            return false;
+        }).when(registration).replay(any(NetconfNotificationListener.class), any(BooleanSupplier.class));
+        doReturn(Optional.of(registration)).when(notificationRegistry).registerNotificationListener(
+                any(StreamNameType.class), any(NetconfNotificationListener.class), any(Date.class));
+        return registration;
+    }
+
+    private CreateSubscription handle(final NetconfSession session, final Document document, final String request)
+            throws Exception {
+        final CreateSubscription createSubscription = new CreateSubscription("id", notificationRegistry);
+        createSubscription.setSession(session);
+        createSubscription.handleWithNoSubsequentOperations(document,
+                XmlElement.fromDomElement(XmlUtil.readXmlToElement(request)));
+        return createSubscription;
+    }
+}
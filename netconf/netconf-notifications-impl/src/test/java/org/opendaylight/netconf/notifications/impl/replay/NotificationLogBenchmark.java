@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl.replay;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.notifications.NetconfNotification;
+import org.opendaylight.netconf.notifications.impl.NetconfNotificationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures appending notifications to a notification log and replaying them from it. Every operation appends or
+ * replays the configured number of notifications, retention keeps the log within the default maximal size. The log is
+ * kept in a temporary directory deleted afterwards, unless a directory is passed in the directory parameter. Not
+ * executed as part of the build, run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NotificationLogBenchmark {
+
+    @Param({"100000"})
+    private int notifications;
+
+    // Directory of the log, it is kept after the benchmark. Temporary directory is used if empty.
+    @Param({""})
+    private String directory;
+
+    private Path logDirectory;
+    private NotificationLog log;
+    private NetconfNotification notification;
+
+    @Setup
+    public void setUp() throws Exception {
+        logDirectory = directory.isEmpty() ? Files.createTempDirectory("notification-log") : Paths.get(directory);
+        log = NotificationLog.open(NetconfNotificationManager.BASE_STREAM_NAME, logDirectory,
+                NotificationLogSettings.DEFAULT_SEGMENT_SIZE, NotificationLogSettings.DEFAULT_MAX_SIZE,
+                TimeUnit.DAYS.toMillis(1));
+        notification = new NetconfNotification(XmlUtil.readXmlToDocument(
+                "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">"
+                + "<username>admin</username><session-id>2</session-id><source-host>127.0.0.1</source-host>"
+                + "<termination-reason>closed</termination-reason></netconf-session-end>"), new Date());
+        // Replayed by every replay operation
+        append();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        log.close();
+        if (directory.isEmpty()) {
+            final File[] files = logDirectory.toFile().listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    Files.delete(file.toPath());
+                }
+            }
+            Files.delete(logDirectory);
+        }
+    }
+
+    @Benchmark
+    public void append() throws Exception {
+        for (int i = 0; i < notifications; i++) {
+            log.append(notification);
+        }
+    }
+
+    @Benchmark
+    public long replay() throws Exception {
+        long replayed = 0;
+        final NotificationLog.Cursor cursor = log.cursor(new Date(0));
+        while (cursor.next() != null) {
+            replayed++;
+        }
+        return replayed;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(NotificationLogBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.notifications.NetconfNotification;
+import org.opendaylight.netconf.notifications.impl.NetconfNotificationManager;
+
+public class NotificationLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("notification-log");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testReplaySinceStartTime() throws Exception {
+        final long now = System.currentTimeMillis();
+        try (NotificationLog log = open(SEGMENT_SIZE * 100)) {
+            for (int i = 0; i < 50; i++) {
+                log.append(createNotification(i, new Date(now - 50 + i)));
+            }
+
+            assertEquals(range(20, 50), replay(log.cursor(new Date(now - 30))));
+            assertEquals(range(0, 50), replay(log.cursor(new Date(0))));
+        }
+    }
+
+    @Test
+    public void testCursorCatchesUp() throws Exception {
+        final long now = System.currentTimeMillis();
+        try (NotificationLog log = open(SEGMENT_SIZE * 100)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(createNotification(i, new Date(now)));
+            }
+            final NotificationLog.Cursor cursor = log.cursor(new Date(0));
+            assertEquals(0, index(cursor.next()));
+            // Not run while there are unread notifications
+            final AtomicInteger caughtUp = new AtomicInteger();
+            assertFalse(cursor.ifCaughtUp(caughtUp::incrementAndGet));
+            assertEquals(range(1, 10), replay(cursor));
+
+            // Notifications appended after the cursor was created are read as well, spanning more segments
+            for (int i = 10; i < 60; i++) {
+                log.append(createNotification(i, new Date(now)));
+            }
+            assertFalse(cursor.ifCaughtUp(caughtUp::incrementAndGet));
+            assertEquals(range(10, 60), replay(cursor));
+            assertTrue(cursor.ifCaughtUp(caughtUp::incrementAndGet));
+            assertEquals(1, caughtUp.get());
+        }
+    }
+
+    @Test
+    public void testEmptyLogCaughtUp() throws Exception {
+        try (NotificationLog log = open(SEGMENT_SIZE * 100)) {
+            final NotificationLog.Cursor cursor = log.cursor(new Date(0));
+            assertNull(cursor.next());
+            assertTrue(cursor.ifCaughtUp(() -> { }));
+        }
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        final long now = System.currentTimeMillis();
+        final Date creationTime;
+        try (NotificationLog log = open(SEGMENT_SIZE * 100)) {
+            for (int i = 0; i < 30; i++) {
+                log.append(createNotification(i, new Date(now)));
+            }
+            creationTime = log.getCreationTime();
+        }
+
+        try (NotificationLog log = open(SEGMENT_SIZE * 100)) {
+            assertEquals(creationTime, log.getCreationTime());
+            log.append(createNotification(30, new Date(now)));
+            assertEquals(range(0, 31), replay(log.cursor(new Date(0))));
+        }
+    }
+
+    @Test
+    public void testRetentionBySize() throws Exception {
+        final long now = System.currentTimeMillis();
+        try (NotificationLog log = open(SEGMENT_SIZE * 2)) {
+            for (int i = 0; i < 100; i++) {
+                log.append(createNotification(i, new Date(now)));
+            }
+
+            final List<Integer> replayed = replay(log.cursor(new Date(0)));
+            assertTrue(replayed.size() < 100);
+            assertEquals(range(100 - replayed.size(), 100), replayed);
+            assertEquals(2, directory.toFile().listFiles().length);
+        }
+    }
+
+    @Test
+    public void testRetentionByAge() throws Exception {
+        final long now = System.currentTimeMillis();
+        try (NotificationLog log = open(SEGMENT_SIZE * 100)) {
+            for (int i = 0; i < 100; i++) {
+                // The first half is older than maximal age
+                log.append(createNotification(i, new Date(i < 50 ? now - 2 * MAX_AGE : now)));
+            }
+
+            final List<Integer> replayed = replay(log.cursor(new Date(0)));
+            // Segment with both old and recent notifications is kept
+            assertTrue(replayed.size() >= 50 && replayed.size() < 100);
+            assertEquals(range(100 - replayed.size(), 100), replayed);
+        }
+    }
+
+    private NotificationLog open(final long maxSize) throws IOException {
+        return NotificationLog.open(NetconfNotificationManager.BASE_STREAM_NAME, directory, SEGMENT_SIZE, maxSize,
+                MAX_AGE);
+    }
+
+    private static NetconfNotification createNotification(final int index, final Date eventTime) throws Exception {
+        return new NetconfNotification(XmlUtil.readXmlToDocument(
+                "<event xmlns=\"urn:test\"><index>" + index + "</index></event>"), eventTime);
+    }
+
+    private static List<Integer> replay(final NotificationLog.Cursor cursor) throws Exception {
+        final List<Integer> replayed = new ArrayList<>();
+        for (NetconfNotification notification = cursor.next(); notification != null; notification = cursor.next()) {
+            replayed.add(index(notification));
+        }
+        return replayed;
+    }
+
+    private static int index(final NetconfNotification notification) throws Exception {
+        final XmlElement event = XmlElement.fromDomDocument(notification.getDocument()).getOnlyChildElement("event");
+        return Integer.parseInt(event.getOnlyChildElement("index").getTextContent());
+    }
+
+    private static List<Integer> range(final int from, final int to) {
+        final List<Integer> range = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+}
@@ -18,6 +18,7 @@ import org.apache.sshd.server.ExitCallback;
 import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandlerReader;
 import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandlerWriter;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
+import org.opendaylight.netconf.util.LocalPeerWritability;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,6 +87,21 @@ final class SshProxyClientHandler extends ChannelInboundHandlerAdapter {
         asyncSshHandlerWriter.write(ctx, msg, ctx.newPromise());
     }
 
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        // Stop forwarding requests from the remote client while replies to it cannot be written out
+        if (ctx.channel().isWritable()) {
+            asyncSshHandlerReader.resume();
+        } else {
+            LOG.debug("Replies to client: {} on channel: {} are not getting read, suspending requests",
+                    netconfHelloMessageAdditionalHeader.getAddress(), ctx.channel());
+            asyncSshHandlerReader.suspend();
+        }
+        // Let the netconf server hold back replies too
+        LocalPeerWritability.writabilityChanged(ctx.channel(), ctx.channel());
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
         LOG.debug("Internal connection to netconf server was dropped for client: {} on channel: ",
@@ -11,33 +11,22 @@ package org.opendaylight.netconf.ssh;
 import com.google.common.collect.ImmutableList;
 import io.netty.channel.EventLoopGroup;
 import java.io.IOException;
-import java.nio.channels.AsynchronousChannelGroup;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import org.apache.sshd.SshServer;
 import org.apache.sshd.common.Cipher;
-import org.apache.sshd.common.FactoryManager;
 import org.apache.sshd.common.NamedFactory;
-import org.apache.sshd.common.RuntimeSshException;
 import org.apache.sshd.common.cipher.ARCFOUR128;
 import org.apache.sshd.common.cipher.ARCFOUR256;
-import org.apache.sshd.common.io.IoAcceptor;
-import org.apache.sshd.common.io.IoConnector;
-import org.apache.sshd.common.io.IoHandler;
-import org.apache.sshd.common.io.IoServiceFactory;
 import org.apache.sshd.common.io.IoServiceFactoryFactory;
-import org.apache.sshd.common.io.nio2.Nio2Acceptor;
-import org.apache.sshd.common.io.nio2.Nio2Connector;
-import org.apache.sshd.common.io.nio2.Nio2ServiceFactoryFactory;
-import org.apache.sshd.common.util.CloseableUtils;
 import org.apache.sshd.server.PasswordAuthenticator;
 import org.apache.sshd.server.ServerFactoryManager;
 import org.apache.sshd.server.session.ServerSession;
+import org.opendaylight.netconf.nettyutil.handler.ssh.NioServiceWithPoolFactory.NioServiceWithPoolFactoryFactory;
 
 /**
  * Proxy SSH server that just delegates decrypted content to a delegate server within same VM.
@@ -55,7 +44,7 @@ public class SshProxyServer implements AutoCloseable {
     public SshProxyServer(final ScheduledExecutorService minaTimerExecutor, final EventLoopGroup clientGroup, final ExecutorService nioExecutor) {
         this.minaTimerExecutor = minaTimerExecutor;
         this.clientGroup = clientGroup;
-        this.nioServiceWithPoolFactoryFactory = new NioServiceWithPoolFactory.NioServiceWithPoolFactoryFactory(nioExecutor);
+        this.nioServiceWithPoolFactoryFactory = new NioServiceWithPoolFactoryFactory(nioExecutor);
         this.sshServer = SshServer.setUpDefaultServer();
     }
 
@@ -111,58 +100,4 @@ public class SshProxyServer implements AutoCloseable {
         }
     }
 
-    /**
-     * Based on Nio2ServiceFactory with one addition: injectable executor
-     */
-    private static final class NioServiceWithPoolFactory extends CloseableUtils.AbstractCloseable implements IoServiceFactory {
-
-        private final FactoryManager manager;
-        private final AsynchronousChannelGroup group;
-
-        public NioServiceWithPoolFactory(final FactoryManager manager, final ExecutorService executor) {
-            this.manager = manager;
-            try {
-                group = AsynchronousChannelGroup.withThreadPool(executor);
-            } catch (final IOException e) {
-                throw new RuntimeSshException(e);
-            }
-        }
-
-        @Override
-        public IoConnector createConnector(final IoHandler handler) {
-            return new Nio2Connector(manager, handler, group);
-        }
-
-        @Override
-        public IoAcceptor createAcceptor(final IoHandler handler) {
-            return new Nio2Acceptor(manager, handler, group);
-        }
-
-        @Override
-        protected void doCloseImmediately() {
-            try {
-                group.shutdownNow();
-                group.awaitTermination(5, TimeUnit.SECONDS);
-            } catch (final Exception e) {
-                log.debug("Exception caught while closing channel group", e);
-            } finally {
-                super.doCloseImmediately();
-            }
-        }
-
-        private static final class NioServiceWithPoolFactoryFactory extends Nio2ServiceFactoryFactory {
-
-            private final ExecutorService nioExecutor;
-
-            private NioServiceWithPoolFactoryFactory(final ExecutorService nioExecutor) {
-                this.nioExecutor = nioExecutor;
-            }
-
-            @Override
-            public IoServiceFactory create(final FactoryManager manager) {
-                return new NioServiceWithPoolFactory(manager, nioExecutor);
-            }
-        }
-    }
-
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.netty;
+
+import com.google.common.base.Preconditions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.sshd.server.keyprovider.PEMGeneratorHostKeyProvider;
+import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.LoginPassword;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
+import org.opendaylight.netconf.ssh.SshProxyServer;
+import org.opendaylight.netconf.ssh.SshProxyServerConfigurationBuilder;
+import org.opendaylight.netconf.util.osgi.NetconfConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures throughput of SSH client read path over loopback. For every operation the client asks the local server
+ * behind the SSH proxy for a block of data, the server streams it as fast as the channel accepts it and the client
+ * waits until all of it is received. Not executed as part of the build, run {@link #main(String[])} from the test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SshReadThroughputBenchmark {
+
+    private static final int CHUNK_SIZE = 65536;
+    private static final int PORT = 10832;
+
+    @Param({"16", "64"})
+    private int megabytes;
+
+    private EventLoopGroup group;
+    private ExecutorService nioExec;
+    private ScheduledExecutorService minaTimerEx;
+    private File sshKeyPair;
+    private Channel source;
+    private SshProxyServer sshProxyServer;
+    private Channel client;
+    private SinkHandler sink;
+
+    @Setup
+    public void setUp() throws Exception {
+        final long blockSize = (long) megabytes * 1024 * 1024;
+        group = new NioEventLoopGroup();
+        nioExec = Executors.newFixedThreadPool(1);
+        minaTimerEx = Executors.newScheduledThreadPool(1);
+        sshKeyPair = Files.createTempFile("sshKeyPair", ".pem").toFile();
+
+        source = new ServerBootstrap()
+                .group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    public void initChannel(final LocalChannel ch) throws Exception {
+                        ch.pipeline().addLast(new SourceHandler(blockSize));
+                    }
+                }).bind(NetconfConfiguration.NETCONF_LOCAL_ADDRESS).sync().channel();
+
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", PORT);
+        sshProxyServer = new SshProxyServer(minaTimerEx, group, nioExec);
+        sshProxyServer.bind(new SshProxyServerConfigurationBuilder()
+                .setBindingAddress(address)
+                .setLocalAddress(NetconfConfiguration.NETCONF_LOCAL_ADDRESS)
+                .setAuthenticator((username, password) -> true)
+                .setKeyPairProvider(new PEMGeneratorHostKeyProvider(sshKeyPair.toPath().toAbsolutePath().toString()))
+                .setIdleTimeout(Integer.MAX_VALUE)
+                .createSshProxyServerConfiguration());
+
+        sink = new SinkHandler();
+        client = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<NioSocketChannel>() {
+                    @Override
+                    public void initChannel(final NioSocketChannel ch) throws Exception {
+                        ch.pipeline().addFirst(AsyncSshHandler.createForNetconfSubsystem(new LoginPassword("a", "a")));
+                        ch.pipeline().addLast(sink);
+                    }
+                }).connect(address).sync().channel();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close().sync();
+        sshProxyServer.close();
+        source.close().sync();
+        group.shutdownGracefully();
+        nioExec.shutdownNow();
+        minaTimerEx.shutdownNow();
+        Files.deleteIfExists(sshKeyPair.toPath());
+    }
+
+    @Benchmark
+    public long readBlock() throws InterruptedException {
+        final CountDownLatch done = sink.expect((long) megabytes * 1024 * 1024);
+        // Every byte sent by the client requests one block from the source
+        client.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {1}));
+        Preconditions.checkState(done.await(1, TimeUnit.MINUTES), "Timed out waiting for data");
+        return sink.reads;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(SshReadThroughputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Writes a block of data for every byte received, as long as the channel is writable.
+     */
+    private static final class SourceHandler extends ChannelInboundHandlerAdapter {
+        private final ByteBuf chunk = Unpooled.unreleasableBuffer(Unpooled.directBuffer(CHUNK_SIZE).writeZero(CHUNK_SIZE));
+        private final long blockSize;
+        private long remaining;
+
+        SourceHandler(final long blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+            final ByteBuf buf = (ByteBuf) msg;
+            remaining += buf.readableBytes() * blockSize;
+            buf.release();
+            writeAvailable(ctx);
+        }
+
+        @Override
+        public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+            writeAvailable(ctx);
+        }
+
+        private void writeAvailable(final ChannelHandlerContext ctx) {
+            while (remaining > 0 && ctx.channel().isWritable()) {
+                final int size = (int) Math.min(remaining, CHUNK_SIZE);
+                remaining -= size;
+                ctx.write(chunk.duplicate().writerIndex(size));
+            }
+            ctx.flush();
+        }
+    }
+
+    private static final class SinkHandler extends ChannelInboundHandlerAdapter {
+        private volatile CountDownLatch done;
+        private long expected;
+        private long received;
+        private volatile long reads;
+
+        /**
+         * Prepares for the next block. The request is written through the channel afterwards, so the event loop
+         * sees the new state before any data of the block arrives.
+         */
+        CountDownLatch expect(final long bytes) {
+            expected = bytes;
+            received = 0;
+            reads = 0;
+            done = new CountDownLatch(1);
+            return done;
+        }
+
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+            final ByteBuf buf = (ByteBuf) msg;
+            received += buf.readableBytes();
+            reads++;
+            buf.release();
+            if (received >= expected) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -15,30 +15,34 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.local.LocalChannel;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import java.net.InetSocketAddress;
+import org.opendaylight.netconf.util.NettyTransport;
 
 public class ProxyServer implements AutoCloseable {
-    private final EventLoopGroup bossGroup = new NioEventLoopGroup();
-    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
+    private final EventLoopGroup bossGroup = NettyTransport.newEventLoopGroup(0);
+    private final EventLoopGroup workerGroup = NettyTransport.newEventLoopGroup(0);
     private final ChannelFuture channelFuture;
 
     public ProxyServer(InetSocketAddress address, final LocalAddress localAddress) {
+        this(address, localAddress, NettyTransport.DEFAULT);
+    }
+
+    public ProxyServer(InetSocketAddress address, final LocalAddress localAddress, final NettyTransport transport) {
         // Configure the server.
         final Bootstrap clientBootstrap = new Bootstrap();
         clientBootstrap.group(bossGroup).channel(LocalChannel.class);
 
         ServerBootstrap serverBootstrap = new ServerBootstrap();
         serverBootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(NettyTransport.serverSocketChannelClass(bossGroup, workerGroup))
                 .handler(new LoggingHandler(LogLevel.DEBUG))
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     public void initChannel(SocketChannel ch) throws Exception {
+                        transport.configure(ch);
                         ch.pipeline().addLast(new ProxyServerHandler(clientBootstrap, localAddress));
                     }
                 });
@@ -27,7 +27,9 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabi
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceNotificationService;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalProvider;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.OperationalReadCache;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.netconf.sal.connect.util.StatisticsRegistration;
 import org.opendaylight.netconf.topology.singleton.api.NetconfDOMTransaction;
 import org.opendaylight.netconf.topology.singleton.impl.tx.NetconfMasterDOMTransaction;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologyUtils;
@@ -53,6 +55,8 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
 
     private final ActorRef masterActorRef;
     private final ActorSystem actorSystem;
+    private final OperationalReadCache operationalCache;
+    private final StatisticsRegistration cacheStatsRegistration;
     private DOMDataBroker deviceDataBroker = null;
 
     MasterSalFacade(final RemoteDeviceId id,
@@ -60,10 +64,27 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
                            final BindingAwareBroker bindingBroker,
                            final ActorSystem actorSystem,
                            final ActorRef masterActorRef) {
+        this(id, domBroker, bindingBroker, actorSystem, masterActorRef, 0, 0);
+    }
+
+    /**
+     * @param operationalCacheTtlMillis time operational data read from device stay cached, 0 disables the cache
+     * @param operationalCacheMaxNodes upper bound of cached operational data nodes
+     */
+    MasterSalFacade(final RemoteDeviceId id,
+                           final Broker domBroker,
+                           final BindingAwareBroker bindingBroker,
+                           final ActorSystem actorSystem,
+                           final ActorRef masterActorRef,
+                           final long operationalCacheTtlMillis,
+                           final long operationalCacheMaxNodes) {
         this.id = id;
         this.salProvider = new NetconfDeviceSalProvider(id);
         this.actorSystem = actorSystem;
         this.masterActorRef = masterActorRef;
+        this.operationalCache = OperationalReadCache.create(operationalCacheTtlMillis, operationalCacheMaxNodes);
+        this.cacheStatsRegistration = operationalCache == null ? null
+                : StatisticsRegistration.register(id, "OperationalReadCache", operationalCache);
 
         registerToSal(domBroker, bindingBroker);
     }
@@ -116,10 +137,19 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
         salProvider.getMountInstance().publish(domNotification);
     }
 
+    @Override
+    public void onDeviceConfigurationChanged() {
+        if (operationalCache != null) {
+            LOG.debug("{}: Device configuration changed, invalidating cached operational data", id);
+            operationalCache.invalidate();
+        }
+    }
+
     @Override
     public void close() {
         unregisterMasterMountPoint();
         closeGracefully(salProvider);
+        closeGracefully(cacheStatsRegistration);
     }
 
     private void registerMasterMountPoint() {
@@ -133,8 +163,11 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
 
         LOG.info("{}: Creating master data broker for device", id);
 
-        final NetconfDOMTransaction masterDOMTransactions =
-                new NetconfMasterDOMTransaction(id, remoteSchemaContext, deviceRpc, netconfSessionPreferences);
+        if (operationalCache != null) {
+            operationalCache.invalidate();
+        }
+        final NetconfDOMTransaction masterDOMTransactions = new NetconfMasterDOMTransaction(id, remoteSchemaContext,
+                deviceRpc, netconfSessionPreferences, operationalCache);
         deviceDataBroker =
                 new NetconfDOMDataBroker(actorSystem, id, masterDOMTransactions);
         salProvider.getMountInstance()
@@ -167,10 +167,16 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                 ? NetconfTopologyUtils.DEFAULT_KEEPALIVE_DELAY : node.getKeepaliveDelay();
         final Boolean reconnectOnChangedSchema = node.isReconnectOnChangedSchema() == null
                 ? NetconfTopologyUtils.DEFAULT_RECONNECT_ON_CHANGED_SCHEMA : node.isReconnectOnChangedSchema();
+        final long cacheTtlMillis = node.getOperationalReadCacheTtlMillis() == null
+                ? NetconfTopologyUtils.DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS
+                : node.getOperationalReadCacheTtlMillis();
+        final long cacheMaxNodes = node.getOperationalReadCacheMaxNodes() == null
+                ? NetconfTopologyUtils.DEFAULT_OPERATIONAL_READ_CACHE_MAX_NODES
+                : node.getOperationalReadCacheMaxNodes();
 
         RemoteDeviceHandler<NetconfSessionPreferences> salFacade =  new MasterSalFacade(remoteDeviceId,
                 netconfTopologyDeviceSetup.getDomBroker(), netconfTopologyDeviceSetup.getBindingAwareBroker(),
-                netconfTopologyDeviceSetup.getActorSystem(), deviceContextActorRef);
+                netconfTopologyDeviceSetup.getActorSystem(), deviceContextActorRef, cacheTtlMillis, cacheMaxNodes);
         if (keepaliveDelay > 0) {
             LOG.info("{}: Adding keepalive facade.", remoteDeviceId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade,
@@ -415,6 +421,8 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                         : NetconfClientConfiguration.NetconfClientProtocol.SSH)
                 .withConnectStrategyFactory(sf)
                 .withSessionListener(listener)
+                .withLazyMessageDecoding(node.isLazyMessageDecoding() == null
+                        ? NetconfTopologyUtils.DEFAULT_LAZY_MESSAGE_DECODING : node.isLazyMessageDecoding())
                 .build();
     }
 
@@ -13,6 +13,7 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
@@ -22,6 +23,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceDataBroker;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.OperationalReadCache;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.singleton.api.NetconfDOMTransaction;
 import org.opendaylight.netconf.topology.singleton.messages.NormalizedNodeMessage;
@@ -47,7 +49,18 @@ public class NetconfMasterDOMTransaction implements NetconfDOMTransaction {
                                        final SchemaContext schemaContext,
                                        final DOMRpcService rpc,
                                        final NetconfSessionPreferences netconfSessionPreferences) {
-        this(id, new NetconfDeviceDataBroker(id, schemaContext, rpc, netconfSessionPreferences));
+        this(id, schemaContext, rpc, netconfSessionPreferences, null);
+    }
+
+    /**
+     * @param operationalCache cache of operational reads of the device, null if disabled
+     */
+    public NetconfMasterDOMTransaction(final RemoteDeviceId id,
+                                       final SchemaContext schemaContext,
+                                       final DOMRpcService rpc,
+                                       final NetconfSessionPreferences netconfSessionPreferences,
+                                       @Nullable final OperationalReadCache operationalCache) {
+        this(id, new NetconfDeviceDataBroker(id, schemaContext, rpc, netconfSessionPreferences, operationalCache));
     }
 
     public NetconfMasterDOMTransaction(final RemoteDeviceId id, final DOMDataBroker delegateBroker) {
@@ -43,6 +43,9 @@ public class NetconfTopologyUtils {
     public static final int DEFAULT_KEEPALIVE_DELAY = 0;
     public static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     public static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    public static final long DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS = 0L;
+    public static final long DEFAULT_OPERATIONAL_READ_CACHE_MAX_NODES = 100000L;
+    public static final boolean DEFAULT_LAZY_MESSAGE_DECODING = false;
     public static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     public static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     public static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
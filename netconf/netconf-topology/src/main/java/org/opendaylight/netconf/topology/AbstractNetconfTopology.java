@@ -85,6 +85,9 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     protected static final int DEFAULT_KEEPALIVE_DELAY = 0;
     protected static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     protected static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    protected static final long DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS = 0L;
+    protected static final long DEFAULT_OPERATIONAL_READ_CACHE_MAX_NODES = 100000L;
+    private static final boolean DEFAULT_LAZY_MESSAGE_DECODING = false;
     private static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     private static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     private static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
@@ -260,7 +263,7 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         RemoteDeviceId remoteDeviceId = new RemoteDeviceId(nodeId.getValue(), address);
 
         RemoteDeviceHandler<NetconfSessionPreferences> salFacade =
-                createSalFacade(remoteDeviceId, domBroker, bindingAwareBroker);
+                createSalFacade(remoteDeviceId, domBroker, bindingAwareBroker, node);
 
         if (keepaliveDelay > 0) {
             LOG.warn("Adding keepalive facade, for device {}", nodeId);
@@ -424,10 +427,12 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                         NetconfClientConfiguration.NetconfClientProtocol.SSH)
                 .withConnectStrategyFactory(sf)
                 .withSessionListener(listener)
+                .withLazyMessageDecoding(node.isLazyMessageDecoding() == null
+                        ? DEFAULT_LAZY_MESSAGE_DECODING : node.isLazyMessageDecoding())
                 .build();
     }
 
-    protected abstract RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id, final Broker domBroker, final BindingAwareBroker bindingBroker);
+    protected abstract RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id, final Broker domBroker, final BindingAwareBroker bindingBroker, final NetconfNode node);
 
     private InetSocketAddress getSocketAddress(final Host host, int port) {
         if(host.getDomainName() != null) {
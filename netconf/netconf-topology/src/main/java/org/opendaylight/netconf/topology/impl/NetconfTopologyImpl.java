@@ -29,9 +29,11 @@ import org.opendaylight.netconf.client.NetconfClientDispatcher;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalFacade;
+import org.opendaylight.netconf.sal.connect.netconf.sal.TopologyStatusWriter;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.AbstractNetconfTopology;
 import org.opendaylight.netconf.topology.api.SchemaRepositoryProvider;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopologyBuilder;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
@@ -49,6 +51,7 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology implements Data
     private static final Logger LOG = LoggerFactory.getLogger(NetconfTopologyImpl.class);
 
     private ListenerRegistration<NetconfTopologyImpl> datastoreListenerRegistration = null;
+    private TopologyStatusWriter statusWriter = null;
 
     public NetconfTopologyImpl(final String topologyId, final NetconfClientDispatcher clientDispatcher,
                                final BindingAwareBroker bindingAwareBroker, final Broker domBroker,
@@ -65,6 +68,8 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology implements Data
         // close all existing connectors, delete whole topology in datastore?
         for (NetconfConnectorDTO connectorDTO : activeConnectors.values()) {
             connectorDTO.getCommunicator().close();
+            // Facade removes status of the device, the status writer has to be closed after that
+            connectorDTO.getFacade().close();
         }
         activeConnectors.clear();
 
@@ -72,11 +77,31 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology implements Data
             datastoreListenerRegistration.close();
             datastoreListenerRegistration = null;
         }
+
+        synchronized (this) {
+            if (statusWriter != null) {
+                statusWriter.close();
+                statusWriter = null;
+            }
+        }
     }
 
     @Override
-    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(RemoteDeviceId id, Broker domBroker, BindingAwareBroker bindingBroker) {
-        return new NetconfDeviceSalFacade(id, domBroker, bindingAwareBroker);
+    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(RemoteDeviceId id, Broker domBroker, BindingAwareBroker bindingBroker, NetconfNode node) {
+        final long cacheTtlMillis = node.getOperationalReadCacheTtlMillis() == null
+                ? DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS : node.getOperationalReadCacheTtlMillis();
+        final long cacheMaxNodes = node.getOperationalReadCacheMaxNodes() == null
+                ? DEFAULT_OPERATIONAL_READ_CACHE_MAX_NODES : node.getOperationalReadCacheMaxNodes();
+        return new NetconfDeviceSalFacade(id, domBroker, bindingAwareBroker, cacheTtlMillis, cacheMaxNodes,
+                getStatusWriter());
+    }
+
+    private synchronized TopologyStatusWriter getStatusWriter() {
+        // Status of all devices is written in batches, so that reconnecting devices do not flood the datastore
+        if (statusWriter == null) {
+            statusWriter = new TopologyStatusWriter(dataBroker, keepaliveExecutor.getExecutor());
+        }
+        return statusWriter;
     }
 
     /**
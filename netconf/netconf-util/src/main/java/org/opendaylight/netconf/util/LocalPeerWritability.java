@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.local.LocalChannel;
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Carries writability of a proxy across a local channel. SSH and TCP servers forward sessions to the netconf server
+ * over local channels, which hand written data to the proxy at once and so never become unwritable themselves.
+ * The proxy reports writability of its transport here and it is applied to the server side of the local channel as
+ * a user defined writability flag, so that writers on the server session slow down together with the transport.
+ */
+public final class LocalPeerWritability {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalPeerWritability.class);
+
+    // Index of the user defined writability flag of the server channel, toggled on behalf of the proxy
+    private static final int WRITABILITY_INDEX = 2;
+
+    // Server side channels keyed by the address of their proxy side
+    private static final ConcurrentMap<SocketAddress, Channel> SERVER_CHANNELS = new ConcurrentHashMap<>();
+
+    private LocalPeerWritability() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Register server side of a local channel, so that writability of its proxy side can be applied to it. The
+     * channel is unregistered once it is closed.
+     *
+     * @param serverChannel channel accepted by the local server
+     */
+    public static void register(final LocalChannel serverChannel) {
+        final SocketAddress proxyAddress = serverChannel.remoteAddress();
+        if (proxyAddress == null) {
+            LOG.debug("Channel {} is not connected, not tracking writability of its peer", serverChannel);
+            return;
+        }
+        SERVER_CHANNELS.put(proxyAddress, serverChannel);
+        serverChannel.closeFuture().addListener(future -> SERVER_CHANNELS.remove(proxyAddress, serverChannel));
+    }
+
+    /**
+     * Apply writability of a transport to the server side of a local channel. The state of the transport is read
+     * when the change is applied on the event loop of the server channel, so changes applied out of order cannot
+     * leave a stale state in place.
+     *
+     * @param proxyChannel proxy side of the local channel
+     * @param transport channel whose writability is applied, may be the proxy channel itself
+     */
+    public static void writabilityChanged(final Channel proxyChannel, final Channel transport) {
+        final Channel serverChannel = SERVER_CHANNELS.get(proxyChannel.localAddress());
+        if (serverChannel == null) {
+            LOG.trace("No server channel registered for {}", proxyChannel);
+            return;
+        }
+        serverChannel.eventLoop().execute(() -> {
+            // Outbound buffer is gone once the channel is closed
+            final ChannelOutboundBuffer outboundBuffer = serverChannel.unsafe().outboundBuffer();
+            if (outboundBuffer != null) {
+                outboundBuffer.setUserDefinedWritability(WRITABILITY_INDEX, transport.isWritable());
+            }
+        });
+    }
+}
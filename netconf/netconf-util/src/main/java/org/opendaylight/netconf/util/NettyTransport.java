@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.SocketChannelConfig;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selects netty transport for TCP channels and holds socket options applied to them.
+ *
+ * <p>
+ * Native epoll transport is used on Linux when its library is present, NIO otherwise. Channel classes are
+ * selected according to the event loop group the channels are registered to, epoll channels cannot be served by
+ * NIO event loops and vice versa.
+ */
+public final class NettyTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NettyTransport.class);
+
+    /**
+     * Buffer size leaving the buffer sized by the operating system.
+     */
+    public static final int OS_DEFAULT_BUFFER_SIZE = 0;
+
+    public static final NettyTransport DEFAULT = new NettyTransport(true, true, OS_DEFAULT_BUFFER_SIZE,
+            OS_DEFAULT_BUFFER_SIZE);
+
+    private static final boolean EPOLL_AVAILABLE = checkEpoll();
+
+    private final boolean tcpNoDelay;
+    private final boolean keepAlive;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+
+    /**
+     * @param tcpNoDelay value of TCP_NODELAY
+     * @param keepAlive value of SO_KEEPALIVE
+     * @param sendBufferSize value of SO_SNDBUF, {@link #OS_DEFAULT_BUFFER_SIZE} keeps system default
+     * @param receiveBufferSize value of SO_RCVBUF, {@link #OS_DEFAULT_BUFFER_SIZE} keeps system default
+     */
+    public NettyTransport(final boolean tcpNoDelay, final boolean keepAlive, final int sendBufferSize,
+                          final int receiveBufferSize) {
+        Preconditions.checkArgument(sendBufferSize >= 0, "Invalid send buffer size %s", sendBufferSize);
+        Preconditions.checkArgument(receiveBufferSize >= 0, "Invalid receive buffer size %s", receiveBufferSize);
+        this.tcpNoDelay = tcpNoDelay;
+        this.keepAlive = keepAlive;
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    private static boolean checkEpoll() {
+        try {
+            if (Epoll.isAvailable()) {
+                LOG.debug("Native epoll transport is available");
+                return true;
+            }
+            LOG.debug("Native epoll transport is not available", Epoll.unavailabilityCause());
+        } catch (final NoClassDefFoundError e) {
+            LOG.debug("Native epoll transport is not present", e);
+        }
+        return false;
+    }
+
+    public static boolean isEpollAvailable() {
+        return EPOLL_AVAILABLE;
+    }
+
+    /**
+     * Create event loop group using native epoll transport if available, NIO otherwise.
+     *
+     * @param threads number of threads, 0 selects netty default
+     */
+    public static EventLoopGroup newEventLoopGroup(final int threads) {
+        return EPOLL_AVAILABLE ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+    }
+
+    public static boolean isEpoll(final EventLoopGroup group) {
+        // Availability is checked first, so epoll classes are not touched when not present
+        return EPOLL_AVAILABLE && group instanceof EpollEventLoopGroup;
+    }
+
+    /**
+     * @return class of client channels that can be registered to the event loop group
+     */
+    public static Class<? extends SocketChannel> socketChannelClass(final EventLoopGroup group) {
+        return isEpoll(group) ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * @return class of server channels that can be registered to the boss group, with accepted channels registered
+     *         to the worker group
+     */
+    public static Class<? extends ServerSocketChannel> serverSocketChannelClass(final EventLoopGroup bossGroup,
+                                                                                final EventLoopGroup workerGroup) {
+        return isEpoll(bossGroup) && isEpoll(workerGroup) ? EpollServerSocketChannel.class
+                : NioServerSocketChannel.class;
+    }
+
+    /**
+     * Apply socket options to a channel, to be called while channel is being initialized.
+     */
+    public void configure(final SocketChannel channel) {
+        final SocketChannelConfig config = channel.config();
+        config.setTcpNoDelay(tcpNoDelay);
+        config.setKeepAlive(keepAlive);
+        if (sendBufferSize != OS_DEFAULT_BUFFER_SIZE) {
+            config.setSendBufferSize(sendBufferSize);
+        }
+        if (receiveBufferSize != OS_DEFAULT_BUFFER_SIZE) {
+            config.setReceiveBufferSize(receiveBufferSize);
+        }
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("epoll", EPOLL_AVAILABLE)
+                .add("tcpNoDelay", tcpNoDelay)
+                .add("keepAlive", keepAlive)
+                .add("sendBufferSize", sendBufferSize)
+                .add("receiveBufferSize", receiveBufferSize)
+                .toString();
+    }
+}
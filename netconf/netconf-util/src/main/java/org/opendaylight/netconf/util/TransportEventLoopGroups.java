@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import com.google.common.base.Preconditions;
+import io.netty.channel.EventLoopGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event loop groups of a dispatcher. The global netty groups are NIO groups, so when native transport is enabled
+ * and available the dispatcher gets its own epoll groups instead, which are shut down when this object is closed.
+ * Global groups are used otherwise and are left running on close.
+ */
+public final class TransportEventLoopGroups implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransportEventLoopGroups.class);
+
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final boolean owned;
+
+    private TransportEventLoopGroups(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup,
+                                     final boolean owned) {
+        this.bossGroup = bossGroup;
+        this.workerGroup = workerGroup;
+        this.owned = owned;
+    }
+
+    /**
+     * @param globalBossGroup boss group used when native transport is not used
+     * @param globalWorkerGroup worker group used when native transport is not used
+     * @param nativeTransport use native epoll transport if available
+     * @param workerThreads number of threads of the epoll worker group, 0 selects netty default
+     */
+    public static TransportEventLoopGroups create(final EventLoopGroup globalBossGroup,
+                                                  final EventLoopGroup globalWorkerGroup,
+                                                  final boolean nativeTransport, final int workerThreads) {
+        Preconditions.checkArgument(workerThreads >= 0, "Invalid number of worker threads %s", workerThreads);
+        if (nativeTransport) {
+            if (NettyTransport.isEpollAvailable()) {
+                LOG.info("Using native epoll transport with {} worker threads", workerThreads);
+                return new TransportEventLoopGroups(NettyTransport.newEventLoopGroup(1),
+                        NettyTransport.newEventLoopGroup(workerThreads), true);
+            }
+            LOG.info("Native epoll transport is not available, using global event loop groups");
+        }
+        return new TransportEventLoopGroups(Preconditions.checkNotNull(globalBossGroup),
+                Preconditions.checkNotNull(globalWorkerGroup), false);
+    }
+
+    public EventLoopGroup getBossGroup() {
+        return bossGroup;
+    }
+
+    public EventLoopGroup getWorkerGroup() {
+        return workerGroup;
+    }
+
+    public boolean isOwned() {
+        return owned;
+    }
+
+    @Override
+    public void close() {
+        if (owned) {
+            bossGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully();
+        }
+    }
+}
@@ -24,6 +24,15 @@ import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 public abstract class AbstractNetconfOperation implements NetconfOperation {
+
+    private static final ClassValue<Boolean> HANDLING_DETERMINED_BY_NAME = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return !overrides(type, "canHandle", Document.class)
+                    && !overrides(type, "canHandle", String.class, String.class);
+        }
+    };
+
     private final String netconfSessionIdForReporting;
 
     protected AbstractNetconfOperation(final String netconfSessionIdForReporting) {
@@ -41,6 +50,34 @@ public abstract class AbstractNetconfOperation implements NetconfOperation {
         return canHandle(operationNameAndNamespace.getOperationName(), operationNameAndNamespace.getNamespace());
     }
 
+    /**
+     * @return true if this operation decides whether it can handle a message only by name and namespace of the
+     *         operation element, so the decision applies to all messages invoking the same operation
+     */
+    public final boolean isHandlingDeterminedByName() {
+        return HANDLING_DETERMINED_BY_NAME.get(getClass());
+    }
+
+    /**
+     * Handling priority of messages invoking given operation, valid for all such messages if
+     * {@link #isHandlingDeterminedByName()}.
+     */
+    public final HandlingPriority canHandle(final OperationNameAndNamespace operation) {
+        return canHandle(operation.getOperationName(), operation.getNamespace());
+    }
+
+    private static boolean overrides(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+        for (Class<?> c = type; c != AbstractNetconfOperation.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (final NoSuchMethodException e) {
+                // Not declared here, check superclass
+            }
+        }
+        return false;
+    }
+
     public static final class OperationNameAndNamespace {
         private final String operationName, namespace;
         private final XmlElement operationElement;
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+/**
+ * Actions attached to a reply by the operation, which are executed once the reply is passed to the session, e.g.
+ * replay of notifications, which must not be sent before the reply to create-subscription. Messages sent by the
+ * actions are therefore always written after the reply.
+ */
+public final class AfterReplyActions {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AfterReplyActions.class);
+    private static final String ACTIONS_KEY = AfterReplyActions.class.getName();
+
+    private AfterReplyActions() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Attach action to a reply. The action is executed by the thread which sent the reply, so it must not block.
+     *
+     * @param reply reply document
+     * @param action action to execute once the reply is sent
+     */
+    @SuppressWarnings("unchecked")
+    public static void addAction(final Document reply, final Runnable action) {
+        List<Runnable> actions = (List<Runnable>) reply.getUserData(ACTIONS_KEY);
+        if (actions == null) {
+            actions = new ArrayList<>(1);
+            reply.setUserData(ACTIONS_KEY, actions, null);
+        }
+        actions.add(action);
+    }
+
+    /**
+     * Execute actions attached to a reply, which was just sent.
+     *
+     * @param reply reply document
+     */
+    @SuppressWarnings("unchecked")
+    public static void runActions(final Document reply) {
+        final List<Runnable> actions = (List<Runnable>) reply.getUserData(ACTIONS_KEY);
+        if (actions == null) {
+            return;
+        }
+        reply.setUserData(ACTIONS_KEY, null, null);
+        for (final Runnable action : actions) {
+            try {
+                action.run();
+            } catch (final RuntimeException e) {
+                LOG.warn("Failed to execute action {} after reply was sent", action, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util.messages;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Reply whose elements may carry content, which is written only when the message is serialized, e.g. a data element
+ * of a get reply with the whole datastore. The content is never part of the reply {@link Document}, it is written
+ * straight into the output by encoders aware of {@link StreamingNetconfMessage}.
+ *
+ * <p>
+ * Operations may defer content only if the request was marked by {@link #acceptDeferredContent(Document)}, i.e. its
+ * reply is going to be wrapped in this message. Deferred content is supported on the root element and its children.
+ */
+public final class DeferredContentMessage extends StreamingNetconfMessage {
+
+    /**
+     * Writes deferred content of an element.
+     */
+    public interface ContentWriter {
+        /**
+         * Write content of an element into the supplied writer. The element itself is already started and its
+         * attributes written.
+         *
+         * @param writer non-repairing writer to write the content into
+         * @throws XMLStreamException if the content cannot be written
+         */
+        void writeContent(XMLStreamWriter writer) throws XMLStreamException;
+    }
+
+    private static final String CONTENT_WRITER_KEY = DeferredContentMessage.class.getName() + ".contentWriter";
+    private static final String ACCEPTED_KEY = DeferredContentMessage.class.getName() + ".accepted";
+
+    private final Document reply;
+
+    public DeferredContentMessage(final Document reply) {
+        super(reply.getDocumentElement().getAttribute(XmlNetconfConstants.MESSAGE_ID));
+        this.reply = reply;
+    }
+
+    /**
+     * Mark request, whose reply may contain deferred content.
+     *
+     * @param request request document
+     */
+    public static void acceptDeferredContent(final Document request) {
+        request.setUserData(ACCEPTED_KEY, Boolean.TRUE, null);
+    }
+
+    /**
+     * @param request request document
+     * @return true if reply to the request may contain deferred content
+     */
+    public static boolean isDeferredContentAccepted(final Document request) {
+        return Boolean.TRUE.equals(request.getUserData(ACCEPTED_KEY));
+    }
+
+    /**
+     * Set content of an empty element, written when the reply is serialized.
+     *
+     * @param element empty root element of the reply or its child
+     * @param contentWriter writer of the element content
+     */
+    public static void setDeferredContent(final Element element, final ContentWriter contentWriter) {
+        element.setUserData(CONTENT_WRITER_KEY, contentWriter, null);
+    }
+
+    /**
+     * @param reply reply document
+     * @return true if root element of the reply or any of its children has deferred content
+     */
+    public static boolean hasDeferredContent(final Document reply) {
+        final Element root = reply.getDocumentElement();
+        if (root == null) {
+            return false;
+        }
+        if (root.getUserData(CONTENT_WRITER_KEY) != null) {
+            return true;
+        }
+        for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getUserData(CONTENT_WRITER_KEY) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+        final Deque<Map<String, String>> scopes = new ArrayDeque<>();
+        scopes.push(new HashMap<>());
+        writeElement(writer, reply.getDocumentElement(), scopes);
+    }
+
+    private static void writeElement(final XMLStreamWriter writer, final Element element,
+                                     final Deque<Map<String, String>> scopes) throws XMLStreamException {
+        final Map<String, String> scope = new HashMap<>(scopes.peek());
+        scopes.push(scope);
+
+        final String namespace = element.getNamespaceURI();
+        final String prefix = nullToEmpty(element.getPrefix());
+        if (element.getLocalName() == null) {
+            writer.writeStartElement(element.getNodeName());
+        } else {
+            writer.writeStartElement(prefix, element.getLocalName(), nullToEmpty(namespace));
+        }
+
+        final NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+                final String declaredPrefix = XMLConstants.XMLNS_ATTRIBUTE.equals(attr.getName())
+                        ? XMLConstants.DEFAULT_NS_PREFIX : attr.getLocalName();
+                declareNamespace(writer, scope, declaredPrefix, attr.getValue());
+            }
+        }
+        if (namespace != null) {
+            declareNamespace(writer, scope, prefix, namespace);
+        }
+
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            final String attrNamespace = attr.getNamespaceURI();
+            if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attrNamespace)) {
+                continue;
+            }
+            if (attrNamespace == null || attr.getPrefix() == null) {
+                writer.writeAttribute(attr.getLocalName() != null ? attr.getLocalName() : attr.getName(), attr.getValue());
+            } else {
+                declareNamespace(writer, scope, attr.getPrefix(), attrNamespace);
+                writer.writeAttribute(attr.getPrefix(), attrNamespace, attr.getLocalName(), attr.getValue());
+            }
+        }
+
+        final ContentWriter contentWriter = (ContentWriter) element.getUserData(CONTENT_WRITER_KEY);
+        if (contentWriter != null) {
+            contentWriter.writeContent(writer);
+        }
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            switch (child.getNodeType()) {
+                case Node.ELEMENT_NODE:
+                    writeElement(writer, (Element) child, scopes);
+                    break;
+                case Node.TEXT_NODE:
+                    writer.writeCharacters(child.getNodeValue());
+                    break;
+                case Node.CDATA_SECTION_NODE:
+                    writer.writeCData(child.getNodeValue());
+                    break;
+                case Node.COMMENT_NODE:
+                    writer.writeComment(child.getNodeValue());
+                    break;
+                default:
+                    // processing instructions and entity references are not present in replies
+                    break;
+            }
+        }
+
+        writer.writeEndElement();
+        scopes.pop();
+    }
+
+    private static void declareNamespace(final XMLStreamWriter writer, final Map<String, String> scope,
+                                         final String prefix, final String namespace) throws XMLStreamException {
+        if (namespace.equals(scope.get(prefix))) {
+            return;
+        }
+        if (prefix.isEmpty()) {
+            writer.writeDefaultNamespace(namespace);
+        } else {
+            writer.writeNamespace(prefix, namespace);
+        }
+        scope.put(prefix, namespace);
+    }
+
+    private static String nullToEmpty(final String str) {
+        return str == null ? XMLConstants.DEFAULT_NS_PREFIX : str;
+    }
+}
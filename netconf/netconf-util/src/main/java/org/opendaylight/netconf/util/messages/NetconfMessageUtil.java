@@ -16,6 +16,7 @@ import java.util.List;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
@@ -30,6 +31,9 @@ public final class NetconfMessageUtil {
     private NetconfMessageUtil() {}
 
     public static boolean isOKMessage(NetconfMessage message) throws NetconfDocumentedException {
+        if (message instanceof LazyNetconfMessage) {
+            return hasOnlyChild((LazyNetconfMessage) message, XmlNetconfConstants.OK);
+        }
         return isOKMessage(message.getDocument());
     }
 
@@ -49,6 +53,9 @@ public final class NetconfMessageUtil {
     }
 
     public static boolean isErrorMessage(NetconfMessage message) throws NetconfDocumentedException {
+        if (message instanceof LazyNetconfMessage) {
+            return hasOnlyChild((LazyNetconfMessage) message, DocumentedException.RPC_ERROR);
+        }
         return isErrorMessage(message.getDocument());
     }
 
@@ -67,6 +74,11 @@ public final class NetconfMessageUtil {
         }
     }
 
+    private static boolean hasOnlyChild(final LazyNetconfMessage message, final String childName) {
+        final List<String> children = message.getChildElementNames();
+        return children.size() == 1 && children.get(0).equals(childName);
+    }
+
     public static Collection<String> extractCapabilitiesFromHello(Document doc) throws NetconfDocumentedException {
         XmlElement responseElement = XmlElement.fromDomDocument(doc);
         // Extract child element <capabilities> from <hello> with or without(fallback) the same namespace
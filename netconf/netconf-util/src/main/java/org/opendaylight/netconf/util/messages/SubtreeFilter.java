@@ -9,8 +9,12 @@
 package org.opendaylight.netconf.util.messages;
 
 import com.google.common.base.Optional;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
@@ -22,7 +26,6 @@ import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
-import org.xml.sax.SAXException;
 
 /**
  * See <a href="http://tools.ietf.org/html/rfc6241#section-6">rfc6241</a> for details.
@@ -30,6 +33,14 @@ import org.xml.sax.SAXException;
 public class SubtreeFilter {
     private static final Logger LOG = LoggerFactory.getLogger(SubtreeFilter.class);
 
+    /**
+     * Applies subtree filter of get or get-config request to its reply. The reply is filtered in place, elements not
+     * selected by the filter are removed from it.
+     * @param requestDocument rpc request
+     * @param rpcReply rpc reply to the request
+     * @return filtered reply, identical document if the request does not contain a subtree filter
+     * @throws DocumentedException
+     */
     public static Document applyRpcSubtreeFilter(Document requestDocument, Document rpcReply) throws DocumentedException {
         OperationNameAndNamespace operationNameAndNamespace = new OperationNameAndNamespace(requestDocument);
         if (XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0.equals(operationNameAndNamespace.getNamespace()) &&
@@ -55,24 +66,48 @@ public class SubtreeFilter {
 
     /**
      * Filters notification content. If filter type isn't of type "subtree", returns unchanged notification content.
-     * If no match is found, absent is returned.
+     * If no match is found, absent is returned. The notification itself is not modified, so the same notification can
+     * be filtered for several subscriptions.
      * @param filter filter
      * @param notification notification
      * @return document containing filtered notification content
      * @throws DocumentedException
      */
     public static Optional<Document> applySubtreeNotificationFilter(XmlElement filter, Document notification) throws DocumentedException {
-        removeEventTimeNode(notification);
+        final Element content = getNotificationContent(notification);
         if (isSupported(filter)) {
-            return Optional.fromNullable(filteredNotification(filter, notification));
+            return Optional.fromNullable(filteredNotification(filter, content));
         }
-        return Optional.of(extractNotificationContent(notification));
+        return Optional.of(extractNotificationContent(content));
     }
 
-    private static void removeEventTimeNode(Document document) {
-        final Node eventTimeNode = document.getDocumentElement().getElementsByTagNameNS(
-                XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0, XmlNetconfConstants.EVENT_TIME).item(0);
-        document.getDocumentElement().removeChild(eventTimeNode);
+    /**
+     * @return the only child element of the notification besides eventTime
+     */
+    private static Element getNotificationContent(Document notification) throws DocumentedException {
+        Element content = null;
+        for (Node child = notification.getDocumentElement().getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE || isEventTime(child)) {
+                continue;
+            }
+            if (content != null) {
+                throw new DocumentedException("Notification contains more than one content element",
+                        DocumentedException.ErrorType.APPLICATION, DocumentedException.ErrorTag.INVALID_VALUE,
+                        DocumentedException.ErrorSeverity.ERROR);
+            }
+            content = (Element) child;
+        }
+        if (content == null) {
+            throw new DocumentedException("Notification does not contain any content element",
+                    DocumentedException.ErrorType.APPLICATION, DocumentedException.ErrorTag.INVALID_VALUE,
+                    DocumentedException.ErrorSeverity.ERROR);
+        }
+        return content;
+    }
+
+    private static boolean isEventTime(Node node) {
+        return XmlNetconfConstants.EVENT_TIME.equals(node.getLocalName())
+                && XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0.equals(node.getNamespaceURI());
     }
 
     private static boolean isSupported(XmlElement filter) {
@@ -80,112 +115,200 @@ public class SubtreeFilter {
                 "subtree".equals(filter.getAttribute("type", XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0));
     }
 
-    private static Document extractNotificationContent(Document notification) throws DocumentedException {
-        XmlElement root = XmlElement.fromDomElement(notification.getDocumentElement());
-        XmlElement content = root.getOnlyChildElement();
-        notification.removeChild(root.getDomElement());
-        notification.appendChild(content.getDomElement());
-        return notification;
+    private static Document extractNotificationContent(Element content) {
+        Document result = XmlUtil.newDocument();
+        result.appendChild(result.importNode(content, true));
+        return result;
     }
 
-    private static Document filteredNotification(XmlElement filter, Document originalNotification) throws DocumentedException {
-        Document result = XmlUtil.newDocument();
-        XmlElement dataSrc = XmlElement.fromDomDocument(originalNotification);
-        Element dataDst = (Element) result.importNode(dataSrc.getDomElement(), false);
-        for (XmlElement filterChild : filter.getChildElements()) {
-            addSubtree2(filterChild, dataSrc.getOnlyChildElement(), XmlElement.fromDomElement(dataDst));
+    private static Document filteredNotification(XmlElement filter, Element contentElement) throws DocumentedException {
+        final FilterNode compiled = FilterNode.compile(filter);
+        final XmlElement content = XmlElement.fromDomElement(contentElement);
+        final Selection selection = new Selection();
+        for (FilterNode filterChild : compiled.children) {
+            filterChild.select(content, selection);
         }
-        if(dataDst.getFirstChild() != null) {
-            result.appendChild(dataDst.getFirstChild());
-            return result;
-        } else {
+        if (!selection.contains(content.getDomElement())) {
             return null;
         }
+        Document result = XmlUtil.newDocument();
+        result.appendChild(selection.copy(result, content.getDomElement()));
+        return result;
     }
 
+    /**
+     * Filters the reply in place, the filter is compiled once and the reply is traversed in a single pass, copying
+     * neither the filter nor the selected data. Only elements selected by the filter are kept under /rpc-reply/data.
+     */
     private static Document filtered(XmlElement filter, Document originalReplyDocument) throws DocumentedException {
-        Document result = XmlUtil.newDocument();
-        // even if filter is empty, copy /rpc/data
+        // even if filter is empty, keep /rpc/data
         Element rpcReply = originalReplyDocument.getDocumentElement();
-        Node rpcReplyDst = result.importNode(rpcReply, false);
-        result.appendChild(rpcReplyDst);
         XmlElement dataSrc = XmlElement.fromDomElement(rpcReply).getOnlyChildElement("data", XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0);
-        Element dataDst = (Element) result.importNode(dataSrc.getDomElement(), false);
-        rpcReplyDst.appendChild(dataDst);
-        addSubtree(filter, dataSrc, XmlElement.fromDomElement(dataDst));
+        final Element data = dataSrc.getDomElement();
+        removeChildrenExcept(rpcReply, data);
 
-        return result;
+        final FilterNode compiled = FilterNode.compile(filter);
+        final Selection selection = new Selection();
+        for (XmlElement srcChild : dataSrc.getChildElements()) {
+            for (FilterNode filterChild : compiled.children) {
+                filterChild.select(srcChild, selection);
+            }
+        }
+        selection.prune(data);
+        return originalReplyDocument;
     }
 
-    private static void addSubtree(XmlElement filter, XmlElement src, XmlElement dst) throws DocumentedException {
-        for (XmlElement srcChild : src.getChildElements()) {
-            for (XmlElement filterChild : filter.getChildElements()) {
-                addSubtree2(filterChild, srcChild, dst);
+    private static void removeChildrenExcept(final Element parent, final Node retained) {
+        Node child = parent.getFirstChild();
+        while (child != null) {
+            final Node next = child.getNextSibling();
+            if (child != retained) {
+                parent.removeChild(child);
             }
+            child = next;
         }
     }
 
-    private static MatchingResult addSubtree2(XmlElement filter, XmlElement src, XmlElement dstParent) throws DocumentedException {
-        Document document = dstParent.getDomElement().getOwnerDocument();
-        MatchingResult matches = matches(src, filter);
-        if (matches != MatchingResult.NO_MATCH && matches != MatchingResult.CONTENT_MISMATCH) {
-            // copy srcChild to dst
-            boolean filterHasChildren = filter.getChildElements().isEmpty() == false;
-            // copy to depth if this is leaf of filter tree
-            Element copied = (Element) document.importNode(src.getDomElement(), filterHasChildren == false);
-            boolean shouldAppend = filterHasChildren == false;
-            if (filterHasChildren) { // this implies TAG_MATCH
-                // do the same recursively
-                int numberOfTextMatchingChildren = 0;
-                for (XmlElement srcChild : src.getChildElements()) {
-                    for (XmlElement filterChild : filter.getChildElements()) {
-                        MatchingResult childMatch = addSubtree2(filterChild, srcChild, XmlElement.fromDomElement(copied));
-                        if (childMatch == MatchingResult.CONTENT_MISMATCH) {
-                            return MatchingResult.NO_MATCH;
-                        }
-                        if (childMatch == MatchingResult.CONTENT_MATCH) {
-                            numberOfTextMatchingChildren++;
-                        }
-                        shouldAppend |= childMatch != MatchingResult.NO_MATCH;
+    private static boolean prefixedContentMatches(final FilterNode filter, final XmlElement src) throws DocumentedException {
+        // If this is not a prefixed content, we do not need to continue since content do not match
+        if (filter.prefixToNamespace == null) {
+            return false;
+        }
+
+        final Map.Entry<String, String> prefixToNamespaceOfSrc;
+        try {
+            prefixToNamespaceOfSrc = src.findNamespaceOfTextContent();
+        } catch (IllegalArgumentException e) {
+            //if we can't find namespace of prefix - it's not a prefix, so it doesn't match
+            return false;
+        }
+
+        // Namespace mismatch
+        if (!filter.prefixToNamespace.getValue().equals(prefixToNamespaceOfSrc.getValue())) {
+            return false;
+        }
+
+        final String unprefixedSrcContnet = src.getTextContent().substring(prefixToNamespaceOfSrc.getKey().length() + 1);
+        // Finally compare unprefixed content
+        return filter.unprefixedContent.equals(unprefixedSrcContnet);
+    }
+
+    /**
+     * Filter element compiled once per request, with its children, text content and attributes resolved upfront so
+     * that matching data elements does not walk the filter DOM again.
+     */
+    private static final class FilterNode {
+        private final XmlElement element;
+        private final String name;
+        private final Optional<String> namespace;
+        private final Optional<String> content;
+        private final List<Attr> attributes;
+        private final List<FilterNode> children;
+        // Set only for prefixed content, e.g. identity references
+        private final Map.Entry<String, String> prefixToNamespace;
+        private final String unprefixedContent;
+
+        private FilterNode(final XmlElement element) throws DocumentedException {
+            this.element = element;
+            this.name = element.getName();
+            this.namespace = element.getNamespaceOptionally();
+            this.content = element.getOnlyTextContentOptionally();
+
+            final List<Attr> attrs = new ArrayList<>();
+            for (Attr attr : element.getAttributes().values()) {
+                // ignore namespace declarations
+                if (XmlUtil.XMLNS_URI.equals(attr.getNamespaceURI()) == false) {
+                    attrs.add(attr);
+                }
+            }
+            this.attributes = attrs;
+
+            final List<FilterNode> compiledChildren = new ArrayList<>();
+            for (XmlElement child : element.getChildElements()) {
+                compiledChildren.add(new FilterNode(child));
+            }
+            this.children = compiledChildren;
+
+            Map.Entry<String, String> prefixed = null;
+            String unprefixed = null;
+            if (content.isPresent()) {
+                try {
+                    final Map.Entry<String, String> found = element.findNamespaceOfTextContent();
+                    if (!found.getKey().equals(XmlElement.DEFAULT_NAMESPACE_PREFIX)) {
+                        prefixed = found;
+                        unprefixed = element.getTextContent().substring(found.getKey().length() + 1);
                     }
+                } catch (IllegalArgumentException e) {
+                    // not a prefix, prefixed content cannot match
                 }
-                // if only text matching child filters are specified..
-                if (numberOfTextMatchingChildren == filter.getChildElements().size()) {
-                    // force all children to be added (to depth). This is done by copying parent node to depth.
-                    // implies shouldAppend == true
-                    copied = (Element) document.importNode(src.getDomElement(), true);
+            }
+            this.prefixToNamespace = prefixed;
+            this.unprefixedContent = unprefixed;
+        }
+
+        static FilterNode compile(final XmlElement filter) throws DocumentedException {
+            return new FilterNode(filter);
+        }
+
+        /**
+         * Match src against this filter node and record selected elements. Elements selected under src are recorded
+         * only if src itself is selected.
+         */
+        MatchingResult select(final XmlElement src, final Selection selection) throws DocumentedException {
+            final MatchingResult matches = matches(src);
+            if (matches == MatchingResult.NO_MATCH || matches == MatchingResult.CONTENT_MISMATCH) {
+                return matches;
+            }
+            // select to depth if this is leaf of filter tree
+            if (children.isEmpty()) {
+                selection.selectDeep(src.getDomElement());
+                return matches;
+            }
+
+            // this implies TAG_MATCH, do the same recursively
+            final Selection childSelection = new Selection();
+            boolean shouldAppend = false;
+            int numberOfTextMatchingChildren = 0;
+            for (XmlElement srcChild : src.getChildElements()) {
+                for (FilterNode filterChild : children) {
+                    final MatchingResult childMatch = filterChild.select(srcChild, childSelection);
+                    if (childMatch == MatchingResult.CONTENT_MISMATCH) {
+                        return MatchingResult.NO_MATCH;
+                    }
+                    if (childMatch == MatchingResult.CONTENT_MATCH) {
+                        numberOfTextMatchingChildren++;
+                    }
+                    shouldAppend |= childMatch != MatchingResult.NO_MATCH;
                 }
             }
-            if (shouldAppend) {
-                dstParent.getDomElement().appendChild(copied);
+            // if only text matching child filters are specified, force all children to be selected (to depth)
+            if (numberOfTextMatchingChildren == children.size()) {
+                selection.selectDeep(src.getDomElement());
+            } else if (shouldAppend) {
+                selection.selectPartially(src.getDomElement(), childSelection);
             }
+            return matches;
         }
-        return matches;
-    }
 
-    /**
-     * Shallow compare src node to filter: tag name and namespace must match.
-     * If filter node has no children and has text content, it also must match.
-     */
-    private static MatchingResult matches(XmlElement src, XmlElement filter) throws DocumentedException {
-        boolean tagMatch = src.getName().equals(filter.getName()) &&
-                src.getNamespaceOptionally().equals(filter.getNamespaceOptionally());
-        MatchingResult result = null;
-        if (tagMatch) {
-            // match text content
-            Optional<String> maybeText = filter.getOnlyTextContentOptionally();
-            if (maybeText.isPresent()) {
-                if (maybeText.equals(src.getOnlyTextContentOptionally()) || prefixedContentMatches(filter, src)) {
-                    result = MatchingResult.CONTENT_MATCH;
-                } else {
-                    result = MatchingResult.CONTENT_MISMATCH;
+        /**
+         * Shallow compare src node to filter: tag name and namespace must match.
+         * If filter node has no children and has text content, it also must match.
+         */
+        private MatchingResult matches(final XmlElement src) throws DocumentedException {
+            boolean tagMatch = src.getName().equals(name) && src.getNamespaceOptionally().equals(namespace);
+            MatchingResult result = null;
+            if (tagMatch) {
+                // match text content
+                if (content.isPresent()) {
+                    if (content.equals(src.getOnlyTextContentOptionally()) || prefixedContentMatches(this, src)) {
+                        result = MatchingResult.CONTENT_MATCH;
+                    } else {
+                        result = MatchingResult.CONTENT_MISMATCH;
+                    }
                 }
-            }
-            // match attributes, combination of content and tag is not supported
-            if (result == null) {
-                for (Attr attr : filter.getAttributes().values()) {
-                    // ignore namespace declarations
-                    if (XmlUtil.XMLNS_URI.equals(attr.getNamespaceURI()) == false ) {
+                // match attributes, combination of content and tag is not supported
+                if (result == null) {
+                    for (Attr attr : attributes) {
                         // find attr with matching localName(),  namespaceURI(),  == value() in src
                         String found = src.getAttribute(attr.getLocalName(), attr.getNamespaceURI());
                         if (attr.getValue().equals(found) && result != MatchingResult.NO_MATCH) {
@@ -195,43 +318,73 @@ public class SubtreeFilter {
                         }
                     }
                 }
+                if (result == null) {
+                    result = MatchingResult.TAG_MATCH;
+                }
             }
             if (result == null) {
-                result = MatchingResult.TAG_MATCH;
+                result = MatchingResult.NO_MATCH;
             }
+            LOG.debug("Matching {} to {} resulted in {}", src, element, result);
+            return result;
         }
-        if (result == null) {
-            result = MatchingResult.NO_MATCH;
-        }
-        LOG.debug("Matching {} to {} resulted in {}", src, filter, result);
-        return result;
     }
 
-    private static boolean prefixedContentMatches(final XmlElement filter, final XmlElement src) throws DocumentedException {
-        final Map.Entry<String, String> prefixToNamespaceOfFilter;
-        final Map.Entry<String, String> prefixToNamespaceOfSrc;
-        try {
-            prefixToNamespaceOfFilter = filter.findNamespaceOfTextContent();
-            prefixToNamespaceOfSrc = src.findNamespaceOfTextContent();
-        } catch (IllegalArgumentException e) {
-            //if we can't find namespace of prefix - it's not a prefix, so it doesn't match
-            return false;
+    /**
+     * Data elements selected by a filter. Elements selected to depth are kept with their whole subtree, partially
+     * selected elements keep only their selected child elements.
+     */
+    private static final class Selection {
+        private final Set<Node> deep = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        private final Set<Node> partial = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+
+        void selectDeep(final Element element) {
+            deep.add(element);
         }
 
-        final String prefix = prefixToNamespaceOfFilter.getKey();
-        // If this is not a prefixed content, we do not need to continue since content do not match
-        if (prefix.equals(XmlElement.DEFAULT_NAMESPACE_PREFIX)) {
-            return false;
+        void selectPartially(final Element element, final Selection children) {
+            partial.add(element);
+            deep.addAll(children.deep);
+            partial.addAll(children.partial);
         }
-        // Namespace mismatch
-        if (!prefixToNamespaceOfFilter.getValue().equals(prefixToNamespaceOfSrc.getValue())) {
-            return false;
+
+        boolean contains(final Node node) {
+            return deep.contains(node) || partial.contains(node);
         }
 
-        final String unprefixedFilterContent = filter.getTextContent().substring(prefixToNamespaceOfFilter.getKey().length() + 1);
-        final String unprefixedSrcContnet = src.getTextContent().substring(prefixToNamespaceOfSrc.getKey().length() + 1);
-        // Finally compare unprefixed content
-        return unprefixedFilterContent.equals(unprefixedSrcContnet);
+        /**
+         * Remove all children of parent, which were not selected.
+         */
+        void prune(final Element parent) {
+            Node child = parent.getFirstChild();
+            while (child != null) {
+                final Node next = child.getNextSibling();
+                if (!deep.contains(child)) {
+                    if (partial.contains(child)) {
+                        prune((Element) child);
+                    } else {
+                        parent.removeChild(child);
+                    }
+                }
+                child = next;
+            }
+        }
+
+        /**
+         * Copy selected element into document.
+         */
+        Element copy(final Document document, final Element element) {
+            if (deep.contains(element)) {
+                return (Element) document.importNode(element, true);
+            }
+            final Element copied = (Element) document.importNode(element, false);
+            for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (contains(child)) {
+                    copied.appendChild(copy(document, (Element) child));
+                }
+            }
+            return copied;
+        }
     }
 
     enum MatchingResult {
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalPeerWritabilityTest {
+
+    private EventLoopGroup group;
+    private Channel serverChannel;
+    private final BlockingQueue<LocalChannel> accepted = new ArrayBlockingQueue<>(1);
+
+    @Before
+    public void setUp() throws Exception {
+        group = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap().group(group).channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(final LocalChannel ch) throws Exception {
+                        LocalPeerWritability.register(ch);
+                        accepted.add(ch);
+                    }
+                }).bind(new LocalAddress("local-peer-writability-test")).sync().channel();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverChannel.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    public void testWritabilityApplied() throws Exception {
+        final Channel proxyChannel = new Bootstrap().group(group).channel(LocalChannel.class)
+                .handler(new ChannelInboundHandlerAdapter()).connect(serverChannel.localAddress()).sync().channel();
+        final LocalChannel child = accepted.poll(5, TimeUnit.SECONDS);
+        final EmbeddedChannel transport = new EmbeddedChannel();
+        try {
+            transport.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+            LocalPeerWritability.writabilityChanged(proxyChannel, transport);
+            assertFalse(isWritable(child));
+
+            transport.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+            LocalPeerWritability.writabilityChanged(proxyChannel, transport);
+            assertTrue(isWritable(child));
+        } finally {
+            transport.finish();
+            proxyChannel.close().sync();
+        }
+    }
+
+    private static boolean isWritable(final Channel channel) throws Exception {
+        // Writability is applied by a task on the event loop of the channel, check it after that task ran
+        return channel.eventLoop().submit(channel::isWritable).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.SocketChannelConfig;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.Test;
+
+public class NettyTransportTest {
+
+    @Test
+    public void testNioChannelsForNioGroup() throws Exception {
+        final EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            assertFalse(NettyTransport.isEpoll(group));
+            assertEquals(NioSocketChannel.class, NettyTransport.socketChannelClass(group));
+            assertEquals(NioServerSocketChannel.class, NettyTransport.serverSocketChannelClass(group, group));
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void testConfigure() throws Exception {
+        final SocketChannelConfig config = mock(SocketChannelConfig.class);
+        final SocketChannel channel = mock(SocketChannel.class);
+        doReturn(config).when(channel).config();
+
+        new NettyTransport(false, true, 1024, 2048).configure(channel);
+        verify(config).setTcpNoDelay(false);
+        verify(config).setKeepAlive(true);
+        verify(config).setSendBufferSize(1024);
+        verify(config).setReceiveBufferSize(2048);
+    }
+
+    @Test
+    public void testConfigureKeepsSystemBufferSizes() throws Exception {
+        final SocketChannelConfig config = mock(SocketChannelConfig.class);
+        final SocketChannel channel = mock(SocketChannel.class);
+        doReturn(config).when(channel).config();
+
+        NettyTransport.DEFAULT.configure(channel);
+        assertTrue(NettyTransport.DEFAULT.isTcpNoDelay());
+        verify(config).setTcpNoDelay(true);
+        verify(config, never()).setSendBufferSize(anyInt());
+        verify(config, never()).setReceiveBufferSize(anyInt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBufferSize() throws Exception {
+        new NettyTransport(true, true, -1, 0);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.netty.channel.EventLoopGroup;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TransportEventLoopGroupsTest {
+
+    @Test
+    public void testGlobalGroupsWithoutNativeTransport() throws Exception {
+        final EventLoopGroup boss = mock(EventLoopGroup.class);
+        final EventLoopGroup worker = mock(EventLoopGroup.class);
+
+        final TransportEventLoopGroups groups = TransportEventLoopGroups.create(boss, worker, false, 0);
+        assertFalse(groups.isOwned());
+        assertSame(boss, groups.getBossGroup());
+        assertSame(worker, groups.getWorkerGroup());
+
+        // Global groups are not ours to shut down
+        groups.close();
+        verify(boss, never()).shutdownGracefully();
+        verify(worker, never()).shutdownGracefully();
+        verify(worker, never()).shutdownGracefully(anyLong(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testNativeGroups() throws Exception {
+        assumeTrue(NettyTransport.isEpollAvailable());
+        final EventLoopGroup global = mock(EventLoopGroup.class);
+
+        final TransportEventLoopGroups groups = TransportEventLoopGroups.create(global, global, true, 2);
+        try {
+            assertTrue(groups.isOwned());
+            assertNotSame(global, groups.getWorkerGroup());
+            assertTrue(NettyTransport.isEpoll(groups.getBossGroup()));
+            assertTrue(NettyTransport.isEpoll(groups.getWorkerGroup()));
+        } finally {
+            groups.close();
+        }
+        assertTrue(groups.getWorkerGroup().isShuttingDown());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWorkerThreads() throws Exception {
+        TransportEventLoopGroups.create(mock(EventLoopGroup.class), mock(EventLoopGroup.class), true, -1);
+    }
+}
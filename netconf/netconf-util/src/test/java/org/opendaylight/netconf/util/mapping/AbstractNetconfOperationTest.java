@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.util.mapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -53,6 +54,18 @@ public class AbstractNetconfOperationTest {
         }
     }
 
+    class ContentBasedNetconfOperationImpl extends NetconfOperationImpl {
+
+        protected ContentBasedNetconfOperationImpl(String netconfSessionIdForReporting) {
+            super(netconfSessionIdForReporting);
+        }
+
+        @Override
+        protected HandlingPriority canHandle(String operationName, String operationNamespace) {
+            return HandlingPriority.HANDLE_WITH_MAX_PRIORITY;
+        }
+    }
+
     private NetconfOperationImpl netconfOperation;
     private NetconfOperationChainedExecution operation;
 
@@ -72,4 +85,10 @@ public class AbstractNetconfOperationTest {
         netconfOperation.handle(helloMessage, operation);
         assertTrue(netconfOperation.handleRun);
     }
+
+    @Test
+    public void testHandlingDeterminedByName() throws Exception {
+        assertTrue(netconfOperation.isHandlingDeterminedByName());
+        assertFalse(new ContentBasedNetconfOperationImpl("str").isHandlingDeterminedByName());
+    }
 }
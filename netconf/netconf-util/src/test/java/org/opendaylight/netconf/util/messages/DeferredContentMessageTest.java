@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class DeferredContentMessageTest {
+
+    private static final String REPLY = "<rpc-reply message-id=\"101\" "
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" xmlns:a=\"urn:a\" a:attr=\"x\">"
+            + "<data/><a:other>text</a:other></rpc-reply>";
+    private static final String EXPECTED = "<rpc-reply message-id=\"101\" "
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" xmlns:a=\"urn:a\" a:attr=\"x\">"
+            + "<data><top xmlns=\"urn:test\"><name>value</name></top></data>"
+            + "<a:other>text</a:other></rpc-reply>";
+
+    private Document reply;
+
+    @Before
+    public void setUp() throws Exception {
+        XMLUnit.setIgnoreWhitespace(true);
+        reply = XmlUtil.readXmlToDocument(REPLY);
+    }
+
+    @Test
+    public void testAcceptDeferredContent() throws Exception {
+        final Document request = XmlUtil.readXmlToDocument("<rpc message-id=\"101\"/>");
+        assertFalse(DeferredContentMessage.isDeferredContentAccepted(request));
+        DeferredContentMessage.acceptDeferredContent(request);
+        assertTrue(DeferredContentMessage.isDeferredContentAccepted(request));
+    }
+
+    @Test
+    public void testHasDeferredContent() throws Exception {
+        assertFalse(DeferredContentMessage.hasDeferredContent(reply));
+        setDeferredContent();
+        assertTrue(DeferredContentMessage.hasDeferredContent(reply));
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        setDeferredContent();
+        final DeferredContentMessage message = new DeferredContentMessage(reply);
+        assertEquals("101", message.getMessageId());
+
+        final StringWriter output = new StringWriter();
+        final XMLOutputFactory factory = XMLOutputFactory.newFactory();
+        factory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+        final XMLStreamWriter writer = factory.createXMLStreamWriter(output);
+        message.writeTo(writer);
+        writer.flush();
+
+        final Diff diff = XMLUnit.compareXML(EXPECTED, output.toString());
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    @Test
+    public void testGetDocument() throws Exception {
+        setDeferredContent();
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument(EXPECTED),
+                new DeferredContentMessage(reply).getDocument());
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    private void setDeferredContent() {
+        final Element data = (Element) reply.getDocumentElement().getFirstChild();
+        DeferredContentMessage.setDeferredContent(data, writer -> {
+            writer.writeStartElement("", "top", "urn:test");
+            writer.writeDefaultNamespace("urn:test");
+            writer.writeStartElement("", "name", "urn:test");
+            writer.writeCharacters("value");
+            writer.writeEndElement();
+            writer.writeEndElement();
+        });
+    }
+}
@@ -68,6 +68,9 @@ public class SubtreeFilterNotificationTest {
         } else {
             assertEquals("empty", XmlElement.fromDomDocument(postFilterDocument).getName());
         }
+        // Notification is shared by all subscriptions, filtering must not modify it
+        Diff unchanged = XMLUnit.compareXML(getDocument("pre-filter.xml"), preFilterDocument);
+        assertTrue(unchanged.toString(), unchanged.similar());
     }
 
     public Document getDocument(String fileName) throws SAXException, IOException {
@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.util.messages;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -36,7 +37,7 @@ public class SubtreeFilterRpcTest {
     @Parameters
     public static Collection<Object[]> data() {
         List<Object[]> result = new ArrayList<>();
-        for (int i = 0; i <= 10; i++) {
+        for (int i = 0; i <= 11; i++) {
             result.add(new Object[]{i});
         }
         return result;
@@ -60,6 +61,8 @@ public class SubtreeFilterRpcTest {
         LOG.info("Actual document: {}", XmlUtil.toString(actualPostFilterDocument));
         Diff diff = XMLUnit.compareXML(postFilterDocument, actualPostFilterDocument);
         assertTrue(diff.toString(), diff.similar());
+        // reply is filtered in place
+        assertSame(preFilterDocument, actualPostFilterDocument);
 
     }
 
@@ -22,5 +22,12 @@ public interface RemoteDeviceHandler<PREF> extends AutoCloseable {
 
     void onNotification(DOMNotification domNotification);
 
+    /**
+     * Invoked when the device reports a change of its configuration, e.g. by netconf-config-change notification.
+     */
+    default void onDeviceConfigurationChanged() {
+        // NOOP
+    }
+
     void close();
 }
@@ -44,11 +44,13 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommun
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceRpc;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceDownloader;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.netconf.sal.connect.util.StatisticsRegistration;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapability;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapabilityBuilder;
@@ -60,7 +62,6 @@ import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
-import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
@@ -68,7 +69,6 @@ import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
-import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,6 +97,12 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
     protected final SchemaRepository schemaRepository;
     private final NetconfDeviceSchemasResolver stateSchemasResolver;
     private final NotificationHandler notificationHandler;
+    private static final SharedSchemaContextCache SCHEMA_CONTEXT_CACHE = new SharedSchemaContextCache();
+
+    private final SchemaSourceDownloader sourceDownloader;
+    private final NetconfDeviceMountStatistics mountStatistics = new NetconfDeviceMountStatistics();
+    private StatisticsRegistration mountStatisticsRegistration;
+    private volatile SharedSchemaContextCache.Lease schemaContextLease;
     protected final List<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> sourceRegistrations = Lists.newArrayList();
 
     // Message transformer is constructed once the schemas are available
@@ -115,6 +121,16 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
 
     public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
                          final ExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange) {
+        this(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange,
+                SchemaSourceDownloader.DEFAULT_MAX_CONCURRENT_DOWNLOADS);
+    }
+
+    /**
+     * @param maxConcurrentSchemaDownloads maximum number of get-schema rpcs outstanding at a time for this device
+     */
+    public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                         final ExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange,
+                         final int maxConcurrentSchemaDownloads) {
         this.id = id;
         this.reconnectOnSchemasChange = reconnectOnSchemasChange;
         this.schemaRegistry = schemaResourcesDTO.getSchemaRegistry();
@@ -124,6 +140,8 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         this.stateSchemasResolver = schemaResourcesDTO.getStateSchemasResolver();
         this.processingExecutor = MoreExecutors.listeningDecorator(globalProcessingExecutor);
         this.notificationHandler = new NotificationHandler(salFacade, id);
+        this.sourceDownloader = new SchemaSourceDownloader(id, schemaRepository, schemaRegistry, processingExecutor,
+                maxConcurrentSchemaDownloads);
     }
 
     @Override
@@ -135,6 +153,8 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         // deadlock if we used the netty thread
         // http://netty.io/wiki/thread-model.html
         LOG.debug("{}: Session to remote device established with {}", id, remoteSessionCapabilities);
+        mountStatistics.onSessionUp();
+        registerMountStatistics();
 
         final NetconfDeviceRpc initRpc = getRpcForInitialization(listener, remoteSessionCapabilities.isNotificationsSupported());
         final DeviceSourcesResolver task = new DeviceSourcesResolver(remoteSessionCapabilities, id, stateSchemasResolver, initRpc);
@@ -210,14 +230,35 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
                 remoteSessionCapabilities.isNotificationsSupported() ?
                 BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS :
                 BaseSchema.BASE_NETCONF_CTX;
-        messageTransformer = new NetconfMessageTransformer(result, true, baseSchema);
+        messageTransformer = newMessageTransformer(result, baseSchema);
 
         updateTransformer(messageTransformer);
         // salFacade.onDeviceConnected has to be called before the notification handler is initialized
         salFacade.onDeviceConnected(result, remoteSessionCapabilities, deviceRpc);
         notificationHandler.onRemoteSchemaUp(messageTransformer);
 
-        LOG.info("{}: Netconf connector initialized successfully", id);
+        LOG.info("{}: Netconf connector initialized successfully in {} ms", id, mountStatistics.onMounted());
+    }
+
+    private NetconfMessageTransformer newMessageTransformer(final SchemaContext schemaContext, final BaseSchema baseSchema) {
+        final SharedSchemaContextCache.Lease lease = schemaContextLease;
+        if (lease != null && lease.getSchemaContext() == schemaContext) {
+            return lease.newTransformer(baseSchema);
+        }
+        return new NetconfMessageTransformer(schemaContext, true, baseSchema);
+    }
+
+    private void setSchemaContextLease(final SharedSchemaContextCache.Lease lease) {
+        releaseSchemaContext();
+        schemaContextLease = lease;
+    }
+
+    private void releaseSchemaContext() {
+        final SharedSchemaContextCache.Lease lease = schemaContextLease;
+        schemaContextLease = null;
+        if (lease != null) {
+            lease.close();
+        }
     }
 
     void handleSalInitializationFailure(final Throwable t, final RemoteDeviceCommunicator<NetconfMessage> listener) {
@@ -255,6 +296,21 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
             sourceRegistration.close();
         }
         resetMessageTransformer();
+        releaseSchemaContext();
+        unregisterMountStatistics();
+    }
+
+    private synchronized void registerMountStatistics() {
+        if (mountStatisticsRegistration == null) {
+            mountStatisticsRegistration = StatisticsRegistration.register(id, "DeviceMount", mountStatistics);
+        }
+    }
+
+    private synchronized void unregisterMountStatistics() {
+        if (mountStatisticsRegistration != null) {
+            mountStatisticsRegistration.close();
+            mountStatisticsRegistration = null;
+        }
     }
 
     @Override
@@ -421,26 +477,27 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         public void run() {
 
             final Collection<SourceIdentifier> requiredSources = deviceSources.getRequiredSources();
-            final Collection<SourceIdentifier> missingSources = filterMissingSources(requiredSources);
-
-            capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(missingSources),
-                    UnavailableCapability.FailureReason.MissingSource);
-
-            requiredSources.removeAll(missingSources);
-            setUpSchema(requiredSources);
-        }
-
-        private Collection<SourceIdentifier> filterMissingSources(final Collection<SourceIdentifier> requiredSources) {
+            final long downloadStart = System.nanoTime();
+            // Continues once all sources are downloaded, no processing thread waits for the downloads
+            Futures.addCallback(sourceDownloader.downloadSources(requiredSources, sourceRegistrations),
+                new FutureCallback<Collection<SourceIdentifier>>() {
+                    @Override
+                    public void onSuccess(final Collection<SourceIdentifier> missingSources) {
+                        mountStatistics.onSourcesDownloaded(downloadStart,
+                                requiredSources.size() - missingSources.size(), missingSources.size());
+
+                        capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(missingSources),
+                                UnavailableCapability.FailureReason.MissingSource);
+
+                        requiredSources.removeAll(missingSources);
+                        setUpSchema(requiredSources);
+                    }
 
-            return requiredSources.parallelStream().filter(sourceIdentifier -> {
-                    boolean remove = false;
-                    try {
-                        schemaRepository.getSchemaSource(sourceIdentifier, ASTSchemaSource.class).checkedGet();
-                    } catch (SchemaSourceException e) {
-                        remove = true;
+                    @Override
+                    public void onFailure(final Throwable t) {
+                        handleSalInitializationFailure(t, listener);
                     }
-                    return remove;
-                }).collect(Collectors.toList());
+                }, processingExecutor);
         }
 
         /**
@@ -450,8 +507,9 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
             while (!requiredSources.isEmpty()) {
                 LOG.trace("{}: Trying to build schema context from {}", id, requiredSources);
                 try {
-                    final CheckedFuture<SchemaContext, SchemaResolutionException> schemaBuilderFuture = schemaContextFactory.createSchemaContext(requiredSources);
-                    final SchemaContext result = schemaBuilderFuture.checkedGet();
+                    final SharedSchemaContextCache.Lease lease = SCHEMA_CONTEXT_CACHE.acquire(schemaContextFactory, requiredSources);
+                    setSchemaContextLease(lease);
+                    final SchemaContext result = lease.getSchemaContext();
                     LOG.debug("{}: Schema context built successfully from {}", id, requiredSources);
                     final Collection<QName> filteredQNames = Sets.difference(deviceSources.getRequiredSourcesQName(), capabilities.getUnresolvedCapabilites().keySet());
                     capabilities.addCapabilities(filteredQNames.stream().map(entry -> new AvailableCapabilityBuilder()
@@ -468,7 +526,7 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
                     if (t instanceof MissingSchemaSourceException){
                         requiredSources = handleMissingSchemaSourceException(requiredSources, (MissingSchemaSourceException) t);
                     } else if (t instanceof SchemaResolutionException) {
-                        // schemaBuilderFuture.checkedGet() throws only SchemaResolutionException
+                        // schema context cache throws only SchemaResolutionException
                         // that might be wrapping a MissingSchemaSourceException so we need to look
                         // at the cause of the exception to make sure we don't misinterpret it.
                         if (t.getCause() instanceof MissingSchemaSourceException) {
@@ -523,7 +581,7 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         }
 
         protected NetconfDeviceRpc getDeviceSpecificRpc(final SchemaContext result) {
-            return new NetconfDeviceRpc(result, listener, new NetconfMessageTransformer(result, true));
+            return new NetconfDeviceRpc(result, listener, newMessageTransformer(result, BaseSchema.BASE_NETCONF_CTX));
         }
 
         private Collection<SourceIdentifier> stripUnavailableSource(final Collection<SourceIdentifier> requiredSources, final SourceIdentifier sIdToRemove) {
@@ -12,6 +12,7 @@ import com.google.common.base.Preconditions;
 import java.util.concurrent.ExecutorService;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceDownloader;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 
 public class NetconfDeviceBuilder {
@@ -21,6 +22,7 @@ public class NetconfDeviceBuilder {
     private RemoteDeviceId id;
     private RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
     private ExecutorService globalProcessingExecutor;
+    private int maxConcurrentSchemaDownloads = SchemaSourceDownloader.DEFAULT_MAX_CONCURRENT_DOWNLOADS;
 
     public NetconfDeviceBuilder() {
     }
@@ -50,9 +52,15 @@ public class NetconfDeviceBuilder {
         return this;
     }
 
+    public NetconfDeviceBuilder setMaxConcurrentSchemaDownloads(int maxConcurrentSchemaDownloads) {
+        this.maxConcurrentSchemaDownloads = maxConcurrentSchemaDownloads;
+        return this;
+    }
+
     public NetconfDevice build() {
         validation();
-        return new NetconfDevice(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange);
+        return new NetconfDevice(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange,
+                maxConcurrentSchemaDownloads);
     }
 
     private void validation() {
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import java.util.concurrent.TimeUnit;
+
+final class NetconfDeviceMountStatistics implements NetconfDeviceMountStatisticsMXBean {
+
+    private volatile long sessionUpNanos;
+    private volatile long timeToMountMillis = -1;
+    private volatile long schemaDownloadMillis = -1;
+    private volatile int downloadedSourceCount;
+    private volatile int missingSourceCount;
+
+    void onSessionUp() {
+        sessionUpNanos = System.nanoTime();
+        timeToMountMillis = -1;
+        schemaDownloadMillis = -1;
+        downloadedSourceCount = 0;
+        missingSourceCount = 0;
+    }
+
+    void onSourcesDownloaded(final long startNanos, final int downloaded, final int missing) {
+        schemaDownloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        downloadedSourceCount = downloaded;
+        missingSourceCount = missing;
+    }
+
+    /**
+     * @return time to mount in milliseconds
+     */
+    long onMounted() {
+        timeToMountMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sessionUpNanos);
+        return timeToMountMillis;
+    }
+
+    @Override
+    public long getTimeToMountMillis() {
+        return timeToMountMillis;
+    }
+
+    @Override
+    public long getSchemaDownloadMillis() {
+        return schemaDownloadMillis;
+    }
+
+    @Override
+    public int getDownloadedSourceCount() {
+        return downloadedSourceCount;
+    }
+
+    @Override
+    public int getMissingSourceCount() {
+        return missingSourceCount;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf;
+
+/**
+ * Statistics of the last mount of a single netconf device.
+ */
+public interface NetconfDeviceMountStatisticsMXBean {
+
+    /**
+     * @return milliseconds from session establishment until the mountpoint was ready, -1 if not mounted yet
+     */
+    long getTimeToMountMillis();
+
+    /**
+     * @return milliseconds spent downloading and parsing yang sources of the device, -1 if not finished yet
+     */
+    long getSchemaDownloadMillis();
+
+    /**
+     * @return number of yang sources obtained from the device or schema cache
+     */
+    int getDownloadedSourceCount();
+
+    /**
+     * @return number of required yang sources that could not be obtained
+     */
+    int getMissingSourceCount();
+}
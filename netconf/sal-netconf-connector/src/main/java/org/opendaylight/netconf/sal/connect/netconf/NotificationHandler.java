@@ -17,6 +17,9 @@ import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfConfigChange;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +29,8 @@ import org.slf4j.LoggerFactory;
 final class NotificationHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationHandler.class);
+    // Devices implement different revisions of ietf-netconf-notifications, so only namespace and name are matched
+    private static final QName CONFIG_CHANGE_QNAME = NetconfConfigChange.QNAME;
 
     private final RemoteDeviceHandler<?> salFacade;
     private final List<NetconfMessage> queue = new LinkedList<>();
@@ -84,11 +89,22 @@ final class NotificationHandler {
     private synchronized void passNotification(final DOMNotification parsedNotification) {
         LOG.debug("{}: Forwarding notification {}", id, parsedNotification);
 
+        if (isConfigChange(parsedNotification.getType())) {
+            salFacade.onDeviceConfigurationChanged();
+        }
+
         if(filter == null || filter.filterNotification(parsedNotification).isPresent()) {
             salFacade.onNotification(parsedNotification);
         }
     }
 
+    private static boolean isConfigChange(final SchemaPath type) {
+        final QName name = type.getLastComponent();
+        return name != null && type.getParent().getLastComponent() == null
+                && CONFIG_CHANGE_QNAME.getLocalName().equals(name.getLocalName())
+                && CONFIG_CHANGE_QNAME.getNamespace().equals(name.getNamespace());
+    }
+
     synchronized void addNotificationFilter(final NotificationFilter filter) {
         this.filter = filter;
     }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
+import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schema contexts shared by devices with identical set of sources. Devices of the same model and firmware resolve
+ * the same sources, so the schema context and message transformer mappings are built once and shared. Entries are
+ * reference counted and evicted once the last device releases its lease.
+ */
+final class SharedSchemaContextCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedSchemaContextCache.class);
+
+    private static final Comparator<SourceIdentifier> SOURCE_ORDER = Comparator.comparing(SourceIdentifier::getName)
+            .thenComparing(SourceIdentifier::getRevision, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * Obtain schema context for the sources, building it if no other device holds one for the same sources.
+     * Concurrent requests for the same sources wait for a single build.
+     *
+     * @return lease of the schema context, has to be closed once the device disconnects
+     * @throws SchemaResolutionException if the schema context cannot be built
+     */
+    Lease acquire(final SchemaContextFactory factory, final Collection<SourceIdentifier> sources)
+            throws SchemaResolutionException {
+        final Key key = new Key(factory, sources);
+        final Entry entry;
+        final boolean build;
+        synchronized (this) {
+            final Entry existing = entries.get(key);
+            if (existing == null) {
+                entry = new Entry(key);
+                entries.put(key, entry);
+                build = true;
+            } else {
+                entry = existing;
+                build = false;
+            }
+            entry.references++;
+        }
+
+        if (build) {
+            try {
+                entry.future.set(factory.createSchemaContext(key.sources).checkedGet());
+                LOG.debug("Schema context built from {} sources", key.sources.size());
+            } catch (final SchemaResolutionException | RuntimeException e) {
+                synchronized (this) {
+                    // Do not serve the failure to devices connecting later
+                    entries.remove(key, entry);
+                }
+                entry.future.setException(e);
+            }
+        } else {
+            LOG.debug("Reusing schema context built from {} sources", key.sources.size());
+        }
+
+        try {
+            return new Lease(entry, entry.get());
+        } catch (final SchemaResolutionException | RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+    }
+
+    private synchronized void release(final Entry entry) {
+        if (--entry.references == 0) {
+            entries.remove(entry.key, entry);
+            LOG.debug("Schema context built from {} sources evicted", entry.key.sources.size());
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int size() {
+        return entries.size();
+    }
+
+    final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private final SchemaContext schemaContext;
+        private boolean closed;
+
+        private Lease(final Entry entry, final SchemaContext schemaContext) {
+            this.entry = entry;
+            this.schemaContext = schemaContext;
+        }
+
+        SchemaContext getSchemaContext() {
+            return schemaContext;
+        }
+
+        /**
+         * @return transformer sharing schema mappings with all devices holding this schema context
+         */
+        NetconfMessageTransformer newTransformer(final BaseSchema baseSchema) {
+            return entry.transformers.computeIfAbsent(baseSchema,
+                    base -> new NetconfMessageTransformer(schemaContext, true, base)).forSession();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final SettableFuture<SchemaContext> future = SettableFuture.create();
+        private final ConcurrentMap<BaseSchema, NetconfMessageTransformer> transformers = new ConcurrentHashMap<>();
+        // Guarded by the cache
+        private int references;
+
+        Entry(final Key key) {
+            this.key = key;
+        }
+
+        SchemaContext get() throws SchemaResolutionException {
+            try {
+                return Uninterruptibles.getUninterruptibly(future);
+            } catch (final ExecutionException e) {
+                Throwables.propagateIfInstanceOf(e.getCause(), SchemaResolutionException.class);
+                throw Throwables.propagate(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Canonical form of a source set, independent of the order in which the device advertised the sources.
+     */
+    private static final class Key {
+        private final SchemaContextFactory factory;
+        private final ImmutableSortedSet<SourceIdentifier> sources;
+        private final int hashCode;
+
+        Key(final SchemaContextFactory factory, final Collection<SourceIdentifier> sources) {
+            this.factory = factory;
+            this.sources = ImmutableSortedSet.copyOf(SOURCE_ORDER, sources);
+            this.hashCode = Objects.hash(System.identityHashCode(factory), this.sources);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return factory == other.factory && hashCode == other.hashCode && sources.equals(other.sources);
+        }
+    }
+}
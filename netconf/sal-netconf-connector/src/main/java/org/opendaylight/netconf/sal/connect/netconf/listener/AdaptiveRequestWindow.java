@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Window of requests outstanding on a device, adjusted by additive increase and multiplicative decrease.
+ * The window grows by one request per window of successful replies and is halved on a device error or when
+ * the short term reply latency rises well above its long term average, which indicates the device queues
+ * requests internally. Requests not fitting into the window are queued in submission order, up to a limit.
+ *
+ * <p>
+ * Each slot is held by the request it was admitted for. Releases of requests which do not hold a slot, e.g. late
+ * completions of requests admitted before {@link #reset()}, are ignored, so they cannot free slots of newer requests.
+ *
+ * @param <T> type of request
+ */
+@ThreadSafe
+final class AdaptiveRequestWindow<T> implements RequestWindowMXBean {
+    /**
+     * Outcome of {@link AdaptiveRequestWindow#tryAdmit(Object)}.
+     */
+    enum Admission {
+        /**
+         * Request holds a slot and may be sent immediately.
+         */
+        ADMITTED,
+        /**
+         * Request waits in the queue until a slot is released.
+         */
+        QUEUED,
+        /**
+         * The queue is full, the request was neither admitted nor queued.
+         */
+        REJECTED,
+    }
+
+    private static final int MINIMUM_WINDOW = 1;
+    private static final double DECREASE_FACTOR = 0.5;
+    // Short term latency this many times above the long term one is considered congestion
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double SHORT_TERM_WEIGHT = 1.0 / 8;
+    private static final double LONG_TERM_WEIGHT = 1.0 / 64;
+
+    private final int maximumWindow;
+    private final int maximumPending;
+
+    @GuardedBy("this")
+    private final Queue<T> pending = new ArrayDeque<>();
+    @GuardedBy("this")
+    private final Set<T> inFlight = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+    @GuardedBy("this")
+    private double window;
+    @GuardedBy("this")
+    private double shortTermLatency;
+    @GuardedBy("this")
+    private double longTermLatency;
+    @GuardedBy("this")
+    private long lastDecrease;
+    @GuardedBy("this")
+    private long decreaseCount;
+
+    AdaptiveRequestWindow(final int maximumWindow, final int maximumPending) {
+        Preconditions.checkArgument(maximumWindow >= MINIMUM_WINDOW, "Window has to be at least %s", MINIMUM_WINDOW);
+        Preconditions.checkArgument(maximumPending >= 0, "Queue limit cannot be negative, was %s", maximumPending);
+        this.maximumWindow = maximumWindow;
+        this.maximumPending = maximumPending;
+        this.window = maximumWindow;
+    }
+
+    /**
+     * Admit request into the window or queue it if the window is full.
+     *
+     * @return whether the request was admitted, queued or rejected because the queue is full
+     */
+    synchronized Admission tryAdmit(final T request) {
+        if (inFlight.size() < (int) window) {
+            inFlight.add(request);
+            return Admission.ADMITTED;
+        }
+        if (pending.size() >= maximumPending) {
+            return Admission.REJECTED;
+        }
+        pending.add(request);
+        return Admission.QUEUED;
+    }
+
+    /**
+     * Remove request from the queue, if it is still waiting for admission.
+     *
+     * @return true if the request was removed
+     */
+    synchronized boolean removePending(final T request) {
+        return pending.remove(request);
+    }
+
+    /**
+     * Release slot of a completed request and admit queued requests fitting into the adjusted window.
+     *
+     * @param request completed request
+     * @param latencyNanos time between sending the request and its completion
+     * @param deviceError true if the request failed due to transport or device overload
+     * @return requests admitted from the queue, which should be sent now
+     */
+    synchronized List<T> release(final T request, final long latencyNanos, final boolean deviceError) {
+        if (!inFlight.remove(request)) {
+            // Request was admitted before reset(), its reply does not describe the current session
+            return Collections.emptyList();
+        }
+
+        final long now = System.nanoTime();
+        if (shortTermLatency == 0) {
+            shortTermLatency = latencyNanos;
+            longTermLatency = latencyNanos;
+        } else {
+            shortTermLatency += (latencyNanos - shortTermLatency) * SHORT_TERM_WEIGHT;
+            longTermLatency += (latencyNanos - longTermLatency) * LONG_TERM_WEIGHT;
+        }
+
+        if (deviceError || shortTermLatency > longTermLatency * LATENCY_TOLERANCE) {
+            // Replies to requests sent before the last decrease reflect the previous window, decrease once per round trip
+            if (decreaseCount == 0 || now - lastDecrease > shortTermLatency) {
+                window = Math.max(MINIMUM_WINDOW, window * DECREASE_FACTOR);
+                lastDecrease = now;
+                decreaseCount++;
+            }
+        } else if (window < maximumWindow) {
+            window = Math.min(maximumWindow, window + 1 / window);
+        }
+
+        return admitPending();
+    }
+
+    /**
+     * Release slot of a request which was admitted, but not sent, without adjusting the window.
+     *
+     * @param request abandoned request
+     * @return requests admitted from the queue, which should be sent now
+     */
+    synchronized List<T> abandon(final T request) {
+        if (!inFlight.remove(request)) {
+            return Collections.emptyList();
+        }
+        return admitPending();
+    }
+
+    @GuardedBy("this")
+    private List<T> admitPending() {
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<T> admitted = new ArrayList<>();
+        while (inFlight.size() < (int) window && !pending.isEmpty()) {
+            final T request = pending.poll();
+            inFlight.add(request);
+            admitted.add(request);
+        }
+        return admitted;
+    }
+
+    /**
+     * Reset the window to its initial state, e.g. after session went down. Slots of requests admitted so far are
+     * reclaimed, their later release is ignored.
+     *
+     * @return requests which were waiting for admission
+     */
+    synchronized List<T> reset() {
+        final List<T> ret = new ArrayList<>(pending);
+        pending.clear();
+        inFlight.clear();
+        window = maximumWindow;
+        shortTermLatency = 0;
+        longTermLatency = 0;
+        return ret;
+    }
+
+    @Override
+    public synchronized int getWindowSize() {
+        return (int) window;
+    }
+
+    @Override
+    public int getMaximumWindowSize() {
+        return maximumWindow;
+    }
+
+    @Override
+    public synchronized int getInFlightRequests() {
+        return inFlight.size();
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return pending.size();
+    }
+
+    @Override
+    public synchronized double getSmoothedLatencyMillis() {
+        return shortTermLatency / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized long getWindowDecreaseCount() {
+        return decreaseCount;
+    }
+}
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.listener;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -16,16 +17,18 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.GenericFutureListener;
-import java.util.ArrayDeque;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
@@ -39,6 +42,7 @@ import org.opendaylight.netconf.sal.connect.api.RemoteDevice;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.netconf.sal.connect.util.StatisticsRegistration;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.RpcError;
 import org.opendaylight.yangtools.yang.common.RpcResult;
@@ -49,17 +53,34 @@ import org.slf4j.LoggerFactory;
 public class NetconfDeviceCommunicator implements NetconfClientSessionListener, RemoteDeviceCommunicator<NetconfMessage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfDeviceCommunicator.class);
+    // Requests above the window are queued up to this many per window slot, further ones are rejected
+    private static final int QUEUED_REQUESTS_PER_SLOT = 16;
 
     protected final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice;
     private final Optional<UserPreferences> overrideNetconfCapabilities;
     protected final RemoteDeviceId id;
     private final Lock sessionLock = new ReentrantLock();
 
-    private final Semaphore semaphore;
-    private final int concurentRpcMsgs;
+    /**
+     * Flow control of requests sent to the device, null if concurrent rpcs are not limited.
+     */
+    private final AdaptiveRequestWindow<Request> window;
+    private StatisticsRegistration windowRegistration;
+    private StatisticsRegistration transportRegistration;
 
-    private final Queue<Request> requests = new ArrayDeque<>();
-    private NetconfClientSession session;
+    /**
+     * Requests held back while the session buffers too much outgoing data, sent in order once it drains. Requests
+     * are held, sent and drained under the lock of the queue, so that a request cannot overtake a held one.
+     */
+    private final Queue<Request> heldRequests = new ConcurrentLinkedQueue<>();
+    private volatile boolean writable = true;
+
+    /**
+     * Outstanding requests keyed by their message-id. Replies are matched against this map, so neither sending nor
+     * receiving needs to hold the sessionLock, which only guards session up/down transitions.
+     */
+    private final ConcurrentMap<String, Request> requests = new ConcurrentHashMap<>();
+    private volatile NetconfClientSession session;
 
     private Future<?> initFuture;
     private final SettableFuture<NetconfDeviceCapabilities> firstConnectionFuture;
@@ -88,12 +109,17 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
 
     private NetconfDeviceCommunicator(final RemoteDeviceId id, final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
                                       final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit) {
-        this.concurentRpcMsgs = rpcMessageLimit;
         this.id = id;
         this.remoteDevice = remoteDevice;
         this.overrideNetconfCapabilities = overrideNetconfCapabilities;
         this.firstConnectionFuture = SettableFuture.create();
-        this.semaphore = rpcMessageLimit > 0 ? new Semaphore(rpcMessageLimit) : null;
+        this.window = rpcMessageLimit > 0 ? new AdaptiveRequestWindow<Request>(rpcMessageLimit,
+                (int) Math.min(Integer.MAX_VALUE, (long) rpcMessageLimit * QUEUED_REQUESTS_PER_SLOT)) : null;
+    }
+
+    @VisibleForTesting
+    RequestWindowMXBean getRequestWindow() {
+        return window;
     }
 
     @Override
@@ -136,6 +162,8 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
      * reconnecting strategy runs out of reconnection attempts
      */
     public ListenableFuture<NetconfDeviceCapabilities> initializeRemoteConnection(final NetconfClientDispatcher dispatcher, final NetconfClientConfiguration config) {
+        registerMXBeans();
+
         if(config instanceof NetconfReconnectingClientConfiguration) {
             initFuture = dispatcher.createReconnectingClient((NetconfReconnectingClientConfiguration) config);
         } else {
@@ -159,6 +187,26 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
         return firstConnectionFuture;
     }
 
+    private synchronized void registerMXBeans() {
+        if (window != null && windowRegistration == null) {
+            windowRegistration = StatisticsRegistration.register(id, "RequestWindow", window);
+        }
+        if (transportRegistration == null) {
+            transportRegistration = StatisticsRegistration.register(id, "SessionTransport", new TransportStatistics());
+        }
+    }
+
+    private synchronized void unregisterMXBeans() {
+        if (windowRegistration != null) {
+            windowRegistration.close();
+            windowRegistration = null;
+        }
+        if (transportRegistration != null) {
+            transportRegistration.close();
+            transportRegistration = null;
+        }
+    }
+
     public void disconnect() {
         // If session is already in closing, no need to close it again
         if(session != null && isSessionClosing.compareAndSet(false, true)) {
@@ -178,20 +226,24 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                 session = null;
 
                 /*
-                 * Walk all requests, check if they have been executing
-                 * or cancelled and remove them from the queue.
+                 * Session is no longer visible to senders, so any request registered from now on fails on its own.
+                 * Walk all requests, check if they have been executing or cancelled and remove them.
                  */
-                final Iterator<Request> it = requests.iterator();
-                while (it.hasNext()) {
-                    final Request r = it.next();
-                    if (r.future.isUncancellable()) {
+                for (final Request r : requests.values()) {
+                    if (removeRequest(r) && r.future.isUncancellable()) {
+                        futuresToCancel.add( r.future );
+                    }
+                }
+                if (window != null) {
+                    for (final Request r : window.reset()) {
                         futuresToCancel.add( r.future );
-                        it.remove();
-                    } else if (r.future.isCancelled()) {
-                        // This just does some house-cleaning
-                        it.remove();
                     }
                 }
+                // Held requests are registered, so they were already collected above
+                synchronized (heldRequests) {
+                    heldRequests.clear();
+                    writable = true;
+                }
 
                 remoteDevice.onRemoteSessionDown();
             }
@@ -248,13 +300,24 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
         // Disconnect from device
         // tear down not necessary, called indirectly by the close in disconnect()
         disconnect();
+        unregisterMXBeans();
+    }
+
+    @Override
+    public void onSessionWritabilityChanged(final NetconfClientSession session, final boolean writable) {
+        LOG.debug("{}: Session writability changed to {}, pending write bytes: {}", id, writable,
+                session.getPendingWriteBytes());
+        this.writable = writable;
+        if (writable) {
+            sendHeldRequests(session);
+        }
     }
 
     @Override
     public void onMessage(final NetconfClientSession session, final NetconfMessage message) {
         /*
-         * Dispatch between notifications and messages. Messages need to be processed
-         * with lock held, notifications do not.
+         * Dispatch between notifications and messages. Messages are matched to requests by their message-id,
+         * notifications are passed to the device.
          */
         if (isNotification(message)) {
             processNotification(message);
@@ -264,65 +327,75 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
     }
 
     private void processMessage(final NetconfMessage message) {
-        Request request = null;
-        sessionLock.lock();
-
-        try {
-            request = requests.peek();
-            if (request != null && request.future.isUncancellable()) {
-                requests.poll();
-                // we have just removed one request from the queue
-                // we can also release one permit
-                if(semaphore != null) {
-                    semaphore.release();
-                }
-            } else {
-                request = null;
-                LOG.warn("{}: Ignoring unsolicited message {}", id,
-                        msgToS(message));
-            }
-        }
-        finally {
-            sessionLock.unlock();
+        final Request request = removeRequest(NetconfMessageTransformUtil.getMessageId(message));
+        if (request == null) {
+            // Only this message is discarded, outstanding requests keep waiting for their own replies
+            LOG.warn("{}: Ignoring unsolicited message {}", id, msgToS(message));
+            return;
         }
 
-        if( request != null ) {
+        LOG.debug("{}: Message received {}", id, message);
 
-            LOG.debug("{}: Message received {}", id, message);
-
-            if(LOG.isTraceEnabled()) {
-                LOG.trace( "{}: Matched request: {} to response: {}", id, msgToS( request.request ), msgToS( message ) );
-            }
+        if(LOG.isTraceEnabled()) {
+            LOG.trace( "{}: Matched request: {} to response: {}", id, msgToS( request.request ), msgToS( message ) );
+        }
 
-            try {
-                NetconfMessageTransformUtil.checkValidReply( request.request, message );
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Invalid request-reply match, reply message contains different message-id, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
+        try {
+            NetconfMessageTransformUtil.checkSuccessReply(message);
+        } catch(final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Error reply from remote device, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            releaseRequest(request, isDeviceOverloaded(e));
+            request.future.set( RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
+            return;
+        }
 
-                request.future.set( RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
+        releaseRequest(request, false);
+        request.future.set( RpcResultBuilder.success( message ).build() );
+    }
 
-                //recursively processing message to eventually find matching request
-                processMessage(message);
+    /**
+     * Only resource-denied indicates the device cannot take more requests. Operation-failed is reported for all
+     * kinds of failures of the operation itself, which say nothing about the load of the device.
+     */
+    private static boolean isDeviceOverloaded(final NetconfDocumentedException e) {
+        return e.getErrorTag() == NetconfDocumentedException.ErrorTag.RESOURCE_DENIED;
+    }
 
-                return;
+    /**
+     * Remove the request a reply with given message-id belongs to. Devices are allowed to omit message-id in
+     * replies to malformed requests, such reply is matched only if there is exactly one outstanding request.
+     */
+    private Request removeRequest(final String messageId) {
+        Request request = requests.get(messageId);
+        if (request == null && messageId.isEmpty() && requests.size() == 1) {
+            for (final Request candidate : requests.values()) {
+                request = candidate;
             }
+        }
+        return request != null && removeRequest(request) ? request : null;
+    }
 
-            try {
-                NetconfMessageTransformUtil.checkSuccessReply(message);
-            } catch(final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Error reply from remote device, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
+    /**
+     * Atomically remove the outstanding request.
+     *
+     * @return true if the request was removed by this invocation
+     */
+    private boolean removeRequest(final Request request) {
+        return requests.remove(request.messageId, request);
+    }
 
-                request.future.set( RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
-                return;
+    /**
+     * Release the window slot of a completed request and send requests admitted in its place.
+     */
+    private void releaseRequest(final Request request, final boolean deviceError) {
+        if (window != null) {
+            for (final Request next : window.release(request, System.nanoTime() - request.sentNanos, deviceError)) {
+                sendAdmittedRequest(next);
             }
-
-            request.future.set( RpcResultBuilder.success( message ).build() );
         }
     }
 
@@ -332,25 +405,6 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
 
     @Override
     public ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final NetconfMessage message, final QName rpc) {
-        sessionLock.lock();
-
-        if (semaphore != null && !semaphore.tryAcquire()) {
-            LOG.warn("Limit of concurrent rpc messages was reached (limit :" +
-                    concurentRpcMsgs + "). Rpc reply message is needed. Discarding request of Netconf device with id" + id.getName());
-            sessionLock.unlock();
-            return Futures.immediateFailedFuture(new NetconfDocumentedException("Limit of rpc messages was reached (Limit :" +
-                    concurentRpcMsgs + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
-        }
-
-        try {
-            return sendRequestWithLock(message, rpc);
-        } finally {
-            sessionLock.unlock();
-        }
-    }
-
-    private ListenableFuture<RpcResult<NetconfMessage>> sendRequestWithLock(
-                                               final NetconfMessage message, final QName rpc) {
         if(LOG.isTraceEnabled()) {
             LOG.trace("{}: Sending message {}", id, msgToS(message));
         }
@@ -362,10 +416,100 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
         }
 
         final Request req = new Request( new UncancellableFuture<RpcResult<NetconfMessage>>(true),
-                                         message );
-        requests.add(req);
+                                         message, NetconfMessageTransformUtil.getMessageId(message) );
+        if (window == null) {
+            sendAdmittedRequest(req);
+            return req.future;
+        }
+
+        switch (window.tryAdmit(req)) {
+            case ADMITTED:
+                sendAdmittedRequest(req);
+                break;
+            case QUEUED:
+                LOG.debug("{}: Request window is full, queueing request {}", id, req.messageId);
+                // Session might have gone down before the request was queued, tearDown would not see it then
+                if (session == null && window.removePending(req)) {
+                    req.future.set( createSessionDownRpcResult() );
+                }
+                break;
+            case REJECTED:
+            default:
+                LOG.warn("{}: Too many requests are waiting for the device, failing RPC request {}",
+                        id, req.messageId);
+                req.future.set( RpcResultBuilder.<NetconfMessage>failed()
+                        .withError(RpcError.ErrorType.APPLICATION,
+                                NetconfDocumentedException.ErrorTag.RESOURCE_DENIED.getTagValue(),
+                                String.format("Too many requests are waiting for device %s", id.getName()))
+                        .build() );
+                break;
+        }
+
+        return req.future;
+    }
+
+    /**
+     * Release the window slot of a request, which was not sent to the device.
+     */
+    private void abandonRequest(final Request request) {
+        if (window != null) {
+            for (final Request next : window.abandon(request)) {
+                sendAdmittedRequest(next);
+            }
+        }
+    }
+
+    private void sendAdmittedRequest(final Request req) {
+        if (requests.putIfAbsent(req.messageId, req) != null) {
+            LOG.warn("{}: Request with message-id {} is already pending, failing RPC request {}",
+                    id, req.messageId, req.request);
+            abandonRequest(req);
+            req.future.set( createErrorRpcResult( RpcError.ErrorType.PROTOCOL,
+                    String.format( "Request with message-id %s is already pending", req.messageId ) ) );
+            return;
+        }
 
-        session.sendMessage(req.request).addListener(new FutureListener<Void>() {
+        // Request has to be registered before the session is read, otherwise it could be missed by tearDown
+        final NetconfClientSession currentSession = session;
+        if (currentSession == null) {
+            removeRequest(req);
+            abandonRequest(req);
+            LOG.warn("{}: Session is disconnected, failing RPC request {}",
+                    id, req.request);
+            req.future.set( createSessionDownRpcResult() );
+            return;
+        }
+
+        synchronized (heldRequests) {
+            if (writable && heldRequests.isEmpty()) {
+                writeRequest(currentSession, req);
+                return;
+            }
+
+            // Requests held before have to go first to keep the order
+            LOG.debug("{}: Session is not writable, holding request {}", id, req.messageId);
+            heldRequests.add(req);
+            drainHeldRequests(currentSession);
+        }
+    }
+
+    private void sendHeldRequests(final NetconfClientSession currentSession) {
+        synchronized (heldRequests) {
+            drainHeldRequests(currentSession);
+        }
+    }
+
+    @GuardedBy("heldRequests")
+    private void drainHeldRequests(final NetconfClientSession currentSession) {
+        Request req;
+        while (writable && (req = heldRequests.poll()) != null) {
+            writeRequest(currentSession, req);
+        }
+    }
+
+    private void writeRequest(final NetconfClientSession currentSession, final Request req) {
+        req.sentNanos = System.nanoTime();
+        currentSession.sendMessage(req.request).addListener(new FutureListener<Void>() {
             @Override
             public void operationComplete(final Future<Void> future) throws Exception {
                 if( !future.isSuccess() ) {
@@ -373,6 +517,9 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                     LOG.debug("{}: Failed to send request {}", id,
                             XmlUtil.toString(req.request.getDocument()),
                             future.cause());
+                    if (removeRequest(req)) {
+                        releaseRequest(req, true);
+                    }
 
                     if( future.cause() != null ) {
                         req.future.set( createErrorRpcResult( RpcError.ErrorType.TRANSPORT,
@@ -387,8 +534,6 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                 }
             }
         });
-
-        return req.future;
     }
 
     private void processNotification(final NetconfMessage notification) {
@@ -400,18 +545,44 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
     }
 
     private static boolean isNotification(final NetconfMessage message) {
+        if (message instanceof LazyNetconfMessage) {
+            return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(
+                    ((LazyNetconfMessage) message).getRootElementName());
+        }
+
         final XmlElement xmle = XmlElement.fromDomDocument(message.getDocument());
         return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(xmle.getName()) ;
     }
 
+    private final class TransportStatistics implements SessionTransportMXBean {
+        @Override
+        public long getPendingWriteBytes() {
+            final NetconfClientSession currentSession = session;
+            return currentSession == null ? 0 : currentSession.getPendingWriteBytes();
+        }
+
+        @Override
+        public boolean isWritable() {
+            return writable;
+        }
+
+        @Override
+        public int getHeldRequests() {
+            return heldRequests.size();
+        }
+    }
+
     private static final class Request {
         final UncancellableFuture<RpcResult<NetconfMessage>> future;
         final NetconfMessage request;
+        final String messageId;
+        volatile long sentNanos;
 
         private Request(final UncancellableFuture<RpcResult<NetconfMessage>> future,
-                        final NetconfMessage request) {
+                        final NetconfMessage request, final String messageId) {
             this.future = future;
             this.request = request;
+            this.messageId = messageId;
         }
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+/**
+ * Statistics of the in-flight request window of a single netconf device.
+ */
+public interface RequestWindowMXBean {
+
+    /**
+     * @return number of requests allowed to be sent without waiting for a reply
+     */
+    int getWindowSize();
+
+    /**
+     * @return upper bound of the window, the configured concurrent-rpc-limit
+     */
+    int getMaximumWindowSize();
+
+    /**
+     * @return number of requests sent and waiting for a reply
+     */
+    int getInFlightRequests();
+
+    /**
+     * @return number of requests waiting for a slot in the window
+     */
+    int getQueueDepth();
+
+    /**
+     * @return smoothed reply latency in milliseconds
+     */
+    double getSmoothedLatencyMillis();
+
+    /**
+     * @return number of times the window was shrunk due to latency increase or device errors
+     */
+    long getWindowDecreaseCount();
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+/**
+ * Statistics of the transport of the current session to a single netconf device.
+ */
+public interface SessionTransportMXBean {
+
+    /**
+     * @return number of bytes sent to the device and still buffered by the SSH transport
+     */
+    long getPendingWriteBytes();
+
+    /**
+     * @return false if the transport buffers too much data and requests are held back
+     */
+    boolean isWritable();
+
+    /**
+     * @return number of requests held back until the transport becomes writable
+     */
+    int getHeldRequests();
+}
@@ -154,6 +154,11 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
         salFacade.onNotification(domNotification);
     }
 
+    @Override
+    public void onDeviceConfigurationChanged() {
+        salFacade.onDeviceConfigurationChanged();
+    }
+
     @Override
     public void close() {
         stopKeepalives();
@@ -11,6 +11,7 @@ package org.opendaylight.netconf.sal.connect.netconf.sal;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
@@ -22,6 +23,9 @@ import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.AbstractWriteTx;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.OperationalReadCache;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadCoalescer;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadOnlyTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadWriteTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.TxChain;
@@ -37,13 +41,25 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 public final class NetconfDeviceDataBroker implements DOMDataBroker {
     private final RemoteDeviceId id;
     private final NetconfBaseOps netconfOps;
+    private final ReadCoalescer readCoalescer = new ReadCoalescer();
+    private final OperationalReadCache operationalCache;
 
     private final boolean rollbackSupport;
     private final boolean candidateSupported;
     private final boolean runningWritable;
 
     public NetconfDeviceDataBroker(final RemoteDeviceId id, final SchemaContext schemaContext, final DOMRpcService rpc, final NetconfSessionPreferences netconfSessionPreferences) {
+        this(id, schemaContext, rpc, netconfSessionPreferences, null);
+    }
+
+    /**
+     * @param operationalCache cache of operational reads, invalidated by write transactions of this broker, null if disabled
+     */
+    public NetconfDeviceDataBroker(final RemoteDeviceId id, final SchemaContext schemaContext, final DOMRpcService rpc,
+                                   final NetconfSessionPreferences netconfSessionPreferences,
+                                   @Nullable final OperationalReadCache operationalCache) {
         this.id = id;
+        this.operationalCache = operationalCache;
         this.netconfOps = new NetconfBaseOps(rpc, schemaContext);
         // get specific attributes from netconf preferences and get rid of it
         // no need to keep the entire preferences object, its quite big with all the capability QNames
@@ -56,7 +72,7 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
 
     @Override
     public DOMDataReadOnlyTransaction newReadOnlyTransaction() {
-        return new ReadOnlyTx(netconfOps, id);
+        return new ReadOnlyTx(netconfOps, id, readCoalescer, operationalCache);
     }
 
     @Override
@@ -66,15 +82,21 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
 
     @Override
     public DOMDataWriteTransaction newWriteOnlyTransaction() {
+        final AbstractWriteTx tx;
         if(candidateSupported) {
             if(runningWritable) {
-                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport);
+                tx = new WriteCandidateRunningTx(id, netconfOps, rollbackSupport);
             } else {
-                return new WriteCandidateTx(id, netconfOps, rollbackSupport);
+                tx = new WriteCandidateTx(id, netconfOps, rollbackSupport);
             }
         } else {
-            return new WriteRunningTx(id, netconfOps, rollbackSupport);
+            tx = new WriteRunningTx(id, netconfOps, rollbackSupport);
+        }
+        readCoalescer.trackWrites(tx);
+        if (operationalCache != null) {
+            operationalCache.trackWrites(tx);
         }
+        return tx;
     }
 
     @Override
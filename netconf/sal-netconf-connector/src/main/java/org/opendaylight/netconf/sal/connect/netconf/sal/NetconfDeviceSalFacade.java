@@ -10,6 +10,7 @@ package org.opendaylight.netconf.sal.connect.netconf.sal;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
@@ -18,7 +19,9 @@ import org.opendaylight.controller.sal.core.api.Broker;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.OperationalReadCache;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.netconf.sal.connect.util.StatisticsRegistration;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,18 +34,48 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
     private final NetconfDeviceSalProvider salProvider;
 
     private final List<AutoCloseable> salRegistrations = Lists.newArrayList();
+    private final OperationalReadCache operationalCache;
+    private final StatisticsRegistration cacheStatsRegistration;
 
     public NetconfDeviceSalFacade(final RemoteDeviceId id, final Broker domBroker, final BindingAwareBroker bindingBroker) {
-        this.id = id;
-        this.salProvider = new NetconfDeviceSalProvider(id);
-        registerToSal(domBroker, bindingBroker);
+        this(id, domBroker, bindingBroker, 0, 0);
+    }
+
+    /**
+     * @param operationalCacheTtlMillis time operational data read from device stay cached, 0 disables the cache
+     * @param operationalCacheMaxNodes upper bound of cached operational data nodes
+     */
+    public NetconfDeviceSalFacade(final RemoteDeviceId id, final Broker domBroker, final BindingAwareBroker bindingBroker,
+                                  final long operationalCacheTtlMillis, final long operationalCacheMaxNodes) {
+        this(id, domBroker, bindingBroker, operationalCacheTtlMillis, operationalCacheMaxNodes, null);
+    }
+
+    /**
+     * @param statusWriter writer of device status shared by devices of a topology, if null status is written
+     *                     by this device directly
+     */
+    public NetconfDeviceSalFacade(final RemoteDeviceId id, final Broker domBroker, final BindingAwareBroker bindingBroker,
+                                  final long operationalCacheTtlMillis, final long operationalCacheMaxNodes,
+                                  @Nullable final TopologyStatusWriter statusWriter) {
+        this(id, new NetconfDeviceSalProvider(id, statusWriter), domBroker, bindingBroker,
+                OperationalReadCache.create(operationalCacheTtlMillis, operationalCacheMaxNodes));
     }
 
     @VisibleForTesting
     NetconfDeviceSalFacade(final RemoteDeviceId id, NetconfDeviceSalProvider salProvider,
                            final Broker domBroker, final BindingAwareBroker bindingBroker) {
+        this(id, salProvider, domBroker, bindingBroker, null);
+    }
+
+    @VisibleForTesting
+    NetconfDeviceSalFacade(final RemoteDeviceId id, final NetconfDeviceSalProvider salProvider,
+                           final Broker domBroker, final BindingAwareBroker bindingBroker,
+                           @Nullable final OperationalReadCache operationalCache) {
         this.id = id;
         this.salProvider = salProvider;
+        this.operationalCache = operationalCache;
+        this.cacheStatsRegistration = operationalCache == null ? null
+                : StatisticsRegistration.register(id, "OperationalReadCache", operationalCache);
         registerToSal(domBroker, bindingBroker);
     }
 
@@ -56,11 +89,23 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
         salProvider.getMountInstance().publish(domNotification);
     }
 
+    @Override
+    public void onDeviceConfigurationChanged() {
+        if (operationalCache != null) {
+            LOG.debug("{}: Device configuration changed, invalidating cached operational data", id);
+            operationalCache.invalidate();
+        }
+    }
+
     @Override
     public synchronized void onDeviceConnected(final SchemaContext schemaContext,
                                                final NetconfSessionPreferences netconfSessionPreferences, final DOMRpcService deviceRpc) {
 
-        final DOMDataBroker domBroker = new NetconfDeviceDataBroker(id, schemaContext, deviceRpc, netconfSessionPreferences);
+        if (operationalCache != null) {
+            operationalCache.invalidate();
+        }
+        final DOMDataBroker domBroker =
+                new NetconfDeviceDataBroker(id, schemaContext, deviceRpc, netconfSessionPreferences, operationalCache);
 
         final NetconfDeviceNotificationService notificationService = new NetconfDeviceNotificationService();
 
@@ -86,6 +131,7 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
             closeGracefully(reg);
         }
         closeGracefully(salProvider);
+        closeGracefully(cacheStatsRegistration);
     }
 
     private void closeGracefully(final AutoCloseable resource) {
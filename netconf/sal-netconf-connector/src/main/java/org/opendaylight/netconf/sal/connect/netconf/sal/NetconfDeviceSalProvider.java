@@ -38,6 +38,7 @@ public class NetconfDeviceSalProvider implements AutoCloseable, Provider, Bindin
     private static final Logger logger = LoggerFactory.getLogger(NetconfDeviceSalProvider.class);
 
     private final RemoteDeviceId id;
+    private final TopologyStatusWriter statusWriter;
     private MountInstance mountInstance;
 
     private volatile NetconfDeviceTopologyAdapter topologyDatastoreAdapter;
@@ -61,7 +62,16 @@ public class NetconfDeviceSalProvider implements AutoCloseable, Provider, Bindin
     };
 
     public NetconfDeviceSalProvider(final RemoteDeviceId deviceId) {
+        this(deviceId, null);
+    }
+
+    /**
+     * @param statusWriter shared writer of device status, if null status is written using transaction chain of this
+     *                     device
+     */
+    public NetconfDeviceSalProvider(final RemoteDeviceId deviceId, final TopologyStatusWriter statusWriter) {
         this.id = deviceId;
+        this.statusWriter = statusWriter;
     }
 
     public MountInstance getMountInstance() {
@@ -95,6 +105,11 @@ public class NetconfDeviceSalProvider implements AutoCloseable, Provider, Bindin
     public void onSessionInitiated(final BindingAwareBroker.ProviderContext session) {
         logger.debug("{}: Session with sal established {}", id, session);
 
+        if (statusWriter != null) {
+            topologyDatastoreAdapter = new NetconfDeviceTopologyAdapter(id, statusWriter);
+            return;
+        }
+
         this.dataBroker = session.getSALService(DataBroker.class);
         txChain = Preconditions.checkNotNull(dataBroker).createTransactionChain(transactionChainListener);
 
@@ -114,7 +129,9 @@ public class NetconfDeviceSalProvider implements AutoCloseable, Provider, Bindin
         mountInstance.close();
         topologyDatastoreAdapter.close();
         topologyDatastoreAdapter = null;
-        txChain.close();
+        if (txChain != null) {
+            txChain.close();
+        }
     }
 
     public static final class MountInstance implements AutoCloseable {
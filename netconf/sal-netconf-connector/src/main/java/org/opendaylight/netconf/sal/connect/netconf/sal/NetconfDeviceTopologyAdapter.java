@@ -67,6 +67,7 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     };
 
     private final RemoteDeviceId id;
+    private final TopologyStatusWriter statusWriter;
     private BindingTransactionChain txChain;
 
     private final InstanceIdentifier<NetworkTopology> networkTopologyPath;
@@ -74,8 +75,21 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     private static final String UNKNOWN_REASON = "Unknown reason";
 
     NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final BindingTransactionChain txChain) {
+        this(id, Preconditions.checkNotNull(txChain), null);
+    }
+
+    /**
+     * Status of the device is written by shared writer, in batches with status of other devices.
+     */
+    NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final TopologyStatusWriter statusWriter) {
+        this(id, null, Preconditions.checkNotNull(statusWriter));
+    }
+
+    private NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final BindingTransactionChain txChain,
+                                         final TopologyStatusWriter statusWriter) {
         this.id = id;
-        this.txChain = Preconditions.checkNotNull(txChain);
+        this.txChain = txChain;
+        this.statusWriter = statusWriter;
 
         this.networkTopologyPath = InstanceIdentifier.builder(NetworkTopology.class).build();
         this.topologyListPath = networkTopologyPath.child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName())));
@@ -84,10 +98,6 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     }
 
     private void initDeviceData() {
-        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-
-        createNetworkTopologyIfNotPresent(writeTx);
-
         final InstanceIdentifier<Node> path = id.getTopologyBindingPath();
         NodeBuilder nodeBuilder = getNodeIdBuilder(id);
         NetconfNodeBuilder netconfNodeBuilder = new NetconfNodeBuilder();
@@ -97,6 +107,15 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
         nodeBuilder.addAugmentation(NetconfNode.class, netconfNodeBuilder.build());
         Node node = nodeBuilder.build();
 
+        if (statusWriter != null) {
+            statusWriter.initNode(path, node);
+            return;
+        }
+
+        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
+
+        createNetworkTopologyIfNotPresent(writeTx);
+
         LOG.trace(
                 "{}: Init device state transaction {} putting if absent operational data started.",
                 id, writeTx.getIdentifier());
@@ -117,6 +136,10 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
 
     public void updateDeviceData(boolean up, NetconfDeviceCapabilities capabilities) {
         final NetconfNode data = buildDataForNetconfNode(up, capabilities);
+        if (statusWriter != null) {
+            statusWriter.updateStatus(id.getTopologyBindingPath(), data);
+            return;
+        }
 
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
         LOG.trace(
@@ -132,6 +155,10 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
 
     public void updateClusteredDeviceData(boolean up, String masterAddress, NetconfDeviceCapabilities capabilities) {
         final NetconfNode data = buildDataForNetconfClusteredNode(up, masterAddress, capabilities);
+        if (statusWriter != null) {
+            statusWriter.updateStatus(id.getTopologyBindingPath(), data);
+            return;
+        }
 
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
         LOG.trace(
@@ -149,6 +176,10 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
         String reason = (throwable != null && throwable.getMessage() != null) ? throwable.getMessage() : UNKNOWN_REASON;
 
         final NetconfNode data = new NetconfNodeBuilder().setConnectionStatus(ConnectionStatus.UnableToConnect).setConnectedMessage(reason).build();
+        if (statusWriter != null) {
+            statusWriter.updateStatus(id.getTopologyBindingPath(), data);
+            return;
+        }
 
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
         LOG.trace(
@@ -209,6 +240,12 @@ public final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     }
 
     public void removeDeviceConfiguration() {
+        if (statusWriter != null) {
+            // Removal is written with the next batch, there is no need to block the caller
+            statusWriter.removeNode(id.getTopologyBindingPath());
+            return;
+        }
+
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
 
         LOG.trace(
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.topology.types.TopologyNetconf;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopologyBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes operational status of netconf nodes on behalf of all devices of a topology. Pending updates are coalesced
+ * per node, only the latest status of a node is written. Updates are flushed periodically in transactions containing
+ * limited number of nodes, or sooner if enough nodes are pending. This keeps the number of datastore commits low
+ * when lots of devices reconnect at once.
+ *
+ * <p>
+ * Updates of a failed transaction are queued again, unless a newer update of the same node replaced them meanwhile,
+ * and they are given up after {@value #MAX_ATTEMPTS} attempts. Updates requested after the writer was closed are
+ * ignored and their futures are cancelled.
+ */
+public final class TopologyStatusWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TopologyStatusWriter.class);
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final InstanceIdentifier<NetworkTopology> NETWORK_TOPOLOGY_PATH =
+            InstanceIdentifier.create(NetworkTopology.class);
+    private static final InstanceIdentifier<Topology> TOPOLOGY_PATH = NETWORK_TOPOLOGY_PATH.child(Topology.class,
+            new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName())));
+
+    private final DataBroker dataBroker;
+    private final ScheduledExecutorService scheduler;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final TransactionChainListener chainListener = new TransactionChainListener() {
+        @Override
+        public void onTransactionChainFailed(final TransactionChain<?, ?> chain, final AsyncTransaction<?, ?> transaction,
+                                             final Throwable cause) {
+            LOG.error("Topology status transaction chain {} failed on {}, recreating", chain,
+                    transaction.getIdentifier(), cause);
+            chain.close();
+            resetTransactionChain(chain);
+        }
+
+        @Override
+        public void onTransactionChainSuccessful(final TransactionChain<?, ?> chain) {
+            LOG.trace("Topology status transaction chain {} closed", chain);
+        }
+    };
+
+    // All fields below are guarded by this
+    private final Map<InstanceIdentifier<Node>, PendingUpdate> pending = new LinkedHashMap<>();
+    private BindingTransactionChain txChain;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean immediateFlush;
+    private boolean closed;
+
+    public TopologyStatusWriter(final DataBroker dataBroker, final ScheduledExecutorService scheduler) {
+        this(dataBroker, scheduler, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param flushIntervalMillis delay between flushes of pending updates
+     * @param maxBatchSize maximum number of nodes written in a single transaction, reaching it triggers a flush
+     */
+    public TopologyStatusWriter(final DataBroker dataBroker, final ScheduledExecutorService scheduler,
+                                final long flushIntervalMillis, final int maxBatchSize) {
+        Preconditions.checkArgument(flushIntervalMillis >= 0, "Flush interval cannot be negative");
+        Preconditions.checkArgument(maxBatchSize > 0, "Batch size has to be positive");
+        this.dataBroker = Preconditions.checkNotNull(dataBroker);
+        this.scheduler = Preconditions.checkNotNull(scheduler);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Replace whole node, discards status updates of the node still pending.
+     */
+    public synchronized ListenableFuture<Void> initNode(final InstanceIdentifier<Node> path, final Node node) {
+        final PendingUpdate update = getPending(path);
+        if (update == null) {
+            return closedFuture(path);
+        }
+        update.delete = false;
+        update.node = node;
+        update.status = null;
+        return update.future;
+    }
+
+    /**
+     * Write netconf node augmentation, replaces status of the node still pending.
+     */
+    public synchronized ListenableFuture<Void> updateStatus(final InstanceIdentifier<Node> path, final NetconfNode status) {
+        final PendingUpdate update = getPending(path);
+        if (update == null) {
+            return closedFuture(path);
+        }
+        update.status = status;
+        return update.future;
+    }
+
+    /**
+     * Remove node, discards all updates of the node still pending.
+     */
+    public synchronized ListenableFuture<Void> removeNode(final InstanceIdentifier<Node> path) {
+        final PendingUpdate update = getPending(path);
+        if (update == null) {
+            return closedFuture(path);
+        }
+        update.delete = true;
+        update.node = null;
+        update.status = null;
+        return update.future;
+    }
+
+    /**
+     * @return pending update of the node or null if the writer is closed
+     */
+    private PendingUpdate getPending(final InstanceIdentifier<Node> path) {
+        if (closed) {
+            return null;
+        }
+        PendingUpdate update = pending.get(path);
+        if (update == null) {
+            update = new PendingUpdate();
+            pending.put(path, update);
+            scheduleFlush();
+        }
+        return update;
+    }
+
+    private static ListenableFuture<Void> closedFuture(final InstanceIdentifier<Node> path) {
+        // Devices are torn down asynchronously, so their last updates may arrive after the topology was closed
+        LOG.debug("Topology status writer closed, ignoring update of {}", path);
+        return Futures.immediateCancelledFuture();
+    }
+
+    private void scheduleFlush() {
+        if (pending.size() >= maxBatchSize) {
+            if (!immediateFlush) {
+                immediateFlush = true;
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                }
+                scheduledFlush = scheduler.schedule(this::flush, 0, TimeUnit.MILLISECONDS);
+            }
+        } else if (scheduledFlush == null) {
+            scheduledFlush = scheduler.schedule(this::flush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized void flush() {
+        scheduledFlush = null;
+        immediateFlush = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        if (txChain == null) {
+            txChain = dataBroker.createTransactionChain(chainListener);
+        }
+        final BindingTransactionChain chain = txChain;
+        final WriteTransaction tx = chain.newWriteOnlyTransaction();
+        final Map<InstanceIdentifier<Node>, PendingUpdate> written = new LinkedHashMap<>();
+        boolean ensureTopology = true;
+
+        final Iterator<Map.Entry<InstanceIdentifier<Node>, PendingUpdate>> it = pending.entrySet().iterator();
+        while (it.hasNext() && written.size() < maxBatchSize) {
+            final Map.Entry<InstanceIdentifier<Node>, PendingUpdate> entry = it.next();
+            it.remove();
+            final PendingUpdate update = entry.getValue();
+            update.attempts++;
+            if (update.delete) {
+                tx.delete(LogicalDatastoreType.OPERATIONAL, entry.getKey());
+            }
+            if (update.node != null || update.status != null) {
+                if (ensureTopology) {
+                    ensureTopology = false;
+                    tx.merge(LogicalDatastoreType.OPERATIONAL, NETWORK_TOPOLOGY_PATH, new NetworkTopologyBuilder().build());
+                    tx.merge(LogicalDatastoreType.OPERATIONAL, TOPOLOGY_PATH, new TopologyBuilder()
+                            .setTopologyId(new TopologyId(TopologyNetconf.QNAME.getLocalName())).build());
+                }
+                if (update.node != null) {
+                    tx.put(LogicalDatastoreType.OPERATIONAL, entry.getKey(), update.node);
+                }
+                if (update.status != null) {
+                    tx.put(LogicalDatastoreType.OPERATIONAL, entry.getKey().augmentation(NetconfNode.class),
+                            update.status, true);
+                }
+            }
+            written.put(entry.getKey(), update);
+        }
+
+        LOG.debug("Writing status of {} nodes in transaction {}, {} nodes pending", written.size(),
+                tx.getIdentifier(), pending.size());
+        Futures.addCallback(tx.submit(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(final Void result) {
+                LOG.trace("Topology status transaction {} SUCCESSFUL", tx.getIdentifier());
+                written.values().forEach(update -> update.future.set(null));
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                LOG.warn("Topology status transaction {} of {} nodes FAILED", tx.getIdentifier(), written.size(), t);
+                retry(chain, written, t);
+            }
+        });
+
+        if (!pending.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    private synchronized void retry(final BindingTransactionChain failedChain,
+                                    final Map<InstanceIdentifier<Node>, PendingUpdate> failed, final Throwable cause) {
+        if (txChain == failedChain) {
+            // Chain is failed together with the transaction, next flush starts a new one
+            txChain = null;
+        }
+
+        for (final Map.Entry<InstanceIdentifier<Node>, PendingUpdate> entry : failed.entrySet()) {
+            final PendingUpdate update = entry.getValue();
+            final PendingUpdate newer = pending.get(entry.getKey());
+            if (newer != null) {
+                newer.supersede(update);
+            } else if (closed || update.attempts >= MAX_ATTEMPTS) {
+                LOG.warn("Giving up writing status of {} after {} attempts", entry.getKey(), update.attempts);
+                update.future.setException(cause);
+            } else {
+                pending.put(entry.getKey(), update);
+            }
+        }
+
+        if (!closed && !pending.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    private synchronized void resetTransactionChain(final TransactionChain<?, ?> failed) {
+        if (txChain == failed) {
+            txChain = closed ? null : dataBroker.createTransactionChain(chainListener);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Flush all pending updates and close the writer.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        while (!pending.isEmpty()) {
+            flush();
+        }
+        closed = true;
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (txChain != null) {
+            txChain.close();
+            txChain = null;
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final SettableFuture<Void> future = SettableFuture.create();
+        private boolean delete;
+        private Node node;
+        private NetconfNode status;
+        private int attempts;
+
+        /**
+         * Take over a failed older update of the same node, as if it was requested before this one. Its future
+         * completes together with this update.
+         */
+        void supersede(final PendingUpdate older) {
+            // Node replacement and removal discard everything before them, a status update alone does not
+            if (!delete && node == null) {
+                delete = older.delete;
+                node = older.node;
+                if (status == null) {
+                    status = older.status;
+                }
+            }
+            Futures.addCallback(future, new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(final Void result) {
+                    older.future.set(null);
+                }
+
+                @Override
+                public void onFailure(final Throwable t) {
+                    older.future.setException(t);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.netconf.util.NormalizedNodeDOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Accumulates edits of a write transaction so that they can be sent as few edit-config rpcs as possible.
+ * Consecutive edits of disjoint subtrees with the same default operation are merged into a single config tree,
+ * each edited node keeps its own operation attribute. Edits of overlapping subtrees start a new edit-config,
+ * so the order of edits is preserved. Edits without normalized content (e.g. schemaless devices) are sent one by one.
+ */
+final class EditConfigBatcher {
+
+    private static final NodeIdentifier ROOT_ID = new NodeIdentifier(SchemaContext.NAME);
+
+    private final List<Batch> batches = new ArrayList<>();
+
+    void add(final YangInstanceIdentifier path, final DataContainerChild<?, ?> editStructure,
+             final Optional<ModifyAction> defaultOperation) {
+        if (batches.isEmpty() || !batches.get(batches.size() - 1).tryAdd(path, editStructure, defaultOperation)) {
+            batches.add(new Batch(path, editStructure, defaultOperation));
+        }
+    }
+
+    /**
+     * Send accumulated edits to the datastore, in order in which they were added.
+     *
+     * @return futures of sent edit-config rpcs
+     */
+    List<ListenableFuture<DOMRpcResult>> send(final NetconfBaseOps netOps, final QName datastore,
+                                              final FutureCallback<DOMRpcResult> callback, final boolean rollbackSupport) {
+        final List<ListenableFuture<DOMRpcResult>> futures = new ArrayList<>();
+        for (final Batch batch : batches) {
+            for (final DataContainerChild<?, ?> editStructure : batch.build()) {
+                futures.add(netOps.editConfig(callback, datastore, editStructure, batch.defaultOperation, rollbackSupport));
+            }
+        }
+        return futures;
+    }
+
+    @VisibleForTesting
+    int getBatchCount() {
+        return batches.size();
+    }
+
+    private static final class Batch {
+        private final Optional<ModifyAction> defaultOperation;
+        private final List<DataContainerChild<?, ?>> editStructures = new ArrayList<>();
+        private final List<NormalizedNode<?, ?>> contents = new ArrayList<>();
+        // Edited paths and all their ancestors, edits within one batch must not overlap
+        private final Set<YangInstanceIdentifier> targets = new HashSet<>();
+        private final Set<YangInstanceIdentifier> ancestors = new HashSet<>();
+        private final SchemaContext schemaContext;
+
+        Batch(final YangInstanceIdentifier path, final DataContainerChild<?, ?> editStructure,
+              final Optional<ModifyAction> defaultOperation) {
+            this.defaultOperation = defaultOperation;
+            final NormalizedNodeDOMSource source = getSource(editStructure);
+            this.schemaContext = source == null || path.isEmpty() ? null : source.getSchemaContext();
+            editStructures.add(editStructure);
+            if (schemaContext != null) {
+                addContent(path, source);
+            }
+        }
+
+        boolean tryAdd(final YangInstanceIdentifier path, final DataContainerChild<?, ?> editStructure,
+                       final Optional<ModifyAction> defaultOperation) {
+            // Top level edits are not batched, their content is not wrapped in a structure for a single path
+            if (schemaContext == null || path.isEmpty() || !this.defaultOperation.equals(defaultOperation)) {
+                return false;
+            }
+            final NormalizedNodeDOMSource source = getSource(editStructure);
+            if (source == null || source.getSchemaContext() != schemaContext || overlaps(path)) {
+                return false;
+            }
+            editStructures.add(editStructure);
+            addContent(path, source);
+            return true;
+        }
+
+        private void addContent(final YangInstanceIdentifier path, final NormalizedNodeDOMSource source) {
+            contents.add(source.getContent());
+            targets.add(path);
+            for (YangInstanceIdentifier parent = path.getParent(); parent != null; parent = parent.getParent()) {
+                if (!ancestors.add(parent)) {
+                    break;
+                }
+            }
+        }
+
+        private boolean overlaps(final YangInstanceIdentifier path) {
+            if (targets.contains(path) || ancestors.contains(path)) {
+                return true;
+            }
+            for (YangInstanceIdentifier parent = path.getParent(); parent != null; parent = parent.getParent()) {
+                if (targets.contains(parent)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<DataContainerChild<?, ?>> build() {
+            if (editStructures.size() == 1) {
+                return editStructures;
+            }
+
+            final DataContainerNodeBuilder<NodeIdentifier, ContainerNode> root =
+                    Builders.containerBuilder().withNodeIdentifier(ROOT_ID);
+            for (final List<NormalizedNode<?, ?>> group : groupByIdentifier(contents).values()) {
+                final NormalizedNode<?, ?> merged = merge(group);
+                if (!(merged instanceof DataContainerChild)) {
+                    // Content cannot be merged, fall back to edit-config per edit
+                    return editStructures;
+                }
+                root.withChild((DataContainerChild<?, ?>) merged);
+            }
+            final List<DataContainerChild<?, ?>> ret = new ArrayList<>(1);
+            ret.add(NetconfMessageTransformUtil.createEditConfigStructure(schemaContext, root.build()));
+            return ret;
+        }
+    }
+
+    private static NormalizedNodeDOMSource getSource(final DataContainerChild<?, ?> editStructure) {
+        if (editStructure instanceof ChoiceNode) {
+            final Optional<DataContainerChild<? extends PathArgument, ?>> config =
+                    ((ChoiceNode) editStructure).getChild(toId(NETCONF_CONFIG_QNAME));
+            if (config.isPresent() && config.get() instanceof AnyXmlNode
+                    && ((AnyXmlNode) config.get()).getValue() instanceof NormalizedNodeDOMSource) {
+                return (NormalizedNodeDOMSource) ((AnyXmlNode) config.get()).getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merge nodes with the same identifier. Only ancestors of edited nodes are merged, these carry no operation
+     * attributes.
+     *
+     * @return merged node or null if the nodes cannot be merged
+     */
+    private static NormalizedNode<?, ?> merge(final List<NormalizedNode<?, ?>> nodes) {
+        final NormalizedNode<?, ?> first = nodes.get(0);
+        if (nodes.size() == 1) {
+            return first;
+        }
+        for (final NormalizedNode<?, ?> node : nodes) {
+            if (node.getClass() != first.getClass() || hasAttributes(node)) {
+                return null;
+            }
+        }
+
+        if (first instanceof MapNode) {
+            final CollectionNodeBuilder<MapEntryNode, ? extends MapNode> builder = first instanceof OrderedMapNode
+                    ? Builders.orderedMapBuilder() : Builders.mapBuilder();
+            builder.withNodeIdentifier((NodeIdentifier) first.getIdentifier());
+            for (final List<NormalizedNode<?, ?>> group : groupByIdentifier(children(nodes)).values()) {
+                final NormalizedNode<?, ?> entry = merge(group);
+                if (!(entry instanceof MapEntryNode)) {
+                    return null;
+                }
+                builder.withChild((MapEntryNode) entry);
+            }
+            return builder.build();
+        }
+
+        final DataContainerNodeBuilder<?, ?> builder = newBuilder(first);
+        if (builder == null) {
+            return null;
+        }
+        for (final List<NormalizedNode<?, ?>> group : groupByIdentifier(children(nodes)).values()) {
+            final NormalizedNode<?, ?> child = merge(group);
+            if (!(child instanceof DataContainerChild)) {
+                return null;
+            }
+            builder.withChild((DataContainerChild<?, ?>) child);
+        }
+        return builder.build();
+    }
+
+    private static DataContainerNodeBuilder<?, ?> newBuilder(final NormalizedNode<?, ?> node) {
+        if (node instanceof ContainerNode) {
+            return Builders.containerBuilder().withNodeIdentifier(((ContainerNode) node).getIdentifier());
+        } else if (node instanceof MapEntryNode) {
+            return Builders.mapEntryBuilder().withNodeIdentifier(((MapEntryNode) node).getIdentifier());
+        } else if (node instanceof ChoiceNode) {
+            return Builders.choiceBuilder().withNodeIdentifier(((ChoiceNode) node).getIdentifier());
+        } else if (node instanceof AugmentationNode) {
+            return Builders.augmentationBuilder().withNodeIdentifier(((AugmentationNode) node).getIdentifier());
+        }
+        return null;
+    }
+
+    private static boolean hasAttributes(final NormalizedNode<?, ?> node) {
+        return node instanceof AttributesContainer && !((AttributesContainer) node).getAttributes().isEmpty();
+    }
+
+    private static List<NormalizedNode<?, ?>> children(final List<NormalizedNode<?, ?>> nodes) {
+        final List<NormalizedNode<?, ?>> children = new ArrayList<>();
+        for (final NormalizedNode<?, ?> node : nodes) {
+            for (final Object child : ((NormalizedNodeContainer<?, ?, ?>) node).getValue()) {
+                children.add((NormalizedNode<?, ?>) child);
+            }
+        }
+        return children;
+    }
+
+    private static Map<PathArgument, List<NormalizedNode<?, ?>>> groupByIdentifier(
+            final List<NormalizedNode<?, ?>> nodes) {
+        final Map<PathArgument, List<NormalizedNode<?, ?>>> groups = new LinkedHashMap<>();
+        for (final NormalizedNode<?, ?> node : nodes) {
+            groups.computeIfAbsent(node.getIdentifier(), k -> new ArrayList<>()).add(node);
+        }
+        return groups;
+    }
+}
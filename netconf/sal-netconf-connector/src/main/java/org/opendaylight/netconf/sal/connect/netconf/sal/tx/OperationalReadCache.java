@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+
+/**
+ * Cache of operational data read from a device, keyed by the read path. Entries expire after configured time
+ * and the cache is bounded by the total number of cached data nodes. The whole cache is invalidated when a write
+ * transaction to the device completes or the device reports a configuration change.
+ */
+public final class OperationalReadCache implements TxListener, OperationalReadCacheMXBean {
+
+    private static final Weigher<Optional<YangInstanceIdentifier>, Optional<NormalizedNode<?, ?>>> NODE_COUNT_WEIGHER =
+            (path, data) -> data.isPresent() ? countNodes(data.get()) : 1;
+
+    private final Cache<Optional<YangInstanceIdentifier>, Optional<NormalizedNode<?, ?>>> cache;
+    // Incremented by invalidations, reads started before an invalidation must not populate the cache
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Create a cache according to configuration of a device.
+     *
+     * @param ttlMillis time after which cached data expires, 0 disables the cache
+     * @param maxNodes upper bound of cached data nodes, 0 disables the cache
+     * @return new cache or null if it is disabled
+     */
+    @Nullable
+    public static OperationalReadCache create(final long ttlMillis, final long maxNodes) {
+        return ttlMillis > 0 && maxNodes > 0 ? new OperationalReadCache(ttlMillis, maxNodes) : null;
+    }
+
+    /**
+     * @param ttlMillis time after which cached data expires
+     * @param maxNodes upper bound of cached data nodes
+     */
+    public OperationalReadCache(final long ttlMillis, final long maxNodes) {
+        Preconditions.checkArgument(ttlMillis > 0, "Cache TTL has to be positive, was %s", ttlMillis);
+        Preconditions.checkArgument(maxNodes > 0, "Cache size has to be positive, was %s", maxNodes);
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .maximumWeight(maxNodes)
+                .weigher(NODE_COUNT_WEIGHER)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return cached data or read them from the device.
+     *
+     * @param path path to read, null to read the whole datastore
+     * @param read reads the data from the device, called only on cache miss
+     * @return future with read data
+     */
+    public ListenableFuture<Optional<NormalizedNode<?, ?>>> read(@Nullable final YangInstanceIdentifier path,
+            final Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> read) {
+        final Optional<YangInstanceIdentifier> key = Optional.fromNullable(path);
+        final Optional<NormalizedNode<?, ?>> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Futures.immediateFuture(cached);
+        }
+
+        final long readGeneration = generation.get();
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> future = read.get();
+        Futures.addCallback(future, new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+            @Override
+            public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                if (result != null && generation.get() == readGeneration) {
+                    cache.put(key, result);
+                    // Invalidated in the meantime, the result might be stale
+                    if (generation.get() != readGeneration) {
+                        cache.invalidate(key);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                // Failed reads are not cached
+            }
+        });
+        return future;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalidate the cache when the transaction completes.
+     */
+    public void trackWrites(final AbstractWriteTx transaction) {
+        transaction.addListener(this);
+    }
+
+    @Override
+    public void onTransactionSuccessful(final AbstractWriteTx transaction) {
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionFailed(final AbstractWriteTx transaction, final Throwable cause) {
+        // Device state is unknown after a failed commit
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionCancelled(final AbstractWriteTx transaction) {
+        // NOOP
+    }
+
+    @Override
+    public void onTransactionSubmitted(final AbstractWriteTx transaction) {
+        // NOOP
+    }
+
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return generation.get();
+    }
+
+    @Override
+    public long getSize() {
+        return cache.size();
+    }
+
+    private static int countNodes(final NormalizedNode<?, ?> node) {
+        if (!(node instanceof NormalizedNodeContainer)) {
+            return 1;
+        }
+
+        long count = 1;
+        for (final Object child : ((NormalizedNodeContainer<?, ?, ?>) node).getValue()) {
+            count += countNodes((NormalizedNode<?, ?>) child);
+        }
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+}
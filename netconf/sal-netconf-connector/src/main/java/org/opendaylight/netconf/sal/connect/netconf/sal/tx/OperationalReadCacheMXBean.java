@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+/**
+ * Statistics of the operational read cache of a single netconf device.
+ */
+public interface OperationalReadCacheMXBean {
+
+    /**
+     * @return number of reads served from the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return number of reads sent to the device
+     */
+    long getMissCount();
+
+    /**
+     * @return number of entries removed due to expiration or size bound
+     */
+    long getEvictionCount();
+
+    /**
+     * @return number of times the whole cache was invalidated by writes or configuration changes on the device
+     */
+    long getInvalidationCount();
+
+    /**
+     * @return number of cached read results
+     */
+    long getSize();
+}
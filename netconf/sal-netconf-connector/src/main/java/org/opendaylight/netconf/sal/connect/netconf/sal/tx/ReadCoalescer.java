@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares a single in-flight read rpc among concurrent reads of the same datastore and path on one device.
+ * Normalized nodes are immutable, so all readers get the same parsed result. A read is shared only while
+ * its rpc is outstanding, once it completes subsequent reads go to the device again.
+ */
+public final class ReadCoalescer implements TxListener {
+
+    private static final Logger LOG  = LoggerFactory.getLogger(ReadCoalescer.class);
+
+    private final ConcurrentMap<ReadKey, ListenableFuture<Optional<NormalizedNode<?, ?>>>> inFlight =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Join an outstanding read of the same datastore and path or start a new one.
+     *
+     * @param store datastore to read from
+     * @param path path to read, null to read the whole datastore
+     * @param read invokes the read rpc, called only if there is no outstanding read to join
+     * @return future with read data, cancelling it does not affect other readers
+     */
+    public ListenableFuture<Optional<NormalizedNode<?, ?>>> read(final LogicalDatastoreType store,
+            @Nullable final YangInstanceIdentifier path, final Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> read) {
+        final ReadKey key = new ReadKey(store, path);
+        ListenableFuture<Optional<NormalizedNode<?, ?>>> future = inFlight.get(key);
+        if (future == null) {
+            final SettableFuture<Optional<NormalizedNode<?, ?>>> newFuture = SettableFuture.create();
+            future = inFlight.putIfAbsent(key, newFuture);
+            if (future == null) {
+                startRead(key, newFuture, read);
+                future = newFuture;
+            }
+        } else {
+            LOG.trace("Joining outstanding read of {} from {}", path, store);
+        }
+
+        return Futures.nonCancellationPropagating(future);
+    }
+
+    private void startRead(final ReadKey key, final SettableFuture<Optional<NormalizedNode<?, ?>>> future,
+                           final Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> read) {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> rpcFuture;
+        try {
+            rpcFuture = read.get();
+        } catch (final RuntimeException e) {
+            inFlight.remove(key, future);
+            future.setException(e);
+            return;
+        }
+
+        Futures.addCallback(rpcFuture, new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+            @Override
+            public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                // Remove before completing, readers notified of the result must not join it anymore
+                inFlight.remove(key, future);
+                future.set(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                inFlight.remove(key, future);
+                future.setException(t);
+            }
+        });
+    }
+
+    /**
+     * Stop sharing outstanding reads, reads started afterwards are sent to the device.
+     */
+    public void invalidate() {
+        inFlight.clear();
+    }
+
+    /**
+     * Invalidate outstanding reads when the transaction completes, so that reads issued after a commit do not join
+     * reads which were sent before it.
+     */
+    public void trackWrites(final AbstractWriteTx transaction) {
+        transaction.addListener(this);
+    }
+
+    @Override
+    public void onTransactionSuccessful(final AbstractWriteTx transaction) {
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionFailed(final AbstractWriteTx transaction, final Throwable cause) {
+        // Device state is unknown after a failed commit
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionCancelled(final AbstractWriteTx transaction) {
+        // NOOP
+    }
+
+    @Override
+    public void onTransactionSubmitted(final AbstractWriteTx transaction) {
+        // NOOP
+    }
+
+    private static final class ReadKey {
+        private final LogicalDatastoreType store;
+        private final YangInstanceIdentifier path;
+
+        ReadKey(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+            this.store = store;
+            this.path = path;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * store.hashCode() + Objects.hashCode(path);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ReadKey)) {
+                return false;
+            }
+            final ReadKey other = (ReadKey) obj;
+            return store == other.store && Objects.equals(path, other.path);
+        }
+    }
+}
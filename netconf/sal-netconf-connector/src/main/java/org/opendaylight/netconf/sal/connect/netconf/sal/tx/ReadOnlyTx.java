@@ -13,6 +13,8 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
@@ -32,24 +34,41 @@ public final class ReadOnlyTx implements DOMDataReadOnlyTransaction {
 
     private final NetconfBaseOps netconfOps;
     private final RemoteDeviceId id;
+    private final ReadCoalescer readCoalescer;
+    private final OperationalReadCache operationalCache;
 
     public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id) {
+        this(netconfOps, id, new ReadCoalescer(), null);
+    }
+
+    /**
+     * @param readCoalescer shared by transactions of one device, concurrent reads of the same data send single rpc
+     * @param operationalCache cache of operational reads shared by transactions of one device, null if disabled
+     */
+    public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id, final ReadCoalescer readCoalescer,
+                      @Nullable final OperationalReadCache operationalCache) {
         this.netconfOps = netconfOps;
         this.id = id;
+        this.readCoalescer = readCoalescer;
+        this.operationalCache = operationalCache;
     }
 
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readConfigurationData(
             final YangInstanceIdentifier path) {
-        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configRunning = netconfOps.getConfigRunningData(
-                new NetconfRpcFutureCallback("Data read", id), Optional.fromNullable(path));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configRunning = readCoalescer.read(
+                LogicalDatastoreType.CONFIGURATION, path, () -> netconfOps.getConfigRunningData(
+                        new NetconfRpcFutureCallback("Data read", id), Optional.fromNullable(path)));
 
         return MappingCheckedFuture.create(configRunning, ReadFailedException.MAPPER);
     }
 
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readOperationalData(
             final YangInstanceIdentifier path) {
-        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configCandidate = netconfOps.getData(
-                new NetconfRpcFutureCallback("Data read", id), Optional.fromNullable(path));
+        final Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> read = () -> readCoalescer.read(
+                LogicalDatastoreType.OPERATIONAL, path, () -> netconfOps.getData(
+                        new NetconfRpcFutureCallback("Data read", id), Optional.fromNullable(path)));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configCandidate =
+                operationalCache == null ? read.get() : operationalCache.read(path, read);
 
         return MappingCheckedFuture.create(configCandidate, ReadFailedException.MAPPER);
     }
@@ -8,6 +8,8 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CANDIDATE_QNAME;
+
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
@@ -42,7 +44,7 @@ import org.slf4j.LoggerFactory;
  *       <li>Second lock attempt has to succeed</li>
  *     </ul>
  *   </li>
- *   <li>Edit-config in candidate N times
+ *   <li>Edit-config in candidate on commit, edits of disjoint subtrees are merged into a single edit-config
  *     <ul>
  *       <li>If any issue occurs during edit, datastore is discarded using discard-changes rpc, unlocked and an exception is thrown async</li>
  *     </ul>
@@ -53,6 +55,7 @@ import org.slf4j.LoggerFactory;
 public class WriteCandidateTx extends AbstractWriteTx {
 
     private static final Logger LOG  = LoggerFactory.getLogger(WriteCandidateTx.class);
+    private final EditConfigBatcher edits = new EditConfigBatcher();
 
     public WriteCandidateTx(final RemoteDeviceId id, final NetconfBaseOps rpc, final boolean rollbackSupport) {
         super(rpc, id, rollbackSupport);
@@ -119,6 +122,8 @@ public class WriteCandidateTx extends AbstractWriteTx {
 
     @Override
     public synchronized ListenableFuture<RpcResult<TransactionStatus>> performCommit() {
+        resultsFutures.addAll(edits.send(netOps, NETCONF_CANDIDATE_QNAME,
+                new NetconfRpcFutureCallback("Edit candidate", id), rollbackSupport));
         resultsFutures.add(netOps.commit(new NetconfRpcFutureCallback("Commit", id)));
         final ListenableFuture<RpcResult<TransactionStatus>> txResult = resultsToTxStatus();
 
@@ -149,15 +154,7 @@ public class WriteCandidateTx extends AbstractWriteTx {
                               final DataContainerChild<?, ?> editStructure,
                               final Optional<ModifyAction> defaultOperation,
                               final String operation) {
-
-        final NetconfRpcFutureCallback editConfigCallback = new NetconfRpcFutureCallback("Edit candidate", id);
-
-        if (defaultOperation.isPresent()) {
-            resultsFutures.add(netOps.editConfigCandidate(
-                    editConfigCallback, editStructure, defaultOperation.get(), rollbackSupport));
-        } else {
-            resultsFutures.add(netOps.editConfigCandidate(editConfigCallback, editStructure, rollbackSupport));
-        }
+        edits.add(path, editStructure, defaultOperation);
     }
 
     /**
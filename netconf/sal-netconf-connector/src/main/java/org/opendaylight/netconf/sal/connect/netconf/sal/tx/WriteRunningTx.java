@@ -8,16 +8,15 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
+
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import java.util.ArrayList;
-import java.util.List;
 import org.opendaylight.controller.md.sal.common.api.TransactionStatus;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
-import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
@@ -38,7 +37,7 @@ import org.slf4j.LoggerFactory;
  *       <li> Lock has to succeed, if it does not, transaction is failed</li>
  *     </ul>
  *   </li>
- *   <li>Edit-config in running N times
+ *   <li>Edit-config in running on commit, edits of disjoint subtrees are merged into a single edit-config
  *     <ul>
  *       <li>If any issue occurs during edit, datastore is unlocked and an exception is thrown</li>
  *     </ul>
@@ -49,7 +48,7 @@ import org.slf4j.LoggerFactory;
 public class WriteRunningTx extends AbstractWriteTx {
 
     private static final Logger LOG  = LoggerFactory.getLogger(WriteRunningTx.class);
-    private final List<Change> changes = new ArrayList<>();
+    private final EditConfigBatcher edits = new EditConfigBatcher();
 
     public WriteRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
                           final boolean rollbackSupport) {
@@ -89,9 +88,8 @@ public class WriteRunningTx extends AbstractWriteTx {
 
     @Override
     public synchronized ListenableFuture<RpcResult<TransactionStatus>> performCommit() {
-        for (final Change change : changes) {
-            resultsFutures.add(change.execute(id, netOps, rollbackSupport));
-        }
+        resultsFutures.addAll(edits.send(netOps, NETCONF_RUNNING_QNAME,
+                new NetconfRpcFutureCallback("Edit running", id), rollbackSupport));
         unlock();
         return resultsToTxStatus();
     }
@@ -102,31 +100,10 @@ public class WriteRunningTx extends AbstractWriteTx {
                               final DataContainerChild<?, ?> editStructure,
                               final Optional<ModifyAction> defaultOperation,
                               final String operation) {
-        changes.add(new Change(editStructure, defaultOperation));
+        edits.add(path, editStructure, defaultOperation);
     }
 
     private void unlock() {
         netOps.unlockRunning(new NetconfRpcFutureCallback("Unlock running", id));
     }
-
-    private static class Change {
-
-        private final DataContainerChild<?, ?> editStructure;
-        private final Optional<ModifyAction> defaultOperation;
-
-        private Change(final DataContainerChild<?, ?> editStructure, final Optional<ModifyAction> defaultOperation) {
-            this.editStructure = editStructure;
-            this.defaultOperation = defaultOperation;
-        }
-
-        private ListenableFuture<DOMRpcResult> execute(final RemoteDeviceId id, final NetconfBaseOps netOps,
-                                                       final boolean rollbackSupport) {
-            final NetconfRpcFutureCallback editConfigCallback = new NetconfRpcFutureCallback("Edit running", id);
-            if (defaultOperation.isPresent()) {
-                return netOps.editConfigRunning(editConfigCallback, editStructure, defaultOperation.get(), rollbackSupport);
-            } else {
-                return netOps.editConfigRunning(editConfigCallback, editStructure, rollbackSupport);
-            }
-        }
-    }
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads and parses yang sources of a device. Limited number of sources is downloaded concurrently for a single
+ * device and across all devices. Downloaded sources are parsed in processing executor while other sources are still
+ * being downloaded. Text and parsed form of each source are registered in schema registry, so that schema context
+ * assembly does not download or parse them again.
+ *
+ * <p>
+ * Nothing blocks while waiting for a download slot or for the downloads, so the downloader can be driven from
+ * the processing executor itself regardless of its size.
+ */
+public final class SchemaSourceDownloader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaSourceDownloader.class);
+
+    public static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 8;
+    // Shared by all devices, prevents mass reconnect from flooding the controller with get-schema replies
+    private static final int GLOBAL_MAX_CONCURRENT_DOWNLOADS = 64;
+    private static final DownloadLimit GLOBAL_LIMIT = new DownloadLimit(GLOBAL_MAX_CONCURRENT_DOWNLOADS);
+
+    private final RemoteDeviceId id;
+    private final SchemaRepository schemaRepository;
+    private final SchemaSourceRegistry schemaRegistry;
+    private final ListeningExecutorService processingExecutor;
+    private final DownloadLimit deviceLimit;
+
+    public SchemaSourceDownloader(final RemoteDeviceId id, final SchemaRepository schemaRepository,
+                                  final SchemaSourceRegistry schemaRegistry,
+                                  final ListeningExecutorService processingExecutor,
+                                  final int maxConcurrentDownloads) {
+        Preconditions.checkArgument(maxConcurrentDownloads > 0,
+                "Concurrent schema downloads limit has to be positive, was %s", maxConcurrentDownloads);
+        this.id = id;
+        this.schemaRepository = schemaRepository;
+        this.schemaRegistry = schemaRegistry;
+        this.processingExecutor = processingExecutor;
+        this.deviceLimit = new DownloadLimit(maxConcurrentDownloads);
+    }
+
+    /**
+     * Download and parse sources.
+     *
+     * @param sources sources to download
+     * @param registrations registrations of downloaded sources are added here once all sources are processed, they
+     *                      should be closed once the device disconnects
+     * @return future completed once all sources are processed, with sources that could not be downloaded or parsed
+     */
+    public ListenableFuture<Collection<SourceIdentifier>> downloadSources(final Collection<SourceIdentifier> sources,
+            final Collection<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> registrations) {
+        final List<SourceIdentifier> sourceIds = new ArrayList<>(sources);
+        final Collection<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> newRegistrations =
+                new ConcurrentLinkedQueue<>();
+        final List<ListenableFuture<SourceIdentifier>> parsed = new ArrayList<>(sourceIds.size());
+
+        for (final SourceIdentifier sourceId : sourceIds) {
+            final SettableFuture<SourceIdentifier> result = SettableFuture.create();
+            parsed.add(result);
+            deviceLimit.submit(() -> GLOBAL_LIMIT.submit(() -> startDownload(sourceId, newRegistrations, result)));
+        }
+
+        return Futures.transform(Futures.successfulAsList(parsed),
+            (Function<List<SourceIdentifier>, Collection<SourceIdentifier>>) processed -> {
+                final List<SourceIdentifier> failed = new ArrayList<>();
+                for (int i = 0; i < processed.size(); i++) {
+                    if (processed.get(i) == null) {
+                        failed.add(sourceIds.get(i));
+                    }
+                }
+                registrations.addAll(newRegistrations);
+                LOG.debug("{}: Downloaded {} sources, {} failed", id, sourceIds.size() - failed.size(),
+                        failed.size());
+                return failed;
+            });
+    }
+
+    /**
+     * Downloads waiting for a slot are started from the executor, not from the thread completing another download.
+     */
+    private void startDownload(final SourceIdentifier sourceId,
+            final Collection<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> registrations,
+            final SettableFuture<SourceIdentifier> result) {
+        try {
+            processingExecutor.execute(() -> download(sourceId, registrations, result));
+        } catch (final RejectedExecutionException e) {
+            releaseSlots();
+            result.setException(e);
+        }
+    }
+
+    /**
+     * Download a source holding a slot of both limits and parse it once downloaded. Slots are released when the
+     * download completes or fails to start.
+     */
+    private void download(final SourceIdentifier sourceId,
+            final Collection<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> registrations,
+            final SettableFuture<SourceIdentifier> result) {
+        boolean started = false;
+        try {
+            LOG.trace("{}: Downloading source {}", id, sourceId);
+            final ListenableFuture<YangTextSchemaSource> text =
+                    schemaRepository.getSchemaSource(sourceId, YangTextSchemaSource.class);
+            text.addListener(this::releaseSlots, MoreExecutors.directExecutor());
+            started = true;
+
+            Futures.addCallback(Futures.transform(text, (AsyncFunction<YangTextSchemaSource, SourceIdentifier>)
+                    source -> parse(sourceId, source, registrations), processingExecutor),
+                new FutureCallback<SourceIdentifier>() {
+                    @Override
+                    public void onSuccess(final SourceIdentifier parsedId) {
+                        result.set(parsedId);
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable t) {
+                        LOG.debug("{}: Unable to obtain source {}", id, sourceId, t);
+                        result.setException(t);
+                    }
+                });
+        } catch (final RuntimeException e) {
+            LOG.debug("{}: Unable to start download of source {}", id, sourceId, e);
+            result.setException(e);
+        } finally {
+            if (!started) {
+                releaseSlots();
+            }
+        }
+    }
+
+    private void releaseSlots() {
+        GLOBAL_LIMIT.release();
+        deviceLimit.release();
+    }
+
+    private ListenableFuture<SourceIdentifier> parse(final SourceIdentifier sourceId, final YangTextSchemaSource text,
+            final Collection<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> registrations) {
+        // Make the text available locally, the parser obtains it from the repository
+        registrations.add(registerImmediate(sourceId, YangTextSchemaSource.class,
+                Futures.<YangTextSchemaSource, SchemaSourceException>immediateCheckedFuture(text)));
+        final CheckedFuture<ASTSchemaSource, SchemaSourceException> ast =
+                schemaRepository.getSchemaSource(sourceId, ASTSchemaSource.class);
+        return Futures.transform(ast, (Function<ASTSchemaSource, SourceIdentifier>) parsed -> {
+            registrations.add(registerImmediate(sourceId, ASTSchemaSource.class, ast));
+            return sourceId;
+        });
+    }
+
+    private <T extends SchemaSourceRepresentation> SchemaSourceRegistration<T> registerImmediate(
+            final SourceIdentifier sourceId, final Class<T> representation,
+            final CheckedFuture<? extends T, SchemaSourceException> source) {
+        return schemaRegistry.registerSchemaSource(requested -> source,
+                PotentialSchemaSource.create(sourceId, representation, PotentialSchemaSource.Costs.IMMEDIATE.getValue()));
+    }
+
+    /**
+     * Limit of concurrent downloads. Downloads over the limit wait in submission order and are started once a slot
+     * is released, instead of blocking the submitting thread.
+     */
+    private static final class DownloadLimit {
+        private final int limit;
+        @GuardedBy("this")
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        @GuardedBy("this")
+        private int used;
+
+        DownloadLimit(final int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Run task holding a slot, now if a slot is free or once one is released.
+         */
+        void submit(final Runnable task) {
+            synchronized (this) {
+                if (used >= limit) {
+                    waiting.add(task);
+                    return;
+                }
+                used++;
+            }
+            task.run();
+        }
+
+        /**
+         * Release a slot, passing it over to the next waiting task if there is one.
+         */
+        void release() {
+            final Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    used--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+}
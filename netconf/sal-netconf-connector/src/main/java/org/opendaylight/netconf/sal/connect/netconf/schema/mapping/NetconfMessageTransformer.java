@@ -18,21 +18,27 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.transform.dom.DOMResult;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.controller.config.util.xml.MissingNameSpaceException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.md.sal.dom.api.DOMEvent;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
@@ -40,8 +46,12 @@ import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.xml.XmlParserStream;
 import org.opendaylight.yangtools.yang.data.impl.codec.xml.XmlUtils;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
 import org.opendaylight.yangtools.yang.data.impl.schema.transform.dom.parser.DomToNormalizedNodeParserFactory;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
@@ -51,8 +61,8 @@ import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
 
 public class NetconfMessageTransformer implements MessageTransformer<NetconfMessage> {
 
@@ -78,6 +88,7 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     private final Map<QName, RpcDefinition> mappedRpcs;
     private final Multimap<QName, NotificationDefinition> mappedNotifications;
     private final DomToNormalizedNodeParserFactory parserFactory;
+    private final boolean strictParsing;
 
     public NetconfMessageTransformer(final SchemaContext schemaContext, final boolean strictParsing) {
         this(schemaContext, strictParsing, BaseSchema.BASE_NETCONF_CTX);
@@ -87,11 +98,29 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         this.counter = new MessageCounter();
         this.schemaContext = schemaContext;
         parserFactory = DomToNormalizedNodeParserFactory.getInstance(XmlUtils.DEFAULT_XML_CODEC_PROVIDER, schemaContext, strictParsing);
+        this.strictParsing = strictParsing;
         mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), QNAME_FUNCTION);
         mappedNotifications = Multimaps.index(schemaContext.getNotifications(), QNAME_NOREV_FUNCTION);
         this.baseSchema = baseSchema;
     }
 
+    private NetconfMessageTransformer(final NetconfMessageTransformer shared) {
+        this.counter = new MessageCounter();
+        this.schemaContext = shared.schemaContext;
+        this.parserFactory = shared.parserFactory;
+        this.strictParsing = shared.strictParsing;
+        this.mappedRpcs = shared.mappedRpcs;
+        this.mappedNotifications = shared.mappedNotifications;
+        this.baseSchema = shared.baseSchema;
+    }
+
+    /**
+     * Create a transformer sharing schema mappings and parsers with this one, with its own message id counter.
+     */
+    public NetconfMessageTransformer forSession() {
+        return new NetconfMessageTransformer(this);
+    }
+
     @Override
     public synchronized DOMNotification toNotification(final NetconfMessage message) {
         final Map.Entry<Date, XmlElement> stripped = NetconfMessageTransformUtil.stripNotification(message);
@@ -150,20 +179,57 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
 
         // Set the path to the input of rpc for the node stream writer
         rpc = rpc.createChild(QName.create(rpcQName, "input").intern());
-        final DOMResult result = NetconfMessageTransformUtil.prepareDomResultForRpcRequest(rpcQName, counter);
 
-        try {
-            // If the schema context for netconf device does not contain model for base netconf operations, use default pre build context with just the base model
-            // This way operations like lock/unlock are supported even if the source for base model was not provided
-            SchemaContext ctx = needToUseBaseCtx ? baseSchema.getSchemaContext() : schemaContext;
-            NetconfMessageTransformUtil.writeNormalizedRpc(((ContainerNode) payload), result, rpc, ctx);
-        } catch (final XMLStreamException | IOException | IllegalStateException e) {
-            throw new IllegalStateException("Unable to serialize " + rpc, e);
+        // If the schema context for netconf device does not contain model for base netconf operations, use default pre build context with just the base model
+        // This way operations like lock/unlock are supported even if the source for base model was not provided
+        final SchemaContext ctx = needToUseBaseCtx ? baseSchema.getSchemaContext() : schemaContext;
+        return new NormalizedRpcMessage(counter.getNewMessageId(NetconfMessageTransformUtil.MESSAGE_ID_PREFIX),
+                rpcQName, (ContainerNode) payload, rpc, ctx);
+    }
+
+    /**
+     * Rpc request, which is serialized by the encoder straight from its normalized input, without
+     * building an intermediate DOM document.
+     */
+    private static final class NormalizedRpcMessage extends StreamingNetconfMessage {
+        private static final String RPC_NAMESPACE = NetconfMessageTransformUtil.NETCONF_RPC_QNAME.getNamespace().toString();
+
+        private final QName rpcQName;
+        private final ContainerNode payload;
+        private final SchemaPath inputPath;
+        private final SchemaContext ctx;
+
+        NormalizedRpcMessage(final String messageId, final QName rpcQName, final ContainerNode payload,
+                             final SchemaPath inputPath, final SchemaContext ctx) {
+            super(messageId);
+            this.rpcQName = rpcQName;
+            this.payload = payload;
+            this.inputPath = inputPath;
+            this.ctx = ctx;
         }
 
-        final Document node = result.getNode().getOwnerDocument();
+        @Override
+        public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+            writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX,
+                    NetconfMessageTransformUtil.NETCONF_RPC_QNAME.getLocalName(), RPC_NAMESPACE);
+            writer.writeDefaultNamespace(RPC_NAMESPACE);
+            writer.writeAttribute(NetconfMessageTransformUtil.MESSAGE_ID_ATTR, getMessageId());
+
+            final String namespace = rpcQName.getNamespace().toString();
+            writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, rpcQName.getLocalName(), namespace);
+            if (!RPC_NAMESPACE.equals(namespace)) {
+                writer.writeDefaultNamespace(namespace);
+            }
+
+            try {
+                NetconfMessageTransformUtil.writeNormalizedRpc(payload, writer, inputPath, ctx);
+            } catch (final IOException | IllegalStateException e) {
+                throw new XMLStreamException("Unable to serialize " + inputPath, e);
+            }
 
-        return new NetconfMessage(node);
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
     }
 
     private boolean isBaseOrNotificationRpc(final QName rpc) {
@@ -178,20 +244,19 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         final NormalizedNode<?, ?> normalizedNode;
         final QName rpcQName = rpc.getLastComponent();
         if (NetconfMessageTransformUtil.isDataRetrievalOperation(rpcQName)) {
-            final Element xmlData = NetconfMessageTransformUtil.getDataSubtree(message.getDocument());
             final ContainerSchemaNode schemaForDataRead = NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
             final ContainerNode dataNode;
-
-            try {
-                dataNode = parserFactory.getContainerNodeParser().parse(Collections.singleton(xmlData), schemaForDataRead);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData), e);
+            if (strictParsing && message instanceof LazyNetconfMessage
+                    && !((LazyNetconfMessage) message).isDocumentMaterialized()) {
+                // Stream the data straight into normalized nodes, the DOM for the reply is never built
+                dataNode = parseDataStream((LazyNetconfMessage) message, schemaForDataRead);
+            } else {
+                dataNode = parseDataDocument(message, schemaForDataRead);
             }
 
             normalizedNode = Builders.containerBuilder().withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_QNAME))
                     .withChild(dataNode).build();
         } else {
-
             Map<QName, RpcDefinition> currentMappedRpcs = mappedRpcs;
 
             // Determine whether a base netconf operation is being invoked and also check if the device exposed model for base netconf
@@ -223,6 +288,38 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         return new DefaultDOMRpcResult(normalizedNode);
     }
 
+    private ContainerNode parseDataDocument(final NetconfMessage message, final ContainerSchemaNode schemaForDataRead) {
+        final Element xmlData = NetconfMessageTransformUtil.getDataSubtree(message.getDocument());
+        try {
+            return parserFactory.getContainerNodeParser().parse(Collections.singleton(xmlData), schemaForDataRead);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData), e);
+        }
+    }
+
+    private ContainerNode parseDataStream(final LazyNetconfMessage message, final ContainerSchemaNode schemaForDataRead) {
+        final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
+
+        try {
+            final XMLStreamReader reader = message.createXMLStreamReader();
+            try {
+                // Position the reader at rpc-reply, the parser continues with its data child
+                reader.nextTag();
+                XmlParserStream.create(writer, schemaContext, schemaForDataRead).parse(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException | SAXException
+                | IllegalArgumentException | IllegalStateException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse data response %s", message), e);
+        }
+
+        final NormalizedNode<?, ?> result = resultHolder.getResult();
+        Preconditions.checkArgument(result instanceof ContainerNode, "Unexpected data response %s", message);
+        return (ContainerNode) result;
+    }
+
     static class NetconfDeviceNotification implements DOMNotification, DOMEvent {
         private final ContainerNode content;
         private final SchemaPath schemaPath;
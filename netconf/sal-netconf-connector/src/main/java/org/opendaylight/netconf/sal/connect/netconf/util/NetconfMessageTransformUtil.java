@@ -29,8 +29,10 @@ import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
 import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
 import org.opendaylight.netconf.util.NetconfUtil;
@@ -51,6 +53,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.ForwardingNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
@@ -185,8 +188,8 @@ public class NetconfMessageTransformUtil {
 
     public static void checkValidReply(final NetconfMessage input, final NetconfMessage output)
             throws NetconfDocumentedException {
-        final String inputMsgId = input.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
-        final String outputMsgId = output.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
+        final String inputMsgId = getMessageId(input);
+        final String outputMsgId = getMessageId(output);
 
         if(inputMsgId.equals(outputMsgId) == false) {
             final Map<String,String> errorInfo = ImmutableMap.<String,String>builder()
@@ -201,6 +204,23 @@ public class NetconfMessageTransformUtil {
         }
     }
 
+    /**
+     * Get the message-id attribute of a message, avoiding DOM materialization of lazily decoded messages.
+     *
+     * @param message message to inspect
+     * @return message-id or an empty string if not present
+     */
+    public static String getMessageId(final NetconfMessage message) {
+        if (message instanceof LazyNetconfMessage) {
+            return ((LazyNetconfMessage) message).getMessageId();
+        }
+        if (message instanceof StreamingNetconfMessage) {
+            return ((StreamingNetconfMessage) message).getMessageId();
+        }
+        final Element root = message.getDocument().getDocumentElement();
+        return root == null ? "" : root.getAttribute(MESSAGE_ID_ATTR);
+    }
+
     public static void checkSuccessReply(final NetconfMessage output) throws NetconfDocumentedException {
         if(NetconfMessageUtil.isErrorMessage(output)) {
             throw NetconfDocumentedException.fromXMLDocument(output.getDocument());
@@ -295,13 +315,12 @@ public class NetconfMessageTransformUtil {
             configContent = ImmutableNodes.fromInstanceId(ctx, dataPath, lastChildOverride, Optional.fromNullable(modifyOperation));
         }
 
-        final Element element = XmlUtil.createElement(BLANK_DOCUMENT, NETCONF_CONFIG_QNAME.getLocalName(), Optional.of(NETCONF_CONFIG_QNAME.getNamespace().toString()));
-        try {
-            NetconfUtil.writeNormalizedNode(configContent, new DOMResult(element), SchemaPath.ROOT, ctx);
-        } catch (IOException | XMLStreamException e) {
-            throw new IllegalStateException("Unable to serialize edit config content element for path " + dataPath, e);
-        }
-        final DOMSource value = new DOMSource(element);
+        return createEditConfigAnyxml(ctx, configContent);
+    }
+
+    private static AnyXmlNode createEditConfigAnyxml(final SchemaContext ctx, final NormalizedNode<?, ?> configContent) {
+        // DOM of the config element is only built when requested, streaming encoders write the content directly
+        final DOMSource value = new NormalizedNodeDOMSource(NETCONF_CONFIG_QNAME, configContent, ctx);
 
         return Builders.anyXmlBuilder().withNodeIdentifier(toId(NETCONF_CONFIG_QNAME)).withValue(value).build();
     }
@@ -312,6 +331,17 @@ public class NetconfMessageTransformUtil {
                 .withChild(createEditConfigAnyxml(ctx, dataPath, operation, lastChildOverride)).build();
     }
 
+    /**
+     * Create edit-config structure with already built config content.
+     *
+     * @param configContent top level data node or datastore root container holding multiple top level nodes
+     */
+    public static DataContainerChild<?, ?> createEditConfigStructure(final SchemaContext ctx,
+                                                                     final NormalizedNode<?, ?> configContent) {
+        return Builders.choiceBuilder().withNodeIdentifier(toId(EditContent.QNAME))
+                .withChild(createEditConfigAnyxml(ctx, configContent)).build();
+    }
+
     public static SchemaPath toPath(final QName rpc) {
         return SchemaPath.create(true, rpc);
     }
@@ -406,4 +436,39 @@ public class NetconfMessageTransformUtil {
             }
         }
     }
+
+    /**
+     * Write normalized rpc input directly into a stream writer, e.g. one backed by the outbound buffer. Anyxml
+     * values created by {@link #createEditConfigAnyxml} are written without building their DOM. The writer is
+     * flushed, but not closed.
+     */
+    public static void writeNormalizedRpc(final ContainerNode normalized, final XMLStreamWriter writer,
+                                          final SchemaPath schemaPath, final SchemaContext baseNetconfCtx) throws IOException, XMLStreamException {
+        final NormalizedNodeStreamWriter xmlStreamWriter =
+                XMLStreamNormalizedNodeStreamWriter.create(writer, baseNetconfCtx, schemaPath);
+        final NormalizedNodeStreamWriter normalizedNodeStreamWriter = new ForwardingNormalizedNodeStreamWriter() {
+            @Override
+            protected NormalizedNodeStreamWriter delegate() {
+                return xmlStreamWriter;
+            }
+
+            @Override
+            public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+                if (value instanceof NormalizedNodeDOMSource) {
+                    try {
+                        ((NormalizedNodeDOMSource) value).writeTo(writer);
+                    } catch (final XMLStreamException e) {
+                        throw new IOException("Unable to write anyxml " + name, e);
+                    }
+                } else {
+                    super.anyxmlNode(name, value);
+                }
+            }
+        };
+
+        final SchemaOrderedNormalizedNodeWriter normalizedNodeWriter =
+                new SchemaOrderedNormalizedNodeWriter(normalizedNodeStreamWriter, baseNetconfCtx, schemaPath);
+        normalizedNodeWriter.write(normalized.getValue());
+        normalizedNodeWriter.flush();
+    }
 }
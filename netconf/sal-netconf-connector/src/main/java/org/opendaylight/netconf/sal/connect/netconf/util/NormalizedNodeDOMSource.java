@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.util;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.util.NetconfUtil;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Anyxml value wrapping normalized data under a single element, e.g. the config element of edit-config.
+ * The DOM representation is built on first access to {@link #getNode()}. Serializers aware of this class
+ * write the normalized data directly using {@link #writeTo(XMLStreamWriter)}. If the content is the datastore root
+ * container, its children are placed directly under the wrapper element.
+ */
+public final class NormalizedNodeDOMSource extends DOMSource {
+    private final QName wrapperName;
+    private final NormalizedNode<?, ?> content;
+    private final SchemaContext schemaContext;
+
+    private volatile Element element;
+
+    public NormalizedNodeDOMSource(final QName wrapperName, final NormalizedNode<?, ?> content,
+                                   final SchemaContext schemaContext) {
+        this.wrapperName = Preconditions.checkNotNull(wrapperName);
+        this.content = Preconditions.checkNotNull(content);
+        this.schemaContext = Preconditions.checkNotNull(schemaContext);
+    }
+
+    public QName getWrapperName() {
+        return wrapperName;
+    }
+
+    public NormalizedNode<?, ?> getContent() {
+        return content;
+    }
+
+    public SchemaContext getSchemaContext() {
+        return schemaContext;
+    }
+
+    private Collection<? extends NormalizedNode<?, ?>> getTopLevelNodes() {
+        if (content instanceof ContainerNode && SchemaContext.NAME.equals(content.getNodeType())) {
+            return ((ContainerNode) content).getValue();
+        }
+        return Collections.singleton(content);
+    }
+
+    @Override
+    public Node getNode() {
+        Element ret = element;
+        if (ret == null) {
+            synchronized (this) {
+                ret = element;
+                if (ret == null) {
+                    ret = XmlUtil.createElement(XmlUtil.newDocument(), wrapperName.getLocalName(),
+                            Optional.of(wrapperName.getNamespace().toString()));
+                    try {
+                        for (final NormalizedNode<?, ?> node : getTopLevelNodes()) {
+                            NetconfUtil.writeNormalizedNode(node, new DOMResult(ret), SchemaPath.ROOT, schemaContext);
+                        }
+                    } catch (IOException | XMLStreamException e) {
+                        throw new IllegalStateException("Unable to serialize content of " + wrapperName, e);
+                    }
+                    element = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public void setNode(final Node node) {
+        throw new UnsupportedOperationException("Node is derived from normalized content");
+    }
+
+    /**
+     * Write the wrapper element and the normalized content into the supplied writer. The writer is not closed.
+     *
+     * @param writer non-repairing writer
+     * @throws XMLStreamException if the content cannot be written
+     */
+    public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+        final String namespace = wrapperName.getNamespace().toString();
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, wrapperName.getLocalName(), namespace);
+        writer.writeDefaultNamespace(namespace);
+
+        final NormalizedNodeWriter normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(writer, schemaContext, SchemaPath.ROOT));
+        try {
+            for (final NormalizedNode<?, ?> node : getTopLevelNodes()) {
+                normalizedNodeWriter.write(node);
+            }
+            normalizedNodeWriter.flush();
+        } catch (IOException e) {
+            throw new XMLStreamException("Unable to serialize content of " + wrapperName, e);
+        }
+
+        writer.writeEndElement();
+    }
+}
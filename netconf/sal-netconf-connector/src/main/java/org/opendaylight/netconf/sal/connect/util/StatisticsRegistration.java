@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registration of per-device statistics MXBean in the platform MBean server. The bean is registered under
+ * org.opendaylight.netconf:type=&lt;type&gt;,name=&lt;device name&gt;, replacing a bean left over from a previous
+ * connection of the same device. Closing a registration which was replaced this way leaves the newer bean
+ * registered.
+ */
+public final class StatisticsRegistration implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(StatisticsRegistration.class);
+    private static final String DOMAIN = "org.opendaylight.netconf";
+
+    // Current registration of each name, guarded by the class monitor together with the MBean server updates
+    @GuardedBy("StatisticsRegistration.class")
+    private static final Map<ObjectName, StatisticsRegistration> REGISTRATIONS = new HashMap<>();
+
+    private final ObjectName name;
+
+    private StatisticsRegistration(final ObjectName name) {
+        this.name = name;
+    }
+
+    /**
+     * @return registration or null if the bean could not be registered
+     */
+    public static synchronized StatisticsRegistration register(final RemoteDeviceId id, final String type,
+            final Object mxBean) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(id.getName()));
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            REGISTRATIONS.remove(name);
+            server.registerMBean(mxBean, name);
+            final StatisticsRegistration registration = new StatisticsRegistration(name);
+            REGISTRATIONS.put(name, registration);
+            return registration;
+        } catch (final JMException e) {
+            LOG.warn("{}: Unable to register {} statistics", id, type, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (StatisticsRegistration.class) {
+            if (REGISTRATIONS.get(name) != this) {
+                LOG.debug("Statistics {} were registered again meanwhile, keeping them", name);
+                return;
+            }
+            REGISTRATIONS.remove(name);
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (final JMException e) {
+                LOG.debug("Unable to unregister statistics {}", name, e);
+            }
+        }
+    }
+}
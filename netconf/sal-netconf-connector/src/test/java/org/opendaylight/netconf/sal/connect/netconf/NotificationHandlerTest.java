@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.InetSocketAddress;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
+import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfConfigChange;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+public class NotificationHandlerTest {
+
+    private RemoteDeviceHandler<?> salFacade;
+    private MessageTransformer<NetconfMessage> transformer;
+    private NotificationHandler handler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        salFacade = mock(RemoteDeviceHandler.class);
+        transformer = mock(MessageTransformer.class);
+        handler = new NotificationHandler(salFacade,
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 17830)));
+        handler.onRemoteSchemaUp(transformer);
+    }
+
+    @Test
+    public void testConfigChangeOfOtherRevision() {
+        final QName configChange = QName.create(NetconfConfigChange.QNAME.getNamespace().toString(), "2016-06-21",
+                NetconfConfigChange.QNAME.getLocalName());
+        handler.handleNotification(notification(SchemaPath.create(true, configChange)));
+
+        verify(salFacade).onDeviceConfigurationChanged();
+        verify(salFacade).onNotification(any(DOMNotification.class));
+    }
+
+    @Test
+    public void testOtherNotification() {
+        final QName other = QName.create(NetconfConfigChange.QNAME, "netconf-session-start");
+        handler.handleNotification(notification(SchemaPath.create(true, other)));
+        // Nested element of the same name is not a config change notification
+        handler.handleNotification(notification(SchemaPath.create(true, other, NetconfConfigChange.QNAME)));
+
+        verify(salFacade, never()).onDeviceConfigurationChanged();
+        verify(salFacade, times(2)).onNotification(any(DOMNotification.class));
+    }
+
+    private DOMNotification notification(final SchemaPath type) {
+        final NetconfMessage message = mock(NetconfMessage.class);
+        final DOMNotification notification = mock(DOMNotification.class);
+        doReturn(type).when(notification).getType();
+        doReturn(notification).when(transformer).toNotification(message);
+        return notification;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+
+public class SharedSchemaContextCacheTest {
+
+    private static final SourceIdentifier SOURCE1 = RevisionSourceIdentifier.create("module1", "2016-01-01");
+    private static final SourceIdentifier SOURCE2 = RevisionSourceIdentifier.create("module2", "2016-01-01");
+
+    private SharedSchemaContextCache cache;
+    private SchemaContextFactory factory;
+    private SchemaContext schemaContext;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new SharedSchemaContextCache();
+        schemaContext = NetconfToNotificationTest.getNotificationSchemaContext(getClass(), false);
+        factory = mock(SchemaContextFactory.class);
+        doReturn(Futures.immediateCheckedFuture(schemaContext))
+                .when(factory).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+    }
+
+    @Test
+    public void testSameSourcesShared() throws Exception {
+        final SharedSchemaContextCache.Lease lease1 = cache.acquire(factory, Lists.newArrayList(SOURCE1, SOURCE2));
+        // Order in which the device advertised its sources does not matter
+        final SharedSchemaContextCache.Lease lease2 = cache.acquire(factory, Lists.newArrayList(SOURCE2, SOURCE1));
+
+        verify(factory, times(1)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        assertSame(lease1.getSchemaContext(), lease2.getSchemaContext());
+        assertEquals(1, cache.size());
+        assertNotSame(lease1.newTransformer(BaseSchema.BASE_NETCONF_CTX),
+                lease2.newTransformer(BaseSchema.BASE_NETCONF_CTX));
+
+        cache.acquire(factory, Lists.newArrayList(SOURCE1));
+        verify(factory, times(2)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictedWithLastLease() throws Exception {
+        final SharedSchemaContextCache.Lease lease1 = cache.acquire(factory, Lists.newArrayList(SOURCE1));
+        final SharedSchemaContextCache.Lease lease2 = cache.acquire(factory, Lists.newArrayList(SOURCE1));
+
+        lease1.close();
+        // Repeated close does not release other lease
+        lease1.close();
+        assertEquals(1, cache.size());
+        lease2.close();
+        assertEquals(0, cache.size());
+
+        cache.acquire(factory, Lists.newArrayList(SOURCE1));
+        verify(factory, times(2)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        final SchemaResolutionException failure = new SchemaResolutionException("failed");
+        doReturn(Futures.immediateFailedCheckedFuture(failure))
+                .when(factory).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        try {
+            cache.acquire(factory, Lists.newArrayList(SOURCE1));
+            fail("Schema resolution should fail");
+        } catch (final SchemaResolutionException e) {
+            assertSame(failure, e);
+        }
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.netconf.listener.AdaptiveRequestWindow.Admission;
+
+public class AdaptiveRequestWindowTest {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testQueueingOverWindow() throws Exception {
+        final AdaptiveRequestWindow<String> window = new AdaptiveRequestWindow<>(2, 16);
+
+        assertEquals(Admission.ADMITTED, window.tryAdmit("a"));
+        assertEquals(Admission.ADMITTED, window.tryAdmit("b"));
+        assertEquals(Admission.QUEUED, window.tryAdmit("c"));
+        assertEquals(2, window.getInFlightRequests());
+        assertEquals(1, window.getQueueDepth());
+
+        assertEquals(Collections.singletonList("c"), window.release("a", LATENCY, false));
+        assertEquals(2, window.getInFlightRequests());
+        assertEquals(0, window.getQueueDepth());
+    }
+
+    @Test
+    public void testQueueLimit() throws Exception {
+        final AdaptiveRequestWindow<String> window = new AdaptiveRequestWindow<>(1, 1);
+
+        assertEquals(Admission.ADMITTED, window.tryAdmit("a"));
+        assertEquals(Admission.QUEUED, window.tryAdmit("b"));
+        assertEquals(Admission.REJECTED, window.tryAdmit("c"));
+        assertEquals(1, window.getQueueDepth());
+    }
+
+    @Test
+    public void testDecreaseOnDeviceError() throws Exception {
+        final AdaptiveRequestWindow<String> window = new AdaptiveRequestWindow<>(8, 16);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(Admission.ADMITTED, window.tryAdmit("request" + i));
+        }
+
+        window.release("request0", LATENCY, true);
+        assertEquals(4, window.getWindowSize());
+        assertEquals(1, window.getWindowDecreaseCount());
+
+        // Further errors within the same round trip do not shrink the window again
+        window.release("request1", LATENCY, true);
+        assertEquals(4, window.getWindowSize());
+
+        // Remaining requests are above the window, queued ones are not admitted
+        assertEquals(Admission.QUEUED, window.tryAdmit("queued"));
+        assertTrue(window.release("request2", LATENCY, false).isEmpty());
+    }
+
+    @Test
+    public void testAdditiveIncrease() throws Exception {
+        final AdaptiveRequestWindow<String> window = new AdaptiveRequestWindow<>(4, 16);
+        window.tryAdmit("a");
+        window.release("a", LATENCY, true);
+        assertEquals(2, window.getWindowSize());
+
+        for (int i = 0; i < 10; i++) {
+            final String request = "request" + i;
+            window.tryAdmit(request);
+            window.release(request, LATENCY, false);
+        }
+        assertEquals(4, window.getWindowSize());
+    }
+
+    @Test
+    public void testDecreaseOnLatencyIncrease() throws Exception {
+        final AdaptiveRequestWindow<String> window = new AdaptiveRequestWindow<>(16, 16);
+        for (int i = 0; i < 100; i++) {
+            final String request = "request" + i;
+            window.tryAdmit(request);
+            window.release(request, LATENCY, false);
+        }
+        assertEquals(16, window.getWindowSize());
+
+        window.tryAdmit("slow");
+        window.release("slow", LATENCY * 100, false);
+        assertTrue(window.getWindowSize() < 16);
+        assertEquals(1, window.getWindowDecreaseCount());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        final AdaptiveRequestWindow<String> window = new AdaptiveRequestWindow<>(1, 16);
+        window.tryAdmit("a");
+        window.tryAdmit("b");
+
+        assertEquals(Collections.singletonList("b"), window.reset());
+        assertEquals(0, window.getInFlightRequests());
+        assertEquals(0, window.getQueueDepth());
+
+        // Slot of a request admitted after reset is not freed by a late reply to the old one
+        assertEquals(Admission.ADMITTED, window.tryAdmit("c"));
+        assertEquals(Admission.QUEUED, window.tryAdmit("d"));
+        assertTrue(window.release("a", LATENCY, true).isEmpty());
+        assertEquals(1, window.getInFlightRequests());
+        assertEquals(1, window.getWindowSize());
+        assertEquals(0, window.getWindowDecreaseCount());
+    }
+}
@@ -12,9 +12,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -22,10 +24,10 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.netconf.api.xml.XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0;
 import com.google.common.base.CharMatcher;
-import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.netty.channel.ChannelFuture;
@@ -39,9 +41,12 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 import java.io.ByteArrayInputStream;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -416,19 +421,54 @@ public class NetconfDeviceCommunicatorTest {
         String messageID = UUID.randomUUID().toString();
         ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest( messageID, true );
 
+        // Unsolicited reply is dropped without affecting the outstanding request
         communicator.onMessage( mockSession, createSuccessResponseMessage( UUID.randomUUID().toString() ) );
+        assertFalse( "Request completed by unrelated reply", resultFuture.isDone() );
 
-        RpcError rpcError = verifyErrorRpcResult( resultFuture.get(), RpcError.ErrorType.PROTOCOL,
-                                                  "bad-attribute" );
-        assertEquals( "RpcError message non-empty", true,
-                      !Strings.isNullOrEmpty( rpcError.getMessage() ) );
+        communicator.onMessage( mockSession, createSuccessResponseMessage( messageID ) );
+        verifyResponseMessage( resultFuture.get(), messageID );
+    }
 
-        String errorInfo = rpcError.getInfo();
-        assertNotNull( "RpcError info is null", errorInfo );
-        assertEquals( "Error info contains \"actual-message-id\"", true,
-                      errorInfo.contains( "actual-message-id" ) );
-        assertEquals( "Error info contains \"expected-message-id\"", true,
-                      errorInfo.contains( "expected-message-id" ) );
+    @Test
+    public void testOnOutOfOrderResponseMessages() throws Exception {
+        setupSession();
+
+        String messageID1 = UUID.randomUUID().toString();
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest( messageID1, true );
+
+        String messageID2 = UUID.randomUUID().toString();
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest( messageID2, true );
+
+        communicator.onMessage( mockSession, createSuccessResponseMessage( messageID2 ) );
+        assertFalse( "Request completed by out of order reply", resultFuture1.isDone() );
+        verifyResponseMessage( resultFuture2.get(), messageID2 );
+
+        communicator.onMessage( mockSession, createSuccessResponseMessage( messageID1 ) );
+        verifyResponseMessage( resultFuture1.get(), messageID1 );
+    }
+
+    @Test
+    public void testOnResponseMessageWithoutMessageID() throws Exception {
+        setupSession();
+
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+
+        // Reply without message-id is unambiguous with single outstanding request
+        communicator.onMessage( mockSession, createErrorResponseMessage( "" ) );
+
+        verifyErrorRpcResult( resultFuture.get(), RpcError.ErrorType.RPC, "missing-attribute" );
+    }
+
+    @Test
+    public void testSendRequestWithDuplicateMessageID() throws Exception {
+        setupSession();
+
+        String messageID = UUID.randomUUID().toString();
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest( messageID, true );
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest( messageID, true );
+
+        verifyErrorRpcResult( resultFuture2.get(), RpcError.ErrorType.PROTOCOL, "operation-failed" );
+        assertFalse( "Pending request affected by duplicate", resultFuture1.isDone() );
     }
 
     @Test
@@ -441,15 +481,121 @@ public class NetconfDeviceCommunicatorTest {
             ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(messageID.get(i), false);
             assertEquals("ListenableFuture is null", true, resultFuture instanceof UncancellableFuture);
         }
+        verify(mockSession, times(10)).sendMessage(any(NetconfMessage.class));
+        assertEquals(10, communicator.getRequestWindow().getInFlightRequests());
 
-        final String notWorkingMessageID = UUID.randomUUID().toString();
-        ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(notWorkingMessageID, false);
-        assertEquals("ListenableFuture is null", false, resultFuture instanceof UncancellableFuture);
+        // Request over the limit is queued instead of being rejected
+        final String queuedMessageID = UUID.randomUUID().toString();
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(queuedMessageID, false);
+        assertFalse("Queued request is done", resultFuture.isDone());
+        verify(mockSession, times(10)).sendMessage(any(NetconfMessage.class));
+        assertEquals(1, communicator.getRequestWindow().getQueueDepth());
 
         communicator.onMessage(mockSession, createSuccessResponseMessage(messageID.get(0)));
+        verify(mockSession, times(11)).sendMessage(any(NetconfMessage.class));
+        assertEquals(0, communicator.getRequestWindow().getQueueDepth());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(queuedMessageID));
+        verifyResponseMessage(resultFuture.get(), queuedMessageID);
+    }
+
+    @Test
+    public void testQueuedRequestsFailedOnSessionDown() throws Exception {
+        setupSession();
+
+        for (int i = 0; i < 10; i++) {
+            sendRequest();
+        }
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+        assertFalse("Queued request is done", resultFuture.isDone());
+
+        communicator.onSessionDown(mockSession, new Exception("mock ex"));
+
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+        assertEquals(0, communicator.getRequestWindow().getQueueDepth());
+        assertEquals(0, communicator.getRequestWindow().getInFlightRequests());
+    }
+
+    @Test
+    public void testRequestsHeldWhileNotWritable() throws Exception {
+        setupSession();
+        communicator.onSessionWritabilityChanged(mockSession, false);
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+        sendRequest();
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
+        assertFalse("Held request is done", resultFuture.isDone());
+
+        communicator.onSessionWritabilityChanged(mockSession, true);
+        verify(mockSession, times(2)).sendMessage(any(NetconfMessage.class));
+
+        sendRequest();
+        verify(mockSession, times(3)).sendMessage(any(NetconfMessage.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestDoesNotOvertakeDrainedRequest() throws Exception {
+        setupSession();
+        final CountDownLatch drainStarted = new CountDownLatch(1);
+        final CountDownLatch releaseDrain = new CountDownLatch(1);
+        final List<String> written = Collections.synchronizedList(new ArrayList<>());
+        final ChannelFuture mockChannelFuture = mock(ChannelFuture.class);
+        doReturn(mockChannelFuture).when(mockChannelFuture).addListener(any(GenericFutureListener.class));
+        doAnswer(invocation -> {
+            final String messageId = ((NetconfMessage) invocation.getArguments()[0]).getDocument()
+                    .getDocumentElement().getAttribute("message-id");
+            if ("held".equals(messageId)) {
+                // The last held request is being written, the queue of held requests is empty now
+                drainStarted.countDown();
+                releaseDrain.await();
+            }
+            written.add(messageId);
+            return mockChannelFuture;
+        }).when(mockSession).sendMessage(any(NetconfMessage.class));
+
+        communicator.onSessionWritabilityChanged(mockSession, false);
+        communicator.sendRequest(createRequestMessage("held"), QName.create("mock rpc"));
+
+        final Thread drain = new Thread(() -> communicator.onSessionWritabilityChanged(mockSession, true));
+        drain.start();
+        assertTrue(drainStarted.await(5, TimeUnit.SECONDS));
+        final Thread next = new Thread(() ->
+                communicator.sendRequest(createRequestMessage("next"), QName.create("mock rpc")));
+        next.start();
+        // The request has to wait until the held request is written
+        while (next.getState() != Thread.State.BLOCKED && next.isAlive()) {
+            Thread.yield();
+        }
+        releaseDrain.countDown();
+        drain.join(5000);
+        next.join(5000);
+
+        assertEquals(Arrays.asList("held", "next"), written);
+    }
+
+    private static NetconfMessage createRequestMessage(final String messageId) {
+        try {
+            final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            final Element element = doc.createElement("request");
+            element.setAttribute("message-id", messageId);
+            doc.appendChild(element);
+            return new NetconfMessage(doc);
+        } catch (final ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testHeldRequestsFailedOnSessionDown() throws Exception {
+        setupSession();
+        communicator.onSessionWritabilityChanged(mockSession, false);
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+
+        communicator.onSessionDown(mockSession, new Exception("mock ex"));
 
-        resultFuture = sendRequest(messageID.get(0), false);
-        assertNotNull("ListenableFuture is null", resultFuture);
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
     }
 
     private static NetconfMessage createErrorResponseMessage( final String messageID ) throws Exception {
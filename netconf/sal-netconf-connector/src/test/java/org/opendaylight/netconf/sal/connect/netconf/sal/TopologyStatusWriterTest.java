@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus.ConnectionStatus;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class TopologyStatusWriterTest {
+
+    private static final InstanceIdentifier<Node> NODE1 = nodePath("node1");
+    private static final InstanceIdentifier<Node> NODE2 = nodePath("node2");
+    private static final InstanceIdentifier<Node> NODE3 = nodePath("node3");
+
+    @Mock
+    private DataBroker dataBroker;
+    @Mock
+    private BindingTransactionChain txChain;
+    @Mock
+    private WriteTransaction writeTx;
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private TopologyStatusWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        doReturn(txChain).when(dataBroker).createTransactionChain(any(TransactionChainListener.class));
+        doReturn(writeTx).when(txChain).newWriteOnlyTransaction();
+        doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
+        doReturn("tx").when(writeTx).getIdentifier();
+        writer = new TopologyStatusWriter(dataBroker, scheduler, 100, 2);
+    }
+
+    @Test
+    public void testLatestStatusWritten() throws Exception {
+        final NetconfNode connecting = status(ConnectionStatus.Connecting);
+        final NetconfNode connected = status(ConnectionStatus.Connected);
+        final ListenableFuture<Void> first = writer.updateStatus(NODE1, connecting);
+        final ListenableFuture<Void> second = writer.updateStatus(NODE1, connected);
+        verify(scheduler).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+
+        writer.flush();
+
+        verify(txChain, times(1)).newWriteOnlyTransaction();
+        verify(writeTx).put(LogicalDatastoreType.OPERATIONAL, NODE1.augmentation(NetconfNode.class), connected, true);
+        verify(writeTx, never()).put(LogicalDatastoreType.OPERATIONAL, NODE1.augmentation(NetconfNode.class), connecting, true);
+        verify(writeTx, times(1)).submit();
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    public void testBatchSizeBound() throws Exception {
+        writer.updateStatus(NODE1, status(ConnectionStatus.Connected));
+        writer.updateStatus(NODE2, status(ConnectionStatus.Connected));
+        // Reaching batch size triggers immediate flush
+        verify(scheduler).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+        writer.updateStatus(NODE3, status(ConnectionStatus.Connected));
+
+        writer.flush();
+        verify(writeTx, times(2)).put(eq(LogicalDatastoreType.OPERATIONAL), any(InstanceIdentifier.class),
+                any(NetconfNode.class), eq(true));
+        assertEquals(1, writer.getPendingCount());
+
+        writer.flush();
+        verify(writeTx, times(2)).submit();
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    public void testRemoveDiscardsPendingUpdates() throws Exception {
+        writer.updateStatus(NODE1, status(ConnectionStatus.Connected));
+        writer.removeNode(NODE1);
+
+        writer.flush();
+        verify(writeTx).delete(LogicalDatastoreType.OPERATIONAL, NODE1);
+        verify(writeTx, never()).put(any(LogicalDatastoreType.class), any(InstanceIdentifier.class),
+                any(NetconfNode.class), anyBoolean());
+    }
+
+    @Test
+    public void testCloseFlushesPending() throws Exception {
+        writer.updateStatus(NODE1, status(ConnectionStatus.Connected));
+        writer.updateStatus(NODE2, status(ConnectionStatus.Connected));
+        writer.updateStatus(NODE3, status(ConnectionStatus.Connected));
+
+        writer.close();
+        verify(writeTx, times(2)).submit();
+        verify(txChain).close();
+    }
+
+    @Test
+    public void testUpdateAfterCloseIgnored() throws Exception {
+        writer.close();
+
+        final ListenableFuture<Void> update = writer.updateStatus(NODE1, status(ConnectionStatus.Connecting));
+        final ListenableFuture<Void> removal = writer.removeNode(NODE1);
+        assertTrue(update.isCancelled());
+        assertTrue(removal.isCancelled());
+        assertEquals(0, writer.getPendingCount());
+        verify(txChain, never()).newWriteOnlyTransaction();
+    }
+
+    @Test
+    public void testFailedUpdateRetried() throws Exception {
+        final NetconfNode connected = status(ConnectionStatus.Connected);
+        doReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("mock")))
+                .doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
+        final ListenableFuture<Void> future = writer.updateStatus(NODE1, connected);
+
+        writer.flush();
+        assertFalse(future.isDone());
+        assertEquals(1, writer.getPendingCount());
+
+        writer.flush();
+        verify(writeTx, times(2)).put(LogicalDatastoreType.OPERATIONAL, NODE1.augmentation(NetconfNode.class),
+                connected, true);
+        // Failed chain is replaced by a new one
+        verify(dataBroker, times(2)).createTransactionChain(any(TransactionChainListener.class));
+        assertTrue(future.isDone());
+        future.get();
+    }
+
+    @Test
+    public void testFailedUpdateMergedIntoNewer() throws Exception {
+        doReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("mock")))
+                .doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
+        final ListenableFuture<Void> removal = writer.removeNode(NODE1);
+        doAnswer(invocation -> {
+            // Newer update arrives while the removal is being written
+            writer.updateStatus(NODE1, status(ConnectionStatus.Connecting));
+            return null;
+        }).doNothing().when(writeTx).delete(LogicalDatastoreType.OPERATIONAL, NODE1);
+
+        writer.flush();
+        assertEquals(1, writer.getPendingCount());
+        writer.flush();
+
+        verify(writeTx, times(2)).delete(LogicalDatastoreType.OPERATIONAL, NODE1);
+        verify(writeTx).put(LogicalDatastoreType.OPERATIONAL, NODE1.augmentation(NetconfNode.class),
+                status(ConnectionStatus.Connecting), true);
+        assertTrue(removal.isDone());
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testFailedUpdateGivenUp() throws Exception {
+        doReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("mock")))
+                .when(writeTx).submit();
+        final ListenableFuture<Void> future = writer.updateStatus(NODE1, status(ConnectionStatus.Connected));
+
+        for (int i = 0; i < 3; i++) {
+            writer.flush();
+        }
+        assertEquals(0, writer.getPendingCount());
+        future.get();
+    }
+
+    private static NetconfNode status(final ConnectionStatus connectionStatus) {
+        return new NetconfNodeBuilder().setConnectionStatus(connectionStatus).build();
+    }
+
+    private static InstanceIdentifier<Node> nodePath(final String name) {
+        return new RemoteDeviceId(name, InetSocketAddress.createUnresolved("localhost", 830)).getTopologyBindingPath();
+    }
+}
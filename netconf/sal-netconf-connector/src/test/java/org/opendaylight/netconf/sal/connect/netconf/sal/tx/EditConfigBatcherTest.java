@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import java.net.InetSocketAddress;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class EditConfigBatcherTest {
+
+    private static final QName C = QName.create("test:namespace", "2013-07-22", "c");
+    private static final QName L = QName.create(C, "l");
+    private static final QName K = QName.create(C, "k");
+    private static final String NETCONF_NS = "urn:ietf:params:xml:ns:netconf:base:1.0";
+    private static final SchemaPath EDIT_CONFIG_PATH =
+            SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME);
+
+    @Mock
+    private DOMRpcService rpc;
+    private NetconfBaseOps netconfOps;
+    private RemoteDeviceId id;
+    private EditConfigBatcher batcher;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        final SchemaContext schemaContext = TxTestUtils.parseYangStreams(getClass().getResourceAsStream("/schemas/test-module.yang"));
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult())).when(rpc).invokeRpc(any(), any());
+        netconfOps = new NetconfBaseOps(rpc, schemaContext);
+        id = new RemoteDeviceId("device1", InetSocketAddress.createUnresolved("0.0.0.0", 17830));
+        batcher = new EditConfigBatcher();
+    }
+
+    @Test
+    public void testDisjointEditsMerged() throws Exception {
+        putEntry("1");
+        putEntry("2");
+        deleteEntry("3");
+        assertEquals(1, batcher.getBatchCount());
+
+        send();
+        final ArgumentCaptor<NormalizedNode> editCaptor = ArgumentCaptor.forClass(NormalizedNode.class);
+        verify(rpc).invokeRpc(eq(EDIT_CONFIG_PATH), editCaptor.capture());
+
+        final Element config = getConfigElement((ContainerNode) editCaptor.getValue());
+        assertEquals(1, config.getElementsByTagNameNS(C.getNamespace().toString(), "c").getLength());
+        final NodeList entries = config.getElementsByTagNameNS(C.getNamespace().toString(), "l");
+        assertEquals(3, entries.getLength());
+        assertEquals("replace", ((Element) entries.item(0)).getAttributeNS(NETCONF_NS, "operation"));
+        assertEquals("replace", ((Element) entries.item(1)).getAttributeNS(NETCONF_NS, "operation"));
+        assertEquals("delete", ((Element) entries.item(2)).getAttributeNS(NETCONF_NS, "operation"));
+    }
+
+    @Test
+    public void testOverlappingEditsNotMerged() throws Exception {
+        putEntry("1");
+        deleteEntry("1");
+        put(TxTestUtils.getContainerId(), TxTestUtils.getContainerNode());
+        putEntry("2");
+        assertEquals(4, batcher.getBatchCount());
+
+        send();
+        verify(rpc, times(4)).invokeRpc(eq(EDIT_CONFIG_PATH), any());
+    }
+
+    @Test
+    public void testDifferentDefaultOperationNotMerged() throws Exception {
+        putEntry("1");
+        final YangInstanceIdentifier path = entryId("2");
+        batcher.add(path, netconfOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>of(
+                ImmutableNodes.mapEntry(L, K, "2")), Optional.<ModifyAction>absent(), path),
+                Optional.<ModifyAction>absent());
+        putEntry("3");
+        assertEquals(3, batcher.getBatchCount());
+    }
+
+    private void send() {
+        batcher.send(netconfOps, NETCONF_RUNNING_QNAME, new NetconfRpcFutureCallback("Edit running", id), false);
+    }
+
+    private void putEntry(final String key) {
+        put(entryId(key), ImmutableNodes.mapEntry(L, K, key));
+    }
+
+    private void put(final YangInstanceIdentifier path, final NormalizedNode<?, ?> data) {
+        batcher.add(path, netconfOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>of(data),
+                Optional.of(ModifyAction.REPLACE), path), Optional.of(ModifyAction.NONE));
+    }
+
+    private void deleteEntry(final String key) {
+        final YangInstanceIdentifier path = entryId(key);
+        batcher.add(path, netconfOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>absent(),
+                Optional.of(ModifyAction.DELETE), path), Optional.of(ModifyAction.NONE));
+    }
+
+    private static YangInstanceIdentifier entryId(final String key) {
+        return YangInstanceIdentifier.builder().node(C).node(L).nodeWithKey(L, K, key).build();
+    }
+
+    private static Element getConfigElement(final ContainerNode editConfig) {
+        final ChoiceNode editContent = (ChoiceNode) editConfig.getChild(toId(EditContent.QNAME)).get();
+        final AnyXmlNode config = (AnyXmlNode) editContent.getChild(toId(NETCONF_CONFIG_QNAME)).get();
+        return (Element) config.getValue().getNode();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+public class OperationalReadCacheTest {
+
+    private static final YangInstanceIdentifier PATH = YangInstanceIdentifier.of(QName.create("ns", "2016-01-01", "a"));
+
+    private OperationalReadCache cache;
+    private AtomicInteger rpcCount;
+    private SettableFuture<Optional<NormalizedNode<?, ?>>> rpcFuture;
+    private Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> rpc;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new OperationalReadCache(60000, 100);
+        rpcCount = new AtomicInteger();
+        rpc = () -> {
+            rpcCount.incrementAndGet();
+            rpcFuture = SettableFuture.create();
+            return rpcFuture;
+        };
+    }
+
+    @Test
+    public void testReadCached() throws Exception {
+        cache.read(PATH, rpc);
+        final Optional<NormalizedNode<?, ?>> result = Optional.<NormalizedNode<?, ?>>of(mock(NormalizedNode.class));
+        rpcFuture.set(result);
+
+        assertSame(result.get(), cache.read(PATH, rpc).get().get());
+        assertEquals(1, rpcCount.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // Different path is not served from cache
+        cache.read(YangInstanceIdentifier.EMPTY, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+
+    @Test
+    public void testFailedReadNotCached() throws Exception {
+        cache.read(PATH, rpc);
+        rpcFuture.setException(new IllegalStateException("read failed"));
+
+        cache.read(PATH, rpc);
+        assertEquals(2, rpcCount.get());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testInvalidateOnWrite() throws Exception {
+        cache.read(PATH, rpc);
+        rpcFuture.set(Optional.<NormalizedNode<?, ?>>absent());
+        assertEquals(1, cache.getSize());
+
+        cache.onTransactionSuccessful(mock(AbstractWriteTx.class));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getInvalidationCount());
+
+        cache.read(PATH, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+
+    @Test
+    public void testReadOutstandingDuringInvalidationNotCached() throws Exception {
+        cache.read(PATH, rpc);
+        cache.invalidate();
+        rpcFuture.set(Optional.<NormalizedNode<?, ?>>absent());
+        assertEquals(0, cache.getSize());
+
+        cache.read(PATH, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        cache = new OperationalReadCache(1, 100);
+        cache.read(PATH, rpc);
+        rpcFuture.set(Optional.<NormalizedNode<?, ?>>absent());
+
+        Thread.sleep(10);
+        cache.read(PATH, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+
+    @Test
+    public void testSizeBound() throws Exception {
+        cache = new OperationalReadCache(60000, 1);
+        cache.read(PATH, rpc);
+        rpcFuture.set(Optional.<NormalizedNode<?, ?>>absent());
+        cache.read(YangInstanceIdentifier.EMPTY, rpc);
+        rpcFuture.set(Optional.<NormalizedNode<?, ?>>absent());
+
+        assertEquals(1, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+public class ReadCoalescerTest {
+
+    private static final YangInstanceIdentifier PATH = YangInstanceIdentifier.of(QName.create("ns", "2016-01-01", "a"));
+
+    private ReadCoalescer readCoalescer;
+    private AtomicInteger rpcCount;
+    private SettableFuture<Optional<NormalizedNode<?, ?>>> rpcFuture;
+    private Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> rpc;
+
+    @Before
+    public void setUp() throws Exception {
+        readCoalescer = new ReadCoalescer();
+        rpcCount = new AtomicInteger();
+        rpc = () -> {
+            rpcCount.incrementAndGet();
+            rpcFuture = SettableFuture.create();
+            return rpcFuture;
+        };
+    }
+
+    @Test
+    public void testConcurrentReadsShareRpc() throws Exception {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> read1 =
+                readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> read2 =
+                readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        assertEquals(1, rpcCount.get());
+
+        final Optional<NormalizedNode<?, ?>> result = Optional.<NormalizedNode<?, ?>>of(mock(NormalizedNode.class));
+        rpcFuture.set(result);
+        assertSame(result.get(), read1.get().get());
+        assertSame(result.get(), read2.get().get());
+
+        // Completed read is not shared anymore
+        readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+
+    @Test
+    public void testDifferentReadsNotShared() throws Exception {
+        readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        readCoalescer.read(LogicalDatastoreType.CONFIGURATION, PATH, rpc);
+        readCoalescer.read(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.EMPTY, rpc);
+        readCoalescer.read(LogicalDatastoreType.OPERATIONAL, null, rpc);
+        assertEquals(4, rpcCount.get());
+    }
+
+    @Test
+    public void testCancelDoesNotAffectOtherReaders() throws Exception {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> read1 =
+                readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> read2 =
+                readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+
+        read1.cancel(true);
+        assertFalse(read2.isDone());
+
+        rpcFuture.set(Optional.<NormalizedNode<?, ?>>absent());
+        assertFalse(read2.get().isPresent());
+    }
+
+    @Test
+    public void testFailureSharedAndNotRemembered() throws Exception {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> read1 =
+                readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> read2 =
+                readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+
+        rpcFuture.setException(new IllegalStateException("read failed"));
+        assertTrue(read1.isDone());
+        assertTrue(read2.isDone());
+
+        readCoalescer.read(LogicalDatastoreType.OPERATIONAL, PATH, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+
+    @Test
+    public void testInvalidateOnWrite() throws Exception {
+        readCoalescer.read(LogicalDatastoreType.CONFIGURATION, PATH, rpc);
+        readCoalescer.onTransactionSuccessful(mock(AbstractWriteTx.class));
+
+        // Read outstanding during the commit is not joined by reads issued after it
+        readCoalescer.read(LogicalDatastoreType.CONFIGURATION, PATH, rpc);
+        assertEquals(2, rpcCount.get());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+public class SchemaSourceDownloaderTest {
+
+    private static final SourceIdentifier MISSING = RevisionSourceIdentifier.create("missing", "2016-01-01");
+
+    private SchemaRepository repository;
+    private SchemaSourceRegistry registry;
+    private ExecutorService processingExecutor;
+    private ScheduledExecutorService deviceExecutor;
+    private AtomicInteger outstanding;
+    private AtomicInteger maxOutstanding;
+
+    @Before
+    public void setUp() throws Exception {
+        processingExecutor = Executors.newFixedThreadPool(2);
+        deviceExecutor = Executors.newScheduledThreadPool(8);
+        outstanding = new AtomicInteger();
+        maxOutstanding = new AtomicInteger();
+
+        repository = mock(SchemaRepository.class);
+        doAnswer(invocation -> {
+            final SourceIdentifier sourceId = (SourceIdentifier) invocation.getArguments()[0];
+            maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            final SettableFuture<YangTextSchemaSource> reply = SettableFuture.create();
+            deviceExecutor.schedule(() -> {
+                outstanding.decrementAndGet();
+                if (MISSING.equals(sourceId)) {
+                    reply.setException(new MissingSchemaSourceException("not found", sourceId));
+                } else {
+                    reply.set(mock(YangTextSchemaSource.class));
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            return Futures.makeChecked(reply, e -> new SchemaSourceException("download failed", e));
+        }).when(repository).getSchemaSource(any(SourceIdentifier.class), eq(YangTextSchemaSource.class));
+        doReturn(Futures.immediateCheckedFuture(mock(SchemaSourceRepresentation.class)))
+                .when(repository).getSchemaSource(any(SourceIdentifier.class), eq(ASTSchemaSource.class));
+
+        registry = mock(SchemaSourceRegistry.class);
+        doReturn(mock(SchemaSourceRegistration.class))
+                .when(registry).registerSchemaSource(any(SchemaSourceProvider.class), any(PotentialSchemaSource.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        processingExecutor.shutdownNow();
+        deviceExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentDownloadsLimited() throws Exception {
+        final List<SourceIdentifier> sources = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sources.add(RevisionSourceIdentifier.create("module" + i, "2016-01-01"));
+        }
+        final List<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> registrations = new ArrayList<>();
+
+        final Collection<SourceIdentifier> failed = newDownloader(3).downloadSources(sources, registrations).get();
+
+        assertTrue(failed.isEmpty());
+        assertTrue("Outstanding downloads: " + maxOutstanding.get(), maxOutstanding.get() <= 3);
+        // Text and AST registered for each source
+        assertEquals(40, registrations.size());
+    }
+
+    @Test
+    public void testFailedSourcesReturned() throws Exception {
+        final SourceIdentifier present = RevisionSourceIdentifier.create("present", "2016-01-01");
+        final List<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> registrations = new ArrayList<>();
+
+        final Collection<SourceIdentifier> failed =
+                newDownloader(2).downloadSources(Lists.newArrayList(present, MISSING), registrations).get();
+
+        assertEquals(Lists.newArrayList(MISSING), failed);
+        assertEquals(2, registrations.size());
+    }
+
+    @Test
+    public void testDownloadFromSingleProcessingThread() throws Exception {
+        processingExecutor.shutdownNow();
+        processingExecutor = Executors.newSingleThreadExecutor();
+        final List<SourceIdentifier> sources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sources.add(RevisionSourceIdentifier.create("module" + i, "2016-01-01"));
+        }
+        final SchemaSourceDownloader downloader = newDownloader(1);
+
+        // Downloads started from the only processing thread are parsed in it too
+        final Collection<SourceIdentifier> failed = processingExecutor.submit(
+            () -> downloader.downloadSources(sources, new ArrayList<>())).get().get(10, TimeUnit.SECONDS);
+        assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    public void testSlotReleasedWhenDownloadFailsToStart() throws Exception {
+        final SourceIdentifier broken = RevisionSourceIdentifier.create("broken", "2016-01-01");
+        doThrow(new IllegalStateException("repository closed"))
+                .when(repository).getSchemaSource(eq(broken), eq(YangTextSchemaSource.class));
+        final SourceIdentifier present = RevisionSourceIdentifier.create("present", "2016-01-01");
+
+        final Collection<SourceIdentifier> failed = newDownloader(1)
+                .downloadSources(Lists.newArrayList(broken, present), new ArrayList<>()).get(10, TimeUnit.SECONDS);
+        assertEquals(Lists.newArrayList(broken), failed);
+    }
+
+    private SchemaSourceDownloader newDownloader(final int limit) {
+        final RemoteDeviceId id = new RemoteDeviceId("device", InetSocketAddress.createUnresolved("localhost", 17830));
+        return new SchemaSourceDownloader(id, repository, registry,
+                MoreExecutors.listeningDecorator(processingExecutor), limit);
+    }
+}
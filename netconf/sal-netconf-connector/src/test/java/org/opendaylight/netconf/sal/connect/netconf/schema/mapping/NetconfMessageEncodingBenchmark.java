@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CANDIDATE_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.createEditConfigStructure;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.$YangModuleInfoImpl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.Yang;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Schemas;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.schemas.Schema;
+import org.opendaylight.yangtools.sal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares encoding of an edit-config request through DOM and the pretty printing transformer with
+ * streaming it from normalized nodes straight into the output buffer. Not executed as part of the build,
+ * run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NetconfMessageEncodingBenchmark {
+
+    private static final QName IDENTIFIER = QName.create(Schema.QNAME, "identifier").intern();
+    private static final QName VERSION = QName.create(Schema.QNAME, "version").intern();
+    private static final QName FORMAT = QName.create(Schema.QNAME, "format").intern();
+    private static final QName NAMESPACE = QName.create(Schema.QNAME, "namespace").intern();
+
+    @Param({"10", "1000", "10000"})
+    private int listSize;
+
+    private final NetconfMessageToXMLEncoder encoder = new NetconfMessageToXMLEncoder();
+    private NetconfMessageTransformer transformer;
+    private ContainerNode editConfig;
+    private ByteBuf buffer;
+
+    @Setup
+    public void setUp() {
+        final ModuleInfoBackedContext moduleInfoBackedContext = ModuleInfoBackedContext.create();
+        moduleInfoBackedContext.addModuleInfos(Collections.singleton(
+                org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.$YangModuleInfoImpl.getInstance()));
+        moduleInfoBackedContext.addModuleInfos(Collections.singleton($YangModuleInfoImpl.getInstance()));
+        final SchemaContext schemaContext = moduleInfoBackedContext.tryToCreateSchemaContext().get();
+        transformer = new NetconfMessageTransformer(schemaContext, true);
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> schemas = Builders.mapBuilder()
+                .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(Schema.QNAME));
+        for (int i = 0; i < listSize; i++) {
+            schemas.withChild(Builders.mapEntryBuilder()
+                    .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifierWithPredicates(Schema.QNAME,
+                            ImmutableMap.<QName, Object>of(IDENTIFIER, "module-" + i, VERSION, "2016-01-01", FORMAT, Yang.QNAME)))
+                    .withChild(ImmutableNodes.leafNode(IDENTIFIER, "module-" + i))
+                    .withChild(ImmutableNodes.leafNode(VERSION, "2016-01-01"))
+                    .withChild(ImmutableNodes.leafNode(FORMAT, Yang.QNAME))
+                    .withChild(ImmutableNodes.leafNode(NAMESPACE, "urn:opendaylight:benchmark:module-" + i))
+                    .build());
+        }
+
+        final YangInstanceIdentifier path = YangInstanceIdentifier.builder()
+                .node(NetconfState.QNAME).node(Schemas.QNAME).node(Schema.QNAME).build();
+        editConfig = NetconfMessageTransformUtil.wrap(NETCONF_EDIT_CONFIG_QNAME,
+                createEditConfigStructure(schemaContext, path, Optional.<ModifyAction>absent(),
+                        Optional.<NormalizedNode<?, ?>>of(schemas.build())),
+                NetconfBaseOps.getTargetNode(NETCONF_CANDIDATE_QNAME));
+        buffer = Unpooled.buffer();
+    }
+
+    @Benchmark
+    public ByteBuf domPrettyTransformer() throws Exception {
+        final NetconfMessage message = transformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME), editConfig);
+        buffer.clear();
+        // plain NetconfMessage takes the DOM and transformer path of the encoder
+        encoder.encode(null, new NetconfMessage(message.getDocument()), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuf streaming() throws Exception {
+        final NetconfMessage message = transformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME), editConfig);
+        buffer.clear();
+        encoder.encode(null, message, buffer);
+        return buffer;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(NetconfMessageEncodingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
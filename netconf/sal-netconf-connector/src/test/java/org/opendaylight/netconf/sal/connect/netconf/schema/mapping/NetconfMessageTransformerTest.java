@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -34,7 +35,10 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -47,7 +51,10 @@ import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
@@ -208,6 +215,35 @@ public class NetconfMessageTransformerTest {
         assertEquals(schemaNode, schemaParent.getValue().iterator().next());
     }
 
+    @Test
+    public void testGetConfigResponseLazy() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\"\n" +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n" +
+                "<data>\n" +
+                "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n" +
+                "<schemas>\n" +
+                "<schema>\n" +
+                "<identifier>module</identifier>\n" +
+                "<version>2012-12-12</version>\n" +
+                "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>\n" +
+                "</schema>\n" +
+                "</schemas>\n" +
+                "</netconf-state>\n" +
+                "</data>\n" +
+                "</rpc-reply>";
+
+        final NetconfMessageTransformer netconfMessageTransformer = getTransformer(getSchema(true));
+        final DOMRpcResult domResult = netconfMessageTransformer.toRpcResult(
+                new NetconfMessage(XmlUtil.readXmlToDocument(reply)), toPath(NETCONF_GET_CONFIG_QNAME));
+
+        final LazyNetconfMessage lazyResponse = LazyNetconfMessage.fromBytes(reply.getBytes(StandardCharsets.UTF_8));
+        final DOMRpcResult lazyResult = netconfMessageTransformer.toRpcResult(lazyResponse,
+                toPath(NETCONF_GET_CONFIG_QNAME));
+
+        assertFalse(lazyResponse.isDocumentMaterialized());
+        assertEquals(domResult.getResult(), lazyResult.getResult());
+    }
+
     @Test
     public void testGetConfigRequest() throws Exception {
         final DataContainerChild<?, ?> filter = toFilterStructure(
@@ -234,6 +270,28 @@ public class NetconfMessageTransformerTest {
 
     @Test
     public void testEditConfigRequest() throws Exception {
+        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME),
+                createEditConfigPayload());
+
+        assertSimilarXml(netconfMessage, EDIT_CONFIG_REQUEST);
+    }
+
+    @Test
+    public void testEditConfigRequestEncoding() throws Exception {
+        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME),
+                createEditConfigPayload());
+        assertTrue(netconfMessage instanceof StreamingNetconfMessage);
+
+        final ByteBuf destination = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, netconfMessage, destination);
+        final String encoded = destination.toString(StandardCharsets.UTF_8);
+
+        // Streamed straight from normalized nodes, without any indentation
+        assertFalse(encoded, encoded.contains("\n"));
+        assertSimilarXml(new NetconfMessage(XmlUtil.readXmlToDocument(encoded)), EDIT_CONFIG_REQUEST);
+    }
+
+    private static ContainerNode createEditConfigPayload() {
         final List<DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?>> values = Lists.newArrayList(
             NetconfRemoteSchemaYangSourceProvider.createGetSchemaRequest("module", Optional.of("2012-12-12")).getValue());
 
@@ -250,10 +308,10 @@ public class NetconfMessageTransformerTest {
 
         final DataContainerChild<?, ?> target = NetconfBaseOps.getTargetNode(NETCONF_CANDIDATE_QNAME);
 
-        final ContainerNode wrap = NetconfMessageTransformUtil.wrap(NETCONF_EDIT_CONFIG_QNAME, editConfigStructure, target);
-        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME), wrap);
+        return NetconfMessageTransformUtil.wrap(NETCONF_EDIT_CONFIG_QNAME, editConfigStructure, target);
+    }
 
-        assertSimilarXml(netconfMessage, "<rpc message-id=\"m-0\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n" +
+    private static final String EDIT_CONFIG_REQUEST = "<rpc message-id=\"m-0\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n" +
                 "<edit-config>\n" +
                 "<target>\n" +
                 "<candidate/>\n" +
@@ -270,8 +328,7 @@ public class NetconfMessageTransformerTest {
                 "</netconf-state>\n" +
                 "</config>\n" +
                 "</edit-config>\n" +
-                "</rpc>");
-    }
+                "</rpc>";
 
     private void assertSimilarXml(final NetconfMessage netconfMessage, final String xmlContent) throws SAXException, IOException {
         final Diff diff = XMLUnit.compareXML(netconfMessage.getDocument(), XmlUtil.readXmlToDocument(xmlContent));
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.OperationalReadCache;
+
+public class StatisticsRegistrationTest {
+
+    private static final RemoteDeviceId ID =
+            new RemoteDeviceId("registration-test", InetSocketAddress.createUnresolved("localhost", 17830));
+
+    @Test
+    public void testStaleCloseKeepsNewerRegistration() throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("org.opendaylight.netconf:type=OperationalReadCache,name="
+                + ObjectName.quote(ID.getName()));
+
+        final StatisticsRegistration first =
+                StatisticsRegistration.register(ID, "OperationalReadCache", new OperationalReadCache(1000, 10));
+        assertNotNull(first);
+        final OperationalReadCache current = new OperationalReadCache(1000, 10);
+        current.invalidate();
+        final StatisticsRegistration second = StatisticsRegistration.register(ID, "OperationalReadCache", current);
+        assertNotNull(second);
+
+        // Closing the replaced registration must not unregister the bean of the newer one
+        first.close();
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "InvalidationCount"));
+
+        second.close();
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -188,7 +188,7 @@ public final class StressClient {
         }
         //stop the underlying ssh thread that gets spawned if we use ssh
         if (params.ssh) {
-            AsyncSshHandler.DEFAULT_CLIENT.stop();
+            AsyncSshHandler.getDefaultClient().stop();
         }
     }
 
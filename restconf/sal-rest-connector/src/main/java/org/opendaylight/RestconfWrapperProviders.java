@@ -12,6 +12,7 @@ import org.opendaylight.controller.config.yang.md.sal.rest.connector.RestConnect
 import org.opendaylight.controller.sal.core.api.Broker;
 import org.opendaylight.netconf.sal.rest.api.RestConnector;
 import org.opendaylight.netconf.sal.restconf.impl.RestconfProviderImpl;
+import org.opendaylight.netconf.util.NettyTransport;
 import org.opendaylight.restconf.RestConnectorProvider;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
 
@@ -37,9 +38,22 @@ public class RestconfWrapperProviders implements AutoCloseable, RestConnector {
      *            - port for web sockets in provider for draft02
      */
     public RestconfWrapperProviders(final PortNumber port) {
+        this(port, NettyTransport.DEFAULT);
+    }
+
+    /**
+     * Init both providers, with socket options of web socket connections.
+     *
+     * @param port
+     *            - port for web sockets in provider for draft02
+     * @param webSocketTransport
+     *            - socket options of web socket connections
+     */
+    public RestconfWrapperProviders(final PortNumber port, final NettyTransport webSocketTransport) {
         // Init draft02 provider
         this.providerDraft02 = new RestconfProviderImpl();
         this.providerDraft02.setWebsocketPort(port);
+        this.providerDraft02.setWebsocketTransport(webSocketTransport);
 
         this.providerDraft18 = new RestConnectorProvider();
     }
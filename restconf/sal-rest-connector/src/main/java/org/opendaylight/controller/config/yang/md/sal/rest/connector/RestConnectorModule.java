@@ -9,6 +9,7 @@
 package org.opendaylight.controller.config.yang.md.sal.rest.connector;
 
 import org.opendaylight.RestconfWrapperProviders;
+import org.opendaylight.netconf.util.NettyTransport;
 
 
 public class RestConnectorModule extends org.opendaylight.controller.config.yang.md.sal.rest.connector.AbstractRestConnectorModule {
@@ -30,7 +31,10 @@ public class RestConnectorModule extends org.opendaylight.controller.config.yang
 
     @Override
     public java.lang.AutoCloseable createInstance() {
-        final RestconfWrapperProviders wrapperProviders = new RestconfWrapperProviders(getWebsocketPort());
+        final NettyTransport webSocketTransport = new NettyTransport(getWebsocketTcpNoDelay(),
+                getWebsocketKeepAlive(), getWebsocketSendBufferSize(), getWebsocketReceiveBufferSize());
+        final RestconfWrapperProviders wrapperProviders = new RestconfWrapperProviders(getWebsocketPort(),
+                webSocketTransport);
         wrapperProviders.registerProviders(getDomBrokerDependency());
 
         if(runtimeRegistration != null){
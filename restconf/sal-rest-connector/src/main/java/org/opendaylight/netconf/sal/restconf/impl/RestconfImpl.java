@@ -1292,8 +1292,9 @@ public class RestconfImpl implements RestconfService {
         }
 
         for (final NotificationListenerAdapter listener : listeners) {
-            this.broker.registerToListenNotification(listener);
+            // Invalid filter is rejected before the listener is registered
             listener.setQueryParams(start, stop, filter);
+            this.broker.registerToListenNotification(listener);
         }
 
         final UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder();
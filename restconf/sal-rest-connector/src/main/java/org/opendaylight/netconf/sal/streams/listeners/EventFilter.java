@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import com.google.common.base.Preconditions;
+import javanet.staxutils.helpers.StreamWriterDelegate;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfDocumentedException;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfError.ErrorTag;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfError.ErrorType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+/**
+ * XPath filter of events of a stream, compiled once when a client subscribes to the stream.
+ *
+ * <p>
+ * The filter is evaluated on a document written directly from data of an event by {@link #createEventWriter(Document)}.
+ * Elements of the document have no namespaces, like events parsed by a namespace unaware parser, so that filters
+ * select elements by their local names only. XPath is evaluated on DOM, so the document is built for every event.
+ * Events are encoded into the output type only once they match.
+ */
+final class EventFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventFilter.class);
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
+
+    private final String expression;
+    private final XPathExpression compiled;
+
+    private EventFilter(final String expression, final XPathExpression compiled) {
+        this.expression = expression;
+        this.compiled = compiled;
+    }
+
+    /**
+     * Compile filter expression.
+     *
+     * @param expression
+     *            - XPath expression, which evaluates to true for events of interest
+     * @return compiled filter
+     * @throws RestconfDocumentedException
+     *             if the expression is not a valid XPath expression
+     */
+    static EventFilter compile(final String expression) {
+        Preconditions.checkNotNull(expression);
+        try {
+            // Factories are not thread-safe, filters are compiled rarely
+            return new EventFilter(expression, XPathFactory.newInstance().newXPath().compile(expression));
+        } catch (final XPathExpressionException e) {
+            LOG.debug("Filter {} cannot be compiled", expression, e);
+            throw new RestconfDocumentedException("Invalid filter " + expression, ErrorType.PROTOCOL,
+                    ErrorTag.INVALID_VALUE);
+        }
+    }
+
+    /**
+     * Create writer of an event, which builds the document filters are evaluated on.
+     *
+     * @param document
+     *            - empty document to write the event into
+     * @return writer of the event
+     * @throws XMLStreamException
+     *             if the writer cannot be created
+     */
+    static XMLStreamWriter createEventWriter(final Document document) throws XMLStreamException {
+        return new NamespaceUnawareStreamWriter(XML_FACTORY.createXMLStreamWriter(new DOMResult(document)));
+    }
+
+    /**
+     * Evaluate filter on an event. Compiled expressions are not thread-safe, so evaluations are serialized.
+     *
+     * @param event
+     *            - document written by {@link #createEventWriter(Document)}
+     * @return true if the event is of interest
+     * @throws XPathExpressionException
+     *             if the filter cannot be evaluated
+     */
+    synchronized boolean matches(final Document event) throws XPathExpressionException {
+        return (boolean) this.compiled.evaluate(event, XPathConstants.BOOLEAN);
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+
+    /**
+     * Writes elements and attributes with their local names and namespace declarations as plain attributes.
+     */
+    private static final class NamespaceUnawareStreamWriter extends StreamWriterDelegate {
+
+        NamespaceUnawareStreamWriter(final XMLStreamWriter out) {
+            super(out);
+        }
+
+        @Override
+        public void writeStartElement(final String namespaceURI, final String localName) throws XMLStreamException {
+            super.writeStartElement(localName);
+        }
+
+        @Override
+        public void writeStartElement(final String prefix, final String localName, final String namespaceURI)
+                throws XMLStreamException {
+            super.writeStartElement(qualify(prefix, localName));
+        }
+
+        @Override
+        public void writeEmptyElement(final String namespaceURI, final String localName) throws XMLStreamException {
+            super.writeEmptyElement(localName);
+        }
+
+        @Override
+        public void writeEmptyElement(final String prefix, final String localName, final String namespaceURI)
+                throws XMLStreamException {
+            super.writeEmptyElement(qualify(prefix, localName));
+        }
+
+        @Override
+        public void writeAttribute(final String namespaceURI, final String localName, final String value)
+                throws XMLStreamException {
+            super.writeAttribute(localName, value);
+        }
+
+        @Override
+        public void writeAttribute(final String prefix, final String namespaceURI, final String localName,
+                final String value) throws XMLStreamException {
+            super.writeAttribute(qualify(prefix, localName), value);
+        }
+
+        @Override
+        public void writeNamespace(final String prefix, final String namespaceURI) throws XMLStreamException {
+            if (prefix == null || prefix.isEmpty() || XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+                writeDefaultNamespace(namespaceURI);
+            } else {
+                super.writeAttribute(XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix, namespaceURI);
+            }
+        }
+
+        @Override
+        public void writeDefaultNamespace(final String namespaceURI) throws XMLStreamException {
+            super.writeAttribute(XMLConstants.XMLNS_ATTRIBUTE, namespaceURI);
+        }
+
+        private static String qualify(final String prefix, final String localName) {
+            return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+        }
+    }
+}
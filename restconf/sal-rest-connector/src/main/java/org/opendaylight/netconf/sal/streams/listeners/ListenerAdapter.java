@@ -7,46 +7,34 @@
  */
 package org.opendaylight.netconf.sal.streams.listeners;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.eventbus.AsyncEventBus;
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
+import com.google.gson.stream.JsonWriter;
 import io.netty.channel.Channel;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.util.internal.ConcurrentSet;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.StringReader;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
+import java.io.StringWriter;
+import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMResult;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-import org.json.JSONObject;
-import org.json.XML;
+import javax.xml.xpath.XPathExpressionException;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataChangeListener;
 import org.opendaylight.netconf.sal.restconf.impl.ControllerContext;
@@ -55,16 +43,20 @@ import org.opendaylight.yang.gen.v1.urn.sal.restconf.event.subscription.rev14070
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
-import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
 import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
-import org.opendaylight.yangtools.yang.data.impl.codec.xml.XmlDocumentUtils;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -72,32 +64,53 @@ import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.xml.sax.InputSource;
 
 /**
  * {@link ListenerAdapter} is responsible to track events, which occurred by changing data in data source.
+ *
+ * <p>
+ * Events of a stream are encoded and sent to subscribers in order by a {@link StreamDispatcher}, on threads shared by
+ * all streams. Every event is encoded once, directly from changed data into the requested output type, and the same
+ * frame is queued to {@link SubscriberQueue}s of all subscribers.
  */
 public class ListenerAdapter implements DOMDataChangeListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(ListenerAdapter.class);
     private static final DocumentBuilderFactory DBF = DocumentBuilderFactory.newInstance();
-    private static final TransformerFactory FACTORY = TransformerFactory.newInstance();
+    private static final XMLOutputFactory XML_FACTORY;
     private static final Pattern RFC3339_PATTERN = Pattern.compile("(\\d\\d)(\\d\\d)$");
 
-    private static final SimpleDateFormat RFC3339 = new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ssZ");
+    // Formats are not thread-safe and events are encoded concurrently
+    private static final ThreadLocal<DateFormat> RFC3339 = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            return new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ssZ");
+        }
+    };
+
+    private static final String NOTIFICATION_NAMESPACE = "urn:ietf:params:xml:ns:netconf:notification:1.0";
+    private static final String REMOTE_NAMESPACE = "urn:opendaylight:params:xml:ns:yang:controller:md:sal:remote";
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
 
     private final YangInstanceIdentifier path;
     private ListenerRegistration<DOMDataChangeListener> registration;
     private final String streamName;
-    private Set<Channel> subscribers = new ConcurrentSet<>();
-    private final EventBus eventBus;
-    private final EventBusChangeRecorder eventBusChangeRecorder;
+    private volatile Set<Channel> subscribers = new ConcurrentSet<>();
+    private final Executor dispatcher;
     private final NotificationOutputType outputType;
     private Date start = null;
     private Date stop = null;
-    private String filter = null;
+    private volatile EventFilter filter = null;
+    private final StreamQueueStatistics queueStatistics = new StreamQueueStatistics();
+    private StreamStatisticsRegistration statisticsRegistration;
+
+    // Accessed by the dispatcher only
+    private SchemaContext codecSchemaContext;
+    private JSONCodecFactory codecFactory;
 
     /**
      * Creates new {@link ListenerAdapter} listener specified by path and stream
@@ -112,14 +125,18 @@ public class ListenerAdapter implements DOMDataChangeListener {
      */
     ListenerAdapter(final YangInstanceIdentifier path, final String streamName,
             final NotificationOutputType outputType) {
+        this(path, streamName, outputType, new StreamDispatcher());
+    }
+
+    @VisibleForTesting
+    ListenerAdapter(final YangInstanceIdentifier path, final String streamName,
+            final NotificationOutputType outputType, final Executor dispatcher) {
         this.outputType = outputType;
         Preconditions.checkNotNull(path);
         Preconditions.checkArgument((streamName != null) && !streamName.isEmpty());
         this.path = path;
         this.streamName = streamName;
-        this.eventBus = new AsyncEventBus(Executors.newSingleThreadExecutor());
-        this.eventBusChangeRecorder = new EventBusChangeRecorder();
-        this.eventBus.register(this.eventBusChangeRecorder);
+        this.dispatcher = Preconditions.checkNotNull(dispatcher);
     }
 
     @Override
@@ -127,7 +144,7 @@ public class ListenerAdapter implements DOMDataChangeListener {
         final Date now = new Date();
         if (this.stop != null) {
             if ((this.start.compareTo(now) < 0) && (this.stop.compareTo(now) > 0)) {
-                checkFilter(change);
+                checkFilter(change, now);
             }
             if (this.stop.compareTo(now) < 0) {
                 try {
@@ -139,213 +156,310 @@ public class ListenerAdapter implements DOMDataChangeListener {
         } else if (this.start != null) {
             if (this.start.compareTo(now) < 0) {
                 this.start = null;
-                checkFilter(change);
+                checkFilter(change, now);
             }
         } else {
-            checkFilter(change);
+            checkFilter(change, now);
         }
     }
 
     /**
-     * Check if is filter used and then prepare and post data do client
+     * Pass the change to the dispatcher, which checks the filter and then prepares and posts data to clients.
      *
      * @param change
      *            - data of notification
+     * @param eventTime
+     *            - time of the change
      */
-    private void checkFilter(final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change) {
-        final String xml = prepareXmlFrom(change);
-        if (this.filter == null) {
-            prepareAndPostData(xml);
-        } else {
+    private void checkFilter(final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change,
+            final Date eventTime) {
+        this.dispatcher.execute(() -> {
             try {
-                if (parseFilterParam(xml)) {
-                    prepareAndPostData(xml);
-                }
+                prepareAndPostData(change, eventTime);
             } catch (final Exception e) {
-                throw new RestconfDocumentedException("Problem while parsing filter.", e);
+                LOG.warn("Failed to send data change event to subscribers of stream {}", this.streamName, e);
             }
-        }
+        });
     }
 
     /**
-     * Parse and evaluate filter value by xml
+     * Evaluate filter on the event, written into a document straight from changed data. The event is encoded into the
+     * output type only once it matches.
      *
-     * @param xml
-     *            - notification data in xml
+     * @param filter
+     *            - compiled filter
      * @return true or false - depends on filter expression and data of
      *         notifiaction
-     * @throws Exception
      */
-    private boolean parseFilterParam(final String xml) throws Exception {
-        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder builder = factory.newDocumentBuilder();
-        final Document docOfXml = builder.parse(new InputSource(new StringReader(xml)));
-        final XPath xPath = XPathFactory.newInstance().newXPath();
-        return (boolean) xPath.compile(this.filter).evaluate(docOfXml, XPathConstants.BOOLEAN);
+    private static boolean matchesFilter(final EventFilter filter, final List<DataChangeEntry> entries,
+            final String eventTime, final SchemaContext schemaContext,
+            final DataSchemaContextTree dataSchemaContextTree)
+            throws IOException, XMLStreamException, XPathExpressionException {
+        final Document document = createDocument();
+        final XMLStreamWriter writer = EventFilter.createEventWriter(document);
+        try {
+            writeXml(writer, entries, eventTime, schemaContext, dataSchemaContextTree);
+        } finally {
+            writer.close();
+        }
+        return filter.matches(document);
     }
 
     /**
-     * Prepare data of notification and data to client
+     * Prepare data of notification in the output type, unless it is rejected by the filter, and post it to
+     * subscribers. Executed by the dispatcher.
      *
-     * @param xml
+     * @param change
+     *            - data of notification
+     * @param eventTime
+     *            - time of the change
      */
-    private void prepareAndPostData(final String xml) {
-            final Event event = new Event(EventType.NOTIFY);
-            if (this.outputType.equals(NotificationOutputType.JSON)) {
-                final JSONObject jsonObject = XML.toJSONObject(xml);
-                event.setData(jsonObject.toString());
-            } else {
-                event.setData(xml);
-            }
-            this.eventBus.post(event);
+    private void prepareAndPostData(final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change,
+            final Date eventTime) throws Exception {
+        if (this.subscribers.isEmpty()) {
+            return;
+        }
+
+        final SchemaContext schemaContext = ControllerContext.getInstance().getGlobalSchema();
+        final DataSchemaContextTree dataContextTree = DataSchemaContextTree.from(schemaContext);
+        final List<DataChangeEntry> entries = collectDataChangeEntries(change);
+        final String time = toRFC3339(eventTime);
+        final boolean json = this.outputType.equals(NotificationOutputType.JSON);
+
+        // Rejected events are neither encoded nor sent to subscribers
+        final EventFilter eventFilter = this.filter;
+        if ((eventFilter != null) && !matchesFilter(eventFilter, entries, time, schemaContext, dataContextTree)) {
+            return;
+        }
+        final String data = json ? prepareJsonFrom(entries, time, schemaContext, dataContextTree)
+                : prepareXmlFrom(entries, time, schemaContext, dataContextTree);
+        postData(data, coalescingKey(entries));
     }
 
     /**
-     * Tracks events of data change by customer.
+     * Queue data to all active subscribers. Subscribers share content of a single frame.
+     *
+     * @param data
+     *            - data of notification in the output type
+     * @param key
+     *            - paths of changed data, events of the same paths may be coalesced in queues of subscribers
      */
-    private final class EventBusChangeRecorder {
-        @Subscribe
-        public void recordCustomerChange(final Event event) {
-            if (event.getType() == EventType.REGISTER) {
-                final Channel subscriber = event.getSubscriber();
-                if (!ListenerAdapter.this.subscribers.contains(subscriber)) {
-                    ListenerAdapter.this.subscribers.add(subscriber);
-                }
-            } else if (event.getType() == EventType.DEREGISTER) {
-                ListenerAdapter.this.subscribers.remove(event.getSubscriber());
-                Notificator.removeListenerIfNoSubscriberExists(ListenerAdapter.this);
-            } else if (event.getType() == EventType.NOTIFY) {
-                for (final Channel subscriber : ListenerAdapter.this.subscribers) {
-                    if (subscriber.isActive()) {
-                        LOG.debug("Data are sent to subscriber {}:", subscriber.remoteAddress());
-                        subscriber.writeAndFlush(new TextWebSocketFrame(event.getData()));
-                    } else {
-                        LOG.debug("Subscriber {} is removed - channel is not active yet.", subscriber.remoteAddress());
-                        ListenerAdapter.this.subscribers.remove(subscriber);
-                    }
+    private void postData(final String data, final String key) {
+        final TextWebSocketFrame frame = new TextWebSocketFrame(data);
+        try {
+            for (final Channel subscriber : this.subscribers) {
+                if (subscriber.isActive()) {
+                    LOG.debug("Data are sent to subscriber {}:", subscriber.remoteAddress());
+                    SubscriberQueue.forChannel(subscriber).offer(frame.duplicate().retain(), key,
+                            this.queueStatistics);
+                } else {
+                    LOG.debug("Subscriber {} is removed - channel is not active yet.", subscriber.remoteAddress());
+                    this.subscribers.remove(subscriber);
                 }
             }
+        } finally {
+            frame.release();
         }
     }
 
-    /**
-     * Represents event of specific {@link EventType} type, holds data and {@link Channel} subscriber.
-     */
-    private final class Event {
-        private final EventType type;
-        private Channel subscriber;
-        private String data;
-
-        /**
-         * Creates new event specified by {@link EventType} type.
-         *
-         * @param type
-         *            EventType
-         */
-        public Event(final EventType type) {
-            this.type = type;
+    private static String coalescingKey(final List<DataChangeEntry> entries) {
+        if (entries.size() == 1) {
+            return entries.get(0).xpath;
         }
-
-        /**
-         * Gets the {@link Channel} subscriber.
-         *
-         * @return Channel
-         */
-        public Channel getSubscriber() {
-            return this.subscriber;
+        final StringBuilder key = new StringBuilder();
+        for (final DataChangeEntry entry : entries) {
+            key.append(entry.xpath).append('\n');
         }
+        return key.toString();
+    }
 
-        /**
-         * Sets subscriber for event.
-         *
-         * @param subscriber
-         *            Channel
-         */
-        public void setSubscriber(final Channel subscriber) {
-            this.subscriber = subscriber;
+    /**
+     * Collect changes of the event, which are reported to subscribers.
+     *
+     * @param change
+     *            DataChangeEvent
+     * @return created and updated data followed by removed paths
+     */
+    private static List<DataChangeEntry> collectDataChangeEntries(
+            final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change) {
+        final List<DataChangeEntry> entries = new ArrayList<>();
+        addCreatedChangedEntries(entries, change.getCreatedData(), Operation.CREATED);
+        addCreatedChangedEntries(entries, change.getUpdatedData(), Operation.UPDATED);
+
+        final Set<YangInstanceIdentifier> removedPaths = change.getRemovedPaths();
+        if (removedPaths != null) {
+            for (final YangInstanceIdentifier path : removedPaths) {
+                if (!ControllerContext.getInstance().isNodeMixin(path)) {
+                    entries.add(new DataChangeEntry(path, Operation.DELETED, null));
+                }
+            }
         }
+        return entries;
+    }
 
-        /**
-         * Gets event String.
-         *
-         * @return String representation of event data.
-         */
-        public String getData() {
-            return this.data;
+    private static void addCreatedChangedEntries(final List<DataChangeEntry> entries,
+            final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> data, final Operation operation) {
+        if (data == null) {
+            return;
         }
-
-        /**
-         * Sets event data.
-         *
-         * @param data String.
-         */
-        public void setData(final String data) {
-            this.data = data;
+        for (final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> entry : data.entrySet()) {
+            if (!ControllerContext.getInstance().isNodeMixin(entry.getKey())) {
+                entries.add(new DataChangeEntry(entry.getKey(), operation, entry.getValue()));
+            }
         }
+    }
 
-        /**
-         * Gets event type.
-         *
-         * @return The type of the event.
-         */
-        public EventType getType() {
-            return this.type;
+    /**
+     * Prepare data in printable XML form.
+     *
+     * @param entries
+     *            changes of the event
+     * @param eventTime
+     *            formatted time of the event
+     * @return Data in printable form.
+     */
+    private static String prepareXmlFrom(final List<DataChangeEntry> entries, final String eventTime,
+            final SchemaContext schemaContext, final DataSchemaContextTree dataSchemaContextTree)
+            throws IOException, XMLStreamException {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(out);
+        try {
+            writer.writeStartDocument();
+            writeXml(writer, entries, eventTime, schemaContext, dataSchemaContextTree);
+            writer.writeEndDocument();
+            writer.flush();
+        } finally {
+            writer.close();
         }
+        return out.toString();
     }
 
     /**
-     * Type of the event.
+     * Write the event in XML form, the writer decides how the event is represented.
      */
-    private enum EventType {
-        REGISTER,
-        DEREGISTER,
-        NOTIFY;
+    private static void writeXml(final XMLStreamWriter writer, final List<DataChangeEntry> entries,
+            final String eventTime, final SchemaContext schemaContext,
+            final DataSchemaContextTree dataSchemaContextTree) throws IOException, XMLStreamException {
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "notification", NOTIFICATION_NAMESPACE);
+        writer.writeDefaultNamespace(NOTIFICATION_NAMESPACE);
+        writeTextElement(writer, NOTIFICATION_NAMESPACE, "eventTime", eventTime);
+
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "data-changed-notification", REMOTE_NAMESPACE);
+        writer.writeDefaultNamespace(REMOTE_NAMESPACE);
+        for (final DataChangeEntry entry : entries) {
+            writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "data-change-event", REMOTE_NAMESPACE);
+            writeTextElement(writer, REMOTE_NAMESPACE, "path", entry.xpath);
+            writeTextElement(writer, REMOTE_NAMESPACE, "operation", entry.operation.value);
+            if (entry.data != null) {
+                writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "data", REMOTE_NAMESPACE);
+                writeNormalizedNode(writer, entry.data, entry.path, schemaContext, dataSchemaContextTree);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+    }
+
+    private static void writeTextElement(final XMLStreamWriter writer, final String namespace, final String name,
+            final String text) throws XMLStreamException {
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, name, namespace);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+
+    private static void writeNormalizedNode(final XMLStreamWriter writer, final NormalizedNode<?, ?> normalized,
+                                            final YangInstanceIdentifier path, final SchemaContext context,
+                                            final DataSchemaContextTree dataSchemaContextTree) throws IOException {
+        final SchemaPath nodePath;
+        if ((normalized instanceof MapEntryNode) || (normalized instanceof UnkeyedListEntryNode)) {
+            nodePath = dataSchemaContextTree.getChild(path).getDataSchemaNode().getPath();
+        } else {
+            nodePath = dataSchemaContextTree.getChild(path).getDataSchemaNode().getPath().getParent();
+        }
+
+        // The XML writer is shared with the enclosing elements, so it is only flushed
+        final NormalizedNodeWriter normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(writer, context, nodePath));
+        normalizedNodeWriter.write(normalized);
+        normalizedNodeWriter.flush();
     }
 
     /**
-     * Prepare data in printable form and transform it to String.
+     * Prepare data in JSON form. Envelope of the event has the same structure as before, when JSON was converted from
+     * XML, i.e. a single change is an object and more changes are an array. Data are encoded as YANG modeled JSON.
      *
-     * @param change
-     *            DataChangeEvent
-     * @return Data in printable form.
+     * @param entries
+     *            changes of the event
+     * @param eventTime
+     *            formatted time of the event
+     * @return Data in JSON form.
      */
-    private String prepareXmlFrom(final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change) {
-        final SchemaContext schemaContext = ControllerContext.getInstance().getGlobalSchema();
-        final DataSchemaContextTree dataContextTree =  DataSchemaContextTree.from(schemaContext);
-        final Document doc = createDocument();
-        final Element notificationElement = doc.createElementNS("urn:ietf:params:xml:ns:netconf:notification:1.0",
-                "notification");
-
-        doc.appendChild(notificationElement);
-
-        final Element eventTimeElement = doc.createElement("eventTime");
-        eventTimeElement.setTextContent(toRFC3339(new Date()));
-        notificationElement.appendChild(eventTimeElement);
+    private String prepareJsonFrom(final List<DataChangeEntry> entries, final String eventTime,
+            final SchemaContext schemaContext, final DataSchemaContextTree dataSchemaContextTree)
+            throws IOException {
+        final StringWriter out = new StringWriter();
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(out);
+        writer.beginObject();
+        writer.name("notification").beginObject();
+        writer.name("xmlns").value(NOTIFICATION_NAMESPACE);
+        writer.name("eventTime").value(eventTime);
+
+        writer.name("data-changed-notification").beginObject();
+        writer.name("xmlns").value(REMOTE_NAMESPACE);
+        if (!entries.isEmpty()) {
+            writer.name("data-change-event");
+            if (entries.size() > 1) {
+                writer.beginArray();
+            }
+            for (final DataChangeEntry entry : entries) {
+                writer.beginObject();
+                writer.name("path").value(entry.xpath);
+                writer.name("operation").value(entry.operation.value);
+                if (entry.data != null) {
+                    writer.name("data").beginObject();
+                    writeNormalizedNode(writer, entry.data, entry.path, schemaContext, dataSchemaContextTree);
+                    writer.endObject();
+                }
+                writer.endObject();
+            }
+            if (entries.size() > 1) {
+                writer.endArray();
+            }
+        }
+        writer.endObject();
 
-        final Element dataChangedNotificationEventElement = doc.createElementNS(
-                "urn:opendaylight:params:xml:ns:yang:controller:md:sal:remote", "data-changed-notification");
+        writer.endObject();
+        writer.endObject();
+        writer.close();
+        return out.toString();
+    }
 
-        addValuesToDataChangedNotificationEventElement(doc, dataChangedNotificationEventElement, change,
-                schemaContext, dataContextTree);
-        notificationElement.appendChild(dataChangedNotificationEventElement);
+    private void writeNormalizedNode(final JsonWriter writer, final NormalizedNode<?, ?> normalized,
+                                     final YangInstanceIdentifier path, final SchemaContext context,
+                                     final DataSchemaContextTree dataSchemaContextTree) throws IOException {
+        if (this.codecSchemaContext != context) {
+            this.codecFactory = JSONCodecFactory.create(context);
+            this.codecSchemaContext = context;
+        }
 
-        try {
-            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-            final Transformer transformer = FACTORY.newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.transform(new DOMSource(doc),
-                    new StreamResult(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
-            final byte[] charData = out.toByteArray();
-            return new String(charData, "UTF-8");
-        } catch (TransformerException | UnsupportedEncodingException e) {
-            final String msg = "Error during transformation of Document into String";
-            LOG.error(msg, e);
-            return msg;
+        // List entries are written as lists with a single entry
+        final NormalizedNode<?, ?> data;
+        if (normalized instanceof MapEntryNode) {
+            data = ImmutableNodes.mapNodeBuilder(normalized.getNodeType()).withChild((MapEntryNode) normalized).build();
+        } else if (normalized instanceof UnkeyedListEntryNode) {
+            data = Builders.unkeyedListBuilder().withNodeIdentifier(new NodeIdentifier(normalized.getNodeType()))
+                    .withChild((UnkeyedListEntryNode) normalized).build();
+        } else {
+            data = normalized;
         }
+
+        final SchemaPath parentPath = dataSchemaContextTree.getChild(path).getDataSchemaNode().getPath().getParent();
+        final NormalizedNodeWriter normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createNestedWriter(this.codecFactory, parentPath, null, writer));
+        normalizedNodeWriter.write(data);
+        normalizedNodeWriter.flush();
     }
 
     /**
@@ -356,7 +470,7 @@ public class ListenerAdapter implements DOMDataChangeListener {
      * @return Data specified by RFC3339.
      */
     public static String toRFC3339(final Date d) {
-        return RFC3339_PATTERN.matcher(RFC3339.format(d)).replaceAll("$1:$2");
+        return RFC3339_PATTERN.matcher(RFC3339.get().format(d)).replaceAll("$1:$2");
     }
 
     /**
@@ -374,176 +488,13 @@ public class ListenerAdapter implements DOMDataChangeListener {
     }
 
     /**
-     * Adds values to data changed notification event element.
+     * Creates path of data in data store as XPath with module names as prefixes.
      *
-     * @param doc
-     *            {@link Document}
-     * @param dataChangedNotificationEventElement
-     *            {@link Element}
-     * @param change
-     *            {@link AsyncDataChangeEvent}
-     */
-    private void addValuesToDataChangedNotificationEventElement(final Document doc,
-            final Element dataChangedNotificationEventElement,
-            final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change,
-            final SchemaContext  schemaContext, final DataSchemaContextTree dataSchemaContextTree) {
-
-        addCreatedChangedValuesFromDataToElement(doc, change.getCreatedData().entrySet(),
-                dataChangedNotificationEventElement,
-                Operation.CREATED, schemaContext, dataSchemaContextTree);
-
-        addCreatedChangedValuesFromDataToElement(doc, change.getUpdatedData().entrySet(),
-                    dataChangedNotificationEventElement,
-                    Operation.UPDATED, schemaContext, dataSchemaContextTree);
-
-        addValuesFromDataToElement(doc, change.getRemovedPaths(), dataChangedNotificationEventElement,
-                Operation.DELETED);
-    }
-
-    /**
-     * Adds values from data to element.
-     *
-     * @param doc
-     *            {@link Document}
-     * @param data
-     *            Set of {@link YangInstanceIdentifier}.
-     * @param element
-     *            {@link Element}
-     * @param operation
-     *            {@link Operation}
-     */
-    private void addValuesFromDataToElement(final Document doc, final Set<YangInstanceIdentifier> data,
-            final Element element, final Operation operation) {
-        if ((data == null) || data.isEmpty()) {
-            return;
-        }
-        for (final YangInstanceIdentifier path : data) {
-            if (!ControllerContext.getInstance().isNodeMixin(path)) {
-                final Node node = createDataChangeEventElement(doc, path, operation);
-                element.appendChild(node);
-            }
-        }
-    }
-
-    private void addCreatedChangedValuesFromDataToElement(final Document doc, final Set<Entry<YangInstanceIdentifier,
-                NormalizedNode<?,?>>> data, final Element element, final Operation operation, final SchemaContext
-            schemaContext, final DataSchemaContextTree dataSchemaContextTree) {
-        if ((data == null) || data.isEmpty()) {
-            return;
-        }
-        for (final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> entry : data) {
-            if (!ControllerContext.getInstance().isNodeMixin(entry.getKey())) {
-                final Node node = createCreatedChangedDataChangeEventElement(doc, entry, operation, schemaContext,
-                        dataSchemaContextTree);
-                element.appendChild(node);
-            }
-        }
-    }
-
-    /**
-     * Creates changed event element from data.
-     *
-     * @param doc
-     *            {@link Document}
      * @param path
      *            Path to data in data store.
-     * @param operation
-     *            {@link Operation}
-     * @return {@link Node} node represented by changed event element.
+     * @return XPath representation of the path.
      */
-    private Node createDataChangeEventElement(final Document doc, final YangInstanceIdentifier path,
-            final Operation operation) {
-        final Element dataChangeEventElement = doc.createElement("data-change-event");
-        final Element pathElement = doc.createElement("path");
-        addPathAsValueToElement(path, pathElement);
-        dataChangeEventElement.appendChild(pathElement);
-
-        final Element operationElement = doc.createElement("operation");
-        operationElement.setTextContent(operation.value);
-        dataChangeEventElement.appendChild(operationElement);
-
-        return dataChangeEventElement;
-    }
-
-    private Node createCreatedChangedDataChangeEventElement(final Document doc, final Entry<YangInstanceIdentifier,
-            NormalizedNode<?, ?>> entry, final Operation operation, final SchemaContext
-            schemaContext, final DataSchemaContextTree dataSchemaContextTree) {
-        final Element dataChangeEventElement = doc.createElement("data-change-event");
-        final Element pathElement = doc.createElement("path");
-        final YangInstanceIdentifier path = entry.getKey();
-        addPathAsValueToElement(path, pathElement);
-        dataChangeEventElement.appendChild(pathElement);
-
-        final Element operationElement = doc.createElement("operation");
-        operationElement.setTextContent(operation.value);
-        dataChangeEventElement.appendChild(operationElement);
-
-        try {
-            final DOMResult domResult = writeNormalizedNode(entry.getValue(), path,
-                    schemaContext, dataSchemaContextTree);
-            final Node result = doc.importNode(domResult.getNode().getFirstChild(), true);
-            final Element dataElement = doc.createElement("data");
-            dataElement.appendChild(result);
-            dataChangeEventElement.appendChild(dataElement);
-        } catch (final IOException e) {
-            LOG.error("Error in writer ", e);
-        } catch (final XMLStreamException e) {
-            LOG.error("Error processing stream", e);
-        }
-
-        return dataChangeEventElement;
-    }
-
-    private static DOMResult writeNormalizedNode(final NormalizedNode<?, ?> normalized,
-                                                 final YangInstanceIdentifier path, final SchemaContext context,
-                                                 final DataSchemaContextTree dataSchemaContextTree)
-            throws IOException, XMLStreamException {
-        final XMLOutputFactory XML_FACTORY = XMLOutputFactory.newFactory();
-        final Document doc = XmlDocumentUtils.getDocument();
-        final DOMResult result = new DOMResult(doc);
-        NormalizedNodeWriter normalizedNodeWriter = null;
-        NormalizedNodeStreamWriter normalizedNodeStreamWriter = null;
-        XMLStreamWriter writer = null;
-        final SchemaPath nodePath;
-
-        if ((normalized instanceof MapEntryNode) || (normalized instanceof UnkeyedListEntryNode)) {
-            nodePath = dataSchemaContextTree.getChild(path).getDataSchemaNode().getPath();
-        } else {
-            nodePath = dataSchemaContextTree.getChild(path).getDataSchemaNode().getPath().getParent();
-        }
-
-        try {
-            writer = XML_FACTORY.createXMLStreamWriter(result);
-            normalizedNodeStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(writer, context, nodePath);
-            normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(normalizedNodeStreamWriter);
-
-            normalizedNodeWriter.write(normalized);
-
-            normalizedNodeWriter.flush();
-        } finally {
-            if (normalizedNodeWriter != null) {
-                normalizedNodeWriter.close();
-            }
-            if (normalizedNodeStreamWriter != null) {
-                normalizedNodeStreamWriter.close();
-            }
-            if (writer != null) {
-                writer.close();
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Adds path as value to element.
-     *
-     * @param path
-     *            Path to data in data store.
-     * @param element
-     *            {@link Element}
-     */
-    private void addPathAsValueToElement(final YangInstanceIdentifier path, final Element element) {
+    private static String toXpath(final YangInstanceIdentifier path) {
         final YangInstanceIdentifier normalizedPath = ControllerContext.getInstance().toXpathRepresentation(path);
         final StringBuilder textContent = new StringBuilder();
 
@@ -552,13 +503,13 @@ public class ListenerAdapter implements DOMDataChangeListener {
                 continue;
             }
             textContent.append("/");
-            writeIdentifierWithNamespacePrefix(element, textContent, pathArgument.getNodeType());
+            writeIdentifierWithNamespacePrefix(textContent, pathArgument.getNodeType());
             if (pathArgument instanceof NodeIdentifierWithPredicates) {
                 final Map<QName, Object> predicates = ((NodeIdentifierWithPredicates) pathArgument).getKeyValues();
                 for (final QName keyValue : predicates.keySet()) {
                     final String predicateValue = String.valueOf(predicates.get(keyValue));
                     textContent.append("[");
-                    writeIdentifierWithNamespacePrefix(element, textContent, keyValue);
+                    writeIdentifierWithNamespacePrefix(textContent, keyValue);
                     textContent.append("='");
                     textContent.append(predicateValue);
                     textContent.append("'");
@@ -571,21 +522,18 @@ public class ListenerAdapter implements DOMDataChangeListener {
                 textContent.append("]");
             }
         }
-        element.setTextContent(textContent.toString());
+        return textContent.toString();
     }
 
     /**
      * Writes identifier that consists of prefix and QName.
      *
-     * @param element
-     *            {@link Element}
      * @param textContent
      *            StringBuilder
      * @param qName
      *            QName
      */
-    private static void writeIdentifierWithNamespacePrefix(final Element element, final StringBuilder textContent,
-            final QName qName) {
+    private static void writeIdentifierWithNamespacePrefix(final StringBuilder textContent, final QName qName) {
         final Module module = ControllerContext.getInstance().getGlobalSchema()
                 .findModuleByNamespaceAndRevision(qName.getNamespace(), qName.getRevision());
 
@@ -643,13 +591,13 @@ public class ListenerAdapter implements DOMDataChangeListener {
     }
 
     /**
-     * Removes all subscribers and unregisters event bus change recorder form event bus.
+     * Removes all subscribers and closes registration, events which are not sent yet are dropped.
      */
     public void close() throws Exception {
         this.subscribers = new ConcurrentSet<>();
+        unregisterStatistics();
         this.registration.close();
         this.registration = null;
-        this.eventBus.unregister(this.eventBusChangeRecorder);
     }
 
     /**
@@ -662,8 +610,8 @@ public class ListenerAdapter implements DOMDataChangeListener {
     }
 
     /**
-     * Creates event of type {@link EventType#REGISTER}, set {@link Channel} subscriber to the event and post event into
-     * event bus.
+     * Adds {@link Channel} subscriber to the stream. The subscriber is added by the dispatcher, so it receives only
+     * events which occur after this call.
      *
      * @param subscriber
      *            Channel
@@ -672,22 +620,20 @@ public class ListenerAdapter implements DOMDataChangeListener {
         if (!subscriber.isActive()) {
             LOG.debug("Channel is not active between websocket server and subscriber {}" + subscriber.remoteAddress());
         }
-        final Event event = new Event(EventType.REGISTER);
-        event.setSubscriber(subscriber);
-        this.eventBus.post(event);
+        this.dispatcher.execute(() -> this.subscribers.add(subscriber));
     }
 
     /**
-     * Creates event of type {@link EventType#DEREGISTER}, sets {@link Channel} subscriber to the event and posts event
-     * into event bus.
+     * Removes {@link Channel} subscriber from the stream and removes the listener if it was the last subscriber.
      *
      * @param subscriber
      */
     public void removeSubscriber(final Channel subscriber) {
         LOG.debug("Subscriber {} is removed.", subscriber.remoteAddress());
-        final Event event = new Event(EventType.DEREGISTER);
-        event.setSubscriber(subscriber);
-        this.eventBus.post(event);
+        this.dispatcher.execute(() -> {
+            this.subscribers.remove(subscriber);
+            Notificator.removeListenerIfNoSubscriberExists(this);
+        });
     }
 
     /**
@@ -699,6 +645,59 @@ public class ListenerAdapter implements DOMDataChangeListener {
         return !this.subscribers.isEmpty();
     }
 
+    /**
+     * Get number of events of this stream, which wait in queues of subscribers to be sent.
+     *
+     * @return queue depth of the stream
+     */
+    public long getQueueDepth() {
+        return this.queueStatistics.getQueueDepth();
+    }
+
+    /**
+     * Get number of events of this stream, which were dropped from queues of slow subscribers.
+     *
+     * @return number of dropped events
+     */
+    public long getDroppedEvents() {
+        return this.queueStatistics.getDroppedEvents();
+    }
+
+    /**
+     * Register statistics of queues of this stream as an MXBean, they are unregistered when the listener is closed.
+     */
+    synchronized void registerStatistics() {
+        if (this.statisticsRegistration == null) {
+            this.statisticsRegistration = StreamStatisticsRegistration.register("DataChangeStream", this.streamName,
+                    this.queueStatistics);
+        }
+    }
+
+    private synchronized void unregisterStatistics() {
+        if (this.statisticsRegistration != null) {
+            this.statisticsRegistration.close();
+            this.statisticsRegistration = null;
+        }
+    }
+
+    /**
+     * Change of data reported in an event.
+     */
+    private static final class DataChangeEntry {
+        private final YangInstanceIdentifier path;
+        private final String xpath;
+        private final Operation operation;
+        private final NormalizedNode<?, ?> data;
+
+        DataChangeEntry(final YangInstanceIdentifier path, final Operation operation,
+                final NormalizedNode<?, ?> data) {
+            this.path = path;
+            this.xpath = toXpath(path);
+            this.operation = operation;
+            this.data = data;
+        }
+    }
+
     /**
      * Consists of two types {@link Store#CONFIG} and {@link Store#OPERATION}.
      */
@@ -737,11 +736,14 @@ public class ListenerAdapter implements DOMDataChangeListener {
      *            - stop-time of getting notification
      * @param filter
      *            - indicate which subset of all possible events are of interest
+     * @throws RestconfDocumentedException
+     *             if the filter is not a valid XPath expression
      */
     public void setQueryParams(final Date start, final Date stop, final String filter) {
+        final EventFilter eventFilter = filter == null ? null : EventFilter.compile(filter);
         this.start = start;
         this.stop = stop;
-        this.filter = filter;
+        this.filter = eventFilter;
     }
 
 }
@@ -7,7 +7,6 @@
  */
 package org.opendaylight.netconf.sal.streams.listeners;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
@@ -15,42 +14,22 @@ import com.google.common.eventbus.Subscribe;
 import io.netty.channel.Channel;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.util.internal.ConcurrentSet;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.StringReader;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
-import java.util.Collection;
 import java.util.Date;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.XMLConstants;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMResult;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathExpressionException;
 import org.json.JSONObject;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotificationListener;
 import org.opendaylight.netconf.sal.restconf.impl.ControllerContext;
 import org.opendaylight.netconf.sal.restconf.impl.RestconfDocumentedException;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
-import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
-import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
-import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
-import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
@@ -58,15 +37,11 @@ import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
 import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
 import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
-import org.opendaylight.yangtools.yang.data.impl.codec.xml.XmlDocumentUtils;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.xml.sax.InputSource;
 
 /**
  * {@link NotificationListenerAdapter} is responsible to track events on
@@ -76,7 +51,14 @@ import org.xml.sax.InputSource;
 public class NotificationListenerAdapter implements DOMNotificationListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationListenerAdapter.class);
-    private static final TransformerFactory FACTORY = TransformerFactory.newInstance();
+    private static final XMLOutputFactory XML_FACTORY;
+    private static final String NOTIFICATION_NAMESPACE = "urn:ietf:params:xml:ns:netconf:notification:1.0";
+    private static final String REMOTE_NAMESPACE = "urn:opendaylight:params:xml:ns:yang:controller:md:sal:remote";
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
 
     private final String streamName;
     private final EventBus eventBus;
@@ -86,12 +68,14 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
     private final String outputType;
     private Date start = null;
     private Date stop = null;
-    private String filter;
+    private volatile EventFilter filter;
 
     private SchemaContext schemaContext;
     private DOMNotification notification;
     private ListenerRegistration<DOMNotificationListener> registration;
     private Set<Channel> subscribers = new ConcurrentSet<>();
+    private final StreamQueueStatistics queueStatistics = new StreamQueueStatistics();
+    private StreamStatisticsRegistration statisticsRegistration;
 
     /**
      * Set path of listener and stream name, register event bus.
@@ -109,7 +93,8 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
         Preconditions.checkArgument(path != null);
         this.path = path;
         this.streamName = streamName;
-        this.eventBus = new AsyncEventBus(Executors.newSingleThreadExecutor());
+        // Events are posted in order on threads shared by all streams
+        this.eventBus = new AsyncEventBus(new StreamDispatcher());
         this.eventBusChangeRecorder = new EventBusChangeRecorder();
         this.eventBus.register(this.eventBusChangeRecorder);
     }
@@ -121,7 +106,7 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
         final Date now = new Date();
         if (this.stop != null) {
             if ((this.start.compareTo(now) < 0) && (this.stop.compareTo(now) > 0)) {
-                checkFilter();
+                checkFilter(now);
             }
             if (this.stop.compareTo(now) < 0) {
                 try {
@@ -133,60 +118,69 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
         } else if (this.start != null) {
             if (this.start.compareTo(now) < 0) {
                 this.start = null;
-                checkFilter();
+                checkFilter(now);
             }
         } else {
-            checkFilter();
+            checkFilter(now);
         }
     }
 
     /**
-     * Check if is filter used and then prepare and post data do client
+     * Check if is filter used and then prepare and post data do client. Notifications rejected by the filter are not
+     * encoded.
      *
+     * @param now
+     *            - time of the notification, the same in the filtered document and in the output
      */
-    private void checkFilter() {
-        final String xml = prepareXml();
-        if (this.filter == null) {
-            prepareAndPostData(xml);
-        } else {
+    private void checkFilter(final Date now) {
+        final String eventTime = ListenerAdapter.toRFC3339(now);
+        final EventFilter eventFilter = this.filter;
+        if (eventFilter != null) {
             try {
-                if (parseFilterParam(xml)) {
-                    prepareAndPostData(xml);
+                if (!matchesFilter(eventFilter, eventTime)) {
+                    return;
                 }
-            } catch (final Exception e) {
-                throw new RestconfDocumentedException("Problem while parsing filter.", e);
+            } catch (final IOException | XMLStreamException | XPathExpressionException e) {
+                throw new RestconfDocumentedException("Problem while evaluating filter.", e);
             }
         }
+        prepareAndPostData(eventTime);
     }
 
     /**
-     * Parse and evaluate filter value by xml
+     * Evaluate filter on the notification, written into a document straight from its body.
      *
-     * @param xml
-     *            - notification data in xml
+     * @param filter
+     *            - compiled filter
+     * @param eventTime
+     *            - formatted time of the notification
      * @return true or false - depends on filter expression and data of
      *         notifiaction
-     * @throws Exception
      */
-    private boolean parseFilterParam(final String xml) throws Exception {
-        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder builder = factory.newDocumentBuilder();
-        final Document docOfXml = builder.parse(new InputSource(new StringReader(xml)));
-        final XPath xPath = XPathFactory.newInstance().newXPath();
-        return (boolean) xPath.compile(this.filter).evaluate(docOfXml, XPathConstants.BOOLEAN);
+    private boolean matchesFilter(final EventFilter filter, final String eventTime)
+            throws IOException, XMLStreamException, XPathExpressionException {
+        final Document document = ListenerAdapter.createDocument();
+        final XMLStreamWriter writer = EventFilter.createEventWriter(document);
+        try {
+            writeXml(writer, eventTime);
+        } finally {
+            writer.close();
+        }
+        return filter.matches(document);
     }
 
     /**
      * Prepare data of notification and data to client
      *
-     * @param xml
+     * @param eventTime
+     *            - formatted time of the notification
      */
-    private void prepareAndPostData(final String xml) {
+    private void prepareAndPostData(final String eventTime) {
         final Event event = new Event(EventType.NOTIFY);
         if (this.outputType.equals("JSON")) {
-            event.setData(prepareJson());
+            event.setData(prepareJson(eventTime));
         } else {
-            event.setData(xml);
+            event.setData(prepareXml(eventTime));
         }
         this.eventBus.post(event);
     }
@@ -194,12 +188,14 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
     /**
      * Prepare json from notification data
      *
+     * @param eventTime
+     *            - formatted time of the notification
      * @return json as {@link String}
      */
-    private String prepareJson() {
+    private String prepareJson(final String eventTime) {
         final JSONObject json = new JSONObject();
         json.put("ietf-restconf:notification",
-                new JSONObject(writeBodyToString()).put("event-time", ListenerAdapter.toRFC3339(new Date())));
+                new JSONObject(writeBodyToString()).put("event-time", eventTime));
         return json.toString();
     }
 
@@ -228,11 +224,48 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
         return !this.subscribers.isEmpty();
     }
 
+    /**
+     * Get number of notifications of this stream, which wait in queues of subscribers to be sent.
+     *
+     * @return queue depth of the stream
+     */
+    public long getQueueDepth() {
+        return this.queueStatistics.getQueueDepth();
+    }
+
+    /**
+     * Get number of notifications of this stream, which were dropped from queues of slow subscribers.
+     *
+     * @return number of dropped notifications
+     */
+    public long getDroppedEvents() {
+        return this.queueStatistics.getDroppedEvents();
+    }
+
+    /**
+     * Register statistics of queues of this notification of the stream as an MXBean, they are unregistered when the
+     * listener is closed.
+     */
+    synchronized void registerStatistics() {
+        if (this.statisticsRegistration == null) {
+            this.statisticsRegistration = StreamStatisticsRegistration.register("NotificationStream",
+                    this.streamName + "/" + this.path.getLastComponent(), this.queueStatistics);
+        }
+    }
+
+    private synchronized void unregisterStatistics() {
+        if (this.statisticsRegistration != null) {
+            this.statisticsRegistration.close();
+            this.statisticsRegistration = null;
+        }
+    }
+
     /**
      * Reset lists, close registration and unregister bus event.
      */
     public void close() {
         this.subscribers = new ConcurrentSet<>();
+        unregisterStatistics();
         this.registration.close();
         this.registration = null;
         this.eventBus.unregister(this.eventBusChangeRecorder);
@@ -306,93 +339,56 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
         this.eventBus.post(event);
     }
 
-    private String prepareXml() {
-        final Document doc = ListenerAdapter.createDocument();
-        final Element notificationElement =
-                doc.createElementNS("urn:ietf:params:xml:ns:netconf:notification:1.0",
-                "notification");
-        doc.appendChild(notificationElement);
-
-        final Element eventTimeElement = doc.createElement("eventTime");
-        eventTimeElement.setTextContent(ListenerAdapter.toRFC3339(new Date()));
-        notificationElement.appendChild(eventTimeElement);
-
-        final Element notificationEventElement = doc.createElementNS(
-                "urn:opendaylight:params:xml:ns:yang:controller:md:sal:remote", "create-notification-stream");
-        addValuesToNotificationEventElement(doc, notificationEventElement, this.notification, this.schemaContext);
-        notificationElement.appendChild(notificationEventElement);
-
+    private String prepareXml(final String eventTime) {
+        final StringWriter out = new StringWriter();
         try {
-            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-            final Transformer transformer = FACTORY.newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.transform(new DOMSource(doc), new StreamResult(new OutputStreamWriter(out, Charsets.UTF_8)));
-            final byte[] charData = out.toByteArray();
-            return new String(charData, "UTF-8");
-        } catch (TransformerException | UnsupportedEncodingException e) {
-            final String msg = "Error during transformation of Document into String";
+            final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(out);
+            try {
+                writer.writeStartDocument();
+                writeXml(writer, eventTime);
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException | XMLStreamException e) {
+            final String msg = "Error during writing of notification into String";
             LOG.error(msg, e);
             return msg;
         }
+        return out.toString();
     }
 
-    private void addValuesToNotificationEventElement(final Document doc, final Element element,
-            final DOMNotification notification, final SchemaContext schemaContext) {
-        if (notification == null) {
-            return;
+    /**
+     * Write the notification in XML form, the writer decides how the notification is represented.
+     */
+    private void writeXml(final XMLStreamWriter writer, final String eventTime)
+            throws IOException, XMLStreamException {
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "notification", NOTIFICATION_NAMESPACE);
+        writer.writeDefaultNamespace(NOTIFICATION_NAMESPACE);
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "eventTime", NOTIFICATION_NAMESPACE);
+        writer.writeCharacters(eventTime);
+        writer.writeEndElement();
+
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "create-notification-stream", REMOTE_NAMESPACE);
+        writer.writeDefaultNamespace(REMOTE_NAMESPACE);
+        if (this.notification != null) {
+            writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "notification", REMOTE_NAMESPACE);
+            writeNormalizedNode(writer, this.notification.getBody(), this.schemaContext);
+            writer.writeEndElement();
         }
+        writer.writeEndElement();
 
-        final NormalizedNode<NodeIdentifier, Collection<DataContainerChild<? extends PathArgument, ?>>> body = notification
-                .getBody();
-        try {
-            final DOMResult domResult = writeNormalizedNode(body,
-                    YangInstanceIdentifier.create(body.getIdentifier()), schemaContext);
-            final Node result = doc.importNode(domResult.getNode().getFirstChild(), true);
-            final Element dataElement = doc.createElement("notification");
-            dataElement.appendChild(result);
-            element.appendChild(dataElement);
-        } catch (final IOException e) {
-            LOG.error("Error in writer ", e);
-        } catch (final XMLStreamException e) {
-            LOG.error("Error processing stream", e);
-        }
+        writer.writeEndElement();
     }
 
-    private DOMResult writeNormalizedNode(final NormalizedNode<?, ?> normalized, final YangInstanceIdentifier path,
-            final SchemaContext context) throws IOException, XMLStreamException {
-        final XMLOutputFactory XML_FACTORY = XMLOutputFactory.newFactory();
-        final Document doc = XmlDocumentUtils.getDocument();
-        final DOMResult result = new DOMResult(doc);
-        NormalizedNodeWriter normalizedNodeWriter = null;
-        NormalizedNodeStreamWriter normalizedNodeStreamWriter = null;
-        XMLStreamWriter writer = null;
-
-        try {
-            writer = XML_FACTORY.createXMLStreamWriter(result);
-            normalizedNodeStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(writer, context,
-                    this.getSchemaPath());
-            normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(normalizedNodeStreamWriter);
-
-            normalizedNodeWriter.write(normalized);
-
-            normalizedNodeWriter.flush();
-        } finally {
-            if (normalizedNodeWriter != null) {
-                normalizedNodeWriter.close();
-            }
-            if (normalizedNodeStreamWriter != null) {
-                normalizedNodeStreamWriter.close();
-            }
-            if (writer != null) {
-                writer.close();
-            }
-        }
-
-        return result;
+    private void writeNormalizedNode(final XMLStreamWriter writer, final NormalizedNode<?, ?> normalized,
+            final SchemaContext context) throws IOException {
+        // The XML writer is shared with the enclosing elements, so it is only flushed
+        final NormalizedNodeWriter normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(writer, context, this.getSchemaPath()));
+        normalizedNodeWriter.write(normalized);
+        normalizedNodeWriter.flush();
     }
 
     /**
@@ -410,14 +406,22 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
                 NotificationListenerAdapter.this.subscribers.remove(event.getSubscriber());
                 Notificator.removeNotificationListenerIfNoSubscriberExists(NotificationListenerAdapter.this);
             } else if (event.getType() == EventType.NOTIFY) {
-                for (final Channel subscriber : NotificationListenerAdapter.this.subscribers) {
-                    if (subscriber.isActive()) {
-                        LOG.debug("Data are sent to subscriber {}:", subscriber.remoteAddress());
-                        subscriber.writeAndFlush(new TextWebSocketFrame(event.getData()));
-                    } else {
-                        LOG.debug("Subscriber {} is removed - channel is not active yet.", subscriber.remoteAddress());
-                        NotificationListenerAdapter.this.subscribers.remove(subscriber);
+                // Subscribers share content of a single frame, notifications are never coalesced
+                final TextWebSocketFrame frame = new TextWebSocketFrame(event.getData());
+                try {
+                    for (final Channel subscriber : NotificationListenerAdapter.this.subscribers) {
+                        if (subscriber.isActive()) {
+                            LOG.debug("Data are sent to subscriber {}:", subscriber.remoteAddress());
+                            SubscriberQueue.forChannel(subscriber).offer(frame.duplicate().retain(), null,
+                                    NotificationListenerAdapter.this.queueStatistics);
+                        } else {
+                            LOG.debug("Subscriber {} is removed - channel is not active yet.",
+                                    subscriber.remoteAddress());
+                            NotificationListenerAdapter.this.subscribers.remove(subscriber);
+                        }
                     }
+                } finally {
+                    frame.release();
                 }
             }
         }
@@ -506,10 +510,13 @@ public class NotificationListenerAdapter implements DOMNotificationListener {
      *            - stop-time of getting notification
      * @param filter
      *            - indicate which subset of all possible events are of interest
+     * @throws RestconfDocumentedException
+     *             if the filter is not a valid XPath expression
      */
     public void setQueryParams(final Date start, final Date stop, final String filter) {
+        final EventFilter eventFilter = filter == null ? null : EventFilter.compile(filter);
         this.start = start;
         this.stop = stop;
-        this.filter = filter;
+        this.filter = eventFilter;
     }
 }
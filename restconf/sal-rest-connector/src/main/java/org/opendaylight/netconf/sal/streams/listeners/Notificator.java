@@ -87,6 +87,7 @@ public class Notificator {
         } finally {
             lock.unlock();
         }
+        listener.registerStatistics();
         return listener;
     }
 
@@ -192,6 +193,7 @@ public class Notificator {
         final List<NotificationListenerAdapter> listListeners = new ArrayList<>();
         for (final SchemaPath path : paths) {
             final NotificationListenerAdapter listener = new NotificationListenerAdapter(path, streamName, outputType);
+            listener.registerStatistics();
             listListeners.add(listener);
         }
         try {
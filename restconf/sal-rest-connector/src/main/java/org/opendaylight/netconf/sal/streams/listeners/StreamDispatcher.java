@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Executor} of a single stream. Tasks of a stream are executed one at a time in the order they were submitted,
+ * on a pool of threads shared by all streams, so that the number of threads does not grow with the number of streams.
+ *
+ * <p>
+ * A stream occupies at most one pool thread at a time and yields it after a batch of tasks, so that busy streams do
+ * not starve the others.
+ */
+final class StreamDispatcher implements Executor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamDispatcher.class);
+
+    private static final String THREADS_PROPERTY = "org.opendaylight.restconf.streams.dispatchThreads";
+    private static final int MAX_BATCH = 64;
+
+    private static final Executor SHARED_POOL;
+
+    static {
+        final int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("restconf-stream-dispatch-%d").build());
+        pool.allowCoreThreadTimeOut(true);
+        SHARED_POOL = pool;
+    }
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor pool;
+
+    StreamDispatcher() {
+        this(SHARED_POOL);
+    }
+
+    @VisibleForTesting
+    StreamDispatcher(final Executor pool) {
+        this.pool = Preconditions.checkNotNull(pool);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        this.tasks.add(Preconditions.checkNotNull(task));
+        schedule();
+    }
+
+    private void schedule() {
+        // Pool queue holds at most one drain of every stream
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.pool.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < MAX_BATCH; i++) {
+            final Runnable task = this.tasks.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                LOG.warn("Failed to execute stream task {}", task, e);
+            }
+        }
+
+        this.scheduled.set(false);
+        // Tasks submitted after the last poll did not schedule a drain, since this one was still running
+        if (!this.tasks.isEmpty()) {
+            schedule();
+        }
+    }
+}
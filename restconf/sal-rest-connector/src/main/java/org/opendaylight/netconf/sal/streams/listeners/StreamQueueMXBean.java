@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+/**
+ * Statistics of events of a single stream waiting in queues of its subscribers.
+ */
+public interface StreamQueueMXBean {
+
+    /**
+     * @return number of events waiting in queues of subscribers to be sent
+     */
+    long getQueueDepth();
+
+    /**
+     * @return size in bytes of events waiting in queues of subscribers to be sent
+     */
+    long getQueuedBytes();
+
+    /**
+     * @return number of events, which were dropped instead of being sent to a subscriber
+     */
+    long getDroppedEvents();
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of events of a single stream in {@link SubscriberQueue}s of all its subscribers.
+ */
+final class StreamQueueStatistics implements StreamQueueMXBean {
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    void enqueued(final int bytes) {
+        this.queued.incrementAndGet();
+        this.queuedBytes.addAndGet(bytes);
+    }
+
+    void dequeued(final int bytes) {
+        this.queued.decrementAndGet();
+        this.queuedBytes.addAndGet(-bytes);
+    }
+
+    void dropped(final int bytes) {
+        dequeued(bytes);
+        this.dropped.incrementAndGet();
+    }
+
+    void rejected() {
+        this.dropped.incrementAndGet();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return this.queued.get();
+    }
+
+    @Override
+    public long getQueuedBytes() {
+        return this.queuedBytes.get();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return this.dropped.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamQueueStatistics [queued=" + this.queued + ", queuedBytes=" + this.queuedBytes + ", dropped="
+                + this.dropped + "]";
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registration of per-stream statistics MXBean in the platform MBean server. The bean is registered under
+ * org.opendaylight.restconf:type=&lt;type&gt;,name=&lt;stream name&gt;, replacing a bean left over from a previous
+ * listener of the same stream. Closing a registration which was replaced this way leaves the newer bean registered.
+ */
+final class StreamStatisticsRegistration implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamStatisticsRegistration.class);
+    private static final String DOMAIN = "org.opendaylight.restconf";
+
+    // Current registration of each name, guarded by the class monitor together with the MBean server updates
+    @GuardedBy("StreamStatisticsRegistration.class")
+    private static final Map<ObjectName, StreamStatisticsRegistration> REGISTRATIONS = new HashMap<>();
+
+    private final ObjectName name;
+
+    private StreamStatisticsRegistration(final ObjectName name) {
+        this.name = name;
+    }
+
+    /**
+     * @return registration or null if the bean could not be registered
+     */
+    static synchronized StreamStatisticsRegistration register(final String type, final String streamName,
+            final Object mxBean) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(streamName));
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            REGISTRATIONS.remove(name);
+            server.registerMBean(mxBean, name);
+            final StreamStatisticsRegistration registration = new StreamStatisticsRegistration(name);
+            REGISTRATIONS.put(name, registration);
+            return registration;
+        } catch (final JMException e) {
+            LOG.warn("Unable to register {} statistics of stream {}", type, streamName, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (StreamStatisticsRegistration.class) {
+            if (REGISTRATIONS.get(this.name) != this) {
+                LOG.debug("Statistics {} were registered again meanwhile, keeping them", this.name);
+                return;
+            }
+            REGISTRATIONS.remove(this.name);
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+            } catch (final JMException e) {
+                LOG.debug("Unable to unregister statistics {}", this.name, e);
+            }
+        }
+    }
+}
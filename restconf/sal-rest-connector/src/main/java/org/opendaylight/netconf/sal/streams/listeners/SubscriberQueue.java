@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of frames waiting to be written to a single subscriber, bounded by number and by total size of frames and
+ * shared by all streams the subscriber listens to. Frames are written only while the channel of the subscriber is
+ * writable and they are flushed once per run on the event loop of the channel, so a slow subscriber cannot make
+ * outbound buffers of the channel grow without bounds.
+ *
+ * <p>
+ * When the queue is full, {@link OverflowPolicy} decides which frames are dropped. An empty queue accepts a frame of
+ * any size, so that events larger than the limit are still delivered. Capacity of queues, their limit in bytes and
+ * the policy are set by system properties {@value #CAPACITY_PROPERTY}, {@value #MAX_BYTES_PROPERTY} and
+ * {@value #POLICY_PROPERTY}.
+ */
+public final class SubscriberQueue {
+
+    /**
+     * Handling of a frame offered to a full queue.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The oldest queued frame is dropped.
+         */
+        DROP_OLDEST("drop-oldest"),
+        /**
+         * The oldest queued frame of the same stream and with the same paths is dropped, so that the subscriber
+         * receives the latest state of the data. Falls back to {@link #DROP_OLDEST} if there is no such frame.
+         */
+        COALESCE("coalesce"),
+        /**
+         * The subscriber is disconnected and all its queued frames are dropped.
+         */
+        DISCONNECT("disconnect");
+
+        private final String name;
+
+        OverflowPolicy(final String name) {
+            this.name = name;
+        }
+
+        static OverflowPolicy forName(final String name) {
+            for (final OverflowPolicy policy : values()) {
+                if (policy.name.equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            LOG.warn("Unknown overflow policy {} of subscriber queues, using {}", name, DROP_OLDEST.name);
+            return DROP_OLDEST;
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriberQueue.class);
+
+    private static final String CAPACITY_PROPERTY = "org.opendaylight.restconf.streams.subscriberQueueCapacity";
+    private static final String MAX_BYTES_PROPERTY = "org.opendaylight.restconf.streams.subscriberQueueMaxBytes";
+    private static final String POLICY_PROPERTY = "org.opendaylight.restconf.streams.overflowPolicy";
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private static final int CAPACITY = Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY);
+    private static final long MAX_BYTES = Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+    private static final OverflowPolicy POLICY =
+            OverflowPolicy.forName(System.getProperty(POLICY_PROPERTY, OverflowPolicy.DROP_OLDEST.name));
+
+    private static final ConcurrentMap<Channel, SubscriberQueue> QUEUES = new ConcurrentHashMap<>();
+
+    private final Channel channel;
+    private final int capacity;
+    private final long maxBytes;
+    private final OverflowPolicy policy;
+
+    @GuardedBy("this")
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long queuedBytes;
+    @GuardedBy("this")
+    private boolean flushScheduled;
+    @GuardedBy("this")
+    private boolean closed;
+
+    @VisibleForTesting
+    SubscriberQueue(final Channel channel, final int capacity, final OverflowPolicy policy) {
+        this(channel, capacity, DEFAULT_MAX_BYTES, policy);
+    }
+
+    @VisibleForTesting
+    SubscriberQueue(final Channel channel, final int capacity, final long maxBytes, final OverflowPolicy policy) {
+        Preconditions.checkArgument(capacity > 0, "Capacity of subscriber queue must be positive, was %s", capacity);
+        Preconditions.checkArgument(maxBytes > 0, "Byte limit of subscriber queue must be positive, was %s", maxBytes);
+        this.channel = Preconditions.checkNotNull(channel);
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.policy = Preconditions.checkNotNull(policy);
+    }
+
+    /**
+     * Get queue of a subscriber, it is created on first use and discarded when the channel is closed.
+     *
+     * @param channel
+     *            - channel of the subscriber
+     * @return queue of the subscriber
+     */
+    static SubscriberQueue forChannel(final Channel channel) {
+        final SubscriberQueue existing = QUEUES.get(channel);
+        if (existing != null) {
+            return existing;
+        }
+
+        final SubscriberQueue created = new SubscriberQueue(channel, CAPACITY, MAX_BYTES, POLICY);
+        final SubscriberQueue raced = QUEUES.putIfAbsent(channel, created);
+        if (raced != null) {
+            return raced;
+        }
+        channel.closeFuture().addListener(future -> {
+            QUEUES.remove(channel, created);
+            created.close();
+        });
+        return created;
+    }
+
+    /**
+     * Resume writing of queued frames to a subscriber. Called when writability of its channel changes.
+     *
+     * @param channel
+     *            - channel of the subscriber
+     */
+    public static void writabilityChanged(final Channel channel) {
+        final SubscriberQueue queue = QUEUES.get(channel);
+        if (queue != null) {
+            queue.resume();
+        }
+    }
+
+    /**
+     * Queue frame to be written to the subscriber. The queue takes over the frame and releases it once it is
+     * written or dropped.
+     *
+     * @param frame
+     *            - frame to write
+     * @param key
+     *            - paths of data in the frame, frames with the same key may be coalesced, null if they may not
+     * @param statistics
+     *            - counters of the stream the frame belongs to
+     */
+    void offer(final TextWebSocketFrame frame, final String key, final StreamQueueStatistics statistics) {
+        final boolean disconnect;
+        final boolean schedule;
+        synchronized (this) {
+            if (this.closed) {
+                frame.release();
+                statistics.rejected();
+                return;
+            }
+
+            final Entry added = new Entry(frame, key, statistics);
+            disconnect = !makeRoom(added);
+            if (disconnect) {
+                frame.release();
+                statistics.rejected();
+                closeLocked();
+                schedule = false;
+            } else {
+                this.entries.add(added);
+                this.queuedBytes += added.bytes;
+                statistics.enqueued(added.bytes);
+                schedule = !this.flushScheduled;
+                this.flushScheduled = true;
+            }
+        }
+
+        if (disconnect) {
+            LOG.warn("Subscriber {} does not keep up with events, disconnecting it", this.channel.remoteAddress());
+            this.channel.close();
+        } else if (schedule) {
+            this.channel.eventLoop().execute(this::flush);
+        }
+    }
+
+    /**
+     * Drop queued frames according to the policy until the added frame fits into the queue.
+     *
+     * @return false if the subscriber is to be disconnected instead
+     */
+    @GuardedBy("this")
+    private boolean makeRoom(final Entry added) {
+        while (!this.entries.isEmpty() && ((this.entries.size() >= this.capacity)
+                || (this.queuedBytes + added.bytes > this.maxBytes))) {
+            switch (this.policy) {
+                case DISCONNECT:
+                    return false;
+                case COALESCE:
+                    dropLocked(coalesced(added));
+                    break;
+                case DROP_OLDEST:
+                default:
+                    dropLocked(this.entries.peek());
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the oldest queued frame, which is superseded by the added frame, or the oldest frame if there is none.
+     */
+    @GuardedBy("this")
+    private Entry coalesced(final Entry added) {
+        if (added.key != null) {
+            for (final Entry entry : this.entries) {
+                if ((entry.statistics == added.statistics) && added.key.equals(entry.key)) {
+                    return entry;
+                }
+            }
+        }
+        return this.entries.peek();
+    }
+
+    @GuardedBy("this")
+    private void dropLocked(final Entry entry) {
+        this.entries.remove(entry);
+        this.queuedBytes -= entry.bytes;
+        entry.drop();
+    }
+
+    /**
+     * Write queued frames while the channel is writable and flush them at once. Executed on the event loop of the
+     * channel, a channel which is not writable resumes it once it becomes writable again.
+     */
+    private void flush() {
+        boolean written = false;
+        try {
+            while (true) {
+                final Entry entry;
+                synchronized (this) {
+                    if (this.entries.isEmpty() || !this.channel.isWritable()) {
+                        this.flushScheduled = false;
+                        return;
+                    }
+                    entry = this.entries.poll();
+                    this.queuedBytes -= entry.bytes;
+                }
+                entry.statistics.dequeued(entry.bytes);
+                this.channel.write(entry.frame);
+                written = true;
+            }
+        } finally {
+            if (written) {
+                this.channel.flush();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void resume() {
+        synchronized (this) {
+            if (this.flushScheduled || this.entries.isEmpty() || !this.channel.isWritable()) {
+                return;
+            }
+            this.flushScheduled = true;
+        }
+        this.channel.eventLoop().execute(this::flush);
+    }
+
+    /**
+     * Drop all queued frames, frames offered later are dropped immediately.
+     */
+    synchronized void close() {
+        closeLocked();
+    }
+
+    @GuardedBy("this")
+    private void closeLocked() {
+        this.closed = true;
+        for (Entry entry = this.entries.poll(); entry != null; entry = this.entries.poll()) {
+            entry.drop();
+        }
+        this.queuedBytes = 0;
+    }
+
+    /**
+     * Get number of queued frames.
+     *
+     * @return queue depth
+     */
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Get total size of queued frames.
+     *
+     * @return queued bytes
+     */
+    synchronized long queuedBytes() {
+        return this.queuedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriberQueue [channel=" + this.channel + ", capacity=" + this.capacity + ", maxBytes="
+                + this.maxBytes + ", policy=" + this.policy + "]";
+    }
+
+    private static final class Entry {
+        private final TextWebSocketFrame frame;
+        private final String key;
+        private final StreamQueueStatistics statistics;
+        private final int bytes;
+
+        Entry(final TextWebSocketFrame frame, final String key, final StreamQueueStatistics statistics) {
+            this.frame = frame;
+            this.key = key;
+            this.statistics = Preconditions.checkNotNull(statistics);
+            this.bytes = frame.content().readableBytes();
+        }
+
+        void drop() {
+            this.frame.release();
+            this.statistics.dropped(this.bytes);
+        }
+    }
+}
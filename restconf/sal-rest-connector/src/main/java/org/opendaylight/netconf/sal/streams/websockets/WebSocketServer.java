@@ -12,9 +12,8 @@ import com.google.common.base.Preconditions;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import org.opendaylight.netconf.sal.streams.listeners.Notificator;
+import org.opendaylight.netconf.util.NettyTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,13 +28,15 @@ public class WebSocketServer implements Runnable {
     private static WebSocketServer instance = null;
 
     private final int port;
+    private final NettyTransport transport;
 
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
 
 
-    private WebSocketServer(final int port) {
+    private WebSocketServer(final int port, final NettyTransport transport) {
         this.port = port;
+        this.transport = transport;
     }
 
     /**
@@ -45,10 +46,21 @@ public class WebSocketServer implements Runnable {
      * @return instance of {@link WebSocketServer}
      */
     public static WebSocketServer createInstance(final int port) {
+        return createInstance(port, NettyTransport.DEFAULT);
+    }
+
+    /**
+     * Create singleton instance of {@link WebSocketServer}
+     *
+     * @param port TCP port used for this server
+     * @param transport socket options of web socket connections
+     * @return instance of {@link WebSocketServer}
+     */
+    public static WebSocketServer createInstance(final int port, final NettyTransport transport) {
         Preconditions.checkState(instance == null, "createInstance() has already been called");
         Preconditions.checkArgument(port >= 1024, "Privileged port (below 1024) is not allowed");
 
-        instance = new WebSocketServer(port);
+        instance = new WebSocketServer(port, Preconditions.checkNotNull(transport));
         return instance;
     }
 
@@ -81,15 +93,16 @@ public class WebSocketServer implements Runnable {
 
     @Override
     public void run() {
-        bossGroup = new NioEventLoopGroup();
-        workerGroup = new NioEventLoopGroup();
+        bossGroup = NettyTransport.newEventLoopGroup(0);
+        workerGroup = NettyTransport.newEventLoopGroup(0);
         try {
             final ServerBootstrap serverBootstrap = new ServerBootstrap();
-            serverBootstrap.group(bossGroup, workerGroup).channel(NioServerSocketChannel.class)
-                    .childHandler(new WebSocketServerInitializer());
+            serverBootstrap.group(bossGroup, workerGroup)
+                    .channel(NettyTransport.serverSocketChannelClass(bossGroup, workerGroup))
+                    .childHandler(new WebSocketServerInitializer(transport));
 
             final Channel channel = serverBootstrap.bind(port).sync().channel();
-            LOG.info("Web socket server started at port {}.", port);
+            LOG.info("Web socket server started at port {} with {}.", port, transport);
 
             channel.closeFuture().sync();
         } catch (final InterruptedException e) {
@@ -40,6 +40,7 @@ import org.opendaylight.netconf.sal.restconf.impl.RestconfImpl;
 import org.opendaylight.netconf.sal.streams.listeners.ListenerAdapter;
 import org.opendaylight.netconf.sal.streams.listeners.NotificationListenerAdapter;
 import org.opendaylight.netconf.sal.streams.listeners.Notificator;
+import org.opendaylight.netconf.sal.streams.listeners.SubscriberQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -179,6 +180,13 @@ public class WebSocketServerHandler extends SimpleChannelInboundHandler<Object>
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        // Frames queued for a slow subscriber are written once its outbound buffer drains
+        SubscriberQueue.writabilityChanged(ctx.channel());
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) throws Exception {
         if ((cause instanceof java.nio.channels.ClosedChannelException) == false) {
@@ -8,11 +8,13 @@
 
 package org.opendaylight.netconf.sal.streams.websockets;
 
+import com.google.common.base.Preconditions;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import org.opendaylight.netconf.util.NettyTransport;
 
 /**
  * {@link WebSocketServerInitializer} is used to setup the {@link ChannelPipeline} of a {@link io.netty.channel.Channel}
@@ -20,8 +22,22 @@ import io.netty.handler.codec.http.HttpServerCodec;
  */
 public class WebSocketServerInitializer extends ChannelInitializer<SocketChannel> {
 
+    private final NettyTransport transport;
+
+    public WebSocketServerInitializer() {
+        this(NettyTransport.DEFAULT);
+    }
+
+    /**
+     * @param transport socket options applied to initialized channels
+     */
+    public WebSocketServerInitializer(final NettyTransport transport) {
+        this.transport = Preconditions.checkNotNull(transport);
+    }
+
     @Override
     protected void initChannel(final SocketChannel ch) throws Exception {
+        transport.configure(ch);
         ChannelPipeline pipeline = ch.pipeline();
         pipeline.addLast("codec-http", new HttpServerCodec());
         pipeline.addLast("aggregator", new HttpObjectAggregator(65536));
@@ -170,8 +170,9 @@ public final class SubscribeToStreamUtil {
         }
 
         for (final NotificationListenerAdapter listener : listeners) {
-            registerToListenNotification(listener, notifiServiceHandler);
+            // Invalid filter is rejected before the listener is registered
             listener.setQueryParams(start, stop, filter);
+            registerToListenNotification(listener, notifiServiceHandler);
         }
 
         final UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder();
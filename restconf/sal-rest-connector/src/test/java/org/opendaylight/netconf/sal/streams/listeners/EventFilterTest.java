@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamWriter;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfDocumentedException;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfError.ErrorTag;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfError.ErrorType;
+import org.w3c.dom.Document;
+
+public class EventFilterTest {
+
+    private static final String NS = "listener:adapter:test";
+
+    @Test
+    public void testInvalidFilter() {
+        try {
+            EventFilter.compile("/notification[");
+            fail("Invalid filter should be rejected");
+        } catch (final RestconfDocumentedException e) {
+            assertEquals(ErrorType.PROTOCOL, e.getErrors().get(0).getErrorType());
+            assertEquals(ErrorTag.INVALID_VALUE, e.getErrors().get(0).getErrorTag());
+        }
+    }
+
+    @Test
+    public void testFilterSelectsLocalNames() throws Exception {
+        final Document event = writeEvent();
+        assertTrue(EventFilter.compile("/notification/cont/lf='value'").matches(event));
+        assertTrue(EventFilter.compile("/notification/cont/*[name()='x:lf']").matches(event));
+    }
+
+    @Test
+    public void testFilterRejectsEvent() throws Exception {
+        final Document event = writeEvent();
+        assertFalse(EventFilter.compile("/notification/cont/lf='other'").matches(event));
+        assertFalse(EventFilter.compile("/notification/lst").matches(event));
+    }
+
+    private static Document writeEvent() throws Exception {
+        final Document document = ListenerAdapter.createDocument();
+        final XMLStreamWriter writer = EventFilter.createEventWriter(document);
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "notification", "notification:ns");
+        writer.writeDefaultNamespace("notification:ns");
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "cont", NS);
+        writer.writeDefaultNamespace(NS);
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, "lf", NS);
+        writer.writeCharacters("value");
+        writer.writeEndElement();
+        writer.writeStartElement("x", "lf", NS);
+        writer.writeNamespace("x", NS);
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.close();
+        return document;
+    }
+}
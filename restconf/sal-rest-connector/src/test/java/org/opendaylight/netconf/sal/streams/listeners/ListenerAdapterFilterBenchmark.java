@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
+import org.opendaylight.controller.sal.restconf.impl.test.TestUtils;
+import org.opendaylight.netconf.sal.restconf.impl.ControllerContext;
+import org.opendaylight.yang.gen.v1.urn.sal.restconf.event.subscription.rev140708.NotificationOutputTypeGrouping.NotificationOutputType;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures data change events per second sent by a {@link ListenerAdapter} to a subscriber, without a filter and
+ * with a filter matching or rejecting every event. Not executed as part of the build, run {@link #main(String[])}
+ * from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ListenerAdapterFilterBenchmark {
+
+    private static final QName CONT = QName.create("listener:adapter:test", "2016-12-01", "cont");
+    private static final QName LF = QName.create(CONT, "lf");
+    private static final YangInstanceIdentifier LF_PATH = YangInstanceIdentifier.builder().node(CONT).node(LF).build();
+
+    @Param({"none", "matching", "rejecting"})
+    private String filter;
+
+    @Param({"XML", "JSON"})
+    private NotificationOutputType outputType;
+
+    private ListenerAdapter listener;
+    private EmbeddedChannel subscriber;
+    private AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change;
+
+    @Setup
+    public void setUp() throws Exception {
+        ControllerContext.getInstance().setGlobalSchema(TestUtils.loadSchemaContext("/listener-adapter"));
+
+        // Events are sent on the benchmark thread
+        listener = new ListenerAdapter(LF_PATH, "benchmark-stream", outputType, MoreExecutors.directExecutor());
+        switch (filter) {
+            case "matching":
+                listener.setQueryParams(null, null, "/notification/data-changed-notification/data-change-event"
+                        + "/data/lf='value'");
+                break;
+            case "rejecting":
+                listener.setQueryParams(null, null, "/notification/data-changed-notification/data-change-event"
+                        + "/data/lf='other'");
+                break;
+            default:
+                break;
+        }
+        subscriber = new EmbeddedChannel();
+        listener.addSubscriber(subscriber);
+
+        // Mocks record every invocation, which would be measured too
+        change = new CreatedDataEvent(ImmutableMap.<YangInstanceIdentifier, NormalizedNode<?, ?>>of(
+                LF_PATH, ImmutableNodes.leafNode(LF, "value")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriber.finish();
+        for (Object frame = subscriber.readOutbound(); frame != null; frame = subscriber.readOutbound()) {
+            ReferenceCountUtil.release(frame);
+        }
+    }
+
+    @Benchmark
+    public Object sendEvent() {
+        listener.onDataChanged(change);
+        subscriber.runPendingTasks();
+        final Object frame = subscriber.readOutbound();
+        ReferenceCountUtil.release(frame);
+        return frame;
+    }
+
+    private static final class CreatedDataEvent
+            implements AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> {
+        private final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> created;
+
+        CreatedDataEvent(final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> created) {
+            this.created = created;
+        }
+
+        @Override
+        public Map<YangInstanceIdentifier, NormalizedNode<?, ?>> getCreatedData() {
+            return created;
+        }
+
+        @Override
+        public Map<YangInstanceIdentifier, NormalizedNode<?, ?>> getUpdatedData() {
+            return ImmutableMap.of();
+        }
+
+        @Override
+        public Set<YangInstanceIdentifier> getRemovedPaths() {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public Map<YangInstanceIdentifier, NormalizedNode<?, ?>> getOriginalData() {
+            return ImmutableMap.of();
+        }
+
+        @Override
+        public NormalizedNode<?, ?> getOriginalSubtree() {
+            return null;
+        }
+
+        @Override
+        public NormalizedNode<?, ?> getUpdatedSubtree() {
+            return null;
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(ListenerAdapterFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
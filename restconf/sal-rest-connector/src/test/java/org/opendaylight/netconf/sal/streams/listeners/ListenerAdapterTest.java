@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
+import org.opendaylight.controller.sal.restconf.impl.test.TestUtils;
+import org.opendaylight.netconf.sal.restconf.impl.ControllerContext;
+import org.opendaylight.netconf.sal.restconf.impl.RestconfDocumentedException;
+import org.opendaylight.yang.gen.v1.urn.sal.restconf.event.subscription.rev140708.NotificationOutputTypeGrouping.NotificationOutputType;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class ListenerAdapterTest {
+
+    private static final QName CONT = QName.create("listener:adapter:test", "2016-12-01", "cont");
+    private static final QName LF = QName.create(CONT, "lf");
+    private static final YangInstanceIdentifier LF_PATH = YangInstanceIdentifier.builder().node(CONT).node(LF).build();
+
+    @Before
+    public void setUp() throws Exception {
+        ControllerContext.getInstance().setGlobalSchema(TestUtils.loadSchemaContext("/listener-adapter"));
+    }
+
+    @After
+    public void tearDown() {
+        Notificator.removeAllListeners();
+    }
+
+    @Test
+    public void testXmlSharedBySubscribers() throws Exception {
+        final TextWebSocketFrame[] frames = sendChange(NotificationOutputType.XML);
+
+        final String text = frames[0].text();
+        assertThat(text, CoreMatchers.containsString("<eventTime>"));
+        assertThat(text, CoreMatchers.containsString(
+                "<path>/listener-adapter-test:cont/listener-adapter-test:lf</path>"));
+        assertThat(text, CoreMatchers.containsString("<operation>created</operation>"));
+        assertThat(text, CoreMatchers.containsString("<lf xmlns=\"listener:adapter:test\">value</lf>"));
+
+        // Frames share content encoded once
+        assertSame(frames[0].content().unwrap(), frames[1].content().unwrap());
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        final String text = sendChange(NotificationOutputType.JSON)[0].text();
+        assertThat(text, CoreMatchers.containsString("\"operation\":\"created\""));
+        assertThat(text, CoreMatchers.containsString(
+                "\"path\":\"/listener-adapter-test:cont/listener-adapter-test:lf\""));
+        assertThat(text, CoreMatchers.containsString("\"listener-adapter-test:lf\":\"value\""));
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        final String matching = sendChange(NotificationOutputType.XML,
+                "/notification/data-changed-notification/data-change-event/data/lf='value'")[0].text();
+        assertThat(matching, CoreMatchers.containsString("<lf xmlns=\"listener:adapter:test\">value</lf>"));
+    }
+
+    @Test
+    public void testFilteredXmlWrittenOnce() throws Exception {
+        // Written together with the filter document, the output must be the same as without a filter
+        final String filtered = sendChange(NotificationOutputType.XML,
+                "/notification/data-changed-notification/data-change-event/data/lf='value'")[0].text();
+        final String unfiltered = sendChange(NotificationOutputType.XML)[0].text();
+        assertEquals(withoutEventTime(unfiltered), withoutEventTime(filtered));
+    }
+
+    @Test
+    public void testJsonFilter() throws Exception {
+        final String matching = sendChange(NotificationOutputType.JSON,
+                "/notification/data-changed-notification/data-change-event/data/lf='value'")[0].text();
+        assertThat(matching, CoreMatchers.containsString("\"listener-adapter-test:lf\":\"value\""));
+    }
+
+    @Test
+    public void testFilterRejectsEvent() throws Exception {
+        final ListenerAdapter listener = createListener(NotificationOutputType.XML);
+        listener.setQueryParams(null, null,
+                "/notification/data-changed-notification/data-change-event/data/lf='other'");
+        final EmbeddedChannel subscriber = new EmbeddedChannel();
+        listener.addSubscriber(subscriber);
+        listener.onDataChanged(createChange());
+
+        subscriber.runPendingTasks();
+        assertNull(subscriber.readOutbound());
+        assertEquals(0, listener.getQueueDepth());
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockOthers() throws Exception {
+        final ListenerAdapter listener = createListener(NotificationOutputType.XML);
+        final EmbeddedChannel slow = new EmbeddedChannel();
+        final EmbeddedChannel fast = new EmbeddedChannel();
+        listener.addSubscriber(slow);
+        listener.addSubscriber(fast);
+        slow.config().setWriteBufferLowWaterMark(0);
+        slow.config().setWriteBufferHighWaterMark(1);
+        slow.write(Unpooled.wrappedBuffer(new byte[16]));
+        assertFalse(slow.isWritable());
+
+        listener.onDataChanged(createChange());
+        slow.runPendingTasks();
+        fast.runPendingTasks();
+        assertThat(fast.readOutbound(), CoreMatchers.instanceOf(TextWebSocketFrame.class));
+        assertEquals(1, listener.getQueueDepth());
+
+        // Frame is written once the outbound buffer of the slow subscriber drains
+        slow.flush();
+        assertThat(slow.readOutbound(), CoreMatchers.instanceOf(ByteBuf.class));
+        SubscriberQueue.writabilityChanged(slow);
+        slow.runPendingTasks();
+        assertThat(slow.readOutbound(), CoreMatchers.instanceOf(TextWebSocketFrame.class));
+        assertEquals(0, listener.getQueueDepth());
+        assertEquals(0, listener.getDroppedEvents());
+    }
+
+    @Test(expected = RestconfDocumentedException.class)
+    public void testInvalidFilter() {
+        final ListenerAdapter listener = Notificator.createListener(LF_PATH, "listener-adapter-invalid",
+                NotificationOutputType.XML);
+        listener.setQueryParams(null, null, "/notification[");
+    }
+
+    private static TextWebSocketFrame[] sendChange(final NotificationOutputType outputType) {
+        return sendChange(outputType, null);
+    }
+
+    private static TextWebSocketFrame[] sendChange(final NotificationOutputType outputType, final String filter) {
+        final ListenerAdapter listener = createListener(outputType);
+        listener.setQueryParams(null, null, filter);
+
+        final EmbeddedChannel first = new EmbeddedChannel();
+        final EmbeddedChannel second = new EmbeddedChannel();
+        listener.addSubscriber(first);
+        listener.addSubscriber(second);
+
+        listener.onDataChanged(createChange());
+
+        return new TextWebSocketFrame[] { sentFrame(first), sentFrame(second) };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ListenerAdapter createListener(final NotificationOutputType outputType) {
+        // Events are dispatched on the test thread
+        final ListenerAdapter listener = new ListenerAdapter(LF_PATH, "listener-adapter-test", outputType,
+                MoreExecutors.directExecutor());
+        listener.setRegistration(mock(ListenerRegistration.class));
+        return listener;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> createChange() {
+        final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change =
+                mock(AsyncDataChangeEvent.class);
+        when(change.getCreatedData()).thenReturn(ImmutableMap.<YangInstanceIdentifier, NormalizedNode<?, ?>>of(
+                LF_PATH, ImmutableNodes.leafNode(LF, "value")));
+        return change;
+    }
+
+    private static String withoutEventTime(final String xml) {
+        return xml.replaceAll("<eventTime>[^<]*</eventTime>", "");
+    }
+
+    private static TextWebSocketFrame sentFrame(final EmbeddedChannel subscriber) {
+        // Queued frames are flushed on the event loop of the subscriber
+        subscriber.runPendingTasks();
+        final Object frame = subscriber.readOutbound();
+        assertThat(frame, CoreMatchers.instanceOf(TextWebSocketFrame.class));
+        return (TextWebSocketFrame) frame;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamDispatcherTest {
+
+    private static final int TASKS = 10000;
+
+    private ExecutorService pool;
+
+    @Before
+    public void setUp() {
+        this.pool = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void testTasksOfStreamExecutedInOrder() throws Exception {
+        final List<StreamDispatcher> dispatchers = new ArrayList<>();
+        final List<List<Integer>> executed = new ArrayList<>();
+        final List<AtomicInteger> running = new ArrayList<>();
+        final AtomicBoolean concurrent = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(3 * TASKS);
+        for (int i = 0; i < 3; i++) {
+            dispatchers.add(new StreamDispatcher(this.pool));
+            executed.add(new ArrayList<>());
+            running.add(new AtomicInteger());
+        }
+
+        for (int i = 0; i < TASKS; i++) {
+            for (int j = 0; j < dispatchers.size(); j++) {
+                final List<Integer> streamExecuted = executed.get(j);
+                final AtomicInteger streamRunning = running.get(j);
+                final int task = i;
+                dispatchers.get(j).execute(() -> {
+                    if (streamRunning.incrementAndGet() != 1) {
+                        concurrent.set(true);
+                    }
+                    streamExecuted.add(task);
+                    streamRunning.decrementAndGet();
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertFalse(concurrent.get());
+        for (final List<Integer> streamExecuted : executed) {
+            assertEquals(TASKS, streamExecuted.size());
+            for (int i = 0; i < TASKS; i++) {
+                assertEquals(i, streamExecuted.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testFailedTaskDoesNotStopStream() throws Exception {
+        final StreamDispatcher dispatcher = new StreamDispatcher(this.pool);
+        final CountDownLatch done = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            throw new IllegalStateException("Failed task");
+        });
+        dispatcher.execute(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+}
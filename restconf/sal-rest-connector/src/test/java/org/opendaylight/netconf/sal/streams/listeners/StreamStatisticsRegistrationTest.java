@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+public class StreamStatisticsRegistrationTest {
+
+    private static final String STREAM = "data-change-event-subscription/registration-test";
+
+    @Test
+    public void testStaleCloseKeepsNewerRegistration() throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name =
+                new ObjectName("org.opendaylight.restconf:type=DataChangeStream,name=" + ObjectName.quote(STREAM));
+
+        final StreamStatisticsRegistration first =
+                StreamStatisticsRegistration.register("DataChangeStream", STREAM, new StreamQueueStatistics());
+        assertNotNull(first);
+        final StreamQueueStatistics current = new StreamQueueStatistics();
+        current.enqueued(5);
+        current.rejected();
+        final StreamStatisticsRegistration second =
+                StreamStatisticsRegistration.register("DataChangeStream", STREAM, current);
+        assertNotNull(second);
+
+        // Closing the replaced registration must not unregister the bean of the newer one
+        first.close();
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "QueueDepth"));
+        assertEquals(5L, server.getAttribute(name, "QueuedBytes"));
+        assertEquals(1L, server.getAttribute(name, "DroppedEvents"));
+
+        second.close();
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.streams.listeners.SubscriberQueue.OverflowPolicy;
+
+public class SubscriberQueueTest {
+
+    private EmbeddedChannel channel;
+    private StreamQueueStatistics statistics;
+
+    @Before
+    public void setUp() {
+        this.channel = new EmbeddedChannel();
+        this.statistics = new StreamQueueStatistics();
+    }
+
+    @Test
+    public void testDropOldest() {
+        final SubscriberQueue queue = new SubscriberQueue(this.channel, 2, OverflowPolicy.DROP_OLDEST);
+        final TextWebSocketFrame first = new TextWebSocketFrame("first");
+        queue.offer(first, "/a", this.statistics);
+        queue.offer(new TextWebSocketFrame("second"), "/b", this.statistics);
+        queue.offer(new TextWebSocketFrame("third"), "/c", this.statistics);
+
+        assertEquals(0, first.refCnt());
+        assertEquals(2, this.statistics.getQueueDepth());
+        assertEquals(1, this.statistics.getDroppedEvents());
+        assertEquals(Arrays.asList("second", "third"), writtenFrames());
+        assertEquals(0, this.statistics.getQueueDepth());
+    }
+
+    @Test
+    public void testCoalesce() {
+        final SubscriberQueue queue = new SubscriberQueue(this.channel, 2, OverflowPolicy.COALESCE);
+        queue.offer(new TextWebSocketFrame("a1"), "/a", this.statistics);
+        queue.offer(new TextWebSocketFrame("b1"), "/b", this.statistics);
+        queue.offer(new TextWebSocketFrame("b2"), "/b", this.statistics);
+        // Frames of other streams are not coalesced
+        queue.offer(new TextWebSocketFrame("other"), "/a", new StreamQueueStatistics());
+
+        assertEquals(2, this.statistics.getDroppedEvents());
+        assertEquals(Arrays.asList("b2", "other"), writtenFrames());
+    }
+
+    @Test
+    public void testDisconnect() {
+        final SubscriberQueue queue = new SubscriberQueue(this.channel, 2, OverflowPolicy.DISCONNECT);
+        queue.offer(new TextWebSocketFrame("first"), null, this.statistics);
+        queue.offer(new TextWebSocketFrame("second"), null, this.statistics);
+        queue.offer(new TextWebSocketFrame("third"), null, this.statistics);
+
+        assertFalse(this.channel.isActive());
+        assertEquals(0, queue.size());
+        assertEquals(0, this.statistics.getQueueDepth());
+        assertEquals(3, this.statistics.getDroppedEvents());
+
+        queue.offer(new TextWebSocketFrame("fourth"), null, this.statistics);
+        assertEquals(4, this.statistics.getDroppedEvents());
+    }
+
+    @Test
+    public void testWritesWhileWritable() {
+        final SubscriberQueue queue = new SubscriberQueue(this.channel, 16, OverflowPolicy.DROP_OLDEST);
+        this.channel.config().setWriteBufferLowWaterMark(0);
+        this.channel.config().setWriteBufferHighWaterMark(1);
+
+        queue.offer(new TextWebSocketFrame("first"), null, this.statistics);
+        queue.offer(new TextWebSocketFrame("second"), null, this.statistics);
+        this.channel.runPendingTasks();
+
+        // Channel is not writable after the first frame, until it is flushed
+        assertEquals(1, queue.size());
+        assertEquals("first", ((TextWebSocketFrame) this.channel.readOutbound()).text());
+        queue.resume();
+        this.channel.runPendingTasks();
+        assertEquals(0, queue.size());
+        assertEquals("second", ((TextWebSocketFrame) this.channel.readOutbound()).text());
+    }
+
+    @Test
+    public void testByteLimit() {
+        // Frames of 5 bytes, the third one does not fit next to two queued frames
+        final SubscriberQueue queue = new SubscriberQueue(this.channel, 16, 12, OverflowPolicy.DROP_OLDEST);
+        queue.offer(new TextWebSocketFrame("first"), null, this.statistics);
+        queue.offer(new TextWebSocketFrame("secnd"), null, this.statistics);
+        assertEquals(10, queue.queuedBytes());
+        queue.offer(new TextWebSocketFrame("third"), null, this.statistics);
+
+        assertEquals(2, queue.size());
+        assertEquals(10, queue.queuedBytes());
+        assertEquals(10, this.statistics.getQueuedBytes());
+        assertEquals(1, this.statistics.getDroppedEvents());
+
+        // Frame larger than the limit replaces all queued frames, so that it is still delivered
+        queue.offer(new TextWebSocketFrame("larger than limit"), null, this.statistics);
+        assertEquals(1, queue.size());
+        assertEquals(3, this.statistics.getDroppedEvents());
+        assertEquals(Arrays.asList("larger than limit"), writtenFrames());
+        assertEquals(0, queue.queuedBytes());
+        assertEquals(0, this.statistics.getQueuedBytes());
+    }
+
+    @Test
+    public void testByteLimitDisconnect() {
+        final SubscriberQueue queue = new SubscriberQueue(this.channel, 16, 8, OverflowPolicy.DISCONNECT);
+        queue.offer(new TextWebSocketFrame("first"), null, this.statistics);
+        queue.offer(new TextWebSocketFrame("second"), null, this.statistics);
+
+        assertFalse(this.channel.isActive());
+        assertEquals(0, queue.queuedBytes());
+        assertEquals(0, this.statistics.getQueuedBytes());
+        assertEquals(2, this.statistics.getDroppedEvents());
+    }
+
+    private List<String> writtenFrames() {
+        this.channel.runPendingTasks();
+        final List<String> written = new ArrayList<>();
+        for (Object frame = this.channel.readOutbound(); frame != null; frame = this.channel.readOutbound()) {
+            written.add(((TextWebSocketFrame) frame).text());
+            ((TextWebSocketFrame) frame).release();
+        }
+        assertNull(this.channel.readOutbound());
+        return written;
+    }
+}